@@ -0,0 +1,310 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BinaryOperator;
+
+/**
+ * A point-to-point shortest path engine which implements the A* search.
+ * Vertices are settled in order of their distance from the source plus a
+ * heuristic estimate of their distance to the target, and the search
+ * stops as soon as the target is settled.
+ *
+ * The heuristic must never overestimate the remaining distance. If it is
+ * also consistent (h(u) <= w(u, v) + h(v) for every edge) every vertex is
+ * settled at most once; an admissible but inconsistent heuristic is still
+ * answered correctly, at the cost of re-opening vertices.
+ *
+ * The adjacency list searches return the same Vertex objects as
+ * ShortestPath.dijkstraInt and ShortestPath.dijkstraDouble, so that
+ * dijkstraInt(graph, src).get(dst) and searchInt(graph, src, dst, h) can
+ * be used interchangeably.
+ */
+public class AStar {
+    private final CsrGraph graph;
+    private final double[] dist;
+    private final int[] prev;
+    private final IndexedMinHeap open;
+    private final int[] touched;
+    private final boolean[] isTouched;
+    private int touchedCount;
+
+    /**
+     * A heuristic over vertex labels.
+     *
+     * @param <T> the label type
+     */
+    public interface Heuristic<T> {
+        /**
+         * Estimates the distance from a vertex to the target.
+         *
+         * @param vertex the vertex
+         * @param target the target of the search
+         * @return a lower bound on the distance from vertex to target
+         */
+        double estimate(T vertex, T target);
+    }
+
+    /**
+     * A heuristic over vertex indices.
+     */
+    public interface IndexHeuristic {
+        /**
+         * Estimates the distance from a vertex to the target.
+         *
+         * @param vertex the vertex
+         * @param target the target of the search
+         * @return a lower bound on the distance from vertex to target
+         */
+        double estimate(int vertex, int target);
+    }
+
+    /**
+     * Constructs an engine for repeated queries against a compressed
+     * sparse row graph with non-negative weights. It is not safe to use
+     * from several threads at once.
+     *
+     * @param graph the compressed sparse row graph
+     *
+     * @exception NullPointerException if graph is null
+     */
+    public AStar(CsrGraph graph) {
+        if (graph == null) {
+            throw new NullPointerException("graph cannot be null");
+        }
+        int n = graph.vertexCount();
+        this.graph = graph;
+        this.dist = new double[n];
+        this.prev = new int[n];
+        this.open = new IndexedMinHeap(n);
+        this.touched = new int[n];
+        this.isTouched = new boolean[n];
+        Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        Arrays.fill(prev, ShortestPathTree.NO_VERTEX);
+    }
+
+    /**
+     * Finds the shortest path from src to dst.
+     *
+     * @param src the index of the source vertex
+     * @param dst the index of the target vertex
+     * @param heuristic the heuristic
+     * @return the distance and the path from src to dst
+     *
+     * @exception NullPointerException if heuristic is null
+     * @exception IllegalArgumentException if src or dst is invalid
+     */
+    public PathResult query(int src, int dst, IndexHeuristic heuristic) {
+        int n = graph.vertexCount();
+        if (heuristic == null) {
+            throw new NullPointerException("heuristic cannot be null");
+        } else if (src < 0 || src >= n || dst < 0 || dst >= n) {
+            throw new IllegalArgumentException("source and target nodes must be valid indices");
+        }
+
+        reset();
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        touch(src);
+        dist[src] = 0.0;
+        open.insert(src, heuristic.estimate(src, dst));
+
+        int settled = 0;
+        while (!open.isEmpty()) {
+            int u = open.poll();
+            settled++;
+            if (u == dst) {
+                return new PathResult(src, dst, dist[dst], buildPath(dst), settled);
+            }
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                int v = targets[e];
+                double d = dist[u] + graph.getWeight(e);
+                if (d < dist[v]) {
+                    touch(v);
+                    dist[v] = d;
+                    prev[v] = u;
+                    open.insertOrDecrease(v, d + heuristic.estimate(v, dst));
+                }
+            }
+        }
+        return PathResult.unreachable(src, dst, settled);
+    }
+
+    /**
+     * Finds the shortest path from src to dst of a compressed sparse row
+     * graph. For repeated queries against the same graph, reuse an AStar
+     * engine instead.
+     *
+     * @param graph the compressed sparse row graph
+     * @param src the index of the source vertex
+     * @param dst the index of the target vertex
+     * @param heuristic the heuristic
+     * @return the distance and the path from src to dst
+     *
+     * @exception NullPointerException if graph or heuristic is null
+     * @exception IllegalArgumentException if src or dst is invalid
+     */
+    public static PathResult search(CsrGraph graph, int src, int dst, IndexHeuristic heuristic) {
+        return new AStar(graph).query(src, dst, heuristic);
+    }
+
+    /**
+     * Performs the A* search on an adjacency list with non-Integer weights.
+     *
+     * @param <T> the label type
+     * @param graph the adjacency list
+     * @param src the label of the source vertex
+     * @param dst the label of the target vertex
+     * @param heuristic the heuristic
+     * @return the vertex object of the target, which contains the shortest
+     * distance and the path to the source node, with a distance of
+     * Double.MAX_VALUE if the target is unreachable
+     *
+     * @exception NullPointerException if graph or heuristic is null
+     * @exception IllegalArgumentException if src or dst is invalid, or an edge leads to a label which is not in graph
+     */
+    public static <T> ShortestPath.Vertex<T, Double> searchDouble(Map<T, Map<T, Double>> graph, T src, T dst, Heuristic<T> heuristic) {
+        return AStar.<T, Double>search(graph, src, dst, heuristic, 0.0, Double.MAX_VALUE, Double::sum);
+    }
+
+    /**
+     * Performs the A* search on an adjacency list with Integer weights.
+     *
+     * @param <T> the label type
+     * @param graph the adjacency list
+     * @param src the label of the source vertex
+     * @param dst the label of the target vertex
+     * @param heuristic the heuristic
+     * @return the vertex object of the target, which contains the shortest
+     * distance and the path to the source node, with a distance of
+     * Integer.MAX_VALUE if the target is unreachable
+     *
+     * @exception NullPointerException if graph or heuristic is null
+     * @exception IllegalArgumentException if src or dst is invalid, or an edge leads to a label which is not in graph
+     */
+    public static <T> ShortestPath.Vertex<T, Integer> searchInt(Map<T, Map<T, Integer>> graph, T src, T dst, Heuristic<T> heuristic) {
+        return AStar.<T, Integer>search(graph, src, dst, heuristic, 0, Integer.MAX_VALUE, Integer::sum);
+    }
+
+    /**
+     * Performs the A* search on an adjacency list. Labels are given heap
+     * ids as they are discovered, so the cost of a query does not depend
+     * on the size of the unexplored part of the graph.
+     *
+     * @param <T> the label type
+     * @param <W> the type of the edge weights
+     * @param graph the adjacency list
+     * @param src the label of the source vertex
+     * @param dst the label of the target vertex
+     * @param heuristic the heuristic
+     * @param defaultVal the value that represents a non-edge and the distance of the source
+     * @param maxVal the distance of an unreachable target
+     * @param sum the sum function
+     * @return the vertex object of the target
+     */
+    private static <T, W extends Number & Comparable<W>> ShortestPath.Vertex<T, W> search(Map<T, Map<T, W>> graph, T src, T dst,
+            Heuristic<T> heuristic, W defaultVal, W maxVal, BinaryOperator<W> sum) {
+        if (graph == null || heuristic == null) {
+            throw new NullPointerException("parameters cannot be null");
+        } else if (!graph.containsKey(src) || !graph.containsKey(dst)) {
+            throw new IllegalArgumentException("source and target nodes must be valid nodes");
+        }
+
+        HashMap<T, Integer> ids = new HashMap<>();
+        ArrayList<ShortestPath.Vertex<T, W>> byId = new ArrayList<>();
+        IndexedMinHeap open = new IndexedMinHeap(graph.size());
+
+        ShortestPath.Vertex<T, W> start = new ShortestPath.Vertex<>(src);
+        start.setDistance(defaultVal);
+        ids.put(src, 0);
+        byId.add(start);
+        open.insert(0, heuristic.estimate(src, dst));
+
+        while (!open.isEmpty()) {
+            ShortestPath.Vertex<T, W> u = byId.get(open.poll());
+            if (u.getLabel().equals(dst)) {
+                return u;
+            }
+            Map<T, W> edges = graph.get(u.getLabel());
+            if (edges == null) {
+                continue;
+            }
+            for (Map.Entry<T, W> edge : edges.entrySet()) {
+                if (edge.getValue().equals(defaultVal)) {
+                    continue;
+                }
+                W d = sum.apply(u.getDistance(), edge.getValue());
+                Integer id = ids.get(edge.getKey());
+                ShortestPath.Vertex<T, W> v;
+                if (id == null) {
+                    if (!graph.containsKey(edge.getKey())) {
+                        throw new IllegalArgumentException("graph must contain every vertex it has an edge to");
+                    }
+                    id = byId.size();
+                    ids.put(edge.getKey(), id);
+                    v = new ShortestPath.Vertex<>(edge.getKey());
+                    byId.add(v);
+                } else {
+                    v = byId.get(id);
+                    if (d.compareTo(v.getDistance()) >= 0) {
+                        continue;
+                    }
+                }
+                v.setDistance(d);
+                v.setPrevious(u);
+                open.insertOrDecrease(id, d.doubleValue() + heuristic.estimate(v.getLabel(), dst));
+            }
+        }
+
+        ShortestPath.Vertex<T, W> unreachable = new ShortestPath.Vertex<>(dst);
+        unreachable.setDistance(maxVal);
+        return unreachable;
+    }
+
+    /**
+     * A private helper method to follow the predecessors back from the
+     * target.
+     *
+     * @param dst the target vertex
+     * @return the vertices from source to target
+     */
+    private int[] buildPath(int dst) {
+        int length = 0;
+        for (int u = dst; u != ShortestPathTree.NO_VERTEX; u = prev[u]) {
+            length++;
+        }
+        int[] path = new int[length];
+        for (int u = dst; u != ShortestPathTree.NO_VERTEX; u = prev[u]) {
+            path[--length] = u;
+        }
+        return path;
+    }
+
+    /**
+     * A private helper method to remember a vertex whose state has to be
+     * reset before the next query.
+     *
+     * @param v the vertex
+     */
+    private void touch(int v) {
+        if (!isTouched[v]) {
+            isTouched[v] = true;
+            touched[touchedCount++] = v;
+        }
+    }
+
+    /**
+     * A private helper method to restore the state of every vertex which
+     * the previous query touched.
+     */
+    private void reset() {
+        for (int i = 0; i < touchedCount; i++) {
+            int v = touched[i];
+            dist[v] = Double.POSITIVE_INFINITY;
+            prev[v] = ShortestPathTree.NO_VERTEX;
+            isTouched[v] = false;
+        }
+        touchedCount = 0;
+        open.clear();
+    }
+}
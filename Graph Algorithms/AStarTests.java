@@ -0,0 +1,173 @@
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * A Test Harness for the AStar class.
+ */
+public class AStarTests {
+    static boolean VERBOSE = true;
+    static int numTests = 0;
+    static int failedTests = 0;
+
+    static final int SIZE = 400;
+
+    /**
+     * The main method runs the tests.
+     *
+     * @param args Not used
+     */
+    public static void main(String[] args) {
+        numTests = 0;
+        failedTests = 0;
+
+        adjListTests();
+        csrTests();
+        unreachableTests();
+
+        System.out.println("Total tests: " + numTests);
+        System.out.println("Failed tests: " + failedTests);
+    }
+
+    private static void printTest(Object expected, Object actual, String test) {
+        if (!expected.equals(actual)) {
+            if (VERBOSE) {
+                System.out.println("FAILED! " + test + " test.");
+                System.out.println("\texpected: " + expected.toString());
+                System.out.println("\tactual: " + actual.toString());
+            }
+            failedTests++;
+        }
+        numTests++;
+    }
+
+    /**
+     * Tests for searchDouble and searchInt against dijkstraDouble and dijkstraInt
+     */
+    private static void adjListTests() {
+        Random rand = new Random(5);
+        double[][] coords = randomPoints(rand);
+        Map<String, Map<String, Double>> graph = geometricGraph(rand, coords);
+        AStar.Heuristic<String> euclidean = (v, t) -> distance(coords, id(v), id(t));
+
+        for (int q = 0; q < 20; q++) {
+            String src = label(rand.nextInt(SIZE));
+            String dst = label(rand.nextInt(SIZE));
+            ShortestPath.Vertex<String, Double> expected = ShortestPath.dijkstraDouble(graph, src).get(dst);
+            ShortestPath.Vertex<String, Double> actual = AStar.searchDouble(graph, src, dst, euclidean);
+            printTest(round(expected.getDistance()), round(actual.getDistance()), "searchDouble distance " + src + " -> " + dst);
+        }
+
+        Map<String, Map<String, Integer>> intGraph = new HashMap<>();
+        for (String key : graph.keySet()) {
+            Map<String, Integer> edges = new HashMap<>();
+            for (Map.Entry<String, Double> edge : graph.get(key).entrySet()) {
+                edges.put(edge.getKey(), (int) Math.ceil(edge.getValue()));
+            }
+            intGraph.put(key, edges);
+        }
+        for (int q = 0; q < 20; q++) {
+            String src = label(rand.nextInt(SIZE));
+            String dst = label(rand.nextInt(SIZE));
+            ShortestPath.Vertex<String, Integer> expected = ShortestPath.dijkstraInt(intGraph, src).get(dst);
+            ShortestPath.Vertex<String, Integer> actual = AStar.searchInt(intGraph, src, dst, euclidean);
+            printTest(expected.getDistance(), actual.getDistance(), "searchInt distance " + src + " -> " + dst);
+            printTest(dst, actual.getLabel(), "searchInt label");
+        }
+    }
+
+    /**
+     * Tests for AStar.query on a CsrGraph
+     */
+    private static void csrTests() {
+        Random rand = new Random(6);
+        double[][] coords = randomPoints(rand);
+        Map<String, Map<String, Double>> graph = geometricGraph(rand, coords);
+        String[] labels = new String[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            labels[i] = label(i);
+        }
+        CsrGraph csr = CsrGraph.fromAdjListDouble(graph, labels);
+        AStar engine = new AStar(csr);
+
+        for (int q = 0; q < 20; q++) {
+            int src = rand.nextInt(SIZE);
+            int dst = rand.nextInt(SIZE);
+            PathResult expected = ShortestPath.shortestPath(csr, src, dst);
+            PathResult actual = engine.query(src, dst, (v, t) -> distance(coords, v, t));
+            printTest(round(expected.getDistance()), round(actual.getDistance()), "query distance " + src + " -> " + dst);
+            printTest(src, actual.getPath()[0], "query path start");
+            printTest(dst, actual.getPath()[actual.getPathLength() - 1], "query path end");
+            printTest(true, actual.getSettledCount() <= ShortestPath.dijkstraDoubleTree(csr, src).size(), "query settled count");
+        }
+
+        PathResult zero = engine.query(3, 3, (v, t) -> 0.0);
+        printTest(0.0, zero.getDistance(), "query source is target");
+    }
+
+    /**
+     * Tests for unreachable targets
+     */
+    private static void unreachableTests() {
+        Map<String, Map<String, Integer>> graph = new HashMap<>();
+        graph.put("A", new HashMap<>());
+        graph.put("B", new HashMap<>());
+        graph.get("A").put("B", 2);
+        printTest(Integer.MAX_VALUE, AStar.searchInt(graph, "B", "A", (v, t) -> 0.0).getDistance(), "searchInt unreachable");
+        printTest(2, AStar.searchInt(graph, "A", "B", (v, t) -> 0.0).getDistance(), "searchInt reachable");
+
+        CsrGraph csr = CsrGraph.fromEdges(2, new int[] { 0 }, new int[] { 1 }, new int[] { 2 });
+        printTest(false, AStar.search(csr, 1, 0, (v, t) -> 0.0).isReachable(), "search unreachable");
+    }
+
+    /**
+     * Places SIZE vertices uniformly in the unit square, scaled by 100.
+     */
+    private static double[][] randomPoints(Random rand) {
+        double[][] coords = new double[SIZE][2];
+        for (int i = 0; i < SIZE; i++) {
+            coords[i][0] = 100 * rand.nextDouble();
+            coords[i][1] = 100 * rand.nextDouble();
+        }
+        return coords;
+    }
+
+    /**
+     * Joins every vertex to a few random vertices and to its successor,
+     * with weights of at least the Euclidean distance so that the
+     * Euclidean heuristic is consistent.
+     */
+    private static Map<String, Map<String, Double>> geometricGraph(Random rand, double[][] coords) {
+        Map<String, Map<String, Double>> graph = new HashMap<>();
+        for (int i = 0; i < SIZE; i++) {
+            Map<String, Double> edges = new HashMap<>();
+            int[] targets = { (i + 1) % SIZE, rand.nextInt(SIZE), rand.nextInt(SIZE) };
+            for (int j : targets) {
+                if (j != i) {
+                    edges.put(label(j), distance(coords, i, j) * (1 + rand.nextDouble()));
+                }
+            }
+            graph.put(label(i), edges);
+        }
+        return graph;
+    }
+
+    private static double distance(double[][] coords, int u, int v) {
+        return Math.hypot(coords[u][0] - coords[v][0], coords[u][1] - coords[v][1]);
+    }
+
+    /**
+     * Rounds a distance so that paths summed in a different order compare equal.
+     */
+    private static double round(double value) {
+        return Math.round(value * 1e6) / 1e6;
+    }
+
+    private static String label(int i) {
+        return "V" + i;
+    }
+
+    private static int id(String label) {
+        return Integer.parseInt(label.substring(1));
+    }
+}
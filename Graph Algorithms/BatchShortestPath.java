@@ -0,0 +1,282 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs Dijkstra's Algorithm from many sources at once on a bounded
+ * executor, and collects the distances to a set of targets in a
+ * DistanceTable.
+ *
+ * Each worker allocates its distance array and heap once and claims
+ * sources until there are none left, resetting only the vertices which
+ * the previous search touched, so a batch of S sources allocates W
+ * workspaces rather than S. A search stops as soon as all of the targets
+ * are settled.
+ */
+public class BatchShortestPath {
+    private final CsrGraph graph;
+    private final int[] sources;
+    private final int[] targets;
+    private final boolean[] isTarget;
+    private final int distinctTargets;
+    private final double[] table;
+    private final int[] intTable;
+    private final AtomicInteger nextSource = new AtomicInteger();
+
+    /**
+     * Constructs the state of a single batch.
+     *
+     * @param graph the graph
+     * @param sources the sources
+     * @param targets the targets
+     */
+    private BatchShortestPath(CsrGraph graph, int[] sources, int[] targets) {
+        this.graph = graph;
+        this.sources = sources;
+        this.targets = targets;
+        this.isTarget = new boolean[graph.vertexCount()];
+        int distinct = 0;
+        for (int t : targets) {
+            if (!isTarget[t]) {
+                isTarget[t] = true;
+                distinct++;
+            }
+        }
+        this.distinctTargets = distinct;
+        int cells = sources.length * targets.length;
+        this.table = graph.isIntWeighted() ? null : new double[cells];
+        this.intTable = graph.isIntWeighted() ? new int[cells] : null;
+    }
+
+    /**
+     * Computes the distances from every source to every vertex of an
+     * adjacency matrix with int weights, using one worker per processor.
+     *
+     * @param graph an adjacency matrix, where 0 is no edge
+     * @param sources the source vertices
+     * @return an int weighted table with a row per source and a column per vertex
+     *
+     * @exception NullPointerException if any parameters are null
+     * @exception IllegalArgumentException if a source is invalid
+     */
+    public static DistanceTable run(int[][] graph, int[] sources) {
+        if (graph == null) {
+            throw new NullPointerException("graph cannot be null");
+        }
+        return run(CsrGraph.fromMatrix(graph), sources);
+    }
+
+    /**
+     * Computes the distances from every source to every vertex of an
+     * adjacency matrix with double weights, using one worker per processor.
+     *
+     * @param graph an adjacency matrix, where 0 is no edge
+     * @param sources the source vertices
+     * @return a double weighted table with a row per source and a column per vertex
+     *
+     * @exception NullPointerException if any parameters are null
+     * @exception IllegalArgumentException if a source is invalid
+     */
+    public static DistanceTable run(double[][] graph, int[] sources) {
+        if (graph == null) {
+            throw new NullPointerException("graph cannot be null");
+        }
+        return run(CsrGraph.fromMatrix(graph), sources);
+    }
+
+    /**
+     * Computes the distances from every source to every vertex, using one
+     * worker per processor.
+     *
+     * @param graph the compressed sparse row graph, with non-negative weights
+     * @param sources the source vertices
+     * @return a table with a row per source and a column per vertex
+     *
+     * @exception NullPointerException if any parameters are null
+     * @exception IllegalArgumentException if a source is invalid
+     */
+    public static DistanceTable run(CsrGraph graph, int[] sources) {
+        if (graph == null) {
+            throw new NullPointerException("parameters cannot be null");
+        }
+        int[] all = new int[graph.vertexCount()];
+        for (int v = 0; v < all.length; v++) {
+            all[v] = v;
+        }
+        return run(graph, sources, all);
+    }
+
+    /**
+     * Computes the distances from every source to every target, using one
+     * worker per processor.
+     *
+     * @param graph the compressed sparse row graph, with non-negative weights
+     * @param sources the source vertices
+     * @param targets the target vertices
+     * @return a table with a row per source and a column per target
+     *
+     * @exception NullPointerException if any parameters are null
+     * @exception IllegalArgumentException if a source or target is invalid
+     */
+    public static DistanceTable run(CsrGraph graph, int[] sources, int[] targets) {
+        int workers = Runtime.getRuntime().availableProcessors();
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+        try {
+            return run(graph, sources, targets, executor, workers);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Computes the distances from every source to every target on the
+     * given executor, with at most the given number of searches running
+     * at once.
+     *
+     * @param graph the compressed sparse row graph, with non-negative weights
+     * @param sources the source vertices
+     * @param targets the target vertices
+     * @param executor the executor which runs the workers
+     * @param workers the number of workers, each with its own workspace
+     * @return a table with a row per source and a column per target
+     *
+     * @exception NullPointerException if any parameters are null
+     * @exception IllegalArgumentException if a source or target is invalid, or workers is not positive
+     * @exception IllegalStateException if the batch is interrupted
+     */
+    public static DistanceTable run(CsrGraph graph, int[] sources, int[] targets, ExecutorService executor, int workers) {
+        if (graph == null || sources == null || targets == null || executor == null) {
+            throw new NullPointerException("parameters cannot be null");
+        } else if (workers < 1) {
+            throw new IllegalArgumentException("number of workers must be positive");
+        } else if ((long) sources.length * targets.length > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("distance table is too large");
+        }
+        checkVertices(graph, sources, "source nodes must be valid indices");
+        checkVertices(graph, targets, "target nodes must be valid indices");
+
+        BatchShortestPath batch = new BatchShortestPath(graph, sources.clone(), targets.clone());
+        ArrayList<Future<?>> futures = new ArrayList<>();
+        for (int w = 0; w < Math.min(workers, sources.length); w++) {
+            futures.add(executor.submit(batch::work));
+        }
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            for (Future<?> future : futures) {
+                future.cancel(true);
+            }
+            throw new IllegalStateException("batch was interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+
+        if (batch.intTable != null) {
+            return new DistanceTable(batch.sources, batch.targets, batch.intTable);
+        }
+        return new DistanceTable(batch.sources, batch.targets, batch.table);
+    }
+
+    /**
+     * A private helper method to check that every vertex is a valid index.
+     *
+     * @param graph the graph
+     * @param vertices the vertices
+     * @param message the message of the exception
+     */
+    private static void checkVertices(CsrGraph graph, int[] vertices, String message) {
+        for (int v : vertices) {
+            if (v < 0 || v >= graph.vertexCount()) {
+                throw new IllegalArgumentException(message);
+            }
+        }
+    }
+
+    /**
+     * A private helper method run by each worker, which claims sources
+     * until there are none left and writes their rows of the table.
+     */
+    private void work() {
+        Workspace workspace = new Workspace(graph.vertexCount());
+        for (int row = nextSource.getAndIncrement(); row < sources.length; row = nextSource.getAndIncrement()) {
+            if (targets.length == 0) {
+                continue;
+            }
+            workspace.search(sources[row]);
+            int base = row * targets.length;
+            for (int column = 0; column < targets.length; column++) {
+                double d = workspace.dist[targets[column]];
+                if (intTable != null) {
+                    intTable[base + column] = d == Double.POSITIVE_INFINITY ? Integer.MAX_VALUE : (int) d;
+                } else {
+                    table[base + column] = d;
+                }
+            }
+        }
+    }
+
+    /**
+     * The distance array and heap of one worker, reused between its
+     * searches.
+     */
+    private class Workspace {
+        private final double[] dist;
+        private final IndexedMinHeap unvisited;
+        private final int[] touched;
+        private int touchedCount = 0;
+
+        Workspace(int n) {
+            this.dist = new double[n];
+            this.unvisited = new IndexedMinHeap(n);
+            this.touched = new int[n];
+            Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        }
+
+        /**
+         * Runs Dijkstra's Algorithm from src until every target is settled.
+         *
+         * @param src the source vertex
+         */
+        void search(int src) {
+            for (int i = 0; i < touchedCount; i++) {
+                dist[touched[i]] = Double.POSITIVE_INFINITY;
+            }
+            touchedCount = 0;
+            unvisited.clear();
+
+            int[] offsets = graph.getOffsets();
+            int[] heads = graph.getTargets();
+            dist[src] = 0.0;
+            touched[touchedCount++] = src;
+            unvisited.insert(src, 0.0);
+            int remaining = distinctTargets;
+            while (!unvisited.isEmpty()) {
+                int u = unvisited.poll();
+                if (isTarget[u] && --remaining == 0) {
+                    break;
+                }
+                for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                    int v = heads[e];
+                    double d = dist[u] + graph.getWeight(e);
+                    if (d < dist[v]) {
+                        if (dist[v] == Double.POSITIVE_INFINITY) {
+                            touched[touchedCount++] = v;
+                        }
+                        dist[v] = d;
+                        unvisited.insertOrDecrease(v, d);
+                    }
+                }
+            }
+        }
+    }
+}
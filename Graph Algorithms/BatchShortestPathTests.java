@@ -0,0 +1,145 @@
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * A Test Harness for the BatchShortestPath and DistanceTable classes.
+ */
+public class BatchShortestPathTests {
+    static boolean VERBOSE = true;
+    static int numTests = 0;
+    static int failedTests = 0;
+
+    /**
+     * The main method runs the tests.
+     *
+     * @param args Not used
+     */
+    public static void main(String[] args) {
+        numTests = 0;
+        failedTests = 0;
+
+        allTargetsTests();
+        targetSubsetTests();
+        matrixTests();
+        exceptionTests();
+
+        System.out.println("Total tests: " + numTests);
+        System.out.println("Failed tests: " + failedTests);
+    }
+
+    private static void printTest(Object expected, Object actual, String test) {
+        if (!expected.equals(actual)) {
+            if (VERBOSE) {
+                System.out.println("FAILED! " + test + " test.");
+                System.out.println("\texpected: " + expected.toString());
+                System.out.println("\tactual: " + actual.toString());
+            }
+            failedTests++;
+        }
+        numTests++;
+    }
+
+    /**
+     * Tests for run(CsrGraph graph, int[] sources) against dijkstraIntTree
+     */
+    private static void allTargetsTests() {
+        CsrGraph graph = GraphExperiments.randomGrid(40, 41);
+        Random rand = new Random(42);
+        int[] sources = new int[60];
+        for (int i = 0; i < sources.length; i++) {
+            sources[i] = rand.nextInt(graph.vertexCount());
+        }
+        sources[1] = sources[0];
+
+        DistanceTable table = BatchShortestPath.run(graph, sources);
+        printTest(sources.length, table.rowCount(), "row count");
+        printTest(graph.vertexCount(), table.columnCount(), "column count");
+        printTest(true, table.isIntWeighted(), "int weighted");
+        int wrong = 0;
+        for (int row = 0; row < sources.length; row++) {
+            ShortestPathTree tree = ShortestPath.dijkstraIntTree(graph, sources[row]);
+            for (int column = 0; column < table.columnCount(); column++) {
+                if (tree.getIntDistance(table.getTarget(column)) != table.getIntDistance(row, column)) {
+                    wrong++;
+                }
+            }
+        }
+        printTest(0, wrong, "all targets distances");
+        printTest(sources[7], table.getSource(7), "getSource");
+    }
+
+    /**
+     * Tests for a subset of targets with a caller supplied executor, where
+     * the searches stop once the targets are settled
+     */
+    private static void targetSubsetTests() {
+        CsrGraph graph = ShortestPathTests.randomGraph(new Random(43), 3000, 3);
+        int[] sources = { 0, 17, 2999, 1500, 42 };
+        int[] targets = { 5, 5, 100, 0, 2500, 42 };
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        DistanceTable table = BatchShortestPath.run(graph, sources, targets, executor, 2);
+        executor.shutdown();
+
+        printTest(false, table.isIntWeighted(), "double weighted");
+        int wrong = 0;
+        for (int row = 0; row < sources.length; row++) {
+            ShortestPathTree tree = ShortestPath.dijkstraDoubleTree(graph, sources[row]);
+            for (int column = 0; column < targets.length; column++) {
+                if (tree.getDistance(targets[column]) != table.getDistance(row, column)) {
+                    wrong++;
+                }
+            }
+        }
+        printTest(0, wrong, "target subset distances");
+        printTest(0.0, table.getDistance(4, 5), "source is target");
+        printTest("IllegalStateException", thrown(() -> table.getIntDistance(0, 0)), "getIntDistance of double table");
+
+        DistanceTable empty = BatchShortestPath.run(graph, sources, new int[0]);
+        printTest(0, empty.columnCount(), "no targets");
+    }
+
+    /**
+     * Tests for the adjacency matrix overloads, including unreachable vertices
+     */
+    private static void matrixTests() {
+        int[][] graph = {
+            { 0, 3, 0 },
+            { 0, 0, 4 },
+            { 0, 0, 0 }
+        };
+        DistanceTable table = BatchShortestPath.run(graph, new int[] { 0, 2 });
+        printTest(7, table.getIntDistance(0, 2), "int matrix distance");
+        printTest(false, table.isReachable(1, 0), "int matrix unreachable");
+        printTest(Integer.MAX_VALUE, table.getIntDistance(1, 1), "int matrix unreachable distance");
+        printTest(Double.POSITIVE_INFINITY, table.getDistance(1, 1), "int matrix unreachable double distance");
+
+        double[][] doubles = {
+            { 0, 0.5 },
+            { 0.25, 0 }
+        };
+        DistanceTable doubleTable = BatchShortestPath.run(doubles, new int[] { 1 });
+        printTest(0.0, doubleTable.getDistance(0, 1), "double matrix source distance");
+        printTest(0.25, doubleTable.getDistance(0, 0), "double matrix reverse distance");
+    }
+
+    /**
+     * Tests for the exceptions of run
+     */
+    private static void exceptionTests() {
+        CsrGraph graph = CsrGraph.fromEdges(2, new int[] { 0 }, new int[] { 1 }, new int[] { 2 });
+        printTest("NullPointerException", thrown(() -> BatchShortestPath.run(graph, null)), "run null sources");
+        printTest("NullPointerException", thrown(() -> BatchShortestPath.run((CsrGraph) null, new int[] { 0 })), "run null graph");
+        printTest("IllegalArgumentException", thrown(() -> BatchShortestPath.run(graph, new int[] { 2 })), "run invalid source");
+        printTest("IllegalArgumentException", thrown(() -> BatchShortestPath.run(graph, new int[] { 0 }, new int[] { -1 })), "run invalid target");
+    }
+
+    private static String thrown(Runnable action) {
+        try {
+            action.run();
+            return "none";
+        } catch (RuntimeException e) {
+            return e.getClass().getSimpleName();
+        }
+    }
+}
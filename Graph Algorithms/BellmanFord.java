@@ -0,0 +1,379 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Single-source shortest paths for graphs with negative weights, which
+ * Dijkstra's Algorithm cannot handle.
+ *
+ * The sequential search is the queue-based Bellman-Ford of the Shortest
+ * Path Faster Algorithm (SPFA): only vertices whose distance dropped are
+ * queued, and each vertex is in the queue at most once at a time. The
+ * number of edges on the path of each tentative distance is tracked, and
+ * a path of V edges must repeat a vertex, which can only happen if the
+ * repeated cycle is negative.
+ *
+ * The parallel search runs Bellman-Ford in rounds over the compressed
+ * sparse row arrays: the vertices whose distance dropped in one round
+ * relax their edges in parallel in the next, lowering distances with
+ * compare-and-set. Without a negative cycle every distance is final after
+ * V - 1 rounds, so a distance which still drops in round V proves one.
+ *
+ * Only negative cycles reachable from the source are detected; both
+ * searches throw an IllegalArgumentException when they find one.
+ */
+public class BellmanFord {
+    /** Frontiers smaller than this are relaxed on the calling thread. */
+    private final static int PARALLEL_THRESHOLD = 1024;
+
+    private final CsrGraph graph;
+    private final int[] offsets;
+    private final int[] targets;
+    private final AtomicLongArray dist;
+    private final AtomicIntegerArray changedIn;
+    private final int[] changed;
+    private final AtomicInteger changedCount = new AtomicInteger();
+    private int round = 0;
+
+    /**
+     * Constructs the state of a single parallel search.
+     *
+     * @param graph the graph
+     */
+    private BellmanFord(CsrGraph graph) {
+        this.graph = graph;
+        this.offsets = graph.getOffsets();
+        this.targets = graph.getTargets();
+        int n = graph.vertexCount();
+        this.dist = new AtomicLongArray(n);
+        this.changedIn = new AtomicIntegerArray(n);
+        this.changed = new int[n];
+        long inf = Double.doubleToLongBits(Double.POSITIVE_INFINITY);
+        for (int v = 0; v < n; v++) {
+            dist.set(v, inf);
+            changedIn.set(v, -1);
+        }
+    }
+
+    /**
+     * Computes the shortest path tree of a compressed sparse row graph
+     * with the sequential queue-based search.
+     *
+     * @param graph the compressed sparse row graph, which may have negative weights
+     * @param src the index of the source vertex
+     * @return the shortest path tree, int weighted if the graph is
+     *
+     * @exception NullPointerException if graph is null
+     * @exception IllegalArgumentException if src is invalid or a negative cycle is reachable from src
+     */
+    public static ShortestPathTree run(CsrGraph graph, int src) {
+        if (graph == null) {
+            throw new NullPointerException("graph cannot be null");
+        } else if (src < 0 || src >= graph.vertexCount()) {
+            throw new IllegalArgumentException("source node must be a valid index");
+        }
+
+        int n = graph.vertexCount();
+        double[] dist = new double[n];
+        int[] prev = new int[n];
+        int[] queue = new int[n];
+        boolean[] queued = new boolean[n];
+        Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        dist[src] = 0.0;
+        queue[0] = src;
+        queued[src] = true;
+        BellmanFord.search(graph, dist, prev, queue, queued, 1);
+        return ShortestPath.toTree(src, dist, prev, graph.isIntWeighted());
+    }
+
+    /**
+     * Computes the shortest path tree of a compressed sparse row graph
+     * with the parallel round-based search.
+     *
+     * @param graph the compressed sparse row graph, which may have negative weights
+     * @param src the index of the source vertex
+     * @param pool the pool which relaxes the edges of large frontiers
+     * @return the shortest path tree, int weighted if the graph is
+     *
+     * @exception NullPointerException if graph or pool is null
+     * @exception IllegalArgumentException if src is invalid or a negative cycle is reachable from src
+     */
+    public static ShortestPathTree run(CsrGraph graph, int src, ForkJoinPool pool) {
+        if (graph == null || pool == null) {
+            throw new NullPointerException("parameters cannot be null");
+        } else if (src < 0 || src >= graph.vertexCount()) {
+            throw new IllegalArgumentException("source node must be a valid index");
+        }
+
+        BellmanFord search = new BellmanFord(graph);
+        search.search(src, pool);
+        double[] dist = new double[graph.vertexCount()];
+        for (int v = 0; v < dist.length; v++) {
+            dist[v] = search.get(v);
+        }
+        return ShortestPathTree.fromDistances(graph, src, dist);
+    }
+
+    /**
+     * Performs Bellman-Ford on an adjacency matrix with double weights,
+     * returning the same vertices as ShortestPath.dijkstraDouble.
+     *
+     * @param graph an adjacency matrix, where 0 is no edge
+     * @param src the index of the source vertex
+     * @return an ArrayList containing vertex objects which contain
+     * the shortest distance and the path to the source node
+     *
+     * @exception NullPointerException if graph is null
+     * @exception IllegalArgumentException if src is invalid or a negative cycle is reachable from src
+     */
+    public static ArrayList<ShortestPath.Vertex<Integer, Double>> searchDouble(double[][] graph, int src) {
+        return run(CsrGraph.fromMatrix(graph), src).toDoubleVertices();
+    }
+
+    /**
+     * Performs Bellman-Ford on an adjacency matrix with int weights,
+     * returning the same vertices as ShortestPath.dijkstraInt.
+     *
+     * @param graph an adjacency matrix, where 0 is no edge
+     * @param src the index of the source vertex
+     * @return an ArrayList containing vertex objects which contain
+     * the shortest distance and the path to the source node
+     *
+     * @exception NullPointerException if graph is null
+     * @exception IllegalArgumentException if src is invalid or a negative cycle is reachable from src
+     */
+    public static ArrayList<ShortestPath.Vertex<Integer, Integer>> searchInt(int[][] graph, int src) {
+        return run(CsrGraph.fromMatrix(graph), src).toIntVertices();
+    }
+
+    /**
+     * Performs Bellman-Ford on an adjacency list with double weights,
+     * returning the same vertices as ShortestPath.dijkstraDouble.
+     *
+     * @param <T> the label type
+     * @param graph the adjacency list, where a weight of 0 is no edge
+     * @param src the label of the source vertex
+     * @return a Map that maps labels to vertex objects which contain
+     * the shortest distance and the path to the source node
+     *
+     * @exception NullPointerException if graph is null
+     * @exception IllegalArgumentException if src is invalid or a negative cycle is reachable from src
+     */
+    public static <T> Map<T, ShortestPath.Vertex<T, Double>> searchDouble(Map<T, Map<T, Double>> graph, T src) {
+        if (graph == null) {
+            throw new NullPointerException("graph cannot be null");
+        } else if (!graph.containsKey(src)) {
+            throw new IllegalArgumentException("source node must be a valid node");
+        }
+        LabeledGraph<T> labeled = LabeledGraph.fromAdjListDouble(graph);
+        ShortestPathTree tree = run(labeled.getGraph(), labeled.getIndex().indexOf(src));
+        return ShortestPath.toVertexMap(labeled.getIndex(), tree, v -> tree.isReachable(v) ? tree.getDistance(v) : Double.MAX_VALUE);
+    }
+
+    /**
+     * Performs Bellman-Ford on an adjacency list with int weights,
+     * returning the same vertices as ShortestPath.dijkstraInt.
+     *
+     * @param <T> the label type
+     * @param graph the adjacency list, where a weight of 0 is no edge
+     * @param src the label of the source vertex
+     * @return a Map that maps labels to vertex objects which contain
+     * the shortest distance and the path to the source node
+     *
+     * @exception NullPointerException if graph is null
+     * @exception IllegalArgumentException if src is invalid or a negative cycle is reachable from src
+     */
+    public static <T> Map<T, ShortestPath.Vertex<T, Integer>> searchInt(Map<T, Map<T, Integer>> graph, T src) {
+        if (graph == null) {
+            throw new NullPointerException("graph cannot be null");
+        } else if (!graph.containsKey(src)) {
+            throw new IllegalArgumentException("source node must be a valid node");
+        }
+        LabeledGraph<T> labeled = LabeledGraph.fromAdjListInt(graph);
+        ShortestPathTree tree = run(labeled.getGraph(), labeled.getIndex().indexOf(src));
+        return ShortestPath.toVertexMap(labeled.getIndex(), tree, tree::getIntDistance);
+    }
+
+    /**
+     * Computes the potentials of Johnson's Algorithm: the distance to each
+     * vertex from a virtual source with an edge of weight 0 to every
+     * vertex. Every potential is at most 0, and w(u, v) + h(u) - h(v) is
+     * non-negative for every edge.
+     *
+     * @param graph the compressed sparse row graph, which may have negative weights
+     * @return the potential of each vertex
+     *
+     * @exception IllegalArgumentException if the graph has a negative cycle
+     */
+    static double[] potentials(CsrGraph graph) {
+        int n = graph.vertexCount();
+        double[] dist = new double[n];
+        int[] prev = new int[n];
+        int[] queue = new int[n];
+        boolean[] queued = new boolean[n];
+        for (int v = 0; v < n; v++) {
+            queue[v] = v;
+            queued[v] = true;
+        }
+        BellmanFord.search(graph, dist, prev, queue, queued, n);
+        return dist;
+    }
+
+    /**
+     * A private helper method to run the queue-based search until no
+     * distance drops. The queue is cyclic and holds each vertex at most
+     * once.
+     *
+     * @param graph the graph
+     * @param dist the tentative distances of the queued vertices, positive infinity elsewhere
+     * @param prev the array to store the predecessors in
+     * @param queue the initial vertices, in a queue with room for every vertex
+     * @param queued true for each vertex in the queue
+     * @param size the number of initial vertices
+     *
+     * @exception IllegalArgumentException if a negative cycle is reachable from the initial vertices
+     */
+    private static void search(CsrGraph graph, double[] dist, int[] prev, int[] queue, boolean[] queued, int size) {
+        int n = graph.vertexCount();
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        int[] edges = new int[n];
+        Arrays.fill(prev, ShortestPathTree.NO_VERTEX);
+        int head = 0;
+        while (size > 0) {
+            int u = queue[head];
+            head = head + 1 == n ? 0 : head + 1;
+            size--;
+            queued[u] = false;
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                int v = targets[e];
+                double d = dist[u] + graph.getWeight(e);
+                if (d < dist[v]) {
+                    dist[v] = d;
+                    prev[v] = u;
+                    edges[v] = edges[u] + 1;
+                    if (edges[v] >= n) {
+                        throw new IllegalArgumentException("graph contains a negative cycle");
+                    }
+                    if (!queued[v]) {
+                        queued[v] = true;
+                        queue[(head + size++) % n] = v;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * A private helper method to run the rounds. Each round relaxes the
+     * edges of the vertices which changed in the previous one.
+     *
+     * @param src the source vertex
+     * @param pool the pool
+     */
+    private void search(int src, ForkJoinPool pool) {
+        int n = graph.vertexCount();
+        int[] frontier = new int[n];
+        dist.set(src, Double.doubleToLongBits(0.0));
+        frontier[0] = src;
+        int size = 1;
+        while (size > 0) {
+            if (round == n) {
+                throw new IllegalArgumentException("graph contains a negative cycle");
+            }
+            round++;
+            changedCount.set(0);
+            if (size < PARALLEL_THRESHOLD) {
+                relaxRange(frontier, 0, size);
+            } else {
+                pool.invoke(new RelaxTask(frontier, 0, size));
+            }
+            size = changedCount.get();
+            System.arraycopy(changed, 0, frontier, 0, size);
+        }
+    }
+
+    /**
+     * A private helper method to relax the edges of part of a frontier.
+     *
+     * @param frontier the vertices
+     * @param from the first index, inclusive
+     * @param to the last index, exclusive
+     */
+    private void relaxRange(int[] frontier, int from, int to) {
+        for (int i = from; i < to; i++) {
+            int u = frontier[i];
+            double du = get(u);
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                lower(targets[e], du + graph.getWeight(e));
+            }
+        }
+    }
+
+    /**
+     * A private helper method to lower the distance of a vertex with
+     * compare-and-set, recording it as changed in this round. Distances
+     * may be negative, so they are compared as doubles rather than as
+     * their bits.
+     *
+     * @param v the vertex
+     * @param d the new distance
+     */
+    private void lower(int v, double d) {
+        long bits = Double.doubleToLongBits(d);
+        long current = dist.get(v);
+        while (d < Double.longBitsToDouble(current)) {
+            if (dist.compareAndSet(v, current, bits)) {
+                int old = changedIn.get(v);
+                if (old != round && changedIn.compareAndSet(v, old, round)) {
+                    changed[changedCount.getAndIncrement()] = v;
+                }
+                return;
+            }
+            current = dist.get(v);
+        }
+    }
+
+    /**
+     * A private helper method to read the tentative distance of a vertex.
+     *
+     * @param v the vertex
+     * @return the distance
+     */
+    private double get(int v) {
+        return Double.longBitsToDouble(dist.get(v));
+    }
+
+    /**
+     * Relaxes the edges of part of a frontier, splitting it in half until
+     * it is small enough to relax on one thread.
+     */
+    private class RelaxTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] frontier;
+        private final int from;
+        private final int to;
+
+        RelaxTask(int[] frontier, int from, int to) {
+            this.frontier = frontier;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= PARALLEL_THRESHOLD) {
+                relaxRange(frontier, from, to);
+            } else {
+                int mid = (from + to) >>> 1;
+                invokeAll(new RelaxTask(frontier, from, mid), new RelaxTask(frontier, mid, to));
+            }
+        }
+    }
+}
@@ -0,0 +1,215 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * A Test Harness for the BellmanFord class.
+ */
+public class BellmanFordTests {
+    static boolean VERBOSE = true;
+    static int numTests = 0;
+    static int failedTests = 0;
+
+    /**
+     * The main method runs the tests.
+     *
+     * @param args Not used
+     */
+    public static void main(String[] args) {
+        numTests = 0;
+        failedTests = 0;
+
+        nonNegativeTests();
+        negativeTests(new Random(81), 300);
+        negativeTests(new Random(82), 20000);
+        negativeCycleTests();
+        inputTests();
+        exceptionTests();
+
+        System.out.println("Total tests: " + numTests);
+        System.out.println("Failed tests: " + failedTests);
+    }
+
+    private static void printTest(Object expected, Object actual, String test) {
+        if (!expected.equals(actual)) {
+            if (VERBOSE) {
+                System.out.println("FAILED! " + test + " test.");
+                System.out.println("\texpected: " + expected.toString());
+                System.out.println("\tactual: " + actual.toString());
+            }
+            failedTests++;
+        }
+        numTests++;
+    }
+
+    /**
+     * Tests that both searches match Dijkstra's Algorithm on graphs
+     * without negative weights
+     */
+    private static void nonNegativeTests() {
+        CsrGraph grid = GraphExperiments.randomGrid(40, 83);
+        ShortestPathTree expected = ShortestPath.dijkstraIntTree(grid, 5);
+        ShortestPathTree queue = BellmanFord.run(grid, 5);
+        ShortestPathTree rounds = BellmanFord.run(grid, 5, ForkJoinPool.commonPool());
+        int wrong = 0;
+        for (int v = 0; v < grid.vertexCount(); v++) {
+            if (queue.getIntDistance(v) != expected.getIntDistance(v) || rounds.getIntDistance(v) != expected.getIntDistance(v)) {
+                wrong++;
+            }
+        }
+        printTest(0, wrong, "grid distances match dijkstraIntTree");
+        printTest(true, queue.isIntWeighted() && rounds.isIntWeighted(), "int graph gives int trees");
+        printTest(0, wrongPredecessors(grid, queue) + wrongPredecessors(grid, rounds), "grid predecessors are tight");
+    }
+
+    /**
+     * Tests on graphs whose weights are shifted by random vertex
+     * potentials, which makes many of them negative without creating
+     * negative cycles. The distances are those of the unshifted graph,
+     * shifted by the potentials of the source and the target.
+     */
+    private static void negativeTests(Random rand, int n) {
+        CsrGraph base = ShortestPathTests.randomGraph(rand, n, 4);
+        int[] potential = new int[n];
+        for (int v = 0; v < n; v++) {
+            potential[v] = rand.nextInt(60);
+        }
+        int[] sources = new int[base.edgeCount()];
+        int[] weights = new int[base.edgeCount()];
+        int negative = 0;
+        for (int u = 0; u < n; u++) {
+            for (int e = base.getOffsets()[u]; e < base.getOffsets()[u + 1]; e++) {
+                sources[e] = u;
+                weights[e] = (int) base.getWeight(e) + potential[u] - potential[base.getTargets()[e]];
+                if (weights[e] < 0) {
+                    negative++;
+                }
+            }
+        }
+        CsrGraph graph = CsrGraph.fromEdges(n, sources, base.getTargets(), weights);
+        printTest(true, negative > base.edgeCount() / 4, n + " vertices has negative weights");
+
+        int src = rand.nextInt(n);
+        ShortestPathTree expected = ShortestPath.dijkstraDoubleTree(base, src);
+        ShortestPathTree queue = BellmanFord.run(graph, src);
+        ShortestPathTree rounds = BellmanFord.run(graph, src, ForkJoinPool.commonPool());
+        int wrongQueue = 0;
+        int wrongRounds = 0;
+        for (int v = 0; v < n; v++) {
+            double d = expected.isReachable(v) ? expected.getDistance(v) + potential[src] - potential[v] : Double.POSITIVE_INFINITY;
+            if (queue.getDistance(v) != d) {
+                wrongQueue++;
+            }
+            if (rounds.getDistance(v) != d) {
+                wrongRounds++;
+            }
+        }
+        printTest(0, wrongQueue, n + " vertices queue distances");
+        printTest(0, wrongRounds, n + " vertices round distances");
+        printTest(0, wrongPredecessors(graph, queue), n + " vertices queue predecessors are tight");
+        printTest(0, wrongPredecessors(graph, rounds), n + " vertices round predecessors are tight");
+    }
+
+    /**
+     * Tests that reachable negative cycles are detected and unreachable
+     * ones are ignored
+     */
+    private static void negativeCycleTests() {
+        CsrGraph cycle = CsrGraph.fromEdges(5, new int[] { 0, 1, 2, 0, 3 }, new int[] { 1, 2, 1, 3, 4 }, new int[] { 1, 2, -3, 1, -2 });
+        printTest("IllegalArgumentException", thrown(() -> BellmanFord.run(cycle, 0)), "queue finds a reachable cycle");
+        printTest("IllegalArgumentException", thrown(() -> BellmanFord.run(cycle, 0, ForkJoinPool.commonPool())), "rounds find a reachable cycle");
+        printTest("none", thrown(() -> BellmanFord.run(cycle, 3)), "queue ignores an unreachable cycle");
+        printTest(-2.0, BellmanFord.run(cycle, 3, ForkJoinPool.commonPool()).getDistance(4), "rounds ignore an unreachable cycle");
+
+        CsrGraph loop = CsrGraph.fromEdges(2, new int[] { 0, 1 }, new int[] { 1, 1 }, new int[] { 1, -1 });
+        printTest("IllegalArgumentException", thrown(() -> BellmanFord.run(loop, 0)), "queue finds a negative self loop");
+        printTest("IllegalArgumentException", thrown(() -> BellmanFord.run(loop, 0, ForkJoinPool.commonPool())), "rounds find a negative self loop");
+
+        CsrGraph zero = CsrGraph.fromEdges(3, new int[] { 0, 1, 2 }, new int[] { 1, 2, 1 }, new int[] { 2, 3, -3 });
+        printTest(5.0, BellmanFord.run(zero, 0).getDistance(2), "zero weight cycle is not negative");
+        printTest(5.0, BellmanFord.run(zero, 0, ForkJoinPool.commonPool()).getDistance(2), "rounds zero weight cycle");
+    }
+
+    /**
+     * Tests for the adjacency matrix and adjacency list inputs
+     */
+    private static void inputTests() {
+        int[][] intMatrix = {
+            { 0, 4, 2, 0 },
+            { 0, 0, 0, 3 },
+            { 0, -1, 0, 6 },
+            { 0, 0, 0, 0 }
+        };
+        ArrayList<ShortestPath.Vertex<Integer, Integer>> ints = BellmanFord.searchInt(intMatrix, 0);
+        printTest(1, ints.get(1).getDistance(), "int matrix negative edge distance");
+        printTest(4, ints.get(3).getDistance(), "int matrix distance");
+        printTest(4, ints.get(3).getPathLength(), "int matrix path length");
+
+        double[][] doubleMatrix = {
+            { 0, 1.5, 0 },
+            { 0, 0, -0.5 },
+            { 0, 0, 0 }
+        };
+        ArrayList<ShortestPath.Vertex<Integer, Double>> doubles = BellmanFord.searchDouble(doubleMatrix, 0);
+        printTest(1.0, doubles.get(2).getDistance(), "double matrix distance");
+        printTest(1, doubles.get(2).getPrevious().getLabel(), "double matrix previous");
+
+        Map<String, Map<String, Integer>> intList = new HashMap<>();
+        intList.put("a", new HashMap<>(Map.of("b", 5, "c", 2)));
+        intList.put("c", new HashMap<>(Map.of("b", -4)));
+        intList.put("d", new HashMap<>());
+        Map<String, ShortestPath.Vertex<String, Integer>> labeled = BellmanFord.searchInt(intList, "a");
+        printTest(-2, labeled.get("b").getDistance(), "int list distance");
+        printTest("c", labeled.get("b").getPrevious().getLabel(), "int list previous");
+        printTest(Integer.MAX_VALUE, labeled.get("d").getDistance(), "int list unreachable");
+
+        Map<String, Map<String, Double>> doubleList = new HashMap<>();
+        doubleList.put("a", new HashMap<>(Map.of("b", -1.25)));
+        doubleList.put("b", new HashMap<>());
+        Map<String, ShortestPath.Vertex<String, Double>> labeledDoubles = BellmanFord.searchDouble(doubleList, "a");
+        printTest(-1.25, labeledDoubles.get("b").getDistance(), "double list distance");
+        printTest(Double.MAX_VALUE, BellmanFord.searchDouble(doubleList, "b").get("a").getDistance(), "double list unreachable");
+    }
+
+    /**
+     * Tests for the exceptions of BellmanFord
+     */
+    private static void exceptionTests() {
+        CsrGraph graph = CsrGraph.fromEdges(2, new int[] { 0 }, new int[] { 1 }, new int[] { -2 });
+        printTest("NullPointerException", thrown(() -> BellmanFord.run(null, 0)), "null graph");
+        printTest("NullPointerException", thrown(() -> BellmanFord.run(graph, 0, null)), "null pool");
+        printTest("NullPointerException", thrown(() -> BellmanFord.searchInt((int[][]) null, 0)), "null matrix");
+        printTest("NullPointerException", thrown(() -> BellmanFord.searchDouble((Map<String, Map<String, Double>>) null, "a")), "null list");
+        printTest("IllegalArgumentException", thrown(() -> BellmanFord.run(graph, 2)), "invalid source");
+        printTest("IllegalArgumentException", thrown(() -> BellmanFord.run(graph, -1, ForkJoinPool.commonPool())), "rounds invalid source");
+        printTest("IllegalArgumentException", thrown(() -> BellmanFord.searchInt(new HashMap<String, Map<String, Integer>>(), "a")), "missing label");
+    }
+
+    /**
+     * A private helper method to count the vertices whose predecessor
+     * edge does not account for their exact distance.
+     */
+    private static int wrongPredecessors(CsrGraph graph, ShortestPathTree tree) {
+        int wrong = 0;
+        for (int v = 0; v < graph.vertexCount(); v++) {
+            int u = tree.getPrevious(v);
+            if (u != ShortestPathTree.NO_VERTEX && tree.getDistance(u) + ShortestPathTests.pathWeight(graph, new int[] { u, v }) != tree.getDistance(v)) {
+                wrong++;
+            } else if (u == ShortestPathTree.NO_VERTEX && v != tree.getSource() && tree.isReachable(v)) {
+                wrong++;
+            }
+        }
+        return wrong;
+    }
+
+    private static String thrown(Runnable action) {
+        try {
+            action.run();
+            return "none";
+        } catch (RuntimeException e) {
+            return e.getClass().getSimpleName();
+        }
+    }
+}
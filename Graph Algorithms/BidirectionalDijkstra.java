@@ -0,0 +1,179 @@
+import java.util.Arrays;
+
+/**
+ * A point-to-point shortest path engine which runs Dijkstra's Algorithm
+ * forwards from the source and backwards from the target at the same
+ * time. The search stops as soon as the smallest unsettled distances of
+ * the two searches add up to at least the best path found so far, which
+ * on large sparse graphs is usually long before either search has
+ * settled the whole graph.
+ *
+ * An engine keeps the reversed graph and its working arrays between
+ * queries, so it should be reused for repeated queries against the same
+ * graph. It is not safe to use from several threads at once.
+ */
+public class BidirectionalDijkstra {
+    private final CsrGraph forward;
+    private final CsrGraph backward;
+
+    private final double[] distF;
+    private final double[] distB;
+    private final int[] prevF;
+    private final int[] prevB;
+    private final IndexedMinHeap heapF;
+    private final IndexedMinHeap heapB;
+    private final int[] touched;
+    private final boolean[] isTouched;
+    private int touchedCount;
+
+    /**
+     * Constructs an engine for a graph with non-negative weights.
+     *
+     * @param graph the compressed sparse row graph
+     *
+     * @exception NullPointerException if graph is null
+     */
+    public BidirectionalDijkstra(CsrGraph graph) {
+        if (graph == null) {
+            throw new NullPointerException("graph cannot be null");
+        }
+        int n = graph.vertexCount();
+        this.forward = graph;
+        this.backward = graph.reverse();
+        this.distF = new double[n];
+        this.distB = new double[n];
+        this.prevF = new int[n];
+        this.prevB = new int[n];
+        this.heapF = new IndexedMinHeap(n);
+        this.heapB = new IndexedMinHeap(n);
+        this.touched = new int[n];
+        this.isTouched = new boolean[n];
+        Arrays.fill(distF, Double.POSITIVE_INFINITY);
+        Arrays.fill(distB, Double.POSITIVE_INFINITY);
+        Arrays.fill(prevF, ShortestPathTree.NO_VERTEX);
+        Arrays.fill(prevB, ShortestPathTree.NO_VERTEX);
+    }
+
+    /**
+     * Finds the shortest path from src to dst.
+     *
+     * @param src the index of the source vertex
+     * @param dst the index of the target vertex
+     * @return the distance and the path from src to dst
+     *
+     * @exception IllegalArgumentException if src or dst is invalid
+     */
+    public PathResult query(int src, int dst) {
+        int n = forward.vertexCount();
+        if (src < 0 || src >= n || dst < 0 || dst >= n) {
+            throw new IllegalArgumentException("source and target nodes must be valid indices");
+        }
+
+        reset();
+        touch(src);
+        touch(dst);
+        distF[src] = 0.0;
+        distB[dst] = 0.0;
+        heapF.insert(src, 0.0);
+        heapB.insert(dst, 0.0);
+
+        double best = src == dst ? 0.0 : Double.POSITIVE_INFINITY;
+        int meeting = src == dst ? src : ShortestPathTree.NO_VERTEX;
+        int settled = 0;
+        while (!heapF.isEmpty() && !heapB.isEmpty()) {
+            if (heapF.peekKey() + heapB.peekKey() >= best) {
+                break;
+            }
+            boolean isForward = heapF.size() <= heapB.size();
+            CsrGraph graph = isForward ? forward : backward;
+            double[] dist = isForward ? distF : distB;
+            double[] otherDist = isForward ? distB : distF;
+            int[] prev = isForward ? prevF : prevB;
+            IndexedMinHeap heap = isForward ? heapF : heapB;
+
+            int u = heap.poll();
+            settled++;
+            int[] offsets = graph.getOffsets();
+            int[] targets = graph.getTargets();
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                int v = targets[e];
+                double d = dist[u] + graph.getWeight(e);
+                if (d < dist[v]) {
+                    touch(v);
+                    dist[v] = d;
+                    prev[v] = u;
+                    heap.insertOrDecrease(v, d);
+                }
+                if (dist[v] + otherDist[v] < best) {
+                    best = dist[v] + otherDist[v];
+                    meeting = v;
+                }
+            }
+        }
+
+        if (meeting == ShortestPathTree.NO_VERTEX) {
+            return PathResult.unreachable(src, dst, settled);
+        }
+        return new PathResult(src, dst, best, buildPath(meeting), settled);
+    }
+
+    /**
+     * A private helper method to join the forward path to the meeting
+     * vertex with the backward path from it.
+     *
+     * @param meeting the vertex where the searches met
+     * @return the vertices from source to target
+     */
+    private int[] buildPath(int meeting) {
+        int length = 1;
+        for (int u = prevF[meeting]; u != ShortestPathTree.NO_VERTEX; u = prevF[u]) {
+            length++;
+        }
+        int head = length;
+        for (int u = prevB[meeting]; u != ShortestPathTree.NO_VERTEX; u = prevB[u]) {
+            length++;
+        }
+
+        int[] path = new int[length];
+        int i = head - 1;
+        for (int u = meeting; u != ShortestPathTree.NO_VERTEX; u = prevF[u]) {
+            path[i--] = u;
+        }
+        i = head;
+        for (int u = prevB[meeting]; u != ShortestPathTree.NO_VERTEX; u = prevB[u]) {
+            path[i++] = u;
+        }
+        return path;
+    }
+
+    /**
+     * A private helper method to remember a vertex whose state has to be
+     * reset before the next query.
+     *
+     * @param v the vertex
+     */
+    private void touch(int v) {
+        if (!isTouched[v]) {
+            isTouched[v] = true;
+            touched[touchedCount++] = v;
+        }
+    }
+
+    /**
+     * A private helper method to restore the state of every vertex which
+     * the previous query touched, in time proportional to their number.
+     */
+    private void reset() {
+        for (int i = 0; i < touchedCount; i++) {
+            int v = touched[i];
+            distF[v] = Double.POSITIVE_INFINITY;
+            distB[v] = Double.POSITIVE_INFINITY;
+            prevF[v] = ShortestPathTree.NO_VERTEX;
+            prevB[v] = ShortestPathTree.NO_VERTEX;
+            isTouched[v] = false;
+        }
+        touchedCount = 0;
+        heapF.clear();
+        heapB.clear();
+    }
+}
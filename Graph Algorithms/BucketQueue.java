@@ -0,0 +1,165 @@
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * A monotone bucket queue of vertex ids keyed by int priorities, as used
+ * by Dial's algorithm. When every edge weight is at most C, the keys in
+ * the queue always lie within C of the last key polled, so C + 1 buckets
+ * used cyclically hold every key. Each bucket is an intrusive doubly
+ * linked list, so an id can be moved to a lower bucket in O(1) time.
+ *
+ * - Insert:                       O(1)
+ * - Decrease Key:                 O(1)
+ * - Poll:                         O(1) amortised over a search, plus the
+ *                                 empty buckets skipped, at most the
+ *                                 largest distance in total
+ */
+public class BucketQueue implements MonotoneQueue {
+    private final static int NOT_PRESENT = -1;
+
+    private final int[] head;
+    private final int[] next;
+    private final int[] previous;
+    private final int[] keys;
+    private final boolean[] present;
+    private int size;
+    private int current;
+
+    /**
+     * Constructs an empty queue for ids in the range [0, capacity) whose
+     * keys never exceed the last key polled by more than maxWeight.
+     *
+     * @param capacity the number of distinct ids
+     * @param maxWeight the largest edge weight
+     *
+     * @exception IllegalArgumentException if capacity or maxWeight is negative
+     */
+    public BucketQueue(int capacity, int maxWeight) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("capacity cannot be negative");
+        } else if (maxWeight < 0 || maxWeight == Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("maximum weight must be between 0 and Integer.MAX_VALUE - 1");
+        }
+        this.head = new int[maxWeight + 1];
+        this.next = new int[capacity];
+        this.previous = new int[capacity];
+        this.keys = new int[capacity];
+        this.present = new boolean[capacity];
+        Arrays.fill(head, NOT_PRESENT);
+        this.size = 0;
+        this.current = 0;
+    }
+
+    /**
+     * Returns the number of ids in the queue.
+     *
+     * @return the size of the queue
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns true if the queue contains no ids.
+     *
+     * @return true if the queue is empty
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns true if the id is currently in the queue.
+     *
+     * @param id the id to search for
+     * @return true if the id is in the queue
+     */
+    public boolean contains(int id) {
+        return present[id];
+    }
+
+    /**
+     * Returns the priority of an id which is in the queue.
+     *
+     * @param id the id
+     * @return the priority of the id
+     *
+     * @exception NoSuchElementException if the id is not in the queue
+     */
+    public int getKey(int id) {
+        if (!contains(id)) {
+            throw new NoSuchElementException("id is not in the queue");
+        }
+        return keys[id];
+    }
+
+    /**
+     * Inserts the id if it is absent, or lowers its priority if it is
+     * present with a greater priority. Otherwise the queue is unchanged.
+     *
+     * @param id the id to insert or update
+     * @param key the priority of the id
+     *
+     * @exception IllegalArgumentException if the key is smaller than the last key
+     * polled, or larger than it by more than the maximum weight
+     */
+    public void insertOrDecrease(int id, int key) {
+        if (key < current || key - current >= head.length) {
+            throw new IllegalArgumentException("key must be within the maximum weight of the last key polled");
+        }
+        if (present[id]) {
+            if (key >= keys[id]) {
+                return;
+            }
+            unlink(id);
+        } else {
+            present[id] = true;
+            size++;
+        }
+        keys[id] = key;
+        int bucket = key % head.length;
+        previous[id] = NOT_PRESENT;
+        next[id] = head[bucket];
+        if (head[bucket] != NOT_PRESENT) {
+            previous[head[bucket]] = id;
+        }
+        head[bucket] = id;
+    }
+
+    /**
+     * Removes and returns an id with the smallest priority.
+     *
+     * @return the id with the smallest priority
+     *
+     * @exception NoSuchElementException if the queue is empty
+     */
+    public int poll() {
+        if (size == 0) {
+            throw new NoSuchElementException("queue is empty");
+        }
+        while (head[current % head.length] == NOT_PRESENT) {
+            current++;
+        }
+        int id = head[current % head.length];
+        unlink(id);
+        present[id] = false;
+        size--;
+        return id;
+    }
+
+    /**
+     * Removes an id from its bucket.
+     *
+     * @param id the id
+     */
+    private void unlink(int id) {
+        if (previous[id] != NOT_PRESENT) {
+            next[previous[id]] = next[id];
+        } else {
+            head[keys[id] % head.length] = next[id];
+        }
+        if (next[id] != NOT_PRESENT) {
+            previous[next[id]] = previous[id];
+        }
+    }
+}
@@ -0,0 +1,124 @@
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+/**
+ * A Test Harness for the BucketQueue class.
+ */
+public class BucketQueueTests {
+    static boolean VERBOSE = true;
+    static int numTests = 0;
+    static int failedTests = 0;
+
+    /**
+     * The main method runs the tests.
+     *
+     * @param args Not used
+     */
+    public static void main(String[] args) {
+        numTests = 0;
+        failedTests = 0;
+
+        monotoneTests(100, 5);
+        monotoneTests(1000, 4096);
+        decreaseKeyTests();
+        exceptionTests();
+
+        System.out.println("Total tests: " + numTests);
+        System.out.println("Failed tests: " + failedTests);
+    }
+
+    private static void printTest(Object expected, Object actual, String test) {
+        if (!expected.equals(actual)) {
+            if (VERBOSE) {
+                System.out.println("FAILED! " + test + " test.");
+                System.out.println("\texpected: " + expected.toString());
+                System.out.println("\tactual: " + actual.toString());
+            }
+            failedTests++;
+        }
+        numTests++;
+    }
+
+    /**
+     * Tests for insertOrDecrease(int id, int key) and poll() against an
+     * IndexedMinHeap, driven the way Dijkstra's Algorithm drives a queue:
+     * every key inserted is the last key polled plus a weight
+     */
+    private static void monotoneTests(int n, int maxWeight) {
+        Random rand = new Random(n + maxWeight);
+        BucketQueue queue = new BucketQueue(n, maxWeight);
+        IndexedMinHeap heap = new IndexedMinHeap(n);
+        boolean[] done = new boolean[n];
+        int[] keys = new int[n];
+        queue.insertOrDecrease(0, 0);
+        heap.insert(0, 0);
+        int wrong = 0;
+        int polled = 0;
+        while (!heap.isEmpty()) {
+            int expectedKey = (int) heap.peekKey();
+            int id = queue.poll();
+            if (keys[id] != expectedKey || !heap.contains(id)) {
+                wrong++;
+            }
+            heap.decreaseKey(id, -1);
+            heap.poll();
+            done[id] = true;
+            polled++;
+            for (int k = 0; k < 4; k++) {
+                int v = rand.nextInt(n);
+                int key = expectedKey + rand.nextInt(maxWeight + 1);
+                if (!done[v] && (!heap.contains(v) || key < keys[v])) {
+                    keys[v] = key;
+                    queue.insertOrDecrease(v, key);
+                    heap.insertOrDecrease(v, key);
+                }
+            }
+            if (queue.size() != heap.size()) {
+                wrong++;
+            }
+        }
+        printTest(0, wrong, "polled keys and sizes agree (maximum weight " + maxWeight + ")");
+        printTest(true, queue.isEmpty(), "empty after polling (maximum weight " + maxWeight + ")");
+        printTest(true, polled > 1, "polled more than the source (maximum weight " + maxWeight + ")");
+    }
+
+    /**
+     * Tests for lowering the key of an id which is in the bucket queue
+     */
+    private static void decreaseKeyTests() {
+        BucketQueue queue = new BucketQueue(4, 10);
+        queue.insertOrDecrease(0, 9);
+        queue.insertOrDecrease(1, 5);
+        queue.insertOrDecrease(2, 7);
+        queue.insertOrDecrease(0, 3);
+        queue.insertOrDecrease(2, 8);
+        printTest(3, queue.getKey(0), "decreased key");
+        printTest(7, queue.getKey(2), "key is not increased");
+        printTest(3, queue.size(), "size after decreasing");
+        printTest(0, queue.poll(), "poll decreased id");
+        printTest(1, queue.poll(), "poll second id");
+        printTest(2, queue.poll(), "poll last id");
+        printTest(false, queue.contains(2), "polled id is absent");
+    }
+
+    /**
+     * Tests for the exceptions of the bucket queue
+     */
+    private static void exceptionTests() {
+        BucketQueue queue = new BucketQueue(4, 10);
+        printTest("NoSuchElementException", thrown(() -> queue.poll()), "poll empty");
+        printTest("NoSuchElementException", thrown(() -> queue.getKey(1)), "getKey absent");
+        queue.insertOrDecrease(1, 4);
+        queue.poll();
+        printTest("IllegalArgumentException", thrown(() -> queue.insertOrDecrease(2, 3)), "key below last polled");
+    }
+
+    private static String thrown(Runnable action) {
+        try {
+            action.run();
+            return "none";
+        } catch (RuntimeException e) {
+            return e.getClass().getSimpleName();
+        }
+    }
+}
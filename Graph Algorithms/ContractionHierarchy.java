@@ -0,0 +1,811 @@
+import java.util.Arrays;
+
+/**
+ * A contraction hierarchy for fast point-to-point queries on large road
+ * networks. Preprocessing contracts the vertices one at a time in order of
+ * importance. Contracting a vertex v removes it from the graph, and for
+ * every pair of remaining neighbours u -> v -> w whose shortest path runs
+ * through v a shortcut edge u -> w is inserted. A bounded Dijkstra search,
+ * the witness search, decides whether another path makes the shortcut
+ * unnecessary.
+ *
+ * A query is a bidirectional Dijkstra search in which both directions
+ * only follow edges towards more important vertices. The two searches
+ * meet at the most important vertex of the shortest path, and usually
+ * settle a few hundred vertices even on graphs with millions. Shortcuts
+ * on the resulting path are unpacked into the original edges.
+ *
+ * - Preprocessing:                roughly O(V log V) on road networks
+ * - Query:                        O(k log k), k = vertices settled
+ *
+ * Queries reuse the working arrays of the hierarchy, so a hierarchy is
+ * not safe to query from several threads at once.
+ */
+public class ContractionHierarchy {
+    private final static int WITNESS_LIMIT = 500;
+    private final static int NO_EDGE = -1;
+
+    private final int[] rank;
+    private final int shortcuts;
+    private final boolean intWeighted;
+
+    // edges u -> w with rank[w] > rank[u], stored at u
+    private final int[] upOffsets;
+    private final int[] upTargets;
+    private final double[] upWeights;
+    private final int[] upMiddle;
+
+    // edges u -> w with rank[u] > rank[w], stored at w with target u
+    private final int[] downOffsets;
+    private final int[] downTargets;
+    private final double[] downWeights;
+    private final int[] downMiddle;
+
+    private final double[] distF;
+    private final double[] distB;
+    private final int[] edgeF;
+    private final int[] edgeB;
+    private final IndexedMinHeap heapF;
+    private final IndexedMinHeap heapB;
+    private final int[] touched;
+    private final boolean[] isTouched;
+    private int touchedCount;
+
+    /**
+     * Constructs a hierarchy from the result of the preprocessing.
+     *
+     * @param rank the contraction order of each vertex
+     * @param shortcuts the number of shortcuts inserted
+     * @param intWeighted true if the original graph is int weighted
+     * @param up the upward edges
+     * @param down the downward edges
+     */
+    private ContractionHierarchy(int[] rank, int shortcuts, boolean intWeighted, EdgeArrays up, EdgeArrays down) {
+        int n = rank.length;
+        this.rank = rank;
+        this.shortcuts = shortcuts;
+        this.intWeighted = intWeighted;
+        this.upOffsets = up.offsets;
+        this.upTargets = up.targets;
+        this.upWeights = up.weights;
+        this.upMiddle = up.middle;
+        this.downOffsets = down.offsets;
+        this.downTargets = down.targets;
+        this.downWeights = down.weights;
+        this.downMiddle = down.middle;
+
+        this.distF = new double[n];
+        this.distB = new double[n];
+        this.edgeF = new int[n];
+        this.edgeB = new int[n];
+        this.heapF = new IndexedMinHeap(n);
+        this.heapB = new IndexedMinHeap(n);
+        this.touched = new int[n];
+        this.isTouched = new boolean[n];
+        Arrays.fill(distF, Double.POSITIVE_INFINITY);
+        Arrays.fill(distB, Double.POSITIVE_INFINITY);
+        Arrays.fill(edgeF, NO_EDGE);
+        Arrays.fill(edgeB, NO_EDGE);
+    }
+
+    /**
+     * Builds the hierarchy of a graph with non-negative weights. Vertices
+     * are contracted in order of the number of shortcuts contracting them
+     * would insert, counted twice, minus the number of edges it would
+     * remove, plus the number of their neighbours which have already been
+     * contracted, which spreads the contraction evenly over the graph. Priorities are updated lazily when a vertex reaches the
+     * front of the queue.
+     *
+     * @param graph the compressed sparse row graph
+     * @return the hierarchy
+     *
+     * @exception NullPointerException if graph is null
+     */
+    public static ContractionHierarchy build(CsrGraph graph) {
+        if (graph == null) {
+            throw new NullPointerException("graph cannot be null");
+        }
+        return new Builder(graph).build();
+    }
+
+    /**
+     * Returns the number of vertices.
+     *
+     * @return the number of vertices
+     */
+    public int vertexCount() {
+        return rank.length;
+    }
+
+    /**
+     * Returns the number of shortcuts which the preprocessing inserted.
+     *
+     * @return the number of shortcuts
+     */
+    public int shortcutCount() {
+        return shortcuts;
+    }
+
+    /**
+     * Returns the position of a vertex in the contraction order. More
+     * important vertices are contracted later and have a higher rank.
+     *
+     * @param v the vertex
+     * @return the rank of v
+     */
+    public int getRank(int v) {
+        return rank[v];
+    }
+
+    /**
+     * Returns true if the original graph is int weighted, in which case
+     * every distance in the hierarchy is a whole number.
+     *
+     * @return true if the original graph is int weighted
+     */
+    public boolean isIntWeighted() {
+        return intWeighted;
+    }
+
+    /**
+     * Returns the offsets of the upward edges, which are stored at their
+     * less important end.
+     *
+     * @return the offsets, which must not be modified
+     */
+    int[] getUpOffsets() {
+        return upOffsets;
+    }
+
+    /**
+     * Returns the more important end of each upward edge.
+     *
+     * @return the targets, which must not be modified
+     */
+    int[] getUpTargets() {
+        return upTargets;
+    }
+
+    /**
+     * Returns the weight of each upward edge.
+     *
+     * @return the weights, which must not be modified
+     */
+    double[] getUpWeights() {
+        return upWeights;
+    }
+
+    /**
+     * Returns the offsets of the downward edges, which are stored at their
+     * less important end, so that they are followed backwards.
+     *
+     * @return the offsets, which must not be modified
+     */
+    int[] getDownOffsets() {
+        return downOffsets;
+    }
+
+    /**
+     * Returns the more important end of each downward edge, which is the
+     * source of the original edge.
+     *
+     * @return the targets, which must not be modified
+     */
+    int[] getDownTargets() {
+        return downTargets;
+    }
+
+    /**
+     * Returns the weight of each downward edge.
+     *
+     * @return the weights, which must not be modified
+     */
+    double[] getDownWeights() {
+        return downWeights;
+    }
+
+    /**
+     * Finds the shortest path from src to dst.
+     *
+     * @param src the index of the source vertex
+     * @param dst the index of the target vertex
+     * @return the distance and the path from src to dst, with every
+     * shortcut unpacked into the edges of the original graph
+     *
+     * @exception IllegalArgumentException if src or dst is invalid
+     */
+    public PathResult query(int src, int dst) {
+        int n = rank.length;
+        if (src < 0 || src >= n || dst < 0 || dst >= n) {
+            throw new IllegalArgumentException("source and target nodes must be valid indices");
+        }
+
+        reset();
+        touch(src);
+        touch(dst);
+        distF[src] = 0.0;
+        distB[dst] = 0.0;
+        heapF.insert(src, 0.0);
+        heapB.insert(dst, 0.0);
+
+        double best = Double.POSITIVE_INFINITY;
+        int meeting = ShortestPathTree.NO_VERTEX;
+        int settled = 0;
+        boolean isForward = true;
+        while (true) {
+            boolean doneF = heapF.isEmpty() || heapF.peekKey() >= best;
+            boolean doneB = heapB.isEmpty() || heapB.peekKey() >= best;
+            if (doneF && doneB) {
+                break;
+            } else if (doneF) {
+                isForward = false;
+            } else if (doneB) {
+                isForward = true;
+            }
+
+            int[] offsets = isForward ? upOffsets : downOffsets;
+            int[] targets = isForward ? upTargets : downTargets;
+            double[] weights = isForward ? upWeights : downWeights;
+            double[] dist = isForward ? distF : distB;
+            double[] otherDist = isForward ? distB : distF;
+            int[] edge = isForward ? edgeF : edgeB;
+            IndexedMinHeap heap = isForward ? heapF : heapB;
+
+            int u = heap.poll();
+            settled++;
+            if (dist[u] + otherDist[u] < best) {
+                best = dist[u] + otherDist[u];
+                meeting = u;
+            }
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                int v = targets[e];
+                double d = dist[u] + weights[e];
+                if (d < dist[v]) {
+                    touch(v);
+                    dist[v] = d;
+                    edge[v] = e;
+                    heap.insertOrDecrease(v, d);
+                }
+            }
+            isForward = !isForward;
+        }
+
+        if (meeting == ShortestPathTree.NO_VERTEX) {
+            return PathResult.unreachable(src, dst, settled);
+        }
+        return new PathResult(src, dst, best, unpackPath(meeting), settled);
+    }
+
+    /**
+     * A private helper method to build the original path through the
+     * meeting vertex from the edges which the two searches followed.
+     *
+     * @param meeting the vertex where the searches met
+     * @return the vertices from source to target
+     */
+    private int[] unpackPath(int meeting) {
+        IntList path = new IntList();
+        IntList stack = new IntList();
+
+        // the forward edges are collected from the meeting vertex back to the source
+        IntList forwardEdges = new IntList();
+        for (int v = meeting; edgeF[v] != NO_EDGE; v = sourceOf(upOffsets, edgeF[v])) {
+            forwardEdges.add(edgeF[v]);
+        }
+        path.add(forwardEdges.size() == 0 ? meeting : sourceOf(upOffsets, forwardEdges.get(forwardEdges.size() - 1)));
+        for (int i = forwardEdges.size() - 1; i >= 0; i--) {
+            int e = forwardEdges.get(i);
+            unpack(sourceOf(upOffsets, e), upTargets[e], upMiddle[e], path, stack);
+        }
+
+        // a downward edge followed from u to v by the backward search is the
+        // original edge v -> u, stored at u
+        for (int v = meeting; edgeB[v] != NO_EDGE; ) {
+            int e = edgeB[v];
+            int next = sourceOf(downOffsets, e);
+            unpack(v, next, downMiddle[e], path, stack);
+            v = next;
+        }
+        return path.toArray();
+    }
+
+    /**
+     * A private helper method to append the original vertices of the
+     * edge u -> w to a path which already ends in u, with an explicit
+     * stack instead of recursion.
+     *
+     * @param u the source of the edge
+     * @param w the target of the edge
+     * @param middle the vertex which the edge bypasses, or NO_VERTEX
+     * @param path the path to append to
+     * @param stack a scratch list
+     */
+    private void unpack(int u, int w, int middle, IntList path, IntList stack) {
+        // the stack holds (from, to, middle) triples in reverse path order
+        stack.clear();
+        stack.add(u);
+        stack.add(w);
+        stack.add(middle);
+        while (stack.size() > 0) {
+            int m = stack.pop();
+            int to = stack.pop();
+            int from = stack.pop();
+            if (m == ShortestPathTree.NO_VERTEX) {
+                path.add(to);
+                continue;
+            }
+            // from -> m is stored at m as a downward edge, m -> to as an upward edge
+            int first = findDown(m, from);
+            int second = findUp(m, to);
+            stack.add(m);
+            stack.add(to);
+            stack.add(upMiddle[second]);
+            stack.add(from);
+            stack.add(m);
+            stack.add(downMiddle[first]);
+        }
+    }
+
+    /**
+     * A private helper method to find the vertex which an edge is stored
+     * at, by binary search over the offsets.
+     *
+     * @param offsets the offsets of the edge arrays
+     * @param e the index of the edge
+     * @return the vertex whose range of edges contains e
+     */
+    private static int sourceOf(int[] offsets, int e) {
+        int lo = 0;
+        int hi = offsets.length - 2;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (offsets[mid] <= e) {
+                lo = mid;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * A private helper method to find the upward edge u -> w.
+     *
+     * @param u the source of the edge
+     * @param w the target of the edge
+     * @return the index of the edge
+     */
+    private int findUp(int u, int w) {
+        for (int e = upOffsets[u]; e < upOffsets[u + 1]; e++) {
+            if (upTargets[e] == w) {
+                return e;
+            }
+        }
+        throw new IllegalStateException("hierarchy is missing the edge of a shortcut");
+    }
+
+    /**
+     * A private helper method to find the downward edge u -> w, which is
+     * stored at w.
+     *
+     * @param w the target of the edge
+     * @param u the source of the edge
+     * @return the index of the edge
+     */
+    private int findDown(int w, int u) {
+        for (int e = downOffsets[w]; e < downOffsets[w + 1]; e++) {
+            if (downTargets[e] == u) {
+                return e;
+            }
+        }
+        throw new IllegalStateException("hierarchy is missing the edge of a shortcut");
+    }
+
+    /**
+     * A private helper method to remember a vertex whose state has to be
+     * reset before the next query.
+     *
+     * @param v the vertex
+     */
+    private void touch(int v) {
+        if (!isTouched[v]) {
+            isTouched[v] = true;
+            touched[touchedCount++] = v;
+        }
+    }
+
+    /**
+     * A private helper method to restore the state of every vertex which
+     * the previous query touched.
+     */
+    private void reset() {
+        for (int i = 0; i < touchedCount; i++) {
+            int v = touched[i];
+            distF[v] = Double.POSITIVE_INFINITY;
+            distB[v] = Double.POSITIVE_INFINITY;
+            edgeF[v] = NO_EDGE;
+            edgeB[v] = NO_EDGE;
+            isTouched[v] = false;
+        }
+        touchedCount = 0;
+        heapF.clear();
+        heapB.clear();
+    }
+
+    /**
+     * The CSR arrays of one direction of the hierarchy.
+     */
+    private static class EdgeArrays {
+        private int[] offsets;
+        private int[] targets;
+        private double[] weights;
+        private int[] middle;
+
+        /**
+         * Sorts a list of edges by the vertex which they are stored at.
+         *
+         * @param n the number of vertices
+         * @param at the vertex each edge is stored at
+         * @param to the target of each edge
+         * @param weights the weight of each edge
+         * @param middle the bypassed vertex of each edge
+         */
+        private EdgeArrays(int n, IntList at, IntList to, DoubleList weights, IntList middle) {
+            int m = at.size();
+            this.offsets = new int[n + 1];
+            for (int e = 0; e < m; e++) {
+                offsets[at.get(e) + 1]++;
+            }
+            for (int v = 0; v < n; v++) {
+                offsets[v + 1] += offsets[v];
+            }
+            int[] cursor = offsets.clone();
+            this.targets = new int[m];
+            this.weights = new double[m];
+            this.middle = new int[m];
+            for (int e = 0; e < m; e++) {
+                int slot = cursor[at.get(e)]++;
+                this.targets[slot] = to.get(e);
+                this.weights[slot] = weights.get(e);
+                this.middle[slot] = middle.get(e);
+            }
+        }
+    }
+
+    /**
+     * The preprocessing state: the remaining graph, stored as growable
+     * in- and out-edge lists per vertex from which contracted vertices
+     * are removed, and the witness search arrays.
+     */
+    private static class Builder {
+        private final int n;
+        private final boolean intWeighted;
+        private final AdjacencyList[] out;
+        private final AdjacencyList[] in;
+        private final int[] deletedNeighbours;
+
+        private final double[] witnessDist;
+        private final IndexedMinHeap witnessHeap;
+        private final IntList witnessTouched = new IntList();
+
+        private final IntList shortcutFrom = new IntList();
+        private final IntList shortcutTo = new IntList();
+        private final DoubleList shortcutWeight = new DoubleList();
+
+        private final IntList upAt = new IntList();
+        private final IntList upTo = new IntList();
+        private final DoubleList upWeight = new DoubleList();
+        private final IntList upMid = new IntList();
+        private final IntList downAt = new IntList();
+        private final IntList downTo = new IntList();
+        private final DoubleList downWeight = new DoubleList();
+        private final IntList downMid = new IntList();
+
+        private Builder(CsrGraph graph) {
+            this.n = graph.vertexCount();
+            this.intWeighted = graph.isIntWeighted();
+            this.out = new AdjacencyList[n];
+            this.in = new AdjacencyList[n];
+            for (int v = 0; v < n; v++) {
+                out[v] = new AdjacencyList();
+                in[v] = new AdjacencyList();
+            }
+            int[] offsets = graph.getOffsets();
+            int[] targets = graph.getTargets();
+            for (int u = 0; u < n; u++) {
+                for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                    if (targets[e] != u) {
+                        addEdge(u, targets[e], graph.getWeight(e), ShortestPathTree.NO_VERTEX);
+                    }
+                }
+            }
+            this.deletedNeighbours = new int[n];
+            this.witnessDist = new double[n];
+            Arrays.fill(witnessDist, Double.POSITIVE_INFINITY);
+            this.witnessHeap = new IndexedMinHeap(n);
+        }
+
+        private ContractionHierarchy build() {
+            IndexedMinHeap order = new IndexedMinHeap(n);
+            for (int v = 0; v < n; v++) {
+                order.insert(v, priority(v));
+            }
+
+            int[] rank = new int[n];
+            int next = 0;
+            int shortcuts = 0;
+            while (!order.isEmpty()) {
+                int v = order.poll();
+                double p = priority(v);
+                if (!order.isEmpty() && p > order.peekKey()) {
+                    order.insert(v, p);
+                    continue;
+                }
+                // priority(v) left the shortcuts which contracting v needs in the shortcut lists
+                shortcuts += contract(v);
+                rank[v] = next++;
+            }
+            return new ContractionHierarchy(rank, shortcuts, intWeighted,
+                    new EdgeArrays(n, upAt, upTo, upWeight, upMid),
+                    new EdgeArrays(n, downAt, downTo, downWeight, downMid));
+        }
+
+        /**
+         * Computes the priority of a vertex, leaving the shortcuts which
+         * contracting it would need in the shortcut lists.
+         *
+         * @param v the vertex
+         * @return the priority of v
+         */
+        private double priority(int v) {
+            findShortcuts(v);
+            int degree = in[v].size + out[v].size;
+            return 2 * shortcutFrom.size() - degree + deletedNeighbours[v];
+        }
+
+        /**
+         * Contracts a vertex: moves its remaining edges into the hierarchy,
+         * and inserts the shortcuts found by the last call to priority.
+         *
+         * @param v the vertex
+         * @return the number of shortcuts inserted
+         */
+        private int contract(int v) {
+            AdjacencyList outV = out[v];
+            for (int i = 0; i < outV.size; i++) {
+                int w = outV.to[i];
+                upAt.add(v);
+                upTo.add(w);
+                upWeight.add(outV.weight[i]);
+                upMid.add(outV.middle[i]);
+                deletedNeighbours[w]++;
+                in[w].remove(v);
+            }
+            AdjacencyList inV = in[v];
+            for (int i = 0; i < inV.size; i++) {
+                int u = inV.to[i];
+                downAt.add(v);
+                downTo.add(u);
+                downWeight.add(inV.weight[i]);
+                downMid.add(inV.middle[i]);
+                deletedNeighbours[u]++;
+                out[u].remove(v);
+            }
+            out[v] = null;
+            in[v] = null;
+
+            int count = shortcutFrom.size();
+            for (int i = 0; i < count; i++) {
+                addEdge(shortcutFrom.get(i), shortcutTo.get(i), shortcutWeight.get(i), v);
+            }
+            return count;
+        }
+
+        /**
+         * Fills the shortcut lists with every pair u -> v -> w of remaining
+         * neighbours of v which has no witness path of at most the same
+         * length avoiding v.
+         *
+         * @param v the vertex to be contracted
+         */
+        private void findShortcuts(int v) {
+            shortcutFrom.clear();
+            shortcutTo.clear();
+            shortcutWeight.clear();
+            AdjacencyList inV = in[v];
+            AdjacencyList outV = out[v];
+
+            double maxOut = 0.0;
+            for (int j = 0; j < outV.size; j++) {
+                maxOut = Math.max(maxOut, outV.weight[j]);
+            }
+            for (int i = 0; i < inV.size; i++) {
+                int u = inV.to[i];
+                double viaV = inV.weight[i];
+                witnessSearch(u, v, viaV + maxOut);
+                for (int j = 0; j < outV.size; j++) {
+                    int w = outV.to[j];
+                    if (w == u) {
+                        continue;
+                    }
+                    double length = viaV + outV.weight[j];
+                    if (witnessDist[w] > length) {
+                        shortcutFrom.add(u);
+                        shortcutTo.add(w);
+                        shortcutWeight.add(length);
+                    }
+                }
+                clearWitness();
+            }
+        }
+
+        /**
+         * Runs Dijkstra's Algorithm from u over the remaining graph without
+         * v, until every vertex within the limit is settled or the search
+         * has settled WITNESS_LIMIT vertices. A search which gives up early
+         * only causes unnecessary shortcuts, never wrong distances.
+         *
+         * @param u the source of the search
+         * @param v the vertex being contracted
+         * @param limit the greatest distance of interest
+         */
+        private void witnessSearch(int u, int v, double limit) {
+            witnessDist[u] = 0.0;
+            witnessTouched.add(u);
+            witnessHeap.insert(u, 0.0);
+            int settled = 0;
+            while (!witnessHeap.isEmpty() && settled < WITNESS_LIMIT) {
+                if (witnessHeap.peekKey() > limit) {
+                    break;
+                }
+                int x = witnessHeap.poll();
+                settled++;
+                AdjacencyList outX = out[x];
+                for (int i = 0; i < outX.size; i++) {
+                    int y = outX.to[i];
+                    if (y == v) {
+                        continue;
+                    }
+                    double d = witnessDist[x] + outX.weight[i];
+                    if (d < witnessDist[y]) {
+                        if (witnessDist[y] == Double.POSITIVE_INFINITY) {
+                            witnessTouched.add(y);
+                        }
+                        witnessDist[y] = d;
+                        witnessHeap.insertOrDecrease(y, d);
+                    }
+                }
+            }
+        }
+
+        private void clearWitness() {
+            for (int i = 0; i < witnessTouched.size(); i++) {
+                witnessDist[witnessTouched.get(i)] = Double.POSITIVE_INFINITY;
+            }
+            witnessTouched.clear();
+            witnessHeap.clear();
+        }
+
+        /**
+         * Adds the edge u -> w, or lowers the weight of an existing edge
+         * u -> w if the new one is shorter.
+         *
+         * @param u the source of the edge
+         * @param w the target of the edge
+         * @param weight the weight of the edge
+         * @param middle the vertex which the edge bypasses, or NO_VERTEX
+         */
+        private void addEdge(int u, int w, double weight, int middle) {
+            int i = out[u].indexOf(w);
+            if (i == -1) {
+                out[u].add(w, weight, middle);
+                in[w].add(u, weight, middle);
+            } else if (weight < out[u].weight[i]) {
+                out[u].weight[i] = weight;
+                out[u].middle[i] = middle;
+                int j = in[w].indexOf(u);
+                in[w].weight[j] = weight;
+                in[w].middle[j] = middle;
+            }
+        }
+    }
+
+    /**
+     * A growable list of edges out of, or into, one vertex.
+     */
+    private static class AdjacencyList {
+        private int[] to = new int[4];
+        private double[] weight = new double[4];
+        private int[] middle = new int[4];
+        private int size = 0;
+
+        private void add(int v, double w, int m) {
+            if (size == to.length) {
+                to = Arrays.copyOf(to, size * 2);
+                weight = Arrays.copyOf(weight, size * 2);
+                middle = Arrays.copyOf(middle, size * 2);
+            }
+            to[size] = v;
+            weight[size] = w;
+            middle[size] = m;
+            size++;
+        }
+
+        private int indexOf(int v) {
+            for (int i = 0; i < size; i++) {
+                if (to[i] == v) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private void remove(int v) {
+            int i = indexOf(v);
+            if (i != -1) {
+                size--;
+                to[i] = to[size];
+                weight[i] = weight[size];
+                middle[i] = middle[size];
+            }
+        }
+    }
+
+    /**
+     * A growable list of ints.
+     */
+    static class IntList {
+        private int[] data = new int[16];
+        private int size = 0;
+
+        void add(int value) {
+            if (size == data.length) {
+                data = Arrays.copyOf(data, size * 2);
+            }
+            data[size++] = value;
+        }
+
+        int get(int i) {
+            return data[i];
+        }
+
+        int pop() {
+            return data[--size];
+        }
+
+        int size() {
+            return size;
+        }
+
+        void clear() {
+            size = 0;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(data, size);
+        }
+    }
+
+    /**
+     * A growable list of doubles.
+     */
+    static class DoubleList {
+        private double[] data = new double[16];
+        private int size = 0;
+
+        void add(double value) {
+            if (size == data.length) {
+                data = Arrays.copyOf(data, size * 2);
+            }
+            data[size++] = value;
+        }
+
+        double get(int i) {
+            return data[i];
+        }
+
+        void clear() {
+            size = 0;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * A Test Harness for the ContractionHierarchy class.
+ */
+public class ContractionHierarchyTests {
+    static boolean VERBOSE = true;
+    static int numTests = 0;
+    static int failedTests = 0;
+
+    /**
+     * The main method runs the tests.
+     *
+     * @param args Not used
+     */
+    public static void main(String[] args) {
+        numTests = 0;
+        failedTests = 0;
+
+        queryTests("grid", GraphExperiments.randomGrid(25, 11));
+        queryTests("random", ShortestPathTests.randomGraph(new Random(12), 500, 3));
+        smallTests();
+
+        System.out.println("Total tests: " + numTests);
+        System.out.println("Failed tests: " + failedTests);
+    }
+
+    private static void printTest(Object expected, Object actual, String test) {
+        if (!expected.equals(actual)) {
+            if (VERBOSE) {
+                System.out.println("FAILED! " + test + " test.");
+                System.out.println("\texpected: " + expected.toString());
+                System.out.println("\tactual: " + actual.toString());
+            }
+            failedTests++;
+        }
+        numTests++;
+    }
+
+    /**
+     * Tests for build(CsrGraph graph) and query(int src, int dst) against
+     * BidirectionalDijkstra, including the unpacked paths
+     */
+    private static void queryTests(String name, CsrGraph graph) {
+        ContractionHierarchy hierarchy = ContractionHierarchy.build(graph);
+        BidirectionalDijkstra expected = new BidirectionalDijkstra(graph);
+        Random rand = new Random(13);
+        for (int q = 0; q < 100; q++) {
+            int src = rand.nextInt(graph.vertexCount());
+            int dst = rand.nextInt(graph.vertexCount());
+            PathResult want = expected.query(src, dst);
+            PathResult got = hierarchy.query(src, dst);
+            printTest(want.getDistance(), got.getDistance(), name + " query distance " + src + " -> " + dst);
+            if (got.isReachable()) {
+                int[] path = got.getPath();
+                printTest(src, path[0], name + " query path start");
+                printTest(dst, path[path.length - 1], name + " query path end");
+                printTest(want.getDistance(), ShortestPathTests.pathWeight(graph, path), name + " unpacked path weight " + src + " -> " + dst);
+            }
+        }
+    }
+
+    /**
+     * Tests on a small graph whose middle vertex has to be bypassed by shortcuts
+     */
+    private static void smallTests() {
+        // 0 -> 1 -> 2 -> 3 and a longer direct edge 0 -> 3
+        CsrGraph graph = CsrGraph.fromEdges(4, new int[] { 0, 1, 2, 0 }, new int[] { 1, 2, 3, 3 }, new int[] { 1, 1, 1, 5 });
+        ContractionHierarchy hierarchy = ContractionHierarchy.build(graph);
+        PathResult ret = hierarchy.query(0, 3);
+        printTest(3.0, ret.getDistance(), "small query distance");
+        printTest("[0, 1, 2, 3]", Arrays.toString(ret.getPath()), "small query path");
+        printTest(false, hierarchy.query(3, 0).isReachable(), "small query unreachable");
+        printTest("[2]", Arrays.toString(hierarchy.query(2, 2).getPath()), "small query source is target");
+    }
+}
@@ -0,0 +1,429 @@
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A directed, weighted graph stored in compressed sparse row (CSR) form.
+ * The outgoing edges of vertex v occupy the index range
+ * [offsets[v], offsets[v + 1]) of the targets and weights arrays, so
+ * iterating over the neighbours of a vertex only touches its real edges.
+ *
+ * Edge weights are either all doubles or all ints, depending on how the
+ * graph was built. A graph with E edges and V vertices uses
+ * 4(V + 1) + 12E bytes with double weights, or 4(V + 1) + 8E bytes with
+ * int weights.
+ */
+public class CsrGraph {
+    private final int[] offsets;
+    private final int[] targets;
+    private final double[] weights;
+    private final int[] intWeights;
+
+    /**
+     * Constructs a graph directly from its CSR arrays. Exactly one of the
+     * weight arrays is expected to be non-null.
+     *
+     * @param offsets the start of each vertex's edges, of length V + 1
+     * @param targets the target vertex of each edge
+     * @param weights the double weight of each edge, or null
+     * @param intWeights the int weight of each edge, or null
+     */
+    CsrGraph(int[] offsets, int[] targets, double[] weights, int[] intWeights) {
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        this.intWeights = intWeights;
+    }
+
+    /**
+     * Builds a graph with double weights from an edge list.
+     *
+     * @param vertexCount the number of vertices
+     * @param sources the source vertex of each edge
+     * @param targets the target vertex of each edge
+     * @param weights the weight of each edge
+     * @return the graph
+     *
+     * @exception NullPointerException if any array is null
+     * @exception IllegalArgumentException if the arrays differ in length or contain an invalid vertex
+     */
+    public static CsrGraph fromEdges(int vertexCount, int[] sources, int[] targets, double[] weights) {
+        if (weights == null) {
+            throw new NullPointerException("parameters cannot be null");
+        }
+        int[] offsets = countOffsets(vertexCount, sources, targets, weights.length);
+        int[] cursor = offsets.clone();
+        int[] csrTargets = new int[sources.length];
+        double[] csrWeights = new double[sources.length];
+        for (int e = 0; e < sources.length; e++) {
+            int slot = cursor[sources[e]]++;
+            csrTargets[slot] = targets[e];
+            csrWeights[slot] = weights[e];
+        }
+        return new CsrGraph(offsets, csrTargets, csrWeights, null);
+    }
+
+    /**
+     * Builds a graph with int weights from an edge list.
+     *
+     * @param vertexCount the number of vertices
+     * @param sources the source vertex of each edge
+     * @param targets the target vertex of each edge
+     * @param weights the weight of each edge
+     * @return the graph
+     *
+     * @exception NullPointerException if any array is null
+     * @exception IllegalArgumentException if the arrays differ in length or contain an invalid vertex
+     */
+    public static CsrGraph fromEdges(int vertexCount, int[] sources, int[] targets, int[] weights) {
+        if (weights == null) {
+            throw new NullPointerException("parameters cannot be null");
+        }
+        int[] offsets = countOffsets(vertexCount, sources, targets, weights.length);
+        int[] cursor = offsets.clone();
+        int[] csrTargets = new int[sources.length];
+        int[] csrWeights = new int[sources.length];
+        for (int e = 0; e < sources.length; e++) {
+            int slot = cursor[sources[e]]++;
+            csrTargets[slot] = targets[e];
+            csrWeights[slot] = weights[e];
+        }
+        return new CsrGraph(offsets, csrTargets, null, csrWeights);
+    }
+
+    /**
+     * Builds a graph with double weights from an adjacency matrix, in
+     * which 0.0 represents a non-edge.
+     *
+     * @param matrix the adjacency matrix
+     * @return the graph
+     *
+     * @exception NullPointerException if matrix is null
+     */
+    public static CsrGraph fromMatrix(double[][] matrix) {
+        if (matrix == null) {
+            throw new NullPointerException("graph cannot be null");
+        }
+        int[] offsets = new int[matrix.length + 1];
+        for (int i = 0; i < matrix.length; i++) {
+            int degree = 0;
+            for (int j = 0; j < matrix[i].length; j++) {
+                if (matrix[i][j] != 0.0) {
+                    degree++;
+                }
+            }
+            offsets[i + 1] = offsets[i] + degree;
+        }
+        int[] targets = new int[offsets[matrix.length]];
+        double[] weights = new double[targets.length];
+        for (int i = 0; i < matrix.length; i++) {
+            int slot = offsets[i];
+            for (int j = 0; j < matrix[i].length; j++) {
+                if (matrix[i][j] != 0.0) {
+                    targets[slot] = j;
+                    weights[slot] = matrix[i][j];
+                    slot++;
+                }
+            }
+        }
+        return new CsrGraph(offsets, targets, weights, null);
+    }
+
+    /**
+     * Builds a graph with int weights from an adjacency matrix, in which
+     * 0 represents a non-edge.
+     *
+     * @param matrix the adjacency matrix
+     * @return the graph
+     *
+     * @exception NullPointerException if matrix is null
+     */
+    public static CsrGraph fromMatrix(int[][] matrix) {
+        if (matrix == null) {
+            throw new NullPointerException("graph cannot be null");
+        }
+        int[] offsets = new int[matrix.length + 1];
+        for (int i = 0; i < matrix.length; i++) {
+            int degree = 0;
+            for (int j = 0; j < matrix[i].length; j++) {
+                if (matrix[i][j] != 0) {
+                    degree++;
+                }
+            }
+            offsets[i + 1] = offsets[i] + degree;
+        }
+        int[] targets = new int[offsets[matrix.length]];
+        int[] weights = new int[targets.length];
+        for (int i = 0; i < matrix.length; i++) {
+            int slot = offsets[i];
+            for (int j = 0; j < matrix[i].length; j++) {
+                if (matrix[i][j] != 0) {
+                    targets[slot] = j;
+                    weights[slot] = matrix[i][j];
+                    slot++;
+                }
+            }
+        }
+        return new CsrGraph(offsets, targets, null, weights);
+    }
+
+    /**
+     * Builds a graph with double weights from an adjacency list, such as
+     * the output of ShortestPath.toAdjList. Vertex i of the graph is the
+     * vertex labelled labels[i].
+     *
+     * @param <T> the label type
+     * @param graph the adjacency list
+     * @param labels the labels of the vertices, in vertex order
+     * @return the graph
+     *
+     * @exception NullPointerException if any parameters are null
+     * @exception IllegalArgumentException if an edge refers to a label which is not in labels
+     */
+    public static <T> CsrGraph fromAdjListDouble(Map<T, Map<T, Double>> graph, T[] labels) {
+        Map<T, Integer> ids = indexLabels(graph, labels);
+        int[] offsets = new int[labels.length + 1];
+        for (int i = 0; i < labels.length; i++) {
+            Map<T, Double> edges = graph.get(labels[i]);
+            offsets[i + 1] = offsets[i] + (edges == null ? 0 : edges.size());
+        }
+        int[] targets = new int[offsets[labels.length]];
+        double[] weights = new double[targets.length];
+        for (int i = 0; i < labels.length; i++) {
+            Map<T, Double> edges = graph.get(labels[i]);
+            if (edges == null) {
+                continue;
+            }
+            int slot = offsets[i];
+            for (Map.Entry<T, Double> edge : edges.entrySet()) {
+                targets[slot] = lookup(ids, edge.getKey());
+                weights[slot] = edge.getValue();
+                slot++;
+            }
+        }
+        return new CsrGraph(offsets, targets, weights, null);
+    }
+
+    /**
+     * Builds a graph with int weights from an adjacency list, such as the
+     * output of ShortestPath.toAdjList. Vertex i of the graph is the
+     * vertex labelled labels[i].
+     *
+     * @param <T> the label type
+     * @param graph the adjacency list
+     * @param labels the labels of the vertices, in vertex order
+     * @return the graph
+     *
+     * @exception NullPointerException if any parameters are null
+     * @exception IllegalArgumentException if an edge refers to a label which is not in labels
+     */
+    public static <T> CsrGraph fromAdjListInt(Map<T, Map<T, Integer>> graph, T[] labels) {
+        Map<T, Integer> ids = indexLabels(graph, labels);
+        int[] offsets = new int[labels.length + 1];
+        for (int i = 0; i < labels.length; i++) {
+            Map<T, Integer> edges = graph.get(labels[i]);
+            offsets[i + 1] = offsets[i] + (edges == null ? 0 : edges.size());
+        }
+        int[] targets = new int[offsets[labels.length]];
+        int[] weights = new int[targets.length];
+        for (int i = 0; i < labels.length; i++) {
+            Map<T, Integer> edges = graph.get(labels[i]);
+            if (edges == null) {
+                continue;
+            }
+            int slot = offsets[i];
+            for (Map.Entry<T, Integer> edge : edges.entrySet()) {
+                targets[slot] = lookup(ids, edge.getKey());
+                weights[slot] = edge.getValue();
+                slot++;
+            }
+        }
+        return new CsrGraph(offsets, targets, null, weights);
+    }
+
+    /**
+     * Returns the number of vertices.
+     *
+     * @return the number of vertices
+     */
+    public int vertexCount() {
+        return offsets.length - 1;
+    }
+
+    /**
+     * Returns the number of edges.
+     *
+     * @return the number of edges
+     */
+    public int edgeCount() {
+        return targets.length;
+    }
+
+    /**
+     * Returns true if the edge weights are stored as ints.
+     *
+     * @return true if the graph has int weights
+     */
+    public boolean isIntWeighted() {
+        return intWeights != null;
+    }
+
+    /**
+     * Returns the number of outgoing edges of a vertex.
+     *
+     * @param v the vertex
+     * @return the out-degree of v
+     */
+    public int outDegree(int v) {
+        return offsets[v + 1] - offsets[v];
+    }
+
+    /**
+     * Returns the weight of an edge as a double, whichever way it is stored.
+     *
+     * @param edge the index of the edge
+     * @return the weight of the edge
+     */
+    public double getWeight(int edge) {
+        return intWeights != null ? intWeights[edge] : weights[edge];
+    }
+
+    /**
+     * Returns the offsets array, of length V + 1. The returned array is
+     * the graph's own storage and must not be modified.
+     *
+     * @return the offsets array
+     */
+    public int[] getOffsets() {
+        return offsets;
+    }
+
+    /**
+     * Returns the targets array, of length E. The returned array is the
+     * graph's own storage and must not be modified.
+     *
+     * @return the targets array
+     */
+    public int[] getTargets() {
+        return targets;
+    }
+
+    /**
+     * Returns the double weights array, of length E, or null if the graph
+     * has int weights. The returned array is the graph's own storage and
+     * must not be modified.
+     *
+     * @return the double weights array
+     */
+    public double[] getWeights() {
+        return weights;
+    }
+
+    /**
+     * Returns the int weights array, of length E, or null if the graph has
+     * double weights. The returned array is the graph's own storage and
+     * must not be modified.
+     *
+     * @return the int weights array
+     */
+    public int[] getIntWeights() {
+        return intWeights;
+    }
+
+    /**
+     * Returns a graph with every edge reversed, keeping the weight type.
+     *
+     * @return the reversed graph
+     */
+    public CsrGraph reverse() {
+        int n = vertexCount();
+        int[] revOffsets = new int[n + 1];
+        for (int e = 0; e < targets.length; e++) {
+            revOffsets[targets[e] + 1]++;
+        }
+        for (int v = 0; v < n; v++) {
+            revOffsets[v + 1] += revOffsets[v];
+        }
+        int[] cursor = revOffsets.clone();
+        int[] revTargets = new int[targets.length];
+        double[] revWeights = weights == null ? null : new double[targets.length];
+        int[] revIntWeights = intWeights == null ? null : new int[targets.length];
+        for (int u = 0; u < n; u++) {
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                int slot = cursor[targets[e]]++;
+                revTargets[slot] = u;
+                if (revWeights != null) {
+                    revWeights[slot] = weights[e];
+                } else {
+                    revIntWeights[slot] = intWeights[e];
+                }
+            }
+        }
+        return new CsrGraph(revOffsets, revTargets, revWeights, revIntWeights);
+    }
+
+    /**
+     * A private helper method to validate an edge list and compute the
+     * offsets array by counting the out-degree of every vertex.
+     *
+     * @param vertexCount the number of vertices
+     * @param sources the source vertex of each edge
+     * @param targets the target vertex of each edge
+     * @param weightCount the length of the weights array
+     * @return the offsets array
+     */
+    private static int[] countOffsets(int vertexCount, int[] sources, int[] targets, int weightCount) {
+        if (sources == null || targets == null) {
+            throw new NullPointerException("parameters cannot be null");
+        } else if (vertexCount < 0) {
+            throw new IllegalArgumentException("vertex count cannot be negative");
+        } else if (sources.length != targets.length || sources.length != weightCount) {
+            throw new IllegalArgumentException("edge arrays must be the same size");
+        }
+        int[] offsets = new int[vertexCount + 1];
+        for (int e = 0; e < sources.length; e++) {
+            if (sources[e] < 0 || sources[e] >= vertexCount || targets[e] < 0 || targets[e] >= vertexCount) {
+                throw new IllegalArgumentException("edges must connect valid vertices");
+            }
+            offsets[sources[e] + 1]++;
+        }
+        for (int v = 0; v < vertexCount; v++) {
+            offsets[v + 1] += offsets[v];
+        }
+        return offsets;
+    }
+
+    /**
+     * A private helper method to map each label to its position in labels.
+     *
+     * @param <T> the label type
+     * @param graph the adjacency list
+     * @param labels the labels of the vertices
+     * @return the map of labels to vertex ids
+     */
+    private static <T> Map<T, Integer> indexLabels(Map<T, ? extends Map<T, ?>> graph, T[] labels) {
+        if (graph == null || labels == null) {
+            throw new NullPointerException("parameters cannot be null");
+        }
+        Map<T, Integer> ids = new HashMap<>();
+        for (int i = 0; i < labels.length; i++) {
+            ids.put(labels[i], i);
+        }
+        return ids;
+    }
+
+    /**
+     * A private helper method to find the id of an edge's target label.
+     *
+     * @param <T> the label type
+     * @param ids the map of labels to vertex ids
+     * @param label the label
+     * @return the vertex id
+     */
+    private static <T> int lookup(Map<T, Integer> ids, T label) {
+        Integer id = ids.get(label);
+        if (id == null) {
+            throw new IllegalArgumentException("labels must contain every vertex of the graph");
+        }
+        return id;
+    }
+}
@@ -0,0 +1,400 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A parallel single-source shortest path search which implements the
+ * delta-stepping algorithm of Meyer and Sanders. Tentative distances are
+ * kept in buckets of width delta, and the lowest non-empty bucket is
+ * settled in phases: all of its vertices relax their light edges (weight
+ * at most delta) in parallel until the bucket stays empty, after which
+ * every vertex removed from the bucket relaxes its heavy edges once.
+ *
+ * A small delta behaves like Dijkstra's Algorithm with little parallel
+ * work per phase, and a large delta behaves like Bellman-Ford with many
+ * wasted relaxations. The default delta is the largest weight divided by
+ * the average out-degree.
+ *
+ * Distances are stored as the long bits of non-negative doubles, which
+ * order the same way as the doubles, and lowered with compare-and-set, so
+ * the relaxations of a phase need no locks. The predecessors are found
+ * afterwards by following tight edges, so the result is a ShortestPathTree
+ * with the same distances as ShortestPath.dijkstraIntTree and
+ * ShortestPath.dijkstraDoubleTree. Where several shortest paths exist the
+ * predecessors may differ.
+ */
+public class DeltaStepping {
+    /** Frontiers smaller than this are relaxed on the calling thread. */
+    private final static int PARALLEL_THRESHOLD = 1024;
+
+    private final int[] offsets;
+    private final int[] targets;
+    private final CsrGraph graph;
+    private final double delta;
+    private final AtomicLongArray dist;
+    private final AtomicIntegerArray changedIn;
+    private final int[] changed;
+    private final AtomicInteger changedCount = new AtomicInteger();
+    private int phase = 0;
+
+    /**
+     * Constructs the state of a single search.
+     *
+     * @param graph the graph
+     * @param delta the bucket width
+     */
+    private DeltaStepping(CsrGraph graph, double delta) {
+        this.graph = graph;
+        this.offsets = graph.getOffsets();
+        this.targets = graph.getTargets();
+        this.delta = delta;
+        int n = graph.vertexCount();
+        this.dist = new AtomicLongArray(n);
+        this.changedIn = new AtomicIntegerArray(n);
+        this.changed = new int[n];
+        long inf = Double.doubleToLongBits(Double.POSITIVE_INFINITY);
+        for (int v = 0; v < n; v++) {
+            dist.set(v, inf);
+            changedIn.set(v, -1);
+        }
+    }
+
+    /**
+     * Computes the shortest path tree of a compressed sparse row graph on
+     * the common pool, with the default delta.
+     *
+     * @param graph the compressed sparse row graph, with non-negative weights
+     * @param src the index of the source vertex
+     * @return the shortest path tree, int weighted if the graph is
+     *
+     * @exception NullPointerException if graph is null
+     * @exception IllegalArgumentException if src is invalid
+     */
+    public static ShortestPathTree run(CsrGraph graph, int src) {
+        if (graph == null) {
+            throw new NullPointerException("graph cannot be null");
+        }
+        return run(graph, src, defaultDelta(graph), ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Computes the shortest path tree of a compressed sparse row graph on
+     * the common pool.
+     *
+     * @param graph the compressed sparse row graph, with non-negative weights
+     * @param src the index of the source vertex
+     * @param delta the bucket width
+     * @return the shortest path tree, int weighted if the graph is
+     *
+     * @exception NullPointerException if graph is null
+     * @exception IllegalArgumentException if src is invalid or delta is not positive
+     */
+    public static ShortestPathTree run(CsrGraph graph, int src, double delta) {
+        return run(graph, src, delta, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Computes the shortest path tree of a compressed sparse row graph.
+     *
+     * @param graph the compressed sparse row graph, with non-negative weights
+     * @param src the index of the source vertex
+     * @param delta the bucket width
+     * @param pool the pool which relaxes the edges of large buckets
+     * @return the shortest path tree, int weighted if the graph is
+     *
+     * @exception NullPointerException if graph or pool is null
+     * @exception IllegalArgumentException if src is invalid or delta is not positive
+     */
+    public static ShortestPathTree run(CsrGraph graph, int src, double delta, ForkJoinPool pool) {
+        if (graph == null || pool == null) {
+            throw new NullPointerException("parameters cannot be null");
+        } else if (src < 0 || src >= graph.vertexCount()) {
+            throw new IllegalArgumentException("source node must be a valid index");
+        } else if (!(delta > 0) || delta == Double.POSITIVE_INFINITY) {
+            throw new IllegalArgumentException("delta must be positive and finite");
+        }
+
+        DeltaStepping search = new DeltaStepping(graph, delta);
+        search.search(src, pool);
+        double[] dist = new double[graph.vertexCount()];
+        for (int v = 0; v < dist.length; v++) {
+            dist[v] = search.get(v);
+        }
+        return ShortestPathTree.fromDistances(graph, src, dist);
+    }
+
+    /**
+     * Performs delta-stepping on an adjacency matrix with double weights,
+     * returning the same vertices as ShortestPath.dijkstraDouble.
+     *
+     * @param graph an adjacency matrix, where 0 is no edge
+     * @param src the index of the source vertex
+     * @param delta the bucket width
+     * @return an ArrayList containing vertex objects which contain
+     * the shortest distance and the path to the source node
+     *
+     * @exception NullPointerException if graph is null
+     * @exception IllegalArgumentException if src is invalid or delta is not positive
+     */
+    public static ArrayList<ShortestPath.Vertex<Integer, Double>> searchDouble(double[][] graph, int src, double delta) {
+        if (graph == null) {
+            throw new NullPointerException("graph cannot be null");
+        }
+        return run(CsrGraph.fromMatrix(graph), src, delta).toDoubleVertices();
+    }
+
+    /**
+     * Performs delta-stepping on an adjacency matrix with int weights,
+     * returning the same vertices as ShortestPath.dijkstraInt.
+     *
+     * @param graph an adjacency matrix, where 0 is no edge
+     * @param src the index of the source vertex
+     * @param delta the bucket width
+     * @return an ArrayList containing vertex objects which contain
+     * the shortest distance and the path to the source node
+     *
+     * @exception NullPointerException if graph is null
+     * @exception IllegalArgumentException if src is invalid or delta is not positive
+     */
+    public static ArrayList<ShortestPath.Vertex<Integer, Integer>> searchInt(int[][] graph, int src, int delta) {
+        if (graph == null) {
+            throw new NullPointerException("graph cannot be null");
+        }
+        return run(CsrGraph.fromMatrix(graph), src, delta).toIntVertices();
+    }
+
+    /**
+     * Returns the default bucket width of a graph, the largest weight
+     * divided by the average out-degree.
+     *
+     * @param graph the compressed sparse row graph
+     * @return the default delta
+     */
+    public static double defaultDelta(CsrGraph graph) {
+        double max = 0.0;
+        for (int e = 0; e < graph.edgeCount(); e++) {
+            max = Math.max(max, graph.getWeight(e));
+        }
+        if (max == 0.0) {
+            return 1.0;
+        }
+        double degree = Math.max(1.0, (double) graph.edgeCount() / Math.max(1, graph.vertexCount()));
+        return max / degree;
+    }
+
+    /**
+     * A private helper method to run the bucket phases. The buckets are
+     * cyclic: every tentative distance lies less than the largest weight
+     * past the end of the current bucket, so only that many buckets are
+     * ever in use. Entries whose vertex has since moved to a lower bucket
+     * are skipped when their bucket is reached.
+     *
+     * @param src the source vertex
+     * @param pool the pool
+     */
+    private void search(int src, ForkJoinPool pool) {
+        double max = 0.0;
+        for (int e = 0; e < graph.edgeCount(); e++) {
+            max = Math.max(max, graph.getWeight(e));
+        }
+        int bucketCount = (int) Math.min(Integer.MAX_VALUE - 2, Math.floor(max / delta)) + 2;
+        ArrayList<ContractionHierarchy.IntList> buckets = new ArrayList<>();
+        ContractionHierarchy.IntList removed = new ContractionHierarchy.IntList();
+        int n = graph.vertexCount();
+        int[] removedIn = new int[n];
+        int[] inFrontier = new int[n];
+        Arrays.fill(removedIn, -1);
+        Arrays.fill(inFrontier, -1);
+        int[] frontier = new int[n];
+        int round = 0;
+
+        dist.set(src, Double.doubleToLongBits(0.0));
+        int queued = 1;
+        bucket(buckets, 0, bucketCount).add(src);
+        for (int current = 0; queued > 0; current++) {
+            ContractionHierarchy.IntList bucket = bucket(buckets, current, bucketCount);
+            removed.clear();
+            while (bucket.size() > 0) {
+                int size = 0;
+                round++;
+                queued -= bucket.size();
+                for (int i = 0; i < bucket.size(); i++) {
+                    int v = bucket.get(i);
+                    if (bucketOf(get(v)) != current || inFrontier[v] == round) {
+                        continue;
+                    }
+                    inFrontier[v] = round;
+                    frontier[size++] = v;
+                    if (removedIn[v] != current) {
+                        removedIn[v] = current;
+                        removed.add(v);
+                    }
+                }
+                bucket.clear();
+                relax(frontier, size, true, pool);
+                queued += distribute(buckets, bucketCount);
+            }
+
+            int size = removed.size();
+            for (int i = 0; i < size; i++) {
+                frontier[i] = removed.get(i);
+            }
+            relax(frontier, size, false, pool);
+            queued += distribute(buckets, bucketCount);
+        }
+    }
+
+    /**
+     * A private helper method to relax the light or the heavy edges of a
+     * frontier, in parallel if it is large. Every vertex whose distance is
+     * lowered is recorded once in the changed array.
+     *
+     * @param frontier the vertices
+     * @param size the number of vertices
+     * @param light true to relax the light edges, false for the heavy edges
+     * @param pool the pool
+     */
+    private void relax(int[] frontier, int size, boolean light, ForkJoinPool pool) {
+        phase++;
+        changedCount.set(0);
+        if (size < PARALLEL_THRESHOLD) {
+            relaxRange(frontier, 0, size, light);
+        } else {
+            pool.invoke(new RelaxTask(frontier, 0, size, light));
+        }
+    }
+
+    /**
+     * A private helper method to relax the edges of part of a frontier.
+     *
+     * @param frontier the vertices
+     * @param from the first index, inclusive
+     * @param to the last index, exclusive
+     * @param light true to relax the light edges, false for the heavy edges
+     */
+    private void relaxRange(int[] frontier, int from, int to, boolean light) {
+        for (int i = from; i < to; i++) {
+            int u = frontier[i];
+            double du = get(u);
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                double w = graph.getWeight(e);
+                if ((w <= delta) == light) {
+                    lower(targets[e], du + w);
+                }
+            }
+        }
+    }
+
+    /**
+     * A private helper method to lower the distance of a vertex with
+     * compare-and-set, recording it as changed in this phase.
+     *
+     * @param v the vertex
+     * @param d the new distance
+     */
+    private void lower(int v, double d) {
+        long bits = Double.doubleToLongBits(d);
+        long current = dist.get(v);
+        while (bits < current) {
+            if (dist.compareAndSet(v, current, bits)) {
+                int old = changedIn.get(v);
+                if (old != phase && changedIn.compareAndSet(v, old, phase)) {
+                    changed[changedCount.getAndIncrement()] = v;
+                }
+                return;
+            }
+            current = dist.get(v);
+        }
+    }
+
+    /**
+     * A private helper method to move the vertices changed in the last
+     * phase into the buckets of their new distances.
+     *
+     * @param buckets the cyclic buckets
+     * @param bucketCount the number of buckets
+     * @return the number of vertices added to the buckets
+     */
+    private int distribute(ArrayList<ContractionHierarchy.IntList> buckets, int bucketCount) {
+        int count = changedCount.get();
+        for (int i = 0; i < count; i++) {
+            int v = changed[i];
+            bucket(buckets, bucketOf(get(v)), bucketCount).add(v);
+        }
+        return count;
+    }
+
+    /**
+     * A private helper method to find the cyclic bucket of a bucket index,
+     * creating it if it was never used.
+     *
+     * @param buckets the cyclic buckets
+     * @param index the bucket index
+     * @param bucketCount the number of buckets
+     * @return the bucket
+     */
+    private static ContractionHierarchy.IntList bucket(ArrayList<ContractionHierarchy.IntList> buckets, int index, int bucketCount) {
+        int slot = index % bucketCount;
+        while (buckets.size() <= slot) {
+            buckets.add(null);
+        }
+        if (buckets.get(slot) == null) {
+            buckets.set(slot, new ContractionHierarchy.IntList());
+        }
+        return buckets.get(slot);
+    }
+
+    /**
+     * A private helper method to find the bucket index of a distance.
+     *
+     * @param d the distance
+     * @return the bucket index
+     */
+    private int bucketOf(double d) {
+        return (int) (d / delta);
+    }
+
+    /**
+     * A private helper method to read the tentative distance of a vertex.
+     *
+     * @param v the vertex
+     * @return the distance
+     */
+    private double get(int v) {
+        return Double.longBitsToDouble(dist.get(v));
+    }
+
+    /**
+     * Relaxes the edges of part of a frontier, splitting it in half until
+     * it is small enough to relax on one thread.
+     */
+    private class RelaxTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] frontier;
+        private final int from;
+        private final int to;
+        private final boolean light;
+
+        RelaxTask(int[] frontier, int from, int to, boolean light) {
+            this.frontier = frontier;
+            this.from = from;
+            this.to = to;
+            this.light = light;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= PARALLEL_THRESHOLD) {
+                relaxRange(frontier, from, to, light);
+            } else {
+                int mid = (from + to) >>> 1;
+                invokeAll(new RelaxTask(frontier, from, mid, light), new RelaxTask(frontier, mid, to, light));
+            }
+        }
+    }
+}
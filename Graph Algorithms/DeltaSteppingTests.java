@@ -0,0 +1,147 @@
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * A Test Harness for the DeltaStepping class.
+ */
+public class DeltaSteppingTests {
+    static boolean VERBOSE = true;
+    static int numTests = 0;
+    static int failedTests = 0;
+
+    /**
+     * The main method runs the tests.
+     *
+     * @param args Not used
+     */
+    public static void main(String[] args) {
+        numTests = 0;
+        failedTests = 0;
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        treeTests("grid", GraphExperiments.randomGrid(120, 21), pool);
+        treeTests("random", ShortestPathTests.randomGraph(new Random(22), 20000, 4), pool);
+        pool.shutdown();
+        matrixTests();
+        exceptionTests();
+
+        System.out.println("Total tests: " + numTests);
+        System.out.println("Failed tests: " + failedTests);
+    }
+
+    private static void printTest(Object expected, Object actual, String test) {
+        if (!expected.equals(actual)) {
+            if (VERBOSE) {
+                System.out.println("FAILED! " + test + " test.");
+                System.out.println("\texpected: " + expected.toString());
+                System.out.println("\tactual: " + actual.toString());
+            }
+            failedTests++;
+        }
+        numTests++;
+    }
+
+    /**
+     * Tests for run(CsrGraph graph, int src, double delta) against
+     * dijkstraDoubleTree, with deltas from Dijkstra-like to Bellman-Ford-like
+     */
+    private static void treeTests(String name, CsrGraph graph, ForkJoinPool pool) {
+        double[] deltas = { 1.0, DeltaStepping.defaultDelta(graph), 50.0, 1e6 };
+        Random rand = new Random(23);
+        for (double delta : deltas) {
+            int src = rand.nextInt(graph.vertexCount());
+            ShortestPathTree expected = ShortestPath.dijkstraDoubleTree(graph, src);
+            ShortestPathTree actual = DeltaStepping.run(graph, src, delta, pool);
+            printTest(graph.isIntWeighted(), actual.isIntWeighted(), name + " int weighted, delta " + delta);
+            int wrongDistances = 0;
+            int wrongPaths = 0;
+            for (int v = 0; v < graph.vertexCount(); v++) {
+                if (round(expected.getDistance(v)) != round(actual.getDistance(v))) {
+                    wrongDistances++;
+                }
+                if (actual.isReachable(v) && round(actual.getDistance(v)) != round(ShortestPathTests.pathWeight(graph, actual.getPath(v)))) {
+                    wrongPaths++;
+                }
+            }
+            printTest(0, wrongDistances, name + " distances, delta " + delta);
+            printTest(0, wrongPaths, name + " path weights, delta " + delta);
+            printTest(ShortestPathTree.NO_VERTEX, actual.getPrevious(src), name + " source has no previous");
+        }
+
+        int src = rand.nextInt(graph.vertexCount());
+        ShortestPathTree common = DeltaStepping.run(graph, src);
+        ShortestPathTree expected = ShortestPath.dijkstraDoubleTree(graph, src);
+        int wrong = 0;
+        for (int v = 0; v < graph.vertexCount(); v++) {
+            if (round(expected.getDistance(v)) != round(common.getDistance(v))) {
+                wrong++;
+            }
+        }
+        printTest(0, wrong, name + " default delta on the common pool");
+    }
+
+    /**
+     * Tests for searchInt and searchDouble against dijkstraInt and dijkstraDouble
+     */
+    private static void matrixTests() {
+        int[][] graph = GraphExperiments.randomSparseMatrix(300, 24);
+        for (int src = 0; src < 300; src += 37) {
+            ArrayList<ShortestPath.Vertex<Integer, Integer>> expected = ShortestPath.dijkstraInt(graph, src);
+            ArrayList<ShortestPath.Vertex<Integer, Integer>> actual = DeltaStepping.searchInt(graph, src, 10);
+            int wrong = 0;
+            for (int v = 0; v < expected.size(); v++) {
+                if (!expected.get(v).getDistance().equals(actual.get(v).getDistance()) || !actual.get(v).getLabel().equals(v)) {
+                    wrong++;
+                }
+            }
+            printTest(0, wrong, "searchInt distances from " + src);
+        }
+
+        double[][] small = {
+            { 0, 1.5, 0, 4 },
+            { 0, 0, 1, 0 },
+            { 0, 0, 0, 0.5 },
+            { 0, 0, 0, 0 }
+        };
+        ArrayList<ShortestPath.Vertex<Integer, Double>> expected = ShortestPath.dijkstraDouble(small, 0);
+        ArrayList<ShortestPath.Vertex<Integer, Double>> actual = DeltaStepping.searchDouble(small, 0, 1.0);
+        printTest(expected.toString(), actual.toString(), "searchDouble small graph");
+        printTest(Double.MAX_VALUE, DeltaStepping.searchDouble(small, 3, 1.0).get(0).getDistance(), "searchDouble unreachable");
+
+        int[][] zero = {
+            { 0, 1 },
+            { 0, 0 }
+        };
+        printTest("[Label: 0 Distance: 0 Path: 0, Label: 1 Distance: 1 Path: 1 <- 0]",
+                DeltaStepping.searchInt(zero, 0, 1).toString(), "searchInt two vertices");
+    }
+
+    /**
+     * Tests for the exceptions of run
+     */
+    private static void exceptionTests() {
+        CsrGraph graph = CsrGraph.fromEdges(2, new int[] { 0 }, new int[] { 1 }, new int[] { 2 });
+        printTest("NullPointerException", thrown(() -> DeltaStepping.run(null, 0)), "run null graph");
+        printTest("IllegalArgumentException", thrown(() -> DeltaStepping.run(graph, 2)), "run invalid source");
+        printTest("IllegalArgumentException", thrown(() -> DeltaStepping.run(graph, 0, 0.0)), "run zero delta");
+        printTest("IllegalArgumentException", thrown(() -> DeltaStepping.run(graph, 0, Double.NaN)), "run NaN delta");
+        printTest("none", thrown(() -> DeltaStepping.run(graph, 1, 1.0)), "run unreachable");
+    }
+
+    private static String thrown(Runnable action) {
+        try {
+            action.run();
+            return "none";
+        } catch (RuntimeException e) {
+            return e.getClass().getSimpleName();
+        }
+    }
+
+    /**
+     * Rounds a distance so that paths summed in a different order compare equal.
+     */
+    private static double round(double value) {
+        return Math.round(value * 1e6) / 1e6;
+    }
+}
@@ -0,0 +1,304 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A V x V distance matrix stored in a binary file and read through memory
+ * mapped buffers, for all-pairs results which are too large for the heap.
+ * A 50,000 vertex matrix of int distances takes 10GB.
+ *
+ * The file is big-endian:
+ *
+ *      header      magic, version, flags, 0 (4 ints), V (1 long)
+ *      rows        V rows of V ints or V doubles, as given by flag bit 0
+ *
+ * Unreachable pairs are stored as Integer.MAX_VALUE or positive infinity.
+ * Rows are written by a Writer, one row at a time and in any order, so
+ * that an all-pairs computation can stream each row to disk as soon as it
+ * is known. As in MappedCsrGraph, the file is mapped in chunks of at most
+ * 1GB.
+ */
+public class DistanceMatrixFile implements Closeable {
+    private final static int MAGIC = 0x444D5431;
+    private final static int VERSION = 1;
+    private final static int INT_DISTANCES = 1;
+    private final static int HEADER_BYTES = 24;
+    private final static int CHUNK_BITS = 30;
+
+    private final FileChannel channel;
+    private final ByteBuffer[] chunks;
+    private final int chunkBits;
+    private final long chunkMask;
+    private final int vertexCount;
+    private final boolean intWeighted;
+
+    /**
+     * Maps an open file.
+     *
+     * @param channel the file
+     * @param chunkBits the base 2 logarithm of the chunk size
+     *
+     * @exception IOException if the file is not a distance matrix file
+     */
+    private DistanceMatrixFile(FileChannel channel, int chunkBits) throws IOException {
+        this.channel = channel;
+        this.chunkBits = chunkBits;
+        this.chunkMask = (1L << chunkBits) - 1;
+        long size = channel.size();
+        this.chunks = new ByteBuffer[(int) ((size + chunkMask) >>> chunkBits)];
+        for (int i = 0; i < chunks.length; i++) {
+            long start = (long) i << chunkBits;
+            chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(size - start, 1L << chunkBits));
+        }
+
+        if (size < HEADER_BYTES || getInt(0) != MAGIC) {
+            throw new IOException("file does not contain a distance matrix");
+        } else if (getInt(4) != VERSION) {
+            throw new IOException("unsupported distance matrix file version");
+        }
+        long n = getLong(16);
+        if (n < 0 || n >= Integer.MAX_VALUE) {
+            throw new IOException("distance matrix file header is corrupt");
+        }
+        this.vertexCount = (int) n;
+        this.intWeighted = (getInt(8) & INT_DISTANCES) != 0;
+        if (size < position(vertexCount, intWeighted, vertexCount, 0)) {
+            throw new IOException("distance matrix file is truncated");
+        }
+    }
+
+    /**
+     * Opens a distance matrix file for reading.
+     *
+     * @param file the file written by a Writer
+     * @return the mapped matrix, which should be closed when it is no longer needed
+     *
+     * @exception NullPointerException if file is null
+     * @exception IOException if the file cannot be read or is not a distance matrix file
+     */
+    public static DistanceMatrixFile open(Path file) throws IOException {
+        return open(file, CHUNK_BITS);
+    }
+
+    /**
+     * Opens a distance matrix file with a smaller chunk size, so that the
+     * chunk boundaries can be tested on small files.
+     *
+     * @param file the file written by a Writer
+     * @param chunkBits the base 2 logarithm of the chunk size, between 3 and 30
+     * @return the mapped matrix
+     *
+     * @exception IOException if the file cannot be read or is not a distance matrix file
+     */
+    static DistanceMatrixFile open(Path file, int chunkBits) throws IOException {
+        if (file == null) {
+            throw new NullPointerException("file cannot be null");
+        }
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            return new DistanceMatrixFile(channel, chunkBits);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the number of vertices, which is the number of rows and of
+     * columns.
+     *
+     * @return the number of vertices
+     */
+    public int vertexCount() {
+        return vertexCount;
+    }
+
+    /**
+     * Returns true if the distances are stored as ints.
+     *
+     * @return true if the distances are ints
+     */
+    public boolean isIntWeighted() {
+        return intWeighted;
+    }
+
+    /**
+     * Returns true if there is a path between two vertices.
+     *
+     * @param u the source vertex
+     * @param v the target vertex
+     * @return true if v is reachable from u
+     *
+     * @exception IllegalArgumentException if u or v is invalid
+     */
+    public boolean isReachable(int u, int v) {
+        return getDistance(u, v) != Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Returns the shortest distance between two vertices, widening int
+     * distances.
+     *
+     * @param u the source vertex
+     * @param v the target vertex
+     * @return the distance, or positive infinity if v is unreachable from u
+     *
+     * @exception IllegalArgumentException if u or v is invalid
+     */
+    public double getDistance(int u, int v) {
+        checkVertices(u, v);
+        long position = position(vertexCount, intWeighted, u, v);
+        if (intWeighted) {
+            int d = getInt(position);
+            return d == Integer.MAX_VALUE ? Double.POSITIVE_INFINITY : d;
+        }
+        return getDouble(position);
+    }
+
+    /**
+     * Returns the shortest distance between two vertices of a matrix with
+     * int distances.
+     *
+     * @param u the source vertex
+     * @param v the target vertex
+     * @return the distance, or Integer.MAX_VALUE if v is unreachable from u
+     *
+     * @exception IllegalArgumentException if u or v is invalid
+     * @exception IllegalStateException if the distances are not ints
+     */
+    public int getIntDistance(int u, int v) {
+        if (!intWeighted) {
+            throw new IllegalStateException("distances are not ints");
+        }
+        checkVertices(u, v);
+        return getInt(position(vertexCount, true, u, v));
+    }
+
+    /**
+     * Closes the file. The mapped buffers stay valid until they are
+     * garbage collected, but the matrix should not be used afterwards.
+     *
+     * @exception IOException if the file cannot be closed
+     */
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private void checkVertices(int u, int v) {
+        if (u < 0 || u >= vertexCount || v < 0 || v >= vertexCount) {
+            throw new IllegalArgumentException("vertices must be valid indices");
+        }
+    }
+
+    private int getInt(long position) {
+        return chunks[(int) (position >>> chunkBits)].getInt((int) (position & chunkMask));
+    }
+
+    private long getLong(long position) {
+        return chunks[(int) (position >>> chunkBits)].getLong((int) (position & chunkMask));
+    }
+
+    private double getDouble(long position) {
+        return chunks[(int) (position >>> chunkBits)].getDouble((int) (position & chunkMask));
+    }
+
+    /**
+     * A private helper method to find the position of a cell in the file.
+     *
+     * @param n the number of vertices
+     * @param intWeighted true if the distances are ints
+     * @param u the row
+     * @param v the column
+     * @return the position of the cell
+     */
+    private static long position(int n, boolean intWeighted, int u, int v) {
+        return HEADER_BYTES + ((long) u * n + v) * (intWeighted ? 4 : 8);
+    }
+
+    /**
+     * Writes the rows of a distance matrix file. Rows may be written in
+     * any order and from several threads at once, each with its own row
+     * buffer.
+     */
+    static class Writer implements Closeable {
+        private final FileChannel channel;
+        private final int n;
+        private final boolean intWeighted;
+
+        /**
+         * Creates a file, replacing any existing file, and writes its
+         * header.
+         *
+         * @param file the file
+         * @param n the number of vertices
+         * @param intWeighted true to store the distances as ints
+         *
+         * @exception IOException if the file cannot be written
+         */
+        Writer(Path file, int n, boolean intWeighted) throws IOException {
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+            this.n = n;
+            this.intWeighted = intWeighted;
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            header.putInt(MAGIC).putInt(VERSION).putInt(intWeighted ? INT_DISTANCES : 0).putInt(0).putLong(n).flip();
+            write(header, 0);
+        }
+
+        /**
+         * Allocates a buffer which holds one row.
+         *
+         * @return the buffer
+         */
+        ByteBuffer newRowBuffer() {
+            return ByteBuffer.allocateDirect(n * (intWeighted ? 4 : 8));
+        }
+
+        /**
+         * Writes a row.
+         *
+         * @param u the row
+         * @param dist the distance to each vertex, positive infinity if unreachable
+         * @param buffer a buffer from newRowBuffer which no other thread is using
+         *
+         * @exception IOException if the file cannot be written
+         */
+        void writeRow(int u, double[] dist, ByteBuffer buffer) throws IOException {
+            buffer.clear();
+            for (double d : dist) {
+                if (!intWeighted) {
+                    buffer.putDouble(d);
+                } else {
+                    buffer.putInt(d == Double.POSITIVE_INFINITY ? Integer.MAX_VALUE : (int) d);
+                }
+            }
+            buffer.flip();
+            write(buffer, position(n, intWeighted, u, 0));
+        }
+
+        /**
+         * Closes the file.
+         *
+         * @exception IOException if the file cannot be closed
+         */
+        public void close() throws IOException {
+            channel.close();
+        }
+
+        /**
+         * A private helper method to write a whole buffer at a position.
+         *
+         * @param buffer the buffer
+         * @param position the position in the file
+         *
+         * @exception IOException if the file cannot be written
+         */
+        private void write(ByteBuffer buffer, long position) throws IOException {
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
+            }
+        }
+    }
+}
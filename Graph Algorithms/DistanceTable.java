@@ -0,0 +1,134 @@
+/**
+ * A many-to-many table of shortest distances, with one row per source and
+ * one column per target, stored row-major in a single primitive array.
+ *
+ * Like ShortestPathTree, a table is either int weighted, in which case
+ * its distances are stored as ints, or double weighted.
+ */
+public class DistanceTable {
+    private final int[] sources;
+    private final int[] targets;
+    private final double[] dist;
+    private final int[] intDist;
+
+    /**
+     * Constructs a double weighted table.
+     *
+     * @param sources the source vertices, in row order
+     * @param targets the target vertices, in column order
+     * @param dist the distances, row-major, positive infinity if unreachable
+     */
+    DistanceTable(int[] sources, int[] targets, double[] dist) {
+        this.sources = sources;
+        this.targets = targets;
+        this.dist = dist;
+        this.intDist = null;
+    }
+
+    /**
+     * Constructs an int weighted table.
+     *
+     * @param sources the source vertices, in row order
+     * @param targets the target vertices, in column order
+     * @param intDist the distances, row-major, Integer.MAX_VALUE if unreachable
+     */
+    DistanceTable(int[] sources, int[] targets, int[] intDist) {
+        this.sources = sources;
+        this.targets = targets;
+        this.dist = null;
+        this.intDist = intDist;
+    }
+
+    /**
+     * Returns the number of rows, one per source.
+     *
+     * @return the number of sources
+     */
+    public int rowCount() {
+        return sources.length;
+    }
+
+    /**
+     * Returns the number of columns, one per target.
+     *
+     * @return the number of targets
+     */
+    public int columnCount() {
+        return targets.length;
+    }
+
+    /**
+     * Returns the source vertex of a row.
+     *
+     * @param row the row
+     * @return the source vertex
+     */
+    public int getSource(int row) {
+        return sources[row];
+    }
+
+    /**
+     * Returns the target vertex of a column.
+     *
+     * @param column the column
+     * @return the target vertex
+     */
+    public int getTarget(int column) {
+        return targets[column];
+    }
+
+    /**
+     * Returns true if the distances are stored as ints.
+     *
+     * @return true if the table is int weighted
+     */
+    public boolean isIntWeighted() {
+        return intDist != null;
+    }
+
+    /**
+     * Returns true if the target of a column is reachable from the source
+     * of a row.
+     *
+     * @param row the row
+     * @param column the column
+     * @return true if there is a path
+     */
+    public boolean isReachable(int row, int column) {
+        int i = row * targets.length + column;
+        return intDist != null ? intDist[i] != Integer.MAX_VALUE : dist[i] != Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Returns the shortest distance from the source of a row to the target
+     * of a column.
+     *
+     * @param row the row
+     * @param column the column
+     * @return the distance, or positive infinity if the target is unreachable
+     */
+    public double getDistance(int row, int column) {
+        int i = row * targets.length + column;
+        if (intDist != null) {
+            return intDist[i] == Integer.MAX_VALUE ? Double.POSITIVE_INFINITY : intDist[i];
+        }
+        return dist[i];
+    }
+
+    /**
+     * Returns the shortest distance from the source of a row to the target
+     * of a column of an int weighted table.
+     *
+     * @param row the row
+     * @param column the column
+     * @return the distance, or Integer.MAX_VALUE if the target is unreachable
+     *
+     * @exception IllegalStateException if the table is not int weighted
+     */
+    public int getIntDistance(int row, int column) {
+        if (intDist == null) {
+            throw new IllegalStateException("table is not int weighted");
+        }
+        return intDist[row * targets.length + column];
+    }
+}
@@ -0,0 +1,341 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * A directed graph with non-negative double weights whose edges can be
+ * added, reweighted and removed, for road networks whose weights follow
+ * the traffic. Each vertex keeps growable arrays of its outgoing and
+ * incoming edges, so an update costs time linear in the degrees of its
+ * ends rather than a rebuild of the graph.
+ *
+ * Trees returned by track are repaired after every update, touching only
+ * the vertices whose distances could have changed, rather than being
+ * recomputed from scratch.
+ */
+public class DynamicGraph {
+    private final int[][] outTargets;
+    private final double[][] outWeights;
+    private final int[] outDegree;
+    private final int[][] inSources;
+    private final double[][] inWeights;
+    private final int[] inDegree;
+    private final ArrayList<DynamicShortestPathTree> trees = new ArrayList<>();
+    private int edgeCount = 0;
+    private long version = 0;
+
+    /**
+     * Constructs a graph with no edges.
+     *
+     * @param vertexCount the number of vertices
+     *
+     * @exception IllegalArgumentException if vertexCount is negative
+     */
+    public DynamicGraph(int vertexCount) {
+        if (vertexCount < 0) {
+            throw new IllegalArgumentException("number of vertices cannot be negative");
+        }
+        this.outTargets = new int[vertexCount][];
+        this.outWeights = new double[vertexCount][];
+        this.outDegree = new int[vertexCount];
+        this.inSources = new int[vertexCount][];
+        this.inWeights = new double[vertexCount][];
+        this.inDegree = new int[vertexCount];
+        for (int v = 0; v < vertexCount; v++) {
+            outTargets[v] = new int[2];
+            outWeights[v] = new double[2];
+            inSources[v] = new int[2];
+            inWeights[v] = new double[2];
+        }
+    }
+
+    /**
+     * Constructs a graph with the edges of a compressed sparse row graph.
+     * Of several edges between the same pair of vertices, only the
+     * lightest is kept.
+     *
+     * @param graph the graph, with non-negative weights
+     *
+     * @exception NullPointerException if graph is null
+     * @exception IllegalArgumentException if a weight is negative
+     */
+    public DynamicGraph(CsrGraph graph) {
+        this(DynamicGraph.vertexCount(graph));
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        for (int u = 0; u < graph.vertexCount(); u++) {
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                double w = graph.getWeight(e);
+                if (w < getWeight(u, targets[e])) {
+                    updateEdge(u, targets[e], w);
+                }
+            }
+        }
+        version = 0;
+    }
+
+    /**
+     * Returns the number of vertices.
+     *
+     * @return the number of vertices
+     */
+    public int vertexCount() {
+        return outDegree.length;
+    }
+
+    /**
+     * Returns the number of edges.
+     *
+     * @return the number of edges
+     */
+    public int edgeCount() {
+        return edgeCount;
+    }
+
+    /**
+     * Returns the number of updates made since the graph was built.
+     *
+     * @return the version
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Returns the number of edges leaving a vertex.
+     *
+     * @param u the vertex
+     * @return the out-degree of u
+     */
+    public int outDegree(int u) {
+        return outDegree[u];
+    }
+
+    /**
+     * Returns the weight of an edge.
+     *
+     * @param u the tail of the edge
+     * @param v the head of the edge
+     * @return the weight, or positive infinity if there is no edge
+     *
+     * @exception IllegalArgumentException if u or v is invalid
+     */
+    public double getWeight(int u, int v) {
+        checkVertex(u);
+        checkVertex(v);
+        int i = find(outTargets[u], outDegree[u], v);
+        return i < 0 ? Double.POSITIVE_INFINITY : outWeights[u][i];
+    }
+
+    /**
+     * Sets the weight of an edge, adding the edge if it does not exist,
+     * and repairs every tracked tree.
+     *
+     * @param u the tail of the edge
+     * @param v the head of the edge
+     * @param w the new weight
+     *
+     * @exception IllegalArgumentException if u or v is invalid, or w is negative or NaN
+     */
+    public void updateEdge(int u, int v, double w) {
+        checkVertex(u);
+        checkVertex(v);
+        if (!(w >= 0)) {
+            throw new IllegalArgumentException("weights cannot be negative");
+        }
+        double old = set(u, v, w);
+        if (old != w) {
+            version++;
+            for (DynamicShortestPathTree tree : trees) {
+                tree.repair(u, v, old, w);
+            }
+        }
+    }
+
+    /**
+     * Removes an edge if it exists, and repairs every tracked tree.
+     *
+     * @param u the tail of the edge
+     * @param v the head of the edge
+     * @return true if there was an edge
+     *
+     * @exception IllegalArgumentException if u or v is invalid
+     */
+    public boolean removeEdge(int u, int v) {
+        checkVertex(u);
+        checkVertex(v);
+        int i = find(outTargets[u], outDegree[u], v);
+        if (i < 0) {
+            return false;
+        }
+        double old = outWeights[u][i];
+        removeAt(outTargets[u], outWeights[u], i, --outDegree[u]);
+        int j = find(inSources[v], inDegree[v], u);
+        removeAt(inSources[v], inWeights[v], j, --inDegree[v]);
+        edgeCount--;
+        version++;
+        for (DynamicShortestPathTree tree : trees) {
+            tree.repair(u, v, old, Double.POSITIVE_INFINITY);
+        }
+        return true;
+    }
+
+    /**
+     * Computes the shortest path tree of a source and keeps it up to date
+     * through every later update, until it is untracked.
+     *
+     * @param src the index of the source vertex
+     * @return the tree
+     *
+     * @exception IllegalArgumentException if src is invalid
+     */
+    public DynamicShortestPathTree track(int src) {
+        if (src < 0 || src >= vertexCount()) {
+            throw new IllegalArgumentException("source node must be a valid index");
+        }
+        DynamicShortestPathTree tree = new DynamicShortestPathTree(this, src);
+        trees.add(tree);
+        return tree;
+    }
+
+    /**
+     * Stops repairing a tree. Its distances are left as they were after
+     * the last update before it was untracked.
+     *
+     * @param tree the tree
+     * @return true if the tree was tracked
+     */
+    public boolean untrack(DynamicShortestPathTree tree) {
+        return trees.remove(tree);
+    }
+
+    /**
+     * Copies the graph into a compressed sparse row graph.
+     *
+     * @return the graph, with double weights
+     */
+    public CsrGraph toCsrGraph() {
+        int n = vertexCount();
+        int[] offsets = new int[n + 1];
+        for (int u = 0; u < n; u++) {
+            offsets[u + 1] = offsets[u] + outDegree[u];
+        }
+        int[] targets = new int[edgeCount];
+        double[] weights = new double[edgeCount];
+        for (int u = 0; u < n; u++) {
+            System.arraycopy(outTargets[u], 0, targets, offsets[u], outDegree[u]);
+            System.arraycopy(outWeights[u], 0, weights, offsets[u], outDegree[u]);
+        }
+        return new CsrGraph(offsets, targets, weights, null);
+    }
+
+    int[] outTargets(int u) {
+        return outTargets[u];
+    }
+
+    double[] outWeights(int u) {
+        return outWeights[u];
+    }
+
+    int[] inSources(int v) {
+        return inSources[v];
+    }
+
+    double[] inWeights(int v) {
+        return inWeights[v];
+    }
+
+    int inDegree(int v) {
+        return inDegree[v];
+    }
+
+    /**
+     * A private helper method to set the weight of an edge in both of its
+     * adjacency arrays, adding it if it does not exist.
+     *
+     * @param u the tail of the edge
+     * @param v the head of the edge
+     * @param w the new weight
+     * @return the old weight, or positive infinity if the edge is new
+     */
+    private double set(int u, int v, double w) {
+        int i = find(outTargets[u], outDegree[u], v);
+        if (i >= 0) {
+            double old = outWeights[u][i];
+            outWeights[u][i] = w;
+            inWeights[v][find(inSources[v], inDegree[v], u)] = w;
+            return old;
+        }
+        if (outDegree[u] == outTargets[u].length) {
+            outTargets[u] = Arrays.copyOf(outTargets[u], 2 * outDegree[u]);
+            outWeights[u] = Arrays.copyOf(outWeights[u], 2 * outDegree[u]);
+        }
+        outTargets[u][outDegree[u]] = v;
+        outWeights[u][outDegree[u]++] = w;
+        if (inDegree[v] == inSources[v].length) {
+            inSources[v] = Arrays.copyOf(inSources[v], 2 * inDegree[v]);
+            inWeights[v] = Arrays.copyOf(inWeights[v], 2 * inDegree[v]);
+        }
+        inSources[v][inDegree[v]] = u;
+        inWeights[v][inDegree[v]++] = w;
+        edgeCount++;
+        return Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * A private helper method to find a vertex in an adjacency array.
+     *
+     * @param vertices the adjacency array
+     * @param degree the number of entries in use
+     * @param v the vertex
+     * @return the position of v, or -1 if it is not there
+     */
+    private static int find(int[] vertices, int degree, int v) {
+        for (int i = 0; i < degree; i++) {
+            if (vertices[i] == v) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * A private helper method to remove an entry from an adjacency array
+     * by moving the last entry into its place.
+     *
+     * @param vertices the vertices of the adjacency array
+     * @param weights the weights of the adjacency array
+     * @param i the position to remove
+     * @param last the position of the last entry
+     */
+    private static void removeAt(int[] vertices, double[] weights, int i, int last) {
+        vertices[i] = vertices[last];
+        weights[i] = weights[last];
+    }
+
+    /**
+     * A private helper method to check a graph before its vertices are
+     * allocated.
+     *
+     * @param graph the graph
+     * @return the number of vertices
+     */
+    private static int vertexCount(CsrGraph graph) {
+        if (graph == null) {
+            throw new NullPointerException("graph cannot be null");
+        }
+        return graph.vertexCount();
+    }
+
+    /**
+     * A private helper method to check a vertex index.
+     *
+     * @param v the vertex
+     *
+     * @exception IllegalArgumentException if v is invalid
+     */
+    private void checkVertex(int v) {
+        if (v < 0 || v >= vertexCount()) {
+            throw new IllegalArgumentException("vertices must be valid indices");
+        }
+    }
+}
@@ -0,0 +1,191 @@
+import java.util.Random;
+
+/**
+ * A Test Harness for the DynamicGraph and DynamicShortestPathTree classes.
+ */
+public class DynamicGraphTests {
+    static boolean VERBOSE = true;
+    static int numTests = 0;
+    static int failedTests = 0;
+
+    /**
+     * The main method runs the tests.
+     *
+     * @param args Not used
+     */
+    public static void main(String[] args) {
+        numTests = 0;
+        failedTests = 0;
+
+        graphTests();
+        repairTests("random", ShortestPathTests.randomGraph(new Random(61), 400, 3), 62);
+        repairTests("grid", GraphExperiments.randomGrid(25, 63), 64);
+        localityTests();
+        exceptionTests();
+
+        System.out.println("Total tests: " + numTests);
+        System.out.println("Failed tests: " + failedTests);
+    }
+
+    private static void printTest(Object expected, Object actual, String test) {
+        if (!expected.equals(actual)) {
+            if (VERBOSE) {
+                System.out.println("FAILED! " + test + " test.");
+                System.out.println("\texpected: " + expected.toString());
+                System.out.println("\tactual: " + actual.toString());
+            }
+            failedTests++;
+        }
+        numTests++;
+    }
+
+    /**
+     * Tests for building and updating the graph itself
+     */
+    private static void graphTests() {
+        CsrGraph csr = CsrGraph.fromEdges(3, new int[] { 0, 0, 1 }, new int[] { 1, 1, 2 }, new int[] { 4, 2, 3 });
+        DynamicGraph graph = new DynamicGraph(csr);
+        printTest(2, graph.edgeCount(), "parallel edges are merged");
+        printTest(2.0, graph.getWeight(0, 1), "lightest parallel edge is kept");
+        printTest(Double.POSITIVE_INFINITY, graph.getWeight(2, 0), "missing edge weight");
+        printTest(0L, graph.getVersion(), "built graph has version 0");
+
+        graph.updateEdge(2, 0, 1.5);
+        printTest(3, graph.edgeCount(), "update adds an edge");
+        printTest(1.5, graph.getWeight(2, 0), "added edge weight");
+        graph.updateEdge(2, 0, 1.5);
+        printTest(1L, graph.getVersion(), "unchanged weight is not an update");
+        graph.updateEdge(0, 1, 7);
+        printTest(7.0, graph.getWeight(0, 1), "reweighted edge");
+        printTest(true, graph.removeEdge(0, 1), "remove existing edge");
+        printTest(false, graph.removeEdge(0, 1), "remove missing edge");
+        printTest(2, graph.edgeCount(), "edge count after removal");
+        printTest(3L, graph.getVersion(), "version counts updates");
+
+        CsrGraph copy = graph.toCsrGraph();
+        printTest(2, copy.edgeCount(), "copy edge count");
+        printTest(4.5, ShortestPath.dijkstraDoubleTree(copy, 1).getDistance(0), "copy distances");
+    }
+
+    /**
+     * Tests that tracked trees match a fresh search after every one of a
+     * random sequence of increases, decreases, insertions and removals
+     */
+    private static void repairTests(String name, CsrGraph csr, long seed) {
+        Random rand = new Random(seed);
+        DynamicGraph graph = new DynamicGraph(csr);
+        int n = graph.vertexCount();
+        DynamicShortestPathTree[] trees = { graph.track(0), graph.track(n / 2), graph.track(n - 1) };
+        int wrongDistances = 0;
+        int wrongPredecessors = 0;
+        for (int step = 0; step < 300; step++) {
+            int u = rand.nextInt(n);
+            int v;
+            int kind = rand.nextInt(4);
+            if (kind < 3 && graph.outDegree(u) > 0) {
+                CsrGraph current = graph.toCsrGraph();
+                v = current.getTargets()[current.getOffsets()[u] + rand.nextInt(graph.outDegree(u))];
+            } else {
+                v = rand.nextInt(n);
+            }
+            if (kind == 0) {
+                graph.updateEdge(u, v, graph.getWeight(u, v) * (2 + rand.nextInt(20)));
+            } else if (kind == 1) {
+                graph.updateEdge(u, v, graph.getWeight(u, v) / (2 + rand.nextInt(20)));
+            } else if (kind == 2) {
+                graph.removeEdge(u, v);
+            } else {
+                graph.updateEdge(u, v, rand.nextInt(50));
+            }
+
+            if (step % 10 == 0) {
+                CsrGraph current = graph.toCsrGraph();
+                for (DynamicShortestPathTree tree : trees) {
+                    ShortestPathTree expected = ShortestPath.dijkstraDoubleTree(current, tree.getSource());
+                    for (int x = 0; x < n; x++) {
+                        if (Math.abs(expected.getDistance(x) - tree.getDistance(x)) > 1e-9 * Math.max(1, expected.getDistance(x))) {
+                            wrongDistances++;
+                        }
+                        int p = tree.getPrevious(x);
+                        if (p != ShortestPathTree.NO_VERTEX && Math.abs(tree.getDistance(p) + graph.getWeight(p, x) - tree.getDistance(x)) > 1e-9 * Math.max(1, tree.getDistance(x))) {
+                            wrongPredecessors++;
+                        }
+                    }
+                }
+            }
+        }
+        printTest(0, wrongDistances, name + " repaired distances");
+        printTest(0, wrongPredecessors, name + " repaired predecessors are tight");
+
+        ShortestPathTree snapshot = trees[0].toTree();
+        printTest(false, snapshot.isIntWeighted(), name + " snapshot is double weighted");
+        printTest(snapshot.getDistance(n - 1), trees[0].toVertices().get(n - 1).getDistance(), name + " vertices match the snapshot");
+        printTest(true, graph.untrack(trees[0]), name + " untrack tracked tree");
+        printTest(false, graph.untrack(trees[0]), name + " untrack twice");
+    }
+
+    /**
+     * Tests that a repair only touches the vertices it has to
+     */
+    private static void localityTests() {
+        int n = 1000;
+        int[] sources = new int[n - 1];
+        int[] targets = new int[n - 1];
+        int[] weights = new int[n - 1];
+        for (int i = 0; i < n - 1; i++) {
+            sources[i] = i;
+            targets[i] = i + 1;
+            weights[i] = 1;
+        }
+        DynamicGraph chain = new DynamicGraph(CsrGraph.fromEdges(n, sources, targets, weights));
+        DynamicShortestPathTree tree = chain.track(0);
+        printTest(n, tree.getLastTouched(), "initial search settles everything");
+
+        chain.updateEdge(990, 991, 5);
+        printTest(9, tree.getLastTouched(), "increase near the end touches the subtree");
+        printTest(999 + 4.0, tree.getDistance(999), "distance after increase");
+
+        chain.updateEdge(0, 995, 2);
+        printTest(5, tree.getLastTouched(), "shortcut touches the improved vertices");
+        printTest(6.0, tree.getDistance(999), "distance after shortcut");
+
+        chain.updateEdge(10, 11, 3);
+        printTest(0, tree.getLastTouched() >= 984 ? 0 : 1, "increase near the start touches the long subtree");
+        chain.updateEdge(500, 600, 1000);
+        printTest(0, tree.getLastTouched(), "useless new edge touches nothing");
+        chain.updateEdge(500, 600, 2000);
+        printTest(0, tree.getLastTouched(), "increase off the tree touches nothing");
+
+        chain.removeEdge(0, 995);
+        printTest(999 + 4.0 + 2.0, tree.getDistance(999), "distance after removing the shortcut");
+        chain.removeEdge(499, 500);
+        printTest(false, tree.isReachable(700), "removal disconnects the tail");
+        printTest(0, tree.getPath(700).length, "no path to a disconnected vertex");
+        printTest(true, tree.isReachable(499), "head stays reachable");
+        printTest(ShortestPathTree.NO_VERTEX, tree.getPrevious(500), "disconnected vertex has no previous");
+    }
+
+    /**
+     * Tests for the exceptions of DynamicGraph
+     */
+    private static void exceptionTests() {
+        DynamicGraph graph = new DynamicGraph(2);
+        printTest("IllegalArgumentException", thrown(() -> new DynamicGraph(-1)), "negative vertex count");
+        printTest("NullPointerException", thrown(() -> new DynamicGraph(null)), "null graph");
+        printTest("IllegalArgumentException", thrown(() -> graph.updateEdge(0, 2, 1)), "update invalid vertex");
+        printTest("IllegalArgumentException", thrown(() -> graph.updateEdge(0, 1, -1)), "update negative weight");
+        printTest("IllegalArgumentException", thrown(() -> graph.updateEdge(0, 1, Double.NaN)), "update NaN weight");
+        printTest("IllegalArgumentException", thrown(() -> graph.removeEdge(-1, 0)), "remove invalid vertex");
+        printTest("IllegalArgumentException", thrown(() -> graph.track(2)), "track invalid source");
+        printTest("IllegalArgumentException", thrown(() -> new DynamicGraph(CsrGraph.fromEdges(2, new int[] { 0 }, new int[] { 1 }, new int[] { -1 }))), "negative weight in csr graph");
+    }
+
+    private static String thrown(Runnable action) {
+        try {
+            action.run();
+            return "none";
+        } catch (RuntimeException e) {
+            return e.getClass().getSimpleName();
+        }
+    }
+}
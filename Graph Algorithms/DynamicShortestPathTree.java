@@ -0,0 +1,244 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * A single-source shortest path tree over a DynamicGraph which is
+ * repaired incrementally, in the style of Ramalingam and Reps, after
+ * every update of the graph.
+ *
+ * When an edge u -> v gets lighter, only the vertices whose distances
+ * improve are visited, by a Dijkstra search seeded at v. When an edge
+ * gets heavier or is removed, nothing changes unless it is the tree edge
+ * of v; if it is, the subtree below v is cut off, each of its vertices is
+ * seeded with its best incoming edge from outside the subtree, and a
+ * Dijkstra search over the subtree alone settles them again.
+ *
+ * Trees are created by DynamicGraph.track.
+ */
+public class DynamicShortestPathTree {
+    private final DynamicGraph graph;
+    private final int source;
+    private final double[] dist;
+    private final int[] prev;
+    private final IndexedMinHeap heap;
+    private final int[] inSubtree;
+    private final int[] subtree;
+    private int stamp = 0;
+    private int lastTouched = 0;
+
+    /**
+     * Computes the tree of a source.
+     *
+     * @param graph the graph
+     * @param source the index of the source vertex
+     */
+    DynamicShortestPathTree(DynamicGraph graph, int source) {
+        int n = graph.vertexCount();
+        this.graph = graph;
+        this.source = source;
+        this.dist = new double[n];
+        this.prev = new int[n];
+        this.heap = new IndexedMinHeap(n);
+        this.inSubtree = new int[n];
+        this.subtree = new int[n];
+        Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        Arrays.fill(prev, ShortestPathTree.NO_VERTEX);
+        dist[source] = 0.0;
+        heap.insert(source, 0.0);
+        lastTouched = propagate();
+    }
+
+    /**
+     * Returns the source vertex.
+     *
+     * @return the source
+     */
+    public int getSource() {
+        return source;
+    }
+
+    /**
+     * Returns true if there is a path from the source to a vertex.
+     *
+     * @param v the vertex
+     * @return true if v is reachable
+     */
+    public boolean isReachable(int v) {
+        return dist[v] != Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Returns the shortest distance from the source to a vertex.
+     *
+     * @param v the vertex
+     * @return the distance, or positive infinity if v is unreachable
+     */
+    public double getDistance(int v) {
+        return dist[v];
+    }
+
+    /**
+     * Returns the previous vertex on the shortest path to a vertex.
+     *
+     * @param v the vertex
+     * @return the previous vertex, or NO_VERTEX for the source and unreachable vertices
+     */
+    public int getPrevious(int v) {
+        return prev[v];
+    }
+
+    /**
+     * Returns the shortest path from the source to a vertex.
+     *
+     * @param v the vertex
+     * @return the vertices of the path from the source to v, or an empty array if v is unreachable
+     */
+    public int[] getPath(int v) {
+        return toTree().getPath(v);
+    }
+
+    /**
+     * Copies the current distances and predecessors into a tree which
+     * later updates do not change.
+     *
+     * @return the tree, double weighted
+     */
+    public ShortestPathTree toTree() {
+        return new ShortestPathTree(source, dist.clone(), prev.clone());
+    }
+
+    /**
+     * Builds the vertex objects of the current tree.
+     *
+     * @return an ArrayList containing vertex objects which contain
+     * the shortest distance and the path to the source node
+     */
+    public ArrayList<ShortestPath.Vertex<Integer, Double>> toVertices() {
+        return toTree().toDoubleVertices();
+    }
+
+    /**
+     * Returns the number of vertices the last repair settled or reset,
+     * which is the work it did in place of a full search.
+     *
+     * @return the number of vertices touched
+     */
+    int getLastTouched() {
+        return lastTouched;
+    }
+
+    /**
+     * Repairs the tree after the weight of u -> v changed.
+     *
+     * @param u the tail of the edge
+     * @param v the head of the edge
+     * @param oldWeight the old weight, positive infinity if the edge is new
+     * @param newWeight the new weight, positive infinity if the edge was removed
+     */
+    void repair(int u, int v, double oldWeight, double newWeight) {
+        lastTouched = 0;
+        if (newWeight < oldWeight) {
+            double d = dist[u] + newWeight;
+            if (d < dist[v]) {
+                dist[v] = d;
+                prev[v] = u;
+                heap.insert(v, d);
+                lastTouched = propagate();
+            }
+        } else if (prev[v] == u) {
+            lastTouched = rebuildSubtree(v);
+        }
+    }
+
+    /**
+     * A private helper method to run Dijkstra's Algorithm from the
+     * vertices in the heap, relaxing only edges which improve a distance.
+     *
+     * @return the number of vertices settled
+     */
+    private int propagate() {
+        int settled = 0;
+        while (!heap.isEmpty()) {
+            int x = heap.poll();
+            settled++;
+            int[] targets = graph.outTargets(x);
+            double[] weights = graph.outWeights(x);
+            for (int i = 0; i < graph.outDegree(x); i++) {
+                int y = targets[i];
+                double d = dist[x] + weights[i];
+                if (d < dist[y]) {
+                    dist[y] = d;
+                    prev[y] = x;
+                    heap.insertOrDecrease(y, d);
+                }
+            }
+        }
+        return settled;
+    }
+
+    /**
+     * A private helper method to recompute the subtree below a vertex
+     * whose tree edge got heavier. The subtree is found by following the
+     * edges x -> y with prev[y] == x, its distances are reset, each of its
+     * vertices is seeded from its incoming edges outside the subtree, and
+     * a Dijkstra search restricted to the subtree settles them.
+     *
+     * @param root the head of the changed edge
+     * @return the number of vertices in the subtree
+     */
+    private int rebuildSubtree(int root) {
+        stamp++;
+        int size = 0;
+        subtree[size++] = root;
+        inSubtree[root] = stamp;
+        for (int i = 0; i < size; i++) {
+            int x = subtree[i];
+            int[] targets = graph.outTargets(x);
+            for (int j = 0; j < graph.outDegree(x); j++) {
+                int y = targets[j];
+                if (prev[y] == x && inSubtree[y] != stamp) {
+                    inSubtree[y] = stamp;
+                    subtree[size++] = y;
+                }
+            }
+        }
+
+        for (int i = 0; i < size; i++) {
+            int x = subtree[i];
+            dist[x] = Double.POSITIVE_INFINITY;
+            prev[x] = ShortestPathTree.NO_VERTEX;
+        }
+        for (int i = 0; i < size; i++) {
+            int x = subtree[i];
+            int[] sources = graph.inSources(x);
+            double[] weights = graph.inWeights(x);
+            for (int j = 0; j < graph.inDegree(x); j++) {
+                int y = sources[j];
+                double d = dist[y] + weights[j];
+                if (inSubtree[y] != stamp && d < dist[x]) {
+                    dist[x] = d;
+                    prev[x] = y;
+                }
+            }
+            if (dist[x] != Double.POSITIVE_INFINITY) {
+                heap.insert(x, dist[x]);
+            }
+        }
+
+        while (!heap.isEmpty()) {
+            int x = heap.poll();
+            int[] targets = graph.outTargets(x);
+            double[] weights = graph.outWeights(x);
+            for (int j = 0; j < graph.outDegree(x); j++) {
+                int y = targets[j];
+                double d = dist[x] + weights[j];
+                if (inSubtree[y] == stamp && d < dist[y]) {
+                    dist[y] = d;
+                    prev[y] = x;
+                    heap.insertOrDecrease(y, d);
+                }
+            }
+        }
+        return size;
+    }
+}
@@ -0,0 +1,430 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * Loads a compressed sparse row graph from a text edge list, one edge
+ * per line as "src dst weight", where src and dst are non-negative vertex
+ * indices and the fields are separated by spaces or tabs. Blank lines
+ * and lines starting with # or % are skipped. The vertex count is the
+ * largest index + 1, and the graph has int weights if every weight is an
+ * integer in int range, and double weights otherwise.
+ *
+ * The file is split at line boundaries into one slice per worker, and
+ * each worker parses its slice through a fixed size buffer with
+ * positional FileChannel reads, so the text is never held in memory.
+ * The first pass counts the out-degree of every vertex in each slice and
+ * the second fills the CSR arrays, each slice writing from its own
+ * cursor, so that the edges of a vertex keep the order of the file and
+ * the graph is the same as CsrGraph.fromEdges would build.
+ */
+public class EdgeListLoader {
+    final static int CHUNK = 1 << 22;
+    private final static int MIN_SLICE = 1 << 20;
+    private final static int MERGE_BLOCK = 1 << 16;
+    private final static double[] POWERS_OF_TEN = new double[23];
+
+    static {
+        POWERS_OF_TEN[0] = 1.0;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    private final FileChannel channel;
+    private final int chunk;
+    private final long[] bounds;
+    private final Slice[] slices;
+    private final AtomicReference<IOException> failure = new AtomicReference<>();
+    private boolean filling = false;
+    private boolean intWeighted;
+    private int[] targets;
+    private double[] weights;
+    private int[] intWeights;
+
+    /**
+     * Splits an open file into slices.
+     *
+     * @param channel the file
+     * @param sliceCount the largest number of slices
+     * @param chunk the size of each worker's read buffer
+     *
+     * @exception IOException if the file cannot be read
+     */
+    private EdgeListLoader(FileChannel channel, int sliceCount, int chunk) throws IOException {
+        this.channel = channel;
+        this.chunk = chunk;
+        long size = channel.size();
+        int count = (int) Math.max(1, Math.min(sliceCount, size));
+        this.bounds = new long[count + 1];
+        this.slices = new Slice[count];
+        bounds[count] = size;
+        for (int s = 1; s < count; s++) {
+            bounds[s] = Math.max(bounds[s - 1], lineStart(size * s / count));
+        }
+        for (int s = 0; s < count; s++) {
+            slices[s] = new Slice(s);
+        }
+    }
+
+    /**
+     * Loads an edge list, parsing it on the common pool.
+     *
+     * @param file the edge list
+     * @return the graph
+     *
+     * @exception NullPointerException if file is null
+     * @exception IOException if the file cannot be read, contains a malformed
+     * line, or has more edges than a CsrGraph can hold
+     */
+    public static CsrGraph load(Path file) throws IOException {
+        return load(file, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Loads an edge list, parsing it on the given pool with one slice of
+     * the file per worker.
+     *
+     * @param file the edge list
+     * @param pool the pool which parses the slices
+     * @return the graph
+     *
+     * @exception NullPointerException if any parameters are null
+     * @exception IOException if the file cannot be read, contains a malformed
+     * line, or has more edges than a CsrGraph can hold
+     */
+    public static CsrGraph load(Path file, ForkJoinPool pool) throws IOException {
+        if (file == null || pool == null) {
+            throw new NullPointerException("parameters cannot be null");
+        }
+        int sliceCount = (int) Math.min(pool.getParallelism(), Files.size(file) / MIN_SLICE);
+        return load(file, pool, sliceCount, CHUNK);
+    }
+
+    /**
+     * Loads an edge list with the given number of slices and buffer size,
+     * so that slice and buffer boundaries can be tested on small files.
+     *
+     * @param file the edge list
+     * @param pool the pool which parses the slices
+     * @param sliceCount the largest number of slices
+     * @param chunk the size of each worker's read buffer
+     * @return the graph
+     *
+     * @exception IOException if the file cannot be read or is malformed
+     */
+    static CsrGraph load(Path file, ForkJoinPool pool, int sliceCount, int chunk) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new EdgeListLoader(channel, sliceCount, chunk).run(pool);
+        }
+    }
+
+    /**
+     * A private helper method to run both passes and build the graph.
+     *
+     * @param pool the pool
+     * @return the graph
+     *
+     * @exception IOException if the file cannot be read or is malformed
+     */
+    private CsrGraph run(ForkJoinPool pool) throws IOException {
+        parallel(pool, slices.length, s -> scan(slices[s]));
+
+        int n = 0;
+        long m = 0;
+        intWeighted = true;
+        for (Slice slice : slices) {
+            n = Math.max(n, slice.maxVertex + 1);
+            m += slice.edgeCount;
+            intWeighted &= slice.intWeighted;
+        }
+        if (m > Integer.MAX_VALUE - 8) {
+            throw new IOException("edge list has too many edges for a CsrGraph");
+        }
+
+        int[] offsets = new int[n + 1];
+        for (int v = 0; v < n; v++) {
+            for (Slice slice : slices) {
+                if (v < slice.degree.length) {
+                    offsets[v + 1] += slice.degree[v];
+                }
+            }
+            offsets[v + 1] += offsets[v];
+        }
+        int vertexCount = n;
+        parallel(pool, (n + MERGE_BLOCK - 1) / MERGE_BLOCK, b -> {
+            int end = Math.min(vertexCount, (b + 1) * MERGE_BLOCK);
+            for (int v = b * MERGE_BLOCK; v < end; v++) {
+                int cursor = offsets[v];
+                for (Slice slice : slices) {
+                    if (v < slice.degree.length) {
+                        int degree = slice.degree[v];
+                        slice.degree[v] = cursor;
+                        cursor += degree;
+                    }
+                }
+            }
+        });
+
+        targets = new int[(int) m];
+        weights = intWeighted ? null : new double[(int) m];
+        intWeights = intWeighted ? new int[(int) m] : null;
+        filling = true;
+        parallel(pool, slices.length, s -> scan(slices[s]));
+        return new CsrGraph(offsets, targets, weights, intWeights);
+    }
+
+    /**
+     * A private helper method to run a task for every index on the pool,
+     * and rethrow the first IOException of any task.
+     *
+     * @param pool the pool
+     * @param count the number of tasks
+     * @param task the task
+     *
+     * @exception IOException if a task failed
+     */
+    private void parallel(ForkJoinPool pool, int count, IntConsumer task) throws IOException {
+        if (count <= 1) {
+            for (int t = 0; t < count; t++) {
+                task.accept(t);
+            }
+        } else {
+            pool.submit(() -> IntStream.range(0, count).parallel().forEach(task)).join();
+        }
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+    }
+
+    /**
+     * A private helper method to find the start of the first line at or
+     * after a position.
+     *
+     * @param position the position
+     * @return the position after the next newline, or the end of the file
+     *
+     * @exception IOException if the file cannot be read
+     */
+    private long lineStart(long position) throws IOException {
+        if (position == 0) {
+            return 0;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        position--;
+        while (true) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read <= 0) {
+                return channel.size();
+            }
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+    }
+
+    /**
+     * A private helper method to parse every line of a slice, counting
+     * degrees in the first pass and filling the arrays in the second.
+     * Lines which cross the end of the buffer are moved to its start
+     * before the next read.
+     *
+     * @param slice the slice
+     */
+    private void scan(Slice slice) {
+        try {
+            byte[] buf = new byte[chunk];
+            ByteBuffer buffer = ByteBuffer.wrap(buf);
+            long bufStart = bounds[slice.index];
+            long position = bufStart;
+            long end = bounds[slice.index + 1];
+            int length = 0;
+            while (position < end) {
+                if (failure.get() != null) {
+                    return;
+                }
+                int read = (int) Math.min(buf.length - length, end - position);
+                if (read == 0) {
+                    throw new IOException("line at byte " + bufStart + " is longer than " + buf.length + " bytes");
+                }
+                buffer.limit(length + read).position(length);
+                while (buffer.hasRemaining()) {
+                    if (channel.read(buffer, position + buffer.position() - length) < 0) {
+                        throw new IOException("file was truncated while loading");
+                    }
+                }
+                position += read;
+                length += read;
+
+                int start = 0;
+                for (int i = 0; i < length; i++) {
+                    if (buf[i] == '\n') {
+                        slice.parseLine(buf, start, i, bufStart + start);
+                        start = i + 1;
+                    }
+                }
+                if (position == end && start < length) {
+                    slice.parseLine(buf, start, length, bufStart + start);
+                    start = length;
+                }
+                System.arraycopy(buf, start, buf, 0, length - start);
+                length -= start;
+                bufStart += start;
+            }
+        } catch (IOException e) {
+            failure.compareAndSet(null, e);
+        }
+    }
+
+    /**
+     * The state of one slice of the file: its degree counts, which become
+     * its write cursors for the second pass, and the fields of the line
+     * being parsed.
+     */
+    private class Slice {
+        private final int index;
+        private int[] degree = new int[16];
+        private int maxVertex = -1;
+        private long edgeCount = 0;
+        private boolean intWeighted = true;
+        private int pos;
+        private long intValue;
+        private double value;
+        private boolean isInt;
+
+        Slice(int index) {
+            this.index = index;
+        }
+
+        /**
+         * Parses one line and records its edge.
+         *
+         * @param buf the buffer
+         * @param from the start of the line
+         * @param to the end of the line, exclusive
+         * @param offset the position of the line in the file
+         *
+         * @exception IOException if the line is malformed
+         */
+        void parseLine(byte[] buf, int from, int to, long offset) throws IOException {
+            pos = skipSpace(buf, from, to);
+            if (pos == to || buf[pos] == '#' || buf[pos] == '%') {
+                return;
+            }
+            int src = parseVertex(buf, to, offset);
+            int dst = parseVertex(buf, to, offset);
+            parseWeight(buf, to, offset);
+            if (skipSpace(buf, pos, to) != to) {
+                throw new IOException("malformed edge at byte " + offset);
+            }
+
+            if (!filling) {
+                if (src >= degree.length) {
+                    degree = Arrays.copyOf(degree, Math.max(src + 1, 2 * degree.length));
+                }
+                degree[src]++;
+                maxVertex = Math.max(maxVertex, Math.max(src, dst));
+                edgeCount++;
+                intWeighted &= isInt;
+            } else {
+                int e = degree[src]++;
+                targets[e] = dst;
+                if (intWeights != null) {
+                    intWeights[e] = (int) intValue;
+                } else {
+                    weights[e] = value;
+                }
+            }
+        }
+
+        private int parseVertex(byte[] buf, int to, long offset) throws IOException {
+            pos = skipSpace(buf, pos, to);
+            int start = pos;
+            long v = 0;
+            while (pos < to && buf[pos] >= '0' && buf[pos] <= '9' && v <= Integer.MAX_VALUE) {
+                v = 10 * v + (buf[pos++] - '0');
+            }
+            if (pos == start || v >= Integer.MAX_VALUE || (pos < to && !isSpace(buf[pos]))) {
+                throw new IOException("malformed edge at byte " + offset);
+            }
+            return (int) v;
+        }
+
+        /**
+         * Parses a weight into value, and into intValue if it is an
+         * integer in int range. Decimals with at most 15 significant
+         * digits are parsed exactly as one correctly rounded division,
+         * and anything else by Double.parseDouble.
+         */
+        private void parseWeight(byte[] buf, int to, long offset) throws IOException {
+            pos = skipSpace(buf, pos, to);
+            int start = pos;
+            boolean negative = false;
+            if (pos < to && (buf[pos] == '-' || buf[pos] == '+')) {
+                negative = buf[pos++] == '-';
+            }
+            long mantissa = 0;
+            int digits = 0;
+            int fraction = -1;
+            while (pos < to && (buf[pos] >= '0' && buf[pos] <= '9' || buf[pos] == '.' && fraction < 0)) {
+                if (buf[pos] == '.') {
+                    fraction = 0;
+                } else {
+                    if (digits < 18) {
+                        mantissa = 10 * mantissa + (buf[pos] - '0');
+                    }
+                    digits++;
+                    if (fraction >= 0) {
+                        fraction++;
+                    }
+                }
+                pos++;
+            }
+            if ((pos < to && !isSpace(buf[pos])) || digits == 0) {
+                while (pos < to && !isSpace(buf[pos])) {
+                    pos++;
+                }
+                try {
+                    value = Double.parseDouble(new String(buf, start, pos - start, StandardCharsets.ISO_8859_1));
+                } catch (NumberFormatException e) {
+                    throw new IOException("malformed edge at byte " + offset);
+                }
+                isInt = false;
+                return;
+            }
+
+            long signed = negative ? -mantissa : mantissa;
+            isInt = fraction < 0 && digits <= 10 && signed >= Integer.MIN_VALUE && signed <= Integer.MAX_VALUE;
+            intValue = signed;
+            if (digits <= 15 && fraction < POWERS_OF_TEN.length) {
+                value = fraction > 0 ? signed / POWERS_OF_TEN[fraction] : signed;
+            } else {
+                value = Double.parseDouble(new String(buf, start, pos - start, StandardCharsets.ISO_8859_1));
+            }
+        }
+
+        private int skipSpace(byte[] buf, int from, int to) {
+            while (from < to && isSpace(buf[from])) {
+                from++;
+            }
+            return from;
+        }
+
+        private boolean isSpace(byte b) {
+            return b == ' ' || b == '\t' || b == '\r';
+        }
+    }
+}
@@ -0,0 +1,171 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * A Test Harness for the EdgeListLoader class.
+ */
+public class EdgeListLoaderTests {
+    static boolean VERBOSE = true;
+    static int numTests = 0;
+    static int failedTests = 0;
+
+    /**
+     * The main method runs the tests.
+     *
+     * @param args Not used
+     */
+    public static void main(String[] args) throws IOException {
+        numTests = 0;
+        failedTests = 0;
+
+        Path dir = Files.createTempDirectory("edges");
+        ForkJoinPool pool = new ForkJoinPool(4);
+        randomTests(dir, pool, false);
+        randomTests(dir, pool, true);
+        formatTests(dir, pool);
+        exceptionTests(dir, pool);
+        pool.shutdown();
+        Files.delete(dir);
+
+        System.out.println("Total tests: " + numTests);
+        System.out.println("Failed tests: " + failedTests);
+    }
+
+    private static void printTest(Object expected, Object actual, String test) {
+        if (!expected.equals(actual)) {
+            if (VERBOSE) {
+                System.out.println("FAILED! " + test + " test.");
+                System.out.println("\texpected: " + expected.toString());
+                System.out.println("\tactual: " + actual.toString());
+            }
+            failedTests++;
+        }
+        numTests++;
+    }
+
+    /**
+     * Tests that a random edge list loads into the same graph as
+     * CsrGraph.fromEdges, for several slice counts and buffer sizes
+     */
+    private static void randomTests(Path dir, ForkJoinPool pool, boolean doubles) throws IOException {
+        String name = doubles ? "double" : "int";
+        Random rand = new Random(doubles ? 41 : 42);
+        int n = 2000;
+        int m = 10000;
+        int[] sources = new int[m];
+        int[] targets = new int[m];
+        int[] intWeights = new int[m];
+        double[] weights = new double[m];
+        for (int e = 0; e < m; e++) {
+            sources[e] = e == 0 ? n - 1 : rand.nextInt(n);
+            targets[e] = e == 0 ? n - 1 : rand.nextInt(n);
+            intWeights[e] = rand.nextInt(1000);
+            weights[e] = Math.round(rand.nextDouble() * 1e6) / 1e3;
+        }
+        CsrGraph expected = doubles ? CsrGraph.fromEdges(n, sources, targets, weights) : CsrGraph.fromEdges(n, sources, targets, intWeights);
+
+        Path file = dir.resolve("random.txt");
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.US_ASCII)) {
+            out.write("# a random graph\n");
+            for (int e = 0; e < m; e++) {
+                if (e % 500 == 0) {
+                    out.write("\n");
+                }
+                String weight = doubles ? Double.toString(weights[e]) : Integer.toString(intWeights[e]);
+                out.write(sources[e] + (e % 3 == 0 ? "\t" : " ") + targets[e] + " " + weight + (e % 7 == 0 ? "\r\n" : "\n"));
+            }
+        }
+
+        int[][] configurations = { { 1, EdgeListLoader.CHUNK }, { 3, 4096 }, { 7, 64 }, { 64, 100 } };
+        for (int[] configuration : configurations) {
+            CsrGraph actual = EdgeListLoader.load(file, pool, configuration[0], configuration[1]);
+            String test = name + " graph, " + configuration[0] + " slices, " + configuration[1] + " byte buffer";
+            printTest(doubles, !actual.isIntWeighted(), test + " weight type");
+            printTest(true, sameGraph(expected, actual), test);
+        }
+        printTest(true, sameGraph(expected, EdgeListLoader.load(file, pool)), name + " graph, public load");
+        Files.delete(file);
+    }
+
+    /**
+     * Tests for comments, spacing and the different ways of writing weights
+     */
+    private static void formatTests(Path dir, ForkJoinPool pool) throws IOException {
+        printTest(true, sameGraph(CsrGraph.fromEdges(3, new int[] { 0, 2, 0 }, new int[] { 1, 0, 2 }, new int[] { 5, -3, 2147483647 }),
+                load(dir, pool, "% header\n  0   1 5  \n\n2\t0\t-3\n# comment\n0 2 +2147483647")), "int weights, no final newline");
+        printTest(true, sameGraph(CsrGraph.fromEdges(2, new int[] { 0, 1 }, new int[] { 1, 0 }, new double[] { 2.5, 7 }),
+                load(dir, pool, "0 1 2.5\r\n1 0 7\r\n")), "mixed weights are double");
+        printTest(true, sameGraph(CsrGraph.fromEdges(2, new int[] { 0, 0 }, new int[] { 1, 1 }, new double[] { 2147483648.0, 3 }),
+                load(dir, pool, "0 1 2147483648\n0 1 3\n")), "weight beyond int range is double");
+
+        String[] weights = { "0.1", "1e-3", "-0.75", "1.", ".5", "0.12345678901234567890", "123456789012345678", "Infinity", "6.02E23" };
+        for (String weight : weights) {
+            CsrGraph graph = load(dir, pool, "0 1 " + weight + "\n");
+            printTest(Double.parseDouble(weight), graph.getWeight(0), "weight " + weight);
+        }
+
+        CsrGraph empty = load(dir, pool, "# nothing here\n\n");
+        printTest(0, empty.vertexCount(), "empty vertex count");
+        printTest(0, empty.edgeCount(), "empty edge count");
+        printTest(5, load(dir, pool, "4 0 1\n").vertexCount(), "vertex count is largest index + 1");
+    }
+
+    /**
+     * Tests for the exceptions of load
+     */
+    private static void exceptionTests(Path dir, ForkJoinPool pool) throws IOException {
+        printTest("NullPointerException", thrown(() -> EdgeListLoader.load(null)), "load null file");
+        printTest("NullPointerException", thrown(() -> EdgeListLoader.load(dir.resolve("x"), null)), "load null pool");
+        printTest("NoSuchFileException", thrown(() -> EdgeListLoader.load(dir.resolve("missing.txt"))), "load missing file");
+
+        String[] malformed = { "0 1\n", "0 1 2 3\n", "-1 0 2\n", "0 x 2\n", "0 1 2x\n", "0 1 -\n", "3000000000 0 1\n", "0,1,2\n" };
+        for (String text : malformed) {
+            printTest("IOException", thrown(() -> load(dir, pool, "0 1 1\n" + text)), "malformed " + text.trim());
+        }
+
+        Path file = dir.resolve("long.txt");
+        Files.write(file, "0 1 1\n0 1 1.0000000000000000000000000000000000000\n".getBytes(StandardCharsets.US_ASCII));
+        printTest("IOException", thrown(() -> EdgeListLoader.load(file, pool, 1, 16)), "line longer than the buffer");
+        printTest("none", thrown(() -> EdgeListLoader.load(file, pool, 1, 64)), "line shorter than the buffer");
+        Files.delete(file);
+    }
+
+    private static CsrGraph load(Path dir, ForkJoinPool pool, String text) throws IOException {
+        Path file = dir.resolve("small.txt");
+        Files.write(file, text.getBytes(StandardCharsets.UTF_8));
+        try {
+            return EdgeListLoader.load(file, pool, 3, 64);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    private static boolean sameGraph(CsrGraph expected, CsrGraph actual) {
+        if (expected.isIntWeighted() != actual.isIntWeighted()) {
+            return false;
+        }
+        return Arrays.equals(expected.getOffsets(), actual.getOffsets())
+                && Arrays.equals(expected.getTargets(), actual.getTargets())
+                && (expected.isIntWeighted() ? Arrays.equals(expected.getIntWeights(), actual.getIntWeights())
+                        : Arrays.equals(expected.getWeights(), actual.getWeights()));
+    }
+
+    private interface Action {
+        void run() throws IOException;
+    }
+
+    private static String thrown(Action action) {
+        try {
+            action.run();
+            return "none";
+        } catch (IOException | RuntimeException e) {
+            return e.getClass().getSimpleName();
+        }
+    }
+}
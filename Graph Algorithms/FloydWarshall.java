@@ -0,0 +1,391 @@
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * All-pairs shortest paths over an adjacency matrix, computed with a
+ * cache-blocked Floyd-Warshall. The V x V distance matrix is split into
+ * BLOCK x BLOCK tiles, and for each diagonal tile in turn
+ *
+ *      1. the diagonal tile is updated through itself,
+ *      2. the tiles in its row and column are updated through it,
+ *      3. every other tile is updated through its row and column tiles,
+ *
+ * so that each phase only reads tiles which are no longer written. The
+ * tiles of phases 2 and 3 are independent of each other and are spread
+ * across a ForkJoinPool.
+ *
+ * The distances and the next-hop matrix, from which the paths are
+ * reconstructed, are stored as flat primitive arrays using 12V^2 bytes.
+ * Negative weights are allowed, but not negative cycles.
+ */
+public class FloydWarshall {
+    /** The side length of a tile, chosen so that three tiles fit in the L2 cache. */
+    final static int BLOCK = 64;
+
+    private final int n;
+    private final double[] dist;
+    private final int[] next;
+    private final boolean intWeighted;
+
+    /**
+     * Initialises the distance and next-hop matrices from the edges.
+     *
+     * @param n the number of vertices
+     * @param intWeighted true if the graph has int weights
+     *
+     * @exception IllegalArgumentException if the matrices would not fit in an array
+     */
+    private FloydWarshall(int n, boolean intWeighted) {
+        if ((long) n * n > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("graph is too large for an all-pairs matrix");
+        }
+        this.n = n;
+        this.dist = new double[n * n];
+        this.next = new int[n * n];
+        this.intWeighted = intWeighted;
+        Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        Arrays.fill(next, ShortestPathTree.NO_VERTEX);
+        for (int i = 0; i < n; i++) {
+            dist[i * n + i] = 0.0;
+            next[i * n + i] = i;
+        }
+    }
+
+    /**
+     * Computes all-pairs shortest paths of an adjacency matrix with double
+     * weights on the common pool.
+     *
+     * @param graph a square adjacency matrix, where 0 is no edge
+     * @return the distances and paths between every pair of vertices
+     *
+     * @exception NullPointerException if graph is null
+     * @exception IllegalArgumentException if graph is not square or has a negative cycle
+     */
+    public static FloydWarshall compute(double[][] graph) {
+        return compute(graph, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Computes all-pairs shortest paths of an adjacency matrix with double
+     * weights.
+     *
+     * @param graph a square adjacency matrix, where 0 is no edge
+     * @param pool the pool which updates the tiles
+     * @return the distances and paths between every pair of vertices
+     *
+     * @exception NullPointerException if any parameters are null
+     * @exception IllegalArgumentException if graph is not square or has a negative cycle
+     */
+    public static FloydWarshall compute(double[][] graph, ForkJoinPool pool) {
+        if (graph == null || pool == null) {
+            throw new NullPointerException("parameters cannot be null");
+        }
+        FloydWarshall result = new FloydWarshall(graph.length, false);
+        for (int i = 0; i < graph.length; i++) {
+            checkRow(graph[i], graph.length);
+            for (int j = 0; j < graph.length; j++) {
+                if (graph[i][j] != 0.0 && i != j) {
+                    result.setEdge(i, j, graph[i][j]);
+                }
+            }
+        }
+        result.run(pool);
+        return result;
+    }
+
+    /**
+     * Computes all-pairs shortest paths of an adjacency matrix with int
+     * weights on the common pool.
+     *
+     * @param graph a square adjacency matrix, where 0 is no edge
+     * @return the distances and paths between every pair of vertices
+     *
+     * @exception NullPointerException if graph is null
+     * @exception IllegalArgumentException if graph is not square or has a negative cycle
+     */
+    public static FloydWarshall compute(int[][] graph) {
+        return compute(graph, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Computes all-pairs shortest paths of an adjacency matrix with int
+     * weights.
+     *
+     * @param graph a square adjacency matrix, where 0 is no edge
+     * @param pool the pool which updates the tiles
+     * @return the distances and paths between every pair of vertices
+     *
+     * @exception NullPointerException if any parameters are null
+     * @exception IllegalArgumentException if graph is not square or has a negative cycle
+     */
+    public static FloydWarshall compute(int[][] graph, ForkJoinPool pool) {
+        if (graph == null || pool == null) {
+            throw new NullPointerException("parameters cannot be null");
+        }
+        FloydWarshall result = new FloydWarshall(graph.length, true);
+        for (int i = 0; i < graph.length; i++) {
+            checkRow(graph[i], graph.length);
+            for (int j = 0; j < graph.length; j++) {
+                if (graph[i][j] != 0 && i != j) {
+                    result.setEdge(i, j, graph[i][j]);
+                }
+            }
+        }
+        result.run(pool);
+        return result;
+    }
+
+    /**
+     * Returns the number of vertices.
+     *
+     * @return the number of vertices
+     */
+    public int size() {
+        return n;
+    }
+
+    /**
+     * Returns true if the graph had int weights.
+     *
+     * @return true if the distances are sums of int weights
+     */
+    public boolean isIntWeighted() {
+        return intWeighted;
+    }
+
+    /**
+     * Returns true if there is a path from src to dst.
+     *
+     * @param src the source vertex
+     * @param dst the target vertex
+     * @return true if dst is reachable from src
+     */
+    public boolean isReachable(int src, int dst) {
+        return next[src * n + dst] != ShortestPathTree.NO_VERTEX;
+    }
+
+    /**
+     * Returns the shortest distance from src to dst.
+     *
+     * @param src the source vertex
+     * @param dst the target vertex
+     * @return the distance, or positive infinity if dst is unreachable
+     */
+    public double getDistance(int src, int dst) {
+        return dist[src * n + dst];
+    }
+
+    /**
+     * Returns the shortest distance from src to dst of an int weighted
+     * graph.
+     *
+     * @param src the source vertex
+     * @param dst the target vertex
+     * @return the distance, or Integer.MAX_VALUE if dst is unreachable
+     *
+     * @exception IllegalStateException if the graph was not int weighted
+     */
+    public int getIntDistance(int src, int dst) {
+        if (!intWeighted) {
+            throw new IllegalStateException("graph was not int weighted");
+        }
+        double d = dist[src * n + dst];
+        return d == Double.POSITIVE_INFINITY ? Integer.MAX_VALUE : (int) d;
+    }
+
+    /**
+     * Returns the vertex after src on the shortest path from src to dst.
+     *
+     * @param src the source vertex
+     * @param dst the target vertex
+     * @return the next hop, src if src is dst, or NO_VERTEX if dst is unreachable
+     */
+    public int getNext(int src, int dst) {
+        return next[src * n + dst];
+    }
+
+    /**
+     * Reconstructs the shortest path from src to dst by following the
+     * next-hop matrix.
+     *
+     * @param src the source vertex
+     * @param dst the target vertex
+     * @return the vertices of the path from src to dst, or an empty array if dst is unreachable
+     */
+    public int[] getPath(int src, int dst) {
+        if (!isReachable(src, dst)) {
+            return new int[0];
+        }
+        int length = 1;
+        for (int v = src; v != dst; v = next[v * n + dst]) {
+            length++;
+        }
+        int[] path = new int[length];
+        path[0] = src;
+        for (int i = 1, v = src; v != dst; i++) {
+            v = next[v * n + dst];
+            path[i] = v;
+        }
+        return path;
+    }
+
+    /**
+     * Returns the result of one source as a ShortestPathTree, whose
+     * predecessors are taken from the next-hop matrix.
+     *
+     * @param src the source vertex
+     * @return the shortest path tree of src
+     */
+    public ShortestPathTree getTree(int src) {
+        int[] prev = new int[n];
+        Arrays.fill(prev, ShortestPathTree.NO_VERTEX);
+        for (int v = 0; v < n; v++) {
+            if (v != src && isReachable(src, v)) {
+                int u = src;
+                while (next[u * n + v] != v) {
+                    u = next[u * n + v];
+                }
+                prev[v] = u;
+            }
+        }
+        if (!intWeighted) {
+            return new ShortestPathTree(src, Arrays.copyOfRange(dist, src * n, src * n + n), prev);
+        }
+        int[] intDist = new int[n];
+        for (int v = 0; v < n; v++) {
+            intDist[v] = getIntDistance(src, v);
+        }
+        return new ShortestPathTree(src, intDist, prev);
+    }
+
+    /**
+     * A private helper method to check a row of a double matrix.
+     *
+     * @param row the row
+     * @param n the number of rows
+     */
+    private static void checkRow(double[] row, int n) {
+        if (row == null) {
+            throw new NullPointerException("graph cannot be null");
+        } else if (row.length != n) {
+            throw new IllegalArgumentException("graph must be a square matrix");
+        }
+    }
+
+    /**
+     * A private helper method to check a row of an int matrix.
+     *
+     * @param row the row
+     * @param n the number of rows
+     */
+    private static void checkRow(int[] row, int n) {
+        if (row == null) {
+            throw new NullPointerException("graph cannot be null");
+        } else if (row.length != n) {
+            throw new IllegalArgumentException("graph must be a square matrix");
+        }
+    }
+
+    /**
+     * A private helper method to record an edge.
+     *
+     * @param i the source of the edge
+     * @param j the target of the edge
+     * @param w the weight
+     */
+    private void setEdge(int i, int j, double w) {
+        dist[i * n + j] = w;
+        next[i * n + j] = j;
+    }
+
+    /**
+     * A private helper method to run the three phases for every diagonal
+     * tile, and to check the diagonal for negative cycles.
+     *
+     * @param pool the pool
+     */
+    private void run(ForkJoinPool pool) {
+        int blocks = (n + BLOCK - 1) / BLOCK;
+        for (int kb = 0; kb < blocks; kb++) {
+            final int k = kb;
+            updateTile(k, k, k);
+            parallel(pool, 2 * blocks, t -> {
+                int other = t >> 1;
+                if (other == k) {
+                    return;
+                }
+                if ((t & 1) == 0) {
+                    updateTile(k, other, k);
+                } else {
+                    updateTile(other, k, k);
+                }
+            });
+            parallel(pool, blocks * blocks, t -> {
+                int ib = t / blocks;
+                int jb = t % blocks;
+                if (ib != k && jb != k) {
+                    updateTile(ib, jb, k);
+                }
+            });
+        }
+
+        for (int i = 0; i < n; i++) {
+            if (dist[i * n + i] < 0) {
+                throw new IllegalArgumentException("graph contains a negative cycle");
+            }
+        }
+    }
+
+    /**
+     * A private helper method to run a task for every index, on the pool
+     * if there is more than one tile.
+     *
+     * @param pool the pool
+     * @param count the number of tasks
+     * @param task the task
+     */
+    private static void parallel(ForkJoinPool pool, int count, IntConsumer task) {
+        if (count <= 2) {
+            for (int t = 0; t < count; t++) {
+                task.accept(t);
+            }
+        } else {
+            pool.submit(() -> IntStream.range(0, count).parallel().forEach(task)).join();
+        }
+    }
+
+    /**
+     * A private helper method to update tile (ib, jb) through the vertices
+     * of diagonal tile kb.
+     *
+     * @param ib the row of the tile
+     * @param jb the column of the tile
+     * @param kb the diagonal tile
+     */
+    private void updateTile(int ib, int jb, int kb) {
+        int iEnd = Math.min(n, (ib + 1) * BLOCK);
+        int jStart = jb * BLOCK;
+        int jEnd = Math.min(n, jStart + BLOCK);
+        int kEnd = Math.min(n, (kb + 1) * BLOCK);
+        for (int k = kb * BLOCK; k < kEnd; k++) {
+            int kRow = k * n;
+            for (int i = ib * BLOCK; i < iEnd; i++) {
+                int iRow = i * n;
+                double dik = dist[iRow + k];
+                if (dik == Double.POSITIVE_INFINITY) {
+                    continue;
+                }
+                int hop = next[iRow + k];
+                for (int j = jStart; j < jEnd; j++) {
+                    double d = dik + dist[kRow + j];
+                    if (d < dist[iRow + j]) {
+                        dist[iRow + j] = d;
+                        next[iRow + j] = hop;
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,152 @@
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * A Test Harness for the FloydWarshall class.
+ */
+public class FloydWarshallTests {
+    static boolean VERBOSE = true;
+    static int numTests = 0;
+    static int failedTests = 0;
+
+    /**
+     * The main method runs the tests.
+     *
+     * @param args Not used
+     */
+    public static void main(String[] args) {
+        numTests = 0;
+        failedTests = 0;
+
+        intTests();
+        doubleTests();
+        negativeTests();
+        exceptionTests();
+
+        System.out.println("Total tests: " + numTests);
+        System.out.println("Failed tests: " + failedTests);
+    }
+
+    private static void printTest(Object expected, Object actual, String test) {
+        if (!expected.equals(actual)) {
+            if (VERBOSE) {
+                System.out.println("FAILED! " + test + " test.");
+                System.out.println("\texpected: " + expected.toString());
+                System.out.println("\tactual: " + actual.toString());
+            }
+            failedTests++;
+        }
+        numTests++;
+    }
+
+    /**
+     * Tests for compute(int[][] graph) against dijkstraIntTree, on a size
+     * which is not a multiple of the tile size
+     */
+    private static void intTests() {
+        int n = 2 * FloydWarshall.BLOCK + 22;
+        int[][] graph = GraphExperiments.randomSparseMatrix(n, 31);
+        graph[5] = new int[n];
+        ForkJoinPool pool = new ForkJoinPool(3);
+        FloydWarshall all = FloydWarshall.compute(graph, pool);
+        pool.shutdown();
+        CsrGraph csr = CsrGraph.fromMatrix(graph);
+
+        int wrongDistances = 0;
+        int wrongPaths = 0;
+        for (int src = 0; src < n; src++) {
+            ShortestPathTree tree = ShortestPath.dijkstraIntTree(graph, src);
+            for (int dst = 0; dst < n; dst++) {
+                if (tree.getIntDistance(dst) != all.getIntDistance(src, dst)) {
+                    wrongDistances++;
+                }
+                if (all.isReachable(src, dst) && ShortestPathTests.pathWeight(csr, all.getPath(src, dst)) != all.getDistance(src, dst)) {
+                    wrongPaths++;
+                }
+            }
+        }
+        printTest(0, wrongDistances, "int distances");
+        printTest(0, wrongPaths, "int path weights");
+        printTest(true, all.isIntWeighted(), "int weighted");
+        printTest(false, all.isReachable(5, 6), "row without edges is unreachable");
+        printTest(0, all.getPath(5, 6).length, "unreachable path is empty");
+        printTest("[7]", Arrays.toString(all.getPath(7, 7)), "path to itself");
+
+        ShortestPathTree expected = ShortestPath.dijkstraIntTree(graph, 9);
+        ShortestPathTree actual = all.getTree(9);
+        printTest(expected.toIntVertices().get(n - 1).getDistance(), actual.toIntVertices().get(n - 1).getDistance(), "getTree distance");
+        printTest(all.getPath(9, n - 1).length, actual.getIntVertex(n - 1).getPathLength(), "getTree path length");
+    }
+
+    /**
+     * Tests for compute(double[][] graph) against dijkstraDoubleTree
+     */
+    private static void doubleTests() {
+        Random rand = new Random(32);
+        int n = 100;
+        double[][] graph = new double[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int d = 0; d < 3; d++) {
+                graph[i][rand.nextInt(n)] = 1 + 9 * rand.nextDouble();
+            }
+        }
+        FloydWarshall all = FloydWarshall.compute(graph);
+        int wrong = 0;
+        for (int src = 0; src < n; src++) {
+            ShortestPathTree tree = ShortestPath.dijkstraDoubleTree(graph, src);
+            for (int dst = 0; dst < n; dst++) {
+                if (round(tree.getDistance(dst)) != round(all.getDistance(src, dst))) {
+                    wrong++;
+                }
+            }
+        }
+        printTest(0, wrong, "double distances");
+        printTest("IllegalStateException", thrown(() -> all.getIntDistance(0, 1)), "getIntDistance of double graph");
+    }
+
+    /**
+     * Tests for negative weights and negative cycles
+     */
+    private static void negativeTests() {
+        int[][] graph = {
+            { 0, 4, 2, 0 },
+            { 0, 0, 0, 1 },
+            { 0, -3, 0, 6 },
+            { 0, 0, 0, 0 }
+        };
+        FloydWarshall all = FloydWarshall.compute(graph);
+        printTest(-1, all.getIntDistance(0, 1), "negative edge distance");
+        printTest(0, all.getIntDistance(0, 3), "negative edge path distance");
+        printTest("[0, 2, 1, 3]", Arrays.toString(all.getPath(0, 3)), "negative edge path");
+        printTest(2, all.getNext(0, 3), "next hop");
+
+        graph[3][2] = -5;
+        printTest("IllegalArgumentException", thrown(() -> FloydWarshall.compute(graph)), "negative cycle");
+    }
+
+    /**
+     * Tests for the exceptions of compute
+     */
+    private static void exceptionTests() {
+        printTest("NullPointerException", thrown(() -> FloydWarshall.compute((int[][]) null)), "compute null graph");
+        printTest("IllegalArgumentException", thrown(() -> FloydWarshall.compute(new double[][] { { 0, 1 } })), "compute non-square graph");
+        printTest("none", thrown(() -> FloydWarshall.compute(new int[0][0])), "compute empty graph");
+    }
+
+    private static String thrown(Runnable action) {
+        try {
+            action.run();
+            return "none";
+        } catch (RuntimeException e) {
+            return e.getClass().getSimpleName();
+        }
+    }
+
+    /**
+     * Rounds a distance so that paths summed in a different order compare equal.
+     */
+    private static double round(double value) {
+        return Math.round(value * 1e6) / 1e6;
+    }
+}
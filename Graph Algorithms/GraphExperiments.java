@@ -0,0 +1,1061 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Timing experiments for the graph algorithms. Times are in seconds.
+ */
+public class GraphExperiments {
+
+    public static final int[] SIZES = { 1600, 3200, 6400, 12800, 25600, 51200 };
+    public static final int[] MATRIX_SIZES = { 200, 400, 800, 1600, 3200 };
+    public static final int[] ALL_PAIRS_SIZES = { 250, 500, 1000, 2000 };
+    public static final int[] GRID_SIZES = { 10000, 40000, 160000, 640000 };
+    public static final int QUERIES = 50;
+    public static final int DEGREE = 4;
+    public static final int MAX_WEIGHT = 100;
+
+    public static void main(String[] args) {
+        System.out.println("Dijkstra (PriorityQueue vs IndexedMinHeap)");
+        DijkstraHeapExperiment();
+
+        System.out.println("Dijkstra (boxed vs primitive matrix)");
+        DijkstraPrimitiveExperiment();
+
+        System.out.println("Point-to-point (Dijkstra vs bidirectional, " + QUERIES + " queries)");
+        PointToPointExperiment();
+
+        System.out.println("Contraction hierarchies (" + QUERIES + " queries)");
+        ContractionHierarchyExperiment();
+
+        System.out.println("Single-source (Dijkstra vs delta-stepping, " + Runtime.getRuntime().availableProcessors() + " threads)");
+        DeltaSteppingExperiment();
+
+        System.out.println("All-pairs (V x Dijkstra vs blocked Floyd-Warshall)");
+        AllPairsExperiment();
+
+        System.out.println("Multi-source (" + QUERIES + " x dijkstraInt vs batch)");
+        BatchExperiment();
+
+        System.out.println("Dijkstra (PriorityQueue vs IndexedMinHeap vs BucketQueue vs RadixHeap)");
+        MonotoneQueueExperiment();
+
+        System.out.println("Unit and 0/1 weights (IndexedMinHeap vs BFS, " + QUERIES + " searches)");
+        BfsExperiment();
+
+        System.out.println("Bounded searches (" + QUERIES + " searches)");
+        SearchOptionsExperiment();
+
+        System.out.println("Memory mapped graphs (open vs copy into heap, " + QUERIES + " searches)");
+        MappedGraphExperiment();
+
+        System.out.println("Edge list loading (BufferedReader and split vs EdgeListLoader)");
+        EdgeListExperiment();
+
+        System.out.println("Labeled graphs (adjacency list vs reused LabeledGraph, " + QUERIES + " queries)");
+        LabelExperiment();
+
+        System.out.println("Hot sources (uncached vs ShortestPathCache of 16 trees, " + 4 * QUERIES + " queries)");
+        CacheExperiment();
+
+        System.out.println("Traffic updates (recompute vs DynamicShortestPathTree, 4 trees, " + 4 * QUERIES + " updates)");
+        DynamicExperiment();
+
+        System.out.println("Alternative routes (shortestPath vs KShortestPaths, " + QUERIES / 10 + " queries)");
+        KShortestPathsExperiment();
+
+        System.out.println("Negative weights (Dijkstra without them vs BellmanFord, " + QUERIES / 10 + " searches)");
+        BellmanFordExperiment();
+
+        System.out.println("All-pairs with negative weights (FloydWarshall vs Johnson to disk)");
+        JohnsonExperiment();
+
+        System.out.println("Distance tables (" + 4 * QUERIES + " x " + 4 * QUERIES + ", Batch vs ManyToMany over a hierarchy)");
+        ManyToManyExperiment();
+
+        System.out.println("Sparse matrices (matrix vs conversion to CSR, " + QUERIES / 10 + " searches, " + MATRIX_SIZES[MATRIX_SIZES.length - 1] + " vertices, density in 1/1000)");
+        SparseMatrixExperiment();
+
+        System.out.println("Dense all-pairs (V x dijkstraDouble vs min-plus squaring, vectorized: " + MinPlus.isVectorized() + ")");
+        MinPlusExperiment();
+    }
+
+    /**
+     * Print out the results of the experiment.
+     * @param sizes the sizes of the experiment
+     * @param time the map of test -> times
+     */
+    private static void printTime(int[] sizes, Map<String, ArrayList<Double>> time) {
+        for (String key : time.keySet()) {
+            System.out.print("\t" + key);
+        }
+        System.out.println();
+
+        for (int i = 0; i < sizes.length; i++) {
+            System.out.print(sizes[i]);
+            for (String key : time.keySet()) {
+                System.out.print("\t" + time.get(key).get(i));
+            }
+            System.out.println();
+        }
+    }
+
+    /**
+     * Add a new time result to the map of results
+     *
+     * @param time the map of results
+     * @param key the test
+     * @param value the time to add
+     */
+    private static void addTime(Map<String, ArrayList<Double>> time, String key, Double value) {
+        ArrayList<Double> val = time.getOrDefault(key, new ArrayList<>());
+        val.add(value);
+        time.put(key, val);
+    }
+
+    /**
+     * Returns the seconds elapsed since a System.nanoTime() reading.
+     *
+     * @param start the starting reading
+     * @return the elapsed time in seconds
+     */
+    private static double elapsed(long start) {
+        return Math.round((System.nanoTime() - start) / 1e6) / 1000.0;
+    }
+
+    /**
+     * Builds a random sparse adjacency matrix in which every vertex has
+     * DEGREE outgoing edges, one of which forms a ring so that every
+     * vertex is reachable.
+     *
+     * @param n the number of vertices
+     * @param seed the random seed
+     * @return the adjacency matrix
+     */
+    static int[][] randomSparseMatrix(int n, long seed) {
+        Random rand = new Random(seed);
+        int[][] graph = new int[n][n];
+        for (int i = 0; i < n; i++) {
+            graph[i][(i + 1) % n] = 1 + rand.nextInt(MAX_WEIGHT);
+            for (int d = 1; d < DEGREE; d++) {
+                int j = rand.nextInt(n);
+                if (j != i) {
+                    graph[i][j] = 1 + rand.nextInt(MAX_WEIGHT);
+                }
+            }
+        }
+        return graph;
+    }
+
+    /**
+     * Builds a random sparse adjacency list in which every vertex has
+     * DEGREE outgoing edges, one of which forms a ring so that every
+     * vertex is reachable.
+     *
+     * @param n the number of vertices
+     * @param seed the random seed
+     * @return the adjacency list
+     */
+    static Map<Integer, Map<Integer, Integer>> randomSparseList(int n, long seed) {
+        Random rand = new Random(seed);
+        Map<Integer, Map<Integer, Integer>> graph = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            Map<Integer, Integer> edges = new HashMap<>();
+            edges.put((i + 1) % n, 1 + rand.nextInt(MAX_WEIGHT));
+            for (int d = 1; d < DEGREE; d++) {
+                int j = rand.nextInt(n);
+                if (j != i) {
+                    edges.put(j, 1 + rand.nextInt(MAX_WEIGHT));
+                }
+            }
+            graph.put(i, edges);
+        }
+        return graph;
+    }
+
+    /**
+     * The PriorityQueue / IndexedMinHeap Dijkstra experiment
+     */
+    public static void DijkstraHeapExperiment() {
+        TreeMap<String, ArrayList<Double>> time = new TreeMap<>();
+        for (int k = 0; k < SIZES.length; k++) {
+            Map<Integer, Map<Integer, Integer>> list = randomSparseList(SIZES[k], k);
+
+            long start = System.nanoTime();
+            LegacyDijkstra.dijkstra(list, 0);
+            addTime(time, "PriorityQueue", elapsed(start));
+
+            start = System.nanoTime();
+            ShortestPath.dijkstraInt(list, 0);
+            addTime(time, "IndexedMinHeap", elapsed(start));
+        }
+        printTime(SIZES, time);
+    }
+
+    /**
+     * The boxed / primitive adjacency matrix experiment
+     */
+    public static void DijkstraPrimitiveExperiment() {
+        TreeMap<String, ArrayList<Double>> time = new TreeMap<>();
+        for (int k = 0; k < MATRIX_SIZES.length; k++) {
+            int[][] matrix = randomSparseMatrix(MATRIX_SIZES[k], k);
+            Integer[][] boxed = new Integer[matrix.length][matrix.length];
+            for (int i = 0; i < matrix.length; i++) {
+                for (int j = 0; j < matrix.length; j++) {
+                    boxed[i][j] = matrix[i][j];
+                }
+            }
+
+            long start = System.nanoTime();
+            ShortestPath.dijkstraInt(boxed, 0);
+            addTime(time, "Integer[][]", elapsed(start));
+
+            start = System.nanoTime();
+            ShortestPath.dijkstraIntTree(matrix, 0);
+            addTime(time, "int[][] (tree)", elapsed(start));
+        }
+        printTime(MATRIX_SIZES, time);
+    }
+
+    /**
+     * The full Dijkstra / bidirectional Dijkstra point-to-point experiment
+     */
+    public static void PointToPointExperiment() {
+        TreeMap<String, ArrayList<Double>> time = new TreeMap<>();
+        for (int k = 0; k < GRID_SIZES.length; k++) {
+            CsrGraph graph = randomGrid((int) Math.sqrt(GRID_SIZES[k]), k);
+            Random rand = new Random(k);
+            int[] sources = new int[QUERIES];
+            int[] targets = new int[QUERIES];
+            for (int q = 0; q < QUERIES; q++) {
+                sources[q] = rand.nextInt(graph.vertexCount());
+                targets[q] = rand.nextInt(graph.vertexCount());
+            }
+
+            long start = System.nanoTime();
+            for (int q = 0; q < QUERIES; q++) {
+                ShortestPath.dijkstraIntTree(graph, sources[q]).getIntDistance(targets[q]);
+            }
+            addTime(time, "Dijkstra", elapsed(start));
+
+            BidirectionalDijkstra engine = new BidirectionalDijkstra(graph);
+            long settled = 0;
+            start = System.nanoTime();
+            for (int q = 0; q < QUERIES; q++) {
+                settled += engine.query(sources[q], targets[q]).getSettledCount();
+            }
+            addTime(time, "Bidirectional", elapsed(start));
+            addTime(time, "Settled (%)", Math.round(1000.0 * settled / QUERIES / graph.vertexCount()) / 10.0);
+        }
+        printTime(GRID_SIZES, time);
+    }
+
+    /**
+     * The bidirectional Dijkstra / contraction hierarchy experiment
+     */
+    public static void ContractionHierarchyExperiment() {
+        TreeMap<String, ArrayList<Double>> time = new TreeMap<>();
+        for (int k = 0; k < GRID_SIZES.length; k++) {
+            CsrGraph graph = randomGrid((int) Math.sqrt(GRID_SIZES[k]), k);
+            Random rand = new Random(k);
+            int[] sources = new int[QUERIES];
+            int[] targets = new int[QUERIES];
+            for (int q = 0; q < QUERIES; q++) {
+                sources[q] = rand.nextInt(graph.vertexCount());
+                targets[q] = rand.nextInt(graph.vertexCount());
+            }
+
+            BidirectionalDijkstra bidirectional = new BidirectionalDijkstra(graph);
+            long start = System.nanoTime();
+            for (int q = 0; q < QUERIES; q++) {
+                bidirectional.query(sources[q], targets[q]);
+            }
+            addTime(time, "Bidirectional", elapsed(start));
+
+            start = System.nanoTime();
+            ContractionHierarchy hierarchy = ContractionHierarchy.build(graph);
+            addTime(time, "CH Preprocess", elapsed(start));
+
+            start = System.nanoTime();
+            for (int q = 0; q < QUERIES; q++) {
+                hierarchy.query(sources[q], targets[q]);
+            }
+            addTime(time, "CH Query", elapsed(start));
+        }
+        printTime(GRID_SIZES, time);
+    }
+
+    /**
+     * The Dijkstra / delta-stepping full shortest path tree experiment, on
+     * grids and on random graphs with DEGREE edges per vertex
+     */
+    public static void DeltaSteppingExperiment() {
+        TreeMap<String, ArrayList<Double>> time = new TreeMap<>();
+        for (int k = 0; k < GRID_SIZES.length; k++) {
+            CsrGraph grid = randomGrid((int) Math.sqrt(GRID_SIZES[k]), k);
+            Integer[] labels = new Integer[GRID_SIZES[k]];
+            for (int i = 0; i < labels.length; i++) {
+                labels[i] = i;
+            }
+            CsrGraph random = CsrGraph.fromAdjListInt(randomSparseList(GRID_SIZES[k], k), labels);
+
+            long start = System.nanoTime();
+            ShortestPath.dijkstraIntTree(grid, 0);
+            addTime(time, "Grid Dijkstra", elapsed(start));
+
+            start = System.nanoTime();
+            DeltaStepping.run(grid, 0);
+            addTime(time, "Grid Delta", elapsed(start));
+
+            start = System.nanoTime();
+            ShortestPath.dijkstraIntTree(random, 0);
+            addTime(time, "Random Dijkstra", elapsed(start));
+
+            start = System.nanoTime();
+            DeltaStepping.run(random, 0);
+            addTime(time, "Random Delta", elapsed(start));
+        }
+        printTime(GRID_SIZES, time);
+    }
+
+    /**
+     * The all-pairs experiment, on random sparse matrices converted to
+     * double weights
+     */
+    public static void AllPairsExperiment() {
+        TreeMap<String, ArrayList<Double>> time = new TreeMap<>();
+        for (int k = 0; k < ALL_PAIRS_SIZES.length; k++) {
+            int[][] matrix = randomSparseMatrix(ALL_PAIRS_SIZES[k], k);
+            double[][] graph = new double[matrix.length][matrix.length];
+            for (int i = 0; i < matrix.length; i++) {
+                for (int j = 0; j < matrix.length; j++) {
+                    graph[i][j] = matrix[i][j];
+                }
+            }
+
+            long start = System.nanoTime();
+            for (int src = 0; src < graph.length; src++) {
+                ShortestPath.dijkstraDoubleTree(graph, src);
+            }
+            addTime(time, "Dijkstra", elapsed(start));
+
+            start = System.nanoTime();
+            FloydWarshall.compute(graph);
+            addTime(time, "Floyd-Warshall", elapsed(start));
+        }
+        printTime(ALL_PAIRS_SIZES, time);
+    }
+
+    /**
+     * The looped / batched multi-source experiment
+     */
+    public static void BatchExperiment() {
+        TreeMap<String, ArrayList<Double>> time = new TreeMap<>();
+        for (int k = 0; k < SIZES.length; k++) {
+            Map<Integer, Map<Integer, Integer>> list = randomSparseList(SIZES[k], k);
+            Integer[] labels = new Integer[SIZES[k]];
+            int[] sources = new int[QUERIES];
+            Random rand = new Random(k);
+            for (int i = 0; i < labels.length; i++) {
+                labels[i] = i;
+            }
+            for (int q = 0; q < QUERIES; q++) {
+                sources[q] = rand.nextInt(SIZES[k]);
+            }
+            CsrGraph graph = CsrGraph.fromAdjListInt(list, labels);
+
+            long start = System.nanoTime();
+            for (int q = 0; q < QUERIES; q++) {
+                ShortestPath.dijkstraInt(list, sources[q]);
+            }
+            addTime(time, "Loop (Map)", elapsed(start));
+
+            start = System.nanoTime();
+            for (int q = 0; q < QUERIES; q++) {
+                ShortestPath.dijkstraIntTree(graph, sources[q]);
+            }
+            addTime(time, "Loop (CSR)", elapsed(start));
+
+            start = System.nanoTime();
+            BatchShortestPath.run(graph, sources);
+            addTime(time, "Batch", elapsed(start));
+        }
+        printTime(SIZES, time);
+    }
+
+    /**
+     * The priority queue experiment on Integer weights of at most
+     * MAX_WEIGHT, where dijkstraIntTree chooses the BucketQueue
+     */
+    public static void MonotoneQueueExperiment() {
+        TreeMap<String, ArrayList<Double>> time = new TreeMap<>();
+        for (int k = 0; k < SIZES.length; k++) {
+            Map<Integer, Map<Integer, Integer>> list = randomSparseList(SIZES[k], k);
+            Integer[] labels = new Integer[SIZES[k]];
+            for (int i = 0; i < labels.length; i++) {
+                labels[i] = i;
+            }
+            CsrGraph graph = CsrGraph.fromAdjListInt(list, labels);
+
+            long start = System.nanoTime();
+            LegacyDijkstra.dijkstra(list, 0);
+            addTime(time, "PriorityQueue", elapsed(start));
+
+            start = System.nanoTime();
+            for (int q = 0; q < QUERIES; q++) {
+                ShortestPath.dijkstraIntTree(graph, q, null);
+            }
+            addTime(time, "IndexedMinHeap x" + QUERIES, elapsed(start));
+
+            start = System.nanoTime();
+            for (int q = 0; q < QUERIES; q++) {
+                ShortestPath.dijkstraIntTree(graph, q, new BucketQueue(graph.vertexCount(), MAX_WEIGHT));
+            }
+            addTime(time, "BucketQueue x" + QUERIES, elapsed(start));
+
+            start = System.nanoTime();
+            for (int q = 0; q < QUERIES; q++) {
+                ShortestPath.dijkstraIntTree(graph, q, new RadixHeap(graph.vertexCount()));
+            }
+            addTime(time, "RadixHeap x" + QUERIES, elapsed(start));
+        }
+        printTime(SIZES, time);
+    }
+
+    /**
+     * The heap / breadth first search experiment on the random sparse
+     * graphs with every weight replaced by 1, or by 0 or 1
+     */
+    public static void BfsExperiment() {
+        TreeMap<String, ArrayList<Double>> time = new TreeMap<>();
+        for (int k = 0; k < GRID_SIZES.length; k++) {
+            Random rand = new Random(k);
+            int n = GRID_SIZES[k];
+            int[] sources = new int[DEGREE * n];
+            int[] targets = new int[DEGREE * n];
+            int[] units = new int[DEGREE * n];
+            int[] binary = new int[DEGREE * n];
+            for (int e = 0; e < sources.length; e++) {
+                sources[e] = e / DEGREE;
+                targets[e] = e % DEGREE == 0 ? (e / DEGREE + 1) % n : rand.nextInt(n);
+                units[e] = 1;
+                binary[e] = rand.nextInt(2);
+            }
+            CsrGraph unit = CsrGraph.fromEdges(n, sources, targets, units);
+            CsrGraph zeroOne = CsrGraph.fromEdges(n, sources, targets, binary);
+
+            long start = System.nanoTime();
+            for (int q = 0; q < QUERIES; q++) {
+                ShortestPath.dijkstraIntTree(unit, q, null);
+            }
+            addTime(time, "Unit Heap", elapsed(start));
+
+            start = System.nanoTime();
+            for (int q = 0; q < QUERIES; q++) {
+                ShortestPath.dijkstraIntTree(unit, q);
+            }
+            addTime(time, "Unit BFS", elapsed(start));
+
+            start = System.nanoTime();
+            for (int q = 0; q < QUERIES; q++) {
+                ShortestPath.dijkstraIntTree(zeroOne, q, null);
+            }
+            addTime(time, "0/1 Heap", elapsed(start));
+
+            start = System.nanoTime();
+            for (int q = 0; q < QUERIES; q++) {
+                ShortestPath.dijkstraIntTree(zeroOne, q);
+            }
+            addTime(time, "0/1 BFS", elapsed(start));
+        }
+        printTime(GRID_SIZES, time);
+    }
+
+    /**
+     * The full / radius-bounded / target-terminated search experiment on
+     * grids, with a radius of 20 average edges and a target 20 rows away
+     */
+    public static void SearchOptionsExperiment() {
+        TreeMap<String, ArrayList<Double>> time = new TreeMap<>();
+        for (int k = 0; k < GRID_SIZES.length; k++) {
+            int side = (int) Math.sqrt(GRID_SIZES[k]);
+            CsrGraph graph = randomGrid(side, k);
+            SearchOptions radius = new SearchOptions().withMaxRadius(20 * MAX_WEIGHT / 2);
+            int[] sources = new int[QUERIES];
+            Random rand = new Random(k);
+            for (int q = 0; q < QUERIES; q++) {
+                sources[q] = rand.nextInt(graph.vertexCount());
+            }
+
+            long start = System.nanoTime();
+            for (int q = 0; q < QUERIES; q++) {
+                ShortestPath.dijkstraTree(graph, sources[q], new SearchOptions());
+            }
+            addTime(time, "Full", elapsed(start));
+
+            start = System.nanoTime();
+            for (int q = 0; q < QUERIES; q++) {
+                ShortestPath.dijkstraTree(graph, sources[q], radius);
+            }
+            addTime(time, "Radius", elapsed(start));
+
+            start = System.nanoTime();
+            for (int q = 0; q < QUERIES; q++) {
+                int target = (sources[q] + 20 * side) % graph.vertexCount();
+                ShortestPath.dijkstraTree(graph, sources[q], new SearchOptions().withTargets(target));
+            }
+            addTime(time, "Target", elapsed(start));
+        }
+        printTime(GRID_SIZES, time);
+    }
+
+    /**
+     * The memory mapped graph experiment on grids: opening the file
+     * against copying it into a CsrGraph, and searching the mapped
+     * buffers against searching the heap arrays
+     */
+    public static void MappedGraphExperiment() {
+        TreeMap<String, ArrayList<Double>> time = new TreeMap<>();
+        for (int k = 0; k < GRID_SIZES.length; k++) {
+            int side = (int) Math.sqrt(GRID_SIZES[k]);
+            CsrGraph graph = randomGrid(side, k);
+            int[] sources = new int[QUERIES];
+            Random rand = new Random(k);
+            for (int q = 0; q < QUERIES; q++) {
+                sources[q] = rand.nextInt(graph.vertexCount());
+            }
+
+            try {
+                Path file = Files.createTempFile("graph", ".csr");
+                MappedCsrGraph.write(graph, file);
+
+                long start = System.nanoTime();
+                MappedCsrGraph mapped = MappedCsrGraph.open(file);
+                addTime(time, "Open", elapsed(start));
+
+                start = System.nanoTime();
+                mapped.toCsrGraph();
+                addTime(time, "Copy", elapsed(start));
+
+                start = System.nanoTime();
+                for (int q = 0; q < QUERIES; q++) {
+                    ShortestPath.dijkstraTree(graph, sources[q], new SearchOptions());
+                }
+                addTime(time, "Search heap", elapsed(start));
+
+                start = System.nanoTime();
+                for (int q = 0; q < QUERIES; q++) {
+                    ShortestPath.dijkstraTree(mapped, sources[q]);
+                }
+                addTime(time, "Search mapped", elapsed(start));
+                mapped.close();
+                Files.delete(file);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        printTime(GRID_SIZES, time);
+    }
+
+    /**
+     * The edge list loading experiment on grids written as text: reading
+     * lines and splitting them, against the sliced two-pass loader
+     */
+    public static void EdgeListExperiment() {
+        TreeMap<String, ArrayList<Double>> time = new TreeMap<>();
+        for (int k = 0; k < GRID_SIZES.length; k++) {
+            CsrGraph graph = randomGrid((int) Math.sqrt(GRID_SIZES[k]), k);
+            try {
+                Path file = Files.createTempFile("edges", ".txt");
+                try (BufferedWriter out = Files.newBufferedWriter(file)) {
+                    for (int u = 0; u < graph.vertexCount(); u++) {
+                        for (int e = graph.getOffsets()[u]; e < graph.getOffsets()[u + 1]; e++) {
+                            out.write(u + " " + graph.getTargets()[e] + " " + graph.getIntWeights()[e] + "\n");
+                        }
+                    }
+                }
+
+                long start = System.nanoTime();
+                int[] sources = new int[graph.edgeCount()];
+                int[] targets = new int[graph.edgeCount()];
+                int[] weights = new int[graph.edgeCount()];
+                int m = 0;
+                try (BufferedReader in = Files.newBufferedReader(file)) {
+                    for (String line = in.readLine(); line != null; line = in.readLine()) {
+                        String[] fields = line.split(" ");
+                        sources[m] = Integer.parseInt(fields[0]);
+                        targets[m] = Integer.parseInt(fields[1]);
+                        weights[m++] = Integer.parseInt(fields[2]);
+                    }
+                }
+                CsrGraph.fromEdges(graph.vertexCount(), sources, targets, weights);
+                addTime(time, "Split", elapsed(start));
+
+                start = System.nanoTime();
+                EdgeListLoader.load(file);
+                addTime(time, "EdgeListLoader", elapsed(start));
+                Files.delete(file);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        printTime(GRID_SIZES, time);
+    }
+
+    /**
+     * The String labelled search experiment: the adjacency list overload,
+     * which interns the labels on every call, against a LabeledGraph which
+     * is built once and reused
+     */
+    public static void LabelExperiment() {
+        TreeMap<String, ArrayList<Double>> time = new TreeMap<>();
+        for (int k = 0; k < SIZES.length; k++) {
+            Map<String, Map<String, Integer>> list = new HashMap<>();
+            for (Map.Entry<Integer, Map<Integer, Integer>> row : randomSparseList(SIZES[k], k).entrySet()) {
+                Map<String, Integer> edges = new HashMap<>();
+                for (Map.Entry<Integer, Integer> edge : row.getValue().entrySet()) {
+                    edges.put("v" + edge.getKey(), edge.getValue());
+                }
+                list.put("v" + row.getKey(), edges);
+            }
+            String[] sources = new String[QUERIES];
+            Random rand = new Random(k);
+            for (int q = 0; q < QUERIES; q++) {
+                sources[q] = "v" + rand.nextInt(SIZES[k]);
+            }
+
+            long start = System.nanoTime();
+            for (int q = 0; q < QUERIES; q++) {
+                ShortestPath.dijkstraInt(list, sources[q]);
+            }
+            addTime(time, "Map", elapsed(start));
+
+            start = System.nanoTime();
+            LabeledGraph<String> graph = LabeledGraph.fromAdjListInt(list);
+            for (int q = 0; q < QUERIES; q++) {
+                ShortestPath.dijkstraInt(graph, sources[q]);
+            }
+            addTime(time, "LabeledGraph", elapsed(start));
+        }
+        printTime(SIZES, time);
+    }
+
+    /**
+     * The cache experiment on grids, where the sources are drawn from 64
+     * hubs with a skew towards the first few, and the cache holds 16 trees
+     */
+    public static void CacheExperiment() {
+        TreeMap<String, ArrayList<Double>> time = new TreeMap<>();
+        for (int k = 0; k < GRID_SIZES.length; k++) {
+            CsrGraph graph = randomGrid((int) Math.sqrt(GRID_SIZES[k]), k);
+            int[] sources = new int[4 * QUERIES];
+            Random rand = new Random(k);
+            for (int q = 0; q < sources.length; q++) {
+                sources[q] = rand.nextInt(rand.nextInt(64) + 1) * (graph.vertexCount() / 64);
+            }
+
+            long start = System.nanoTime();
+            for (int src : sources) {
+                ShortestPath.dijkstraIntTree(graph, src);
+            }
+            addTime(time, "Uncached", elapsed(start));
+
+            ShortestPathCache cache = new ShortestPathCache(graph, 16 * ShortestPath.dijkstraIntTree(graph, 0).sizeInBytes());
+            start = System.nanoTime();
+            for (int src : sources) {
+                cache.getTree(src);
+            }
+            addTime(time, "Cache", elapsed(start));
+        }
+        printTime(GRID_SIZES, time);
+    }
+
+    /**
+     * The dynamic graph experiment on grids, where each update scales the
+     * weight of a random edge by a factor between 0.5 and 2 and four
+     * tracked trees must be brought up to date
+     */
+    public static void DynamicExperiment() {
+        TreeMap<String, ArrayList<Double>> time = new TreeMap<>();
+        for (int k = 0; k < GRID_SIZES.length; k++) {
+            CsrGraph csr = randomGrid((int) Math.sqrt(GRID_SIZES[k]), k);
+            int n = csr.vertexCount();
+            int[] sources = { 0, n / 3, 2 * n / 3, n - 1 };
+            int[] edges = new int[4 * QUERIES];
+            double[] factors = new double[edges.length];
+            Random rand = new Random(k);
+            for (int q = 0; q < edges.length; q++) {
+                edges[q] = rand.nextInt(csr.edgeCount());
+                factors[q] = Math.pow(2, 2 * rand.nextDouble() - 1);
+            }
+            int[] tails = new int[csr.edgeCount()];
+            for (int u = 0; u < n; u++) {
+                Arrays.fill(tails, csr.getOffsets()[u], csr.getOffsets()[u + 1], u);
+            }
+
+            long start = System.nanoTime();
+            double[] weights = new double[csr.edgeCount()];
+            for (int e = 0; e < weights.length; e++) {
+                weights[e] = csr.getWeight(e);
+            }
+            CsrGraph recomputed = new CsrGraph(csr.getOffsets(), csr.getTargets(), weights, null);
+            for (int q = 0; q < edges.length; q++) {
+                weights[edges[q]] *= factors[q];
+                for (int src : sources) {
+                    ShortestPath.dijkstraDoubleTree(recomputed, src);
+                }
+            }
+            addTime(time, "Recompute", elapsed(start));
+
+            DynamicGraph graph = new DynamicGraph(csr);
+            for (int src : sources) {
+                graph.track(src);
+            }
+            start = System.nanoTime();
+            for (int q = 0; q < edges.length; q++) {
+                int u = tails[edges[q]];
+                int v = csr.getTargets()[edges[q]];
+                graph.updateEdge(u, v, graph.getWeight(u, v) * factors[q]);
+            }
+            addTime(time, "Repair", elapsed(start));
+        }
+        printTime(GRID_SIZES, time);
+    }
+
+    /**
+     * The k shortest paths experiment on the two smallest grids, between
+     * random pairs of vertices, since every path of a query takes a spur
+     * search per vertex on it
+     */
+    public static void KShortestPathsExperiment() {
+        TreeMap<String, ArrayList<Double>> time = new TreeMap<>();
+        int[] sizes = Arrays.copyOf(GRID_SIZES, 2);
+        for (int k = 0; k < sizes.length; k++) {
+            CsrGraph graph = randomGrid((int) Math.sqrt(sizes[k]), k);
+            int[] sources = new int[QUERIES / 10];
+            int[] targets = new int[QUERIES / 10];
+            Random rand = new Random(k);
+            for (int q = 0; q < sources.length; q++) {
+                sources[q] = rand.nextInt(graph.vertexCount());
+                targets[q] = rand.nextInt(graph.vertexCount());
+            }
+
+            long start = System.nanoTime();
+            for (int q = 0; q < sources.length; q++) {
+                ShortestPath.shortestPath(graph, sources[q], targets[q]);
+            }
+            addTime(time, "Best path", elapsed(start));
+
+            for (int paths : new int[] { 3, 8 }) {
+                start = System.nanoTime();
+                for (int q = 0; q < sources.length; q++) {
+                    KShortestPaths.find(graph, sources[q], targets[q], paths);
+                }
+                addTime(time, "Yen, " + paths + " paths", elapsed(start));
+            }
+        }
+        printTime(sizes, time);
+    }
+
+    /**
+     * The Bellman-Ford experiment on grids whose weights are shifted by
+     * random vertex potentials, which makes about a third of them negative
+     * without creating negative cycles. Dijkstra's Algorithm on the
+     * unshifted grid finds the same paths, and is the lower bound.
+     */
+    public static void BellmanFordExperiment() {
+        TreeMap<String, ArrayList<Double>> time = new TreeMap<>();
+        for (int k = 0; k < GRID_SIZES.length; k++) {
+            CsrGraph grid = randomGrid((int) Math.sqrt(GRID_SIZES[k]), k);
+            Random rand = new Random(k);
+            int[] potential = new int[grid.vertexCount()];
+            for (int v = 0; v < potential.length; v++) {
+                potential[v] = rand.nextInt(MAX_WEIGHT);
+            }
+            int[] weights = new int[grid.edgeCount()];
+            for (int u = 0; u < grid.vertexCount(); u++) {
+                for (int e = grid.getOffsets()[u]; e < grid.getOffsets()[u + 1]; e++) {
+                    weights[e] = grid.getIntWeights()[e] + potential[u] - potential[grid.getTargets()[e]];
+                }
+            }
+            CsrGraph shifted = new CsrGraph(grid.getOffsets(), grid.getTargets(), null, weights);
+            int[] sources = new int[QUERIES / 10];
+            for (int q = 0; q < sources.length; q++) {
+                sources[q] = rand.nextInt(grid.vertexCount());
+            }
+
+            long start = System.nanoTime();
+            for (int src : sources) {
+                ShortestPath.dijkstraIntTree(grid, src);
+            }
+            addTime(time, "Dijkstra", elapsed(start));
+
+            start = System.nanoTime();
+            for (int src : sources) {
+                BellmanFord.run(shifted, src);
+            }
+            addTime(time, "Queue", elapsed(start));
+
+            start = System.nanoTime();
+            for (int src : sources) {
+                BellmanFord.run(shifted, src, ForkJoinPool.commonPool());
+            }
+            addTime(time, "Rounds", elapsed(start));
+        }
+        printTime(GRID_SIZES, time);
+    }
+
+    /**
+     * The Johnson experiment, on random sparse matrices whose weights are
+     * shifted by random vertex potentials, which makes many of them
+     * negative without creating negative cycles
+     */
+    public static void JohnsonExperiment() {
+        TreeMap<String, ArrayList<Double>> time = new TreeMap<>();
+        for (int k = 0; k < ALL_PAIRS_SIZES.length; k++) {
+            int[][] graph = randomSparseMatrix(ALL_PAIRS_SIZES[k], k);
+            Random rand = new Random(k);
+            int[] potential = new int[graph.length];
+            for (int v = 0; v < potential.length; v++) {
+                potential[v] = rand.nextInt(MAX_WEIGHT);
+            }
+            for (int i = 0; i < graph.length; i++) {
+                for (int j = 0; j < graph.length; j++) {
+                    if (graph[i][j] != 0) {
+                        int w = graph[i][j] + potential[i] - potential[j];
+                        graph[i][j] = w == 0 ? 1 : w;
+                    }
+                }
+            }
+
+            long start = System.nanoTime();
+            FloydWarshall.compute(graph);
+            addTime(time, "Floyd-Warshall", elapsed(start));
+
+            try {
+                Path file = Files.createTempFile("distances", ".dm");
+                start = System.nanoTime();
+                Johnson.compute(graph, file);
+                addTime(time, "Johnson", elapsed(start));
+                Files.delete(file);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        printTime(ALL_PAIRS_SIZES, time);
+    }
+
+    /**
+     * The many-to-many distance table experiment on grids, where the
+     * hierarchy is built once and its preprocessing time is reported
+     * separately
+     */
+    public static void ManyToManyExperiment() {
+        TreeMap<String, ArrayList<Double>> time = new TreeMap<>();
+        for (int k = 0; k < GRID_SIZES.length; k++) {
+            CsrGraph graph = randomGrid((int) Math.sqrt(GRID_SIZES[k]), k);
+            Random rand = new Random(k);
+            int[] sources = new int[4 * QUERIES];
+            int[] targets = new int[4 * QUERIES];
+            for (int q = 0; q < sources.length; q++) {
+                sources[q] = rand.nextInt(graph.vertexCount());
+                targets[q] = rand.nextInt(graph.vertexCount());
+            }
+
+            long start = System.nanoTime();
+            BatchShortestPath.run(graph, sources, targets);
+            addTime(time, "Batch", elapsed(start));
+
+            start = System.nanoTime();
+            ContractionHierarchy hierarchy = ContractionHierarchy.build(graph);
+            addTime(time, "CH Preprocess", elapsed(start));
+
+            start = System.nanoTime();
+            ManyToMany.run(hierarchy, sources, targets);
+            addTime(time, "ManyToMany", elapsed(start));
+        }
+        printTime(GRID_SIZES, time);
+    }
+
+    /**
+     * The sparse matrix experiment, which times searches of int and
+     * double matrices of increasing density on the matrix and on
+     * the converted graph, to tune MatrixAnalysis.DEFAULT_MAX_DENSITY
+     */
+    public static void SparseMatrixExperiment() {
+        int[] densities = { 1, 10, 25, 50, 100, 250 };
+        int n = MATRIX_SIZES[MATRIX_SIZES.length - 1];
+        TreeMap<String, ArrayList<Double>> time = new TreeMap<>();
+        for (int k = 0; k < densities.length; k++) {
+            Random rand = new Random(k);
+            int[][] ints = new int[n][n];
+            double[][] doubles = new double[n][n];
+            for (int i = 0; i < n; i++) {
+                for (int j = 0; j < n; j++) {
+                    if (j == (i + 1) % n || rand.nextInt(1000) < densities[k]) {
+                        ints[i][j] = 1 + rand.nextInt(MAX_WEIGHT);
+                        doubles[i][j] = ints[i][j];
+                    }
+                }
+            }
+
+            long start = System.nanoTime();
+            for (int q = 0; q < QUERIES / 10; q++) {
+                ShortestPath.dijkstraIntTree(ints, q, 0.0);
+            }
+            addTime(time, "int Matrix", elapsed(start));
+
+            start = System.nanoTime();
+            for (int q = 0; q < QUERIES / 10; q++) {
+                ShortestPath.dijkstraIntTree(ints, q, 1.0);
+            }
+            addTime(time, "int CSR", elapsed(start));
+
+            start = System.nanoTime();
+            for (int q = 0; q < QUERIES / 10; q++) {
+                ShortestPath.dijkstraDoubleTree(doubles, q, 0.0);
+            }
+            addTime(time, "double Matrix", elapsed(start));
+
+            start = System.nanoTime();
+            for (int q = 0; q < QUERIES / 10; q++) {
+                ShortestPath.dijkstraDoubleTree(doubles, q, 1.0);
+            }
+            addTime(time, "double CSR", elapsed(start));
+
+            addTime(time, "Convert", Math.round(MatrixAnalysis.analyze(doubles, 1.0).getConversionNanos() / 1e6) / 1000.0);
+        }
+        printTime(densities, time);
+    }
+
+    /**
+     * The dense all-pairs experiment, on random double matrices with an
+     * edge between half of the pairs, which compares Dijkstra from every
+     * source with min-plus squaring on the scalar and the default kernel
+     */
+    public static void MinPlusExperiment() {
+        TreeMap<String, ArrayList<Double>> time = new TreeMap<>();
+        for (int k = 0; k < ALL_PAIRS_SIZES.length; k++) {
+            int n = ALL_PAIRS_SIZES[k];
+            Random rand = new Random(k);
+            double[][] graph = new double[n][n];
+            for (int i = 0; i < n; i++) {
+                for (int j = 0; j < n; j++) {
+                    if (i != j && rand.nextBoolean()) {
+                        graph[i][j] = 1 + rand.nextInt(MAX_WEIGHT) + rand.nextDouble();
+                    }
+                }
+            }
+
+            long start = System.nanoTime();
+            for (int src = 0; src < n; src++) {
+                ShortestPath.dijkstraDoubleTree(graph, src);
+            }
+            addTime(time, "Dijkstra", elapsed(start));
+
+            start = System.nanoTime();
+            MinPlus.compute(graph, ForkJoinPool.commonPool(), new MinPlus.ScalarKernel());
+            addTime(time, "Min-plus (scalar)", elapsed(start));
+
+            start = System.nanoTime();
+            MinPlus.compute(graph);
+            addTime(time, "Min-plus (default)", elapsed(start));
+        }
+        printTime(ALL_PAIRS_SIZES, time);
+    }
+
+    /**
+     * Builds a road-like graph: a side x side grid whose cells are joined
+     * to their four neighbours in both directions with random weights.
+     *
+     * @param side the number of rows and columns
+     * @param seed the random seed
+     * @return the graph, with int weights
+     */
+    static CsrGraph randomGrid(int side, long seed) {
+        Random rand = new Random(seed);
+        int n = side * side;
+        int[] sources = new int[4 * n];
+        int[] targets = new int[4 * n];
+        int[] weights = new int[4 * n];
+        int m = 0;
+        for (int r = 0; r < side; r++) {
+            for (int c = 0; c < side; c++) {
+                int v = r * side + c;
+                if (c + 1 < side) {
+                    int w = 1 + rand.nextInt(MAX_WEIGHT);
+                    sources[m] = v; targets[m] = v + 1; weights[m++] = w;
+                    sources[m] = v + 1; targets[m] = v; weights[m++] = w;
+                }
+                if (r + 1 < side) {
+                    int w = 1 + rand.nextInt(MAX_WEIGHT);
+                    sources[m] = v; targets[m] = v + side; weights[m++] = w;
+                    sources[m] = v + side; targets[m] = v; weights[m++] = w;
+                }
+            }
+        }
+        return CsrGraph.fromEdges(n, Arrays.copyOf(sources, m), Arrays.copyOf(targets, m), Arrays.copyOf(weights, m));
+    }
+
+    /**
+     * The PriorityQueue based search which ShortestPath used before the
+     * IndexedMinHeap was introduced. Every relaxation removes the vertex
+     * from the queue in O(V) time before re-inserting it.
+     */
+    private static class LegacyDijkstra {
+        private static Map<Integer, Node> dijkstra(Map<Integer, Map<Integer, Integer>> graph, int src) {
+            HashMap<Integer, Node> vertices = new HashMap<>();
+            PriorityQueue<Node> unvisited = new PriorityQueue<>();
+            for (Integer key : graph.keySet()) {
+                Node v = new Node(key, key == src ? 0 : Integer.MAX_VALUE);
+                vertices.put(key, v);
+                unvisited.add(v);
+            }
+
+            while (!unvisited.isEmpty()) {
+                Node u = unvisited.poll();
+                if (u.distance == Integer.MAX_VALUE) {
+                    break;
+                }
+                for (Map.Entry<Integer, Integer> edge : graph.get(u.label).entrySet()) {
+                    Node v = vertices.get(edge.getKey());
+                    int dist = u.distance + edge.getValue();
+                    if (dist < v.distance) {
+                        unvisited.remove(v);
+                        v.distance = dist;
+                        v.previous = u;
+                        unvisited.add(v);
+                    }
+                }
+            }
+            return vertices;
+        }
+
+        private static class Node implements Comparable<Node> {
+            private final int label;
+            private int distance;
+            @SuppressWarnings("unused")
+            private Node previous;
+
+            private Node(int label, int distance) {
+                this.label = label;
+                this.distance = distance;
+            }
+
+            public int compareTo(Node other) {
+                return Integer.compare(distance, other.distance);
+            }
+        }
+    }
+}
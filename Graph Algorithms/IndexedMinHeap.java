@@ -0,0 +1,276 @@
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * An indexed d-ary min-heap of vertex ids keyed by a double priority. Every
+ * id in the range [0, capacity) may be in the heap at most once, and its
+ * position is tracked so that its priority can be lowered in O(log N) time
+ * instead of the O(N) removal required by java.util.PriorityQueue.
+ *
+ * - Insert:                       O(log N)
+ * - Decrease Key:                 O(log N)
+ * - Poll:                         O(d log N)
+ * - Contains:                     O(1)
+ */
+public class IndexedMinHeap {
+    private final static int DEFAULT_ARITY = 4;
+    private final static int NOT_PRESENT = -1;
+
+    private final int arity;
+    private final int[] heap;
+    private final int[] position;
+    private final double[] keys;
+    private int size;
+
+    /**
+     * Constructs an empty 4-ary heap for ids in the range [0, capacity).
+     *
+     * @param capacity the number of distinct ids
+     *
+     * @exception IllegalArgumentException if capacity is negative
+     */
+    public IndexedMinHeap(int capacity) {
+        this(capacity, DEFAULT_ARITY);
+    }
+
+    /**
+     * Constructs an empty d-ary heap for ids in the range [0, capacity).
+     *
+     * @param capacity the number of distinct ids
+     * @param arity the number of children of each heap node
+     *
+     * @exception IllegalArgumentException if capacity is negative or arity is less than 2
+     */
+    public IndexedMinHeap(int capacity, int arity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("capacity cannot be negative");
+        } else if (arity < 2) {
+            throw new IllegalArgumentException("arity must be at least 2");
+        }
+        this.arity = arity;
+        this.heap = new int[capacity];
+        this.position = new int[capacity];
+        this.keys = new double[capacity];
+        Arrays.fill(position, NOT_PRESENT);
+        this.size = 0;
+    }
+
+    /**
+     * Returns the number of ids which the heap can hold.
+     *
+     * @return the capacity of the heap
+     */
+    public int capacity() {
+        return heap.length;
+    }
+
+    /**
+     * Returns the number of ids in the heap.
+     *
+     * @return the size of the heap
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns true if the heap contains no ids.
+     *
+     * @return true if the heap is empty
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns true if the id is currently in the heap.
+     *
+     * @param id the id to search for
+     * @return true if the id is in the heap
+     */
+    public boolean contains(int id) {
+        return position[id] != NOT_PRESENT;
+    }
+
+    /**
+     * Returns the priority of an id which is in the heap.
+     *
+     * @param id the id
+     * @return the priority of the id
+     *
+     * @exception NoSuchElementException if the id is not in the heap
+     */
+    public double getKey(int id) {
+        if (!contains(id)) {
+            throw new NoSuchElementException("id is not in the heap");
+        }
+        return keys[id];
+    }
+
+    /**
+     * Inserts an id with the given priority.
+     *
+     * @param id the id to insert
+     * @param key the priority of the id
+     *
+     * @exception IllegalArgumentException if the id is already in the heap
+     */
+    public void insert(int id, double key) {
+        if (contains(id)) {
+            throw new IllegalArgumentException("id is already in the heap");
+        }
+        keys[id] = key;
+        heap[size] = id;
+        position[id] = size;
+        size++;
+        siftUp(size - 1);
+    }
+
+    /**
+     * Lowers the priority of an id which is in the heap.
+     *
+     * @param id the id to update
+     * @param key the new priority, which must not be greater than the current one
+     *
+     * @exception NoSuchElementException if the id is not in the heap
+     * @exception IllegalArgumentException if the key is greater than the current one
+     */
+    public void decreaseKey(int id, double key) {
+        if (!contains(id)) {
+            throw new NoSuchElementException("id is not in the heap");
+        } else if (key > keys[id]) {
+            throw new IllegalArgumentException("key cannot be increased");
+        }
+        keys[id] = key;
+        siftUp(position[id]);
+    }
+
+    /**
+     * Inserts the id if it is absent, or lowers its priority if it is present
+     * with a greater priority. Otherwise the heap is unchanged.
+     *
+     * @param id the id to insert or update
+     * @param key the priority of the id
+     */
+    public void insertOrDecrease(int id, double key) {
+        if (!contains(id)) {
+            insert(id, key);
+        } else if (key < keys[id]) {
+            keys[id] = key;
+            siftUp(position[id]);
+        }
+    }
+
+    /**
+     * Returns the id with the smallest priority without removing it.
+     *
+     * @return the id with the smallest priority
+     *
+     * @exception NoSuchElementException if the heap is empty
+     */
+    public int peek() {
+        if (size == 0) {
+            throw new NoSuchElementException("heap is empty");
+        }
+        return heap[0];
+    }
+
+    /**
+     * Returns the smallest priority in the heap.
+     *
+     * @return the smallest priority
+     *
+     * @exception NoSuchElementException if the heap is empty
+     */
+    public double peekKey() {
+        return keys[peek()];
+    }
+
+    /**
+     * Removes and returns the id with the smallest priority.
+     *
+     * @return the id with the smallest priority
+     *
+     * @exception NoSuchElementException if the heap is empty
+     */
+    public int poll() {
+        int min = peek();
+        size--;
+        position[min] = NOT_PRESENT;
+        if (size > 0) {
+            int last = heap[size];
+            heap[0] = last;
+            position[last] = 0;
+            siftDown(0);
+        }
+        return min;
+    }
+
+    /**
+     * Removes every id from the heap so that it can be reused. Runs in time
+     * proportional to the current size rather than the capacity.
+     */
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            position[heap[i]] = NOT_PRESENT;
+        }
+        size = 0;
+    }
+
+    /**
+     * Moves the id at a heap slot up until its parent is not greater.
+     *
+     * @param slot the slot to move up from
+     */
+    private void siftUp(int slot) {
+        int id = heap[slot];
+        double key = keys[id];
+        while (slot > 0) {
+            int parentSlot = (slot - 1) / arity;
+            int parent = heap[parentSlot];
+            if (keys[parent] <= key) {
+                break;
+            }
+            heap[slot] = parent;
+            position[parent] = slot;
+            slot = parentSlot;
+        }
+        heap[slot] = id;
+        position[id] = slot;
+    }
+
+    /**
+     * Moves the id at a heap slot down until none of its children are smaller.
+     *
+     * @param slot the slot to move down from
+     */
+    private void siftDown(int slot) {
+        int id = heap[slot];
+        double key = keys[id];
+        while (true) {
+            int first = slot * arity + 1;
+            if (first >= size) {
+                break;
+            }
+            int last = Math.min(first + arity, size);
+            int minSlot = first;
+            double minKey = keys[heap[first]];
+            for (int child = first + 1; child < last; child++) {
+                double childKey = keys[heap[child]];
+                if (childKey < minKey) {
+                    minSlot = child;
+                    minKey = childKey;
+                }
+            }
+            if (minKey >= key) {
+                break;
+            }
+            int child = heap[minSlot];
+            heap[slot] = child;
+            position[child] = slot;
+            slot = minSlot;
+        }
+        heap[slot] = id;
+        position[id] = slot;
+    }
+}
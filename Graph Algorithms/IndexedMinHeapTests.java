@@ -0,0 +1,136 @@
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+/**
+ * A Test Harness for the IndexedMinHeap class.
+ */
+public class IndexedMinHeapTests {
+    static boolean VERBOSE = true;
+    static int numTests = 0;
+    static int failedTests = 0;
+
+    /**
+     * The main method runs the tests.
+     *
+     * @param args Not used
+     */
+    public static void main(String[] args) {
+        numTests = 0;
+        failedTests = 0;
+
+        insertPollTests();
+        decreaseKeyTests();
+        clearTests();
+        exceptionTests();
+
+        System.out.println("Total tests: " + numTests);
+        System.out.println("Failed tests: " + failedTests);
+    }
+
+    private static void printTest(Object expected, Object actual, String test) {
+        if (!expected.equals(actual)) {
+            if (VERBOSE) {
+                System.out.println("FAILED! " + test + " test.");
+                System.out.println("\texpected: " + expected.toString());
+                System.out.println("\tactual: " + actual.toString());
+            }
+            failedTests++;
+        }
+        numTests++;
+    }
+
+    /**
+     * Tests for insert(int id, double key), poll() and size()
+     */
+    private static void insertPollTests() {
+        for (int arity = 2; arity <= 5; arity++) {
+            Random rand = new Random(arity);
+            double[] keys = new double[200];
+            IndexedMinHeap heap = new IndexedMinHeap(keys.length, arity);
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = rand.nextInt(50);
+                heap.insert(i, keys[i]);
+            }
+            printTest(keys.length, heap.size(), "size (arity " + arity + ")");
+
+            double[] sorted = keys.clone();
+            Arrays.sort(sorted);
+            double[] polled = new double[keys.length];
+            for (int i = 0; i < polled.length; i++) {
+                polled[i] = keys[heap.poll()];
+            }
+            printTest(Arrays.toString(sorted), Arrays.toString(polled), "poll order (arity " + arity + ")");
+            printTest(true, heap.isEmpty(), "isEmpty (arity " + arity + ")");
+        }
+    }
+
+    /**
+     * Tests for decreaseKey(int id, double key) and insertOrDecrease(int id, double key)
+     */
+    private static void decreaseKeyTests() {
+        IndexedMinHeap heap = new IndexedMinHeap(5);
+        heap.insert(0, 10);
+        heap.insert(1, 20);
+        heap.insert(2, 30);
+        heap.decreaseKey(2, 5);
+        printTest(2, heap.peek(), "decreaseKey to min");
+        printTest(5.0, heap.getKey(2), "getKey after decreaseKey");
+
+        heap.insertOrDecrease(1, 25);
+        printTest(20.0, heap.getKey(1), "insertOrDecrease with larger key");
+        heap.insertOrDecrease(1, 1);
+        printTest(1, heap.peek(), "insertOrDecrease with smaller key");
+        heap.insertOrDecrease(3, 0);
+        printTest(3, heap.poll(), "insertOrDecrease absent id");
+        printTest(false, heap.contains(3), "contains after poll");
+        printTest(1, heap.poll(), "poll after decrease");
+        printTest(2, heap.poll(), "poll after decrease");
+        printTest(0, heap.poll(), "poll after decrease");
+    }
+
+    /**
+     * Tests for clear()
+     */
+    private static void clearTests() {
+        IndexedMinHeap heap = new IndexedMinHeap(4);
+        heap.insert(0, 1);
+        heap.insert(3, 2);
+        heap.clear();
+        printTest(0, heap.size(), "size after clear");
+        printTest(false, heap.contains(3), "contains after clear");
+        heap.insert(3, 7);
+        printTest(3, heap.poll(), "reuse after clear");
+    }
+
+    /**
+     * Tests for the documented exceptions
+     */
+    private static void exceptionTests() {
+        IndexedMinHeap heap = new IndexedMinHeap(2);
+        String thrown = "none";
+        try {
+            heap.poll();
+        } catch (NoSuchElementException e) {
+            thrown = "NoSuchElementException";
+        }
+        printTest("NoSuchElementException", thrown, "poll on empty heap");
+
+        heap.insert(0, 3);
+        thrown = "none";
+        try {
+            heap.insert(0, 1);
+        } catch (IllegalArgumentException e) {
+            thrown = "IllegalArgumentException";
+        }
+        printTest("IllegalArgumentException", thrown, "duplicate insert");
+
+        thrown = "none";
+        try {
+            heap.decreaseKey(0, 4);
+        } catch (IllegalArgumentException e) {
+            thrown = "IllegalArgumentException";
+        }
+        printTest("IllegalArgumentException", thrown, "increasing key");
+    }
+}
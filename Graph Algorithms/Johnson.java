@@ -0,0 +1,215 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * All-pairs shortest paths of sparse graphs with negative weights, with
+ * Johnson's Algorithm, for graphs too large for FloydWarshall.
+ *
+ *      1. A Bellman-Ford search from a virtual source joined to every
+ *         vertex gives each vertex a potential h(v).
+ *      2. Every edge is reweighted to w(u, v) + h(u) - h(v), which is
+ *         non-negative and keeps the same shortest paths.
+ *      3. Dijkstra's Algorithm runs from every source on the reweighted
+ *         graph, and d(s, v) = d'(s, v) - h(s) + h(v).
+ *
+ * The searches of step 3 are claimed by workers on an executor, as in
+ * BatchShortestPath, and each row is written to a DistanceMatrixFile as
+ * soon as its search finishes, so only one row per worker is ever held
+ * in memory. Graphs without negative weights skip the reweighting.
+ */
+public class Johnson {
+    private final CsrGraph reweighted;
+    private final double[] potential;
+    private final DistanceMatrixFile.Writer writer;
+    private final AtomicInteger nextSource = new AtomicInteger();
+
+    /**
+     * Constructs the state of a single computation.
+     *
+     * @param reweighted the graph with non-negative weights
+     * @param potential the potential of each vertex
+     * @param writer the writer of the distance matrix file
+     */
+    private Johnson(CsrGraph reweighted, double[] potential, DistanceMatrixFile.Writer writer) {
+        this.reweighted = reweighted;
+        this.potential = potential;
+        this.writer = writer;
+    }
+
+    /**
+     * Computes the distances between every pair of vertices of an
+     * adjacency matrix with int weights and writes them to a file, using
+     * one worker per processor.
+     *
+     * @param graph an adjacency matrix, where 0 is no edge
+     * @param file the file to write
+     *
+     * @exception NullPointerException if any parameters are null
+     * @exception IllegalArgumentException if the graph has a negative cycle
+     * @exception IOException if the file cannot be written
+     */
+    public static void compute(int[][] graph, Path file) throws IOException {
+        if (graph == null) {
+            throw new NullPointerException("graph cannot be null");
+        }
+        compute(CsrGraph.fromMatrix(graph), file);
+    }
+
+    /**
+     * Computes the distances between every pair of vertices of an
+     * adjacency matrix with double weights and writes them to a file,
+     * using one worker per processor.
+     *
+     * @param graph an adjacency matrix, where 0 is no edge
+     * @param file the file to write
+     *
+     * @exception NullPointerException if any parameters are null
+     * @exception IllegalArgumentException if the graph has a negative cycle
+     * @exception IOException if the file cannot be written
+     */
+    public static void compute(double[][] graph, Path file) throws IOException {
+        if (graph == null) {
+            throw new NullPointerException("graph cannot be null");
+        }
+        compute(CsrGraph.fromMatrix(graph), file);
+    }
+
+    /**
+     * Computes the distances between every pair of vertices and writes
+     * them to a file, using one worker per processor.
+     *
+     * @param graph the compressed sparse row graph, which may have negative weights
+     * @param file the file to write, with int distances if the graph is int weighted
+     *
+     * @exception NullPointerException if any parameters are null
+     * @exception IllegalArgumentException if the graph has a negative cycle
+     * @exception IOException if the file cannot be written
+     */
+    public static void compute(CsrGraph graph, Path file) throws IOException {
+        int workers = Runtime.getRuntime().availableProcessors();
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+        try {
+            compute(graph, file, executor, workers);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Computes the distances between every pair of vertices on the given
+     * executor, with at most the given number of searches running at
+     * once, and writes them to a file.
+     *
+     * @param graph the compressed sparse row graph, which may have negative weights
+     * @param file the file to write, with int distances if the graph is int weighted
+     * @param executor the executor which runs the workers
+     * @param workers the number of workers
+     *
+     * @exception NullPointerException if any parameters are null
+     * @exception IllegalArgumentException if the graph has a negative cycle, or workers is not positive
+     * @exception IllegalStateException if the computation is interrupted
+     * @exception IOException if the file cannot be written
+     */
+    public static void compute(CsrGraph graph, Path file, ExecutorService executor, int workers) throws IOException {
+        if (graph == null || file == null || executor == null) {
+            throw new NullPointerException("parameters cannot be null");
+        } else if (workers < 1) {
+            throw new IllegalArgumentException("number of workers must be positive");
+        }
+
+        double[] potential = BellmanFord.potentials(graph);
+        try (DistanceMatrixFile.Writer writer = new DistanceMatrixFile.Writer(file, graph.vertexCount(), graph.isIntWeighted())) {
+            Johnson johnson = new Johnson(reweight(graph, potential), potential, writer);
+            ArrayList<Future<?>> futures = new ArrayList<>();
+            for (int w = 0; w < Math.min(workers, graph.vertexCount()); w++) {
+                futures.add(executor.submit(johnson::work));
+            }
+            try {
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                for (Future<?> future : futures) {
+                    future.cancel(true);
+                }
+                throw new IllegalStateException("computation was interrupted", e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof UncheckedIOException) {
+                    throw ((UncheckedIOException) e.getCause()).getCause();
+                } else if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+    }
+
+    /**
+     * Returns a graph with every edge reweighted by the potentials of its
+     * ends. Int weights stay ints unless a reweighted edge does not fit
+     * in one, and double weights which round to slightly below zero are
+     * clamped to zero.
+     *
+     * @param graph the graph
+     * @param potential the potential of each vertex
+     * @return the reweighted graph, or graph itself if every potential is 0
+     */
+    static CsrGraph reweight(CsrGraph graph, double[] potential) {
+        boolean zero = true;
+        for (double h : potential) {
+            zero &= h == 0.0;
+        }
+        if (zero) {
+            return graph;
+        }
+
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        double[] weights = new double[graph.edgeCount()];
+        boolean fitsInt = graph.isIntWeighted();
+        for (int u = 0; u < graph.vertexCount(); u++) {
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                weights[e] = Math.max(0.0, graph.getWeight(e) + potential[u] - potential[targets[e]]);
+                fitsInt &= weights[e] <= Integer.MAX_VALUE;
+            }
+        }
+        if (!fitsInt) {
+            return new CsrGraph(offsets, targets, weights, null);
+        }
+        int[] intWeights = new int[weights.length];
+        for (int e = 0; e < weights.length; e++) {
+            intWeights[e] = (int) weights[e];
+        }
+        return new CsrGraph(offsets, targets, null, intWeights);
+    }
+
+    /**
+     * A private helper method run by each worker, which claims sources
+     * until there are none left and writes their rows.
+     */
+    private void work() {
+        int n = reweighted.vertexCount();
+        ByteBuffer buffer = writer.newRowBuffer();
+        double[] row = new double[n];
+        for (int src = nextSource.getAndIncrement(); src < n; src = nextSource.getAndIncrement()) {
+            ShortestPathTree tree = reweighted.isIntWeighted() ? ShortestPath.dijkstraIntTree(reweighted, src) : ShortestPath.dijkstraDoubleTree(reweighted, src);
+            for (int v = 0; v < n; v++) {
+                row[v] = tree.isReachable(v) ? tree.getDistance(v) - potential[src] + potential[v] : Double.POSITIVE_INFINITY;
+            }
+            try {
+                writer.writeRow(src, row, buffer);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
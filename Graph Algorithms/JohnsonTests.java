@@ -0,0 +1,212 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * A Test Harness for the Johnson and DistanceMatrixFile classes.
+ */
+public class JohnsonTests {
+    static boolean VERBOSE = true;
+    static int numTests = 0;
+    static int failedTests = 0;
+
+    /**
+     * The main method runs the tests.
+     *
+     * @param args Not used
+     */
+    public static void main(String[] args) throws IOException {
+        numTests = 0;
+        failedTests = 0;
+
+        Path dir = Files.createTempDirectory("johnson");
+        intTests(dir);
+        doubleTests(dir);
+        workerTests(dir);
+        exceptionTests(dir);
+        Files.delete(dir);
+
+        System.out.println("Total tests: " + numTests);
+        System.out.println("Failed tests: " + failedTests);
+    }
+
+    private static void printTest(Object expected, Object actual, String test) {
+        if (!expected.equals(actual)) {
+            if (VERBOSE) {
+                System.out.println("FAILED! " + test + " test.");
+                System.out.println("\texpected: " + expected.toString());
+                System.out.println("\tactual: " + actual.toString());
+            }
+            failedTests++;
+        }
+        numTests++;
+    }
+
+    /**
+     * Tests against FloydWarshall on int matrices with negative weights,
+     * read back with small chunks
+     */
+    private static void intTests(Path dir) throws IOException {
+        Random rand = new Random(91);
+        int[][] graph = negativeMatrix(rand, 70, 0.08);
+        Path file = dir.resolve("int.dm");
+        Johnson.compute(graph, file);
+        FloydWarshall expected = FloydWarshall.compute(graph);
+        try (DistanceMatrixFile matrix = DistanceMatrixFile.open(file, 5)) {
+            printTest(70, matrix.vertexCount(), "int vertex count");
+            printTest(true, matrix.isIntWeighted(), "int matrix stores ints");
+            int wrong = 0;
+            int negative = 0;
+            int unreachable = 0;
+            for (int u = 0; u < 70; u++) {
+                for (int v = 0; v < 70; v++) {
+                    if (matrix.getIntDistance(u, v) != expected.getIntDistance(u, v) || matrix.getDistance(u, v) != expected.getDistance(u, v)) {
+                        wrong++;
+                    }
+                    negative += matrix.getDistance(u, v) < 0 ? 1 : 0;
+                    unreachable += matrix.isReachable(u, v) ? 0 : 1;
+                }
+            }
+            printTest(0, wrong, "int distances match FloydWarshall");
+            printTest(true, negative > 0, "int matrix has negative distances");
+            printTest(true, unreachable > 0, "int matrix has unreachable pairs");
+            printTest(Integer.MAX_VALUE, matrix.getIntDistance(0, 69), "unreachable int distance");
+            printTest(Double.POSITIVE_INFINITY, matrix.getDistance(0, 69), "unreachable widened distance");
+        }
+        printTest(24L + 4L * 70 * 70, Files.size(file), "int file size");
+        Files.delete(file);
+    }
+
+    /**
+     * Tests against FloydWarshall on double matrices with negative
+     * weights, and on a graph without negative weights
+     */
+    private static void doubleTests(Path dir) throws IOException {
+        Random rand = new Random(92);
+        int[][] ints = negativeMatrix(rand, 50, 0.1);
+        double[][] graph = new double[50][50];
+        for (int u = 0; u < 50; u++) {
+            for (int v = 0; v < 50; v++) {
+                graph[u][v] = ints[u][v] * 0.25;
+            }
+        }
+        Path file = dir.resolve("double.dm");
+        Johnson.compute(graph, file);
+        FloydWarshall expected = FloydWarshall.compute(graph);
+        try (DistanceMatrixFile matrix = DistanceMatrixFile.open(file)) {
+            printTest(false, matrix.isIntWeighted(), "double matrix stores doubles");
+            int wrong = 0;
+            for (int u = 0; u < 50; u++) {
+                for (int v = 0; v < 50; v++) {
+                    double d = expected.getDistance(u, v);
+                    if (d == Double.POSITIVE_INFINITY ? matrix.isReachable(u, v) : Math.abs(matrix.getDistance(u, v) - d) > 1e-9) {
+                        wrong++;
+                    }
+                }
+            }
+            printTest(0, wrong, "double distances match FloydWarshall");
+            printTest("IllegalStateException", thrown(() -> matrix.getIntDistance(0, 0)), "int distance of double matrix");
+        }
+
+        CsrGraph grid = GraphExperiments.randomGrid(20, 93);
+        CsrGraph same = Johnson.reweight(grid, new double[grid.vertexCount()]);
+        printTest(true, same == grid, "zero potentials do not copy the graph");
+        Johnson.compute(grid, file);
+        try (DistanceMatrixFile matrix = DistanceMatrixFile.open(file)) {
+            ShortestPathTree tree = ShortestPath.dijkstraIntTree(grid, 123);
+            int wrong = 0;
+            for (int v = 0; v < grid.vertexCount(); v++) {
+                wrong += matrix.getIntDistance(123, v) != tree.getIntDistance(v) ? 1 : 0;
+            }
+            printTest(0, wrong, "grid row matches dijkstraIntTree");
+        }
+        Files.delete(file);
+    }
+
+    /**
+     * Tests that any number of workers writes the same file
+     */
+    private static void workerTests(Path dir) throws IOException {
+        int[][] graph = negativeMatrix(new Random(94), 120, 0.05);
+        Path single = dir.resolve("single.dm");
+        Path parallel = dir.resolve("parallel.dm");
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        Johnson.compute(CsrGraph.fromMatrix(graph), single, executor, 1);
+        Johnson.compute(CsrGraph.fromMatrix(graph), parallel, executor, 4);
+        executor.shutdown();
+        printTest(-1L, Files.mismatch(single, parallel), "one and four workers write the same file");
+        Johnson.compute(CsrGraph.fromMatrix(new int[][] { { 0, 1 }, { 0, 0 } }), parallel);
+        printTest(24L + 4L * 4, Files.size(parallel), "rewritten file is truncated");
+        Files.delete(single);
+        Files.delete(parallel);
+    }
+
+    /**
+     * Tests for the exceptions of Johnson and DistanceMatrixFile
+     */
+    private static void exceptionTests(Path dir) throws IOException {
+        Path file = dir.resolve("exceptions.dm");
+        CsrGraph cycle = CsrGraph.fromEdges(3, new int[] { 0, 1, 2 }, new int[] { 1, 2, 1 }, new int[] { 1, 2, -3 });
+        printTest("IllegalArgumentException", thrown(() -> Johnson.compute(cycle, file)), "negative cycle");
+        printTest(false, Files.exists(file), "negative cycle writes no file");
+        printTest("NullPointerException", thrown(() -> Johnson.compute((CsrGraph) null, file)), "null graph");
+        printTest("NullPointerException", thrown(() -> Johnson.compute((int[][]) null, file)), "null matrix");
+        printTest("NullPointerException", thrown(() -> Johnson.compute(new int[][] { { 0 } }, null)), "null file");
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        printTest("IllegalArgumentException", thrown(() -> Johnson.compute(cycle, file, executor, 0)), "no workers");
+        executor.shutdown();
+
+        Johnson.compute(new int[][] { { 0, 2 }, { 0, 0 } }, file);
+        try (DistanceMatrixFile matrix = DistanceMatrixFile.open(file)) {
+            printTest(2, matrix.getIntDistance(0, 1), "small matrix distance");
+            printTest("IllegalArgumentException", thrown(() -> matrix.getDistance(2, 0)), "invalid row");
+            printTest("IllegalArgumentException", thrown(() -> matrix.getIntDistance(0, -1)), "invalid column");
+        }
+        Files.write(file, Arrays.copyOf(Files.readAllBytes(file), 30));
+        printTest("IOException", thrown(() -> DistanceMatrixFile.open(file)), "open truncated file");
+        Files.write(file, new byte[64]);
+        printTest("IOException", thrown(() -> DistanceMatrixFile.open(file)), "open bad magic");
+        printTest("NullPointerException", thrown(() -> DistanceMatrixFile.open(null)), "open null file");
+        Files.delete(file);
+    }
+
+    /**
+     * A private helper method to build a random int matrix whose weights
+     * are shifted by random vertex potentials, so that many are negative
+     * but there are no negative cycles. The last vertex has no incoming
+     * edges. Weights which shift to 0 become 1, as 0 is no edge.
+     */
+    private static int[][] negativeMatrix(Random rand, int n, double density) {
+        int[] potential = new int[n];
+        for (int v = 0; v < n; v++) {
+            potential[v] = rand.nextInt(30);
+        }
+        int[][] graph = new int[n][n];
+        for (int u = 0; u < n; u++) {
+            for (int v = 0; v < n - 1; v++) {
+                if (u != v && rand.nextDouble() < density) {
+                    int w = 1 + rand.nextInt(20) + potential[u] - potential[v];
+                    graph[u][v] = w == 0 ? 1 : w;
+                }
+            }
+        }
+        return graph;
+    }
+
+    private interface Action {
+        void run() throws IOException;
+    }
+
+    private static String thrown(Action action) {
+        try {
+            action.run();
+            return "none";
+        } catch (IOException | RuntimeException e) {
+            return e.getClass().getSimpleName();
+        }
+    }
+}
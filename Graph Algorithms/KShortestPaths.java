@@ -0,0 +1,353 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Finds the k shortest loopless paths between two vertices with Yen's
+ * Algorithm, for alternative routes next to the single best one.
+ *
+ * Each accepted path is split at every vertex into a root and a spur
+ * vertex, and a Dijkstra search from the spur vertex finds the best
+ * deviation which leaves the root through an edge no accepted path with
+ * the same root has taken. Instead of removing vertices and edges from
+ * the graph, each search carries a ban mask: the root vertices are
+ * skipped, and so are the banned next vertices of the spur vertex. The
+ * spur searches of one path are independent, so they run in parallel,
+ * each worker reusing its own workspace between searches.
+ *
+ * Candidates are kept in a priority queue ordered by cost, and a set of
+ * every path seen so far drops duplicates, since different spur searches
+ * often find the same deviation.
+ */
+public class KShortestPaths {
+    private final CsrGraph graph;
+    private final int source;
+    private final int target;
+    private final ExecutorService executor;
+    private final int workers;
+    private final ArrayList<Path> accepted = new ArrayList<>();
+    private final PriorityQueue<Path> candidates = new PriorityQueue<>();
+    private final HashSet<Path> seen = new HashSet<>();
+    private final ConcurrentLinkedQueue<Workspace> workspaces = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Constructs the state of a single query.
+     *
+     * @param graph the graph
+     * @param source the source vertex
+     * @param target the target vertex
+     * @param executor the executor which runs the spur searches
+     * @param workers the number of spur searches running at once
+     */
+    private KShortestPaths(CsrGraph graph, int source, int target, ExecutorService executor, int workers) {
+        this.graph = graph;
+        this.source = source;
+        this.target = target;
+        this.executor = executor;
+        this.workers = workers;
+    }
+
+    /**
+     * Finds the k shortest loopless paths from src to dst, running the
+     * spur searches with one worker per processor.
+     *
+     * @param graph the compressed sparse row graph, with non-negative weights
+     * @param src the index of the source vertex
+     * @param dst the index of the target vertex
+     * @param k the number of paths
+     * @return up to k paths in order of increasing distance, fewer if there are not that many
+     *
+     * @exception NullPointerException if graph is null
+     * @exception IllegalArgumentException if src or dst is invalid, or k is not positive
+     */
+    public static List<PathResult> find(CsrGraph graph, int src, int dst, int k) {
+        int workers = Runtime.getRuntime().availableProcessors();
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+        try {
+            return find(graph, src, dst, k, executor, workers);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Finds the k shortest loopless paths from src to dst on the given
+     * executor, with at most the given number of spur searches running at
+     * once.
+     *
+     * @param graph the compressed sparse row graph, with non-negative weights
+     * @param src the index of the source vertex
+     * @param dst the index of the target vertex
+     * @param k the number of paths
+     * @param executor the executor which runs the spur searches
+     * @param workers the number of workers, each with its own workspace
+     * @return up to k paths in order of increasing distance, fewer if there are not that many
+     *
+     * @exception NullPointerException if any parameters are null
+     * @exception IllegalArgumentException if src or dst is invalid, or k or workers is not positive
+     * @exception IllegalStateException if the search is interrupted
+     */
+    public static List<PathResult> find(CsrGraph graph, int src, int dst, int k, ExecutorService executor, int workers) {
+        if (graph == null || executor == null) {
+            throw new NullPointerException("parameters cannot be null");
+        }
+        int n = graph.vertexCount();
+        if (src < 0 || src >= n || dst < 0 || dst >= n) {
+            throw new IllegalArgumentException("source and target nodes must be valid indices");
+        } else if (k < 1) {
+            throw new IllegalArgumentException("number of paths must be positive");
+        } else if (workers < 1) {
+            throw new IllegalArgumentException("number of workers must be positive");
+        }
+        return new KShortestPaths(graph, src, dst, executor, workers).run(k);
+    }
+
+    /**
+     * A private helper method to run Yen's Algorithm until k paths are
+     * accepted or there are no candidates left.
+     *
+     * @param k the number of paths
+     * @return the accepted paths
+     */
+    private List<PathResult> run(int k) {
+        Workspace workspace = new Workspace(graph.vertexCount());
+        Path first = workspace.search(new Path(new int[] { source }, new double[] { 0.0 }, 0), 0);
+        workspaces.add(workspace);
+        if (first != null) {
+            accepted.add(first);
+            seen.add(first);
+        }
+        while (!accepted.isEmpty() && accepted.size() < k) {
+            for (Path spur : spurSearches(accepted.get(accepted.size() - 1))) {
+                if (spur != null && seen.add(spur)) {
+                    candidates.add(spur);
+                }
+            }
+            if (candidates.isEmpty()) {
+                break;
+            }
+            accepted.add(candidates.poll());
+        }
+
+        List<PathResult> results = new ArrayList<>(accepted.size());
+        for (Path path : accepted) {
+            results.add(new PathResult(source, target, path.getCost(), path.vertices, path.settled));
+        }
+        return results;
+    }
+
+    /**
+     * A private helper method to run the spur search of every vertex but
+     * the last of a path, in parallel.
+     *
+     * @param last the most recently accepted path
+     * @return the best deviation at each spur vertex, null where there is none
+     */
+    private Path[] spurSearches(Path last) {
+        Path[] results = new Path[last.vertices.length - 1];
+        AtomicInteger nextSpur = new AtomicInteger();
+        Runnable work = () -> {
+            Workspace workspace = workspaces.poll();
+            if (workspace == null) {
+                workspace = new Workspace(graph.vertexCount());
+            }
+            for (int i = nextSpur.getAndIncrement(); i < results.length; i = nextSpur.getAndIncrement()) {
+                results[i] = workspace.search(last, i);
+            }
+            workspaces.add(workspace);
+        };
+
+        int tasks = Math.min(workers, results.length);
+        if (tasks <= 1) {
+            work.run();
+            return results;
+        }
+        ArrayList<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < tasks; t++) {
+            futures.add(executor.submit(work));
+        }
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            for (Future<?> future : futures) {
+                future.cancel(true);
+            }
+            throw new IllegalStateException("search was interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+        return results;
+    }
+
+    /**
+     * A loopless path with the distance from the source to each of its
+     * vertices. Paths are equal if they visit the same vertices, and are
+     * ordered by cost, then by length, then by their vertices.
+     */
+    private static class Path implements Comparable<Path> {
+        private final int[] vertices;
+        private final double[] distances;
+        private final int settled;
+
+        Path(int[] vertices, double[] distances, int settled) {
+            this.vertices = vertices;
+            this.distances = distances;
+            this.settled = settled;
+        }
+
+        double getCost() {
+            return distances[distances.length - 1];
+        }
+
+        /**
+         * Returns true if the first length vertices of this path and
+         * another are the same.
+         *
+         * @param other the other path
+         * @param length the number of vertices to compare
+         * @return true if the paths share the prefix
+         */
+        boolean sharesPrefix(Path other, int length) {
+            return other.vertices.length > length && Arrays.equals(vertices, 0, length, other.vertices, 0, length);
+        }
+
+        public int compareTo(Path other) {
+            int result = Double.compare(getCost(), other.getCost());
+            if (result == 0) {
+                result = Integer.compare(vertices.length, other.vertices.length);
+            }
+            return result != 0 ? result : Arrays.compare(vertices, other.vertices);
+        }
+
+        public boolean equals(Object o) {
+            return o instanceof Path && Arrays.equals(vertices, ((Path) o).vertices);
+        }
+
+        public int hashCode() {
+            return Arrays.hashCode(vertices);
+        }
+    }
+
+    /**
+     * The distance array, heap and ban masks of one worker, reused between
+     * its spur searches. A mask entry is banned if it equals the stamp of
+     * the current search, so masks never have to be cleared.
+     */
+    private class Workspace {
+        private final double[] dist;
+        private final int[] prev;
+        private final IndexedMinHeap unvisited;
+        private final int[] touched;
+        private final int[] bannedVertex;
+        private final int[] bannedNext;
+        private int touchedCount = 0;
+        private int stamp = 0;
+
+        Workspace(int n) {
+            this.dist = new double[n];
+            this.prev = new int[n];
+            this.unvisited = new IndexedMinHeap(n);
+            this.touched = new int[n];
+            this.bannedVertex = new int[n];
+            this.bannedNext = new int[n];
+            Arrays.fill(dist, Double.POSITIVE_INFINITY);
+            Arrays.fill(prev, ShortestPathTree.NO_VERTEX);
+        }
+
+        /**
+         * Finds the shortest path which follows a path up to its spur
+         * vertex and then leaves it through an edge which no accepted path
+         * with the same root has taken, without revisiting the root.
+         *
+         * @param path the path
+         * @param spurIndex the position of the spur vertex on the path
+         * @return the path, or null if the target cannot be reached
+         */
+        Path search(Path path, int spurIndex) {
+            stamp++;
+            for (int i = 0; i < spurIndex; i++) {
+                bannedVertex[path.vertices[i]] = stamp;
+            }
+            for (Path other : accepted) {
+                if (path.sharesPrefix(other, spurIndex + 1)) {
+                    bannedNext[other.vertices[spurIndex + 1]] = stamp;
+                }
+            }
+            for (int i = 0; i < touchedCount; i++) {
+                dist[touched[i]] = Double.POSITIVE_INFINITY;
+                prev[touched[i]] = ShortestPathTree.NO_VERTEX;
+            }
+            touchedCount = 0;
+            unvisited.clear();
+
+            int spur = path.vertices[spurIndex];
+            int[] offsets = graph.getOffsets();
+            int[] heads = graph.getTargets();
+            dist[spur] = 0.0;
+            touched[touchedCount++] = spur;
+            unvisited.insert(spur, 0.0);
+            int settled = 0;
+            while (!unvisited.isEmpty()) {
+                int u = unvisited.poll();
+                settled++;
+                if (u == target) {
+                    return join(path, spurIndex, settled);
+                }
+                for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                    int v = heads[e];
+                    if (bannedVertex[v] == stamp || (u == spur && bannedNext[v] == stamp)) {
+                        continue;
+                    }
+                    double d = dist[u] + graph.getWeight(e);
+                    if (d < dist[v]) {
+                        if (dist[v] == Double.POSITIVE_INFINITY) {
+                            touched[touchedCount++] = v;
+                        }
+                        dist[v] = d;
+                        prev[v] = u;
+                        unvisited.insertOrDecrease(v, d);
+                    }
+                }
+            }
+            return null;
+        }
+
+        /**
+         * A private helper method to join the root of a path with the spur
+         * path which the last search found.
+         *
+         * @param path the path
+         * @param spurIndex the position of the spur vertex on the path
+         * @param settled the number of vertices the search settled
+         * @return the joined path
+         */
+        private Path join(Path path, int spurIndex, int settled) {
+            int length = spurIndex + 1;
+            for (int v = target; v != path.vertices[spurIndex]; v = prev[v]) {
+                length++;
+            }
+            int[] vertices = Arrays.copyOf(path.vertices, length);
+            double[] distances = Arrays.copyOf(path.distances, length);
+            double rootCost = path.distances[spurIndex];
+            for (int v = target, i = length - 1; i > spurIndex; v = prev[v], i--) {
+                vertices[i] = v;
+                distances[i] = rootCost + dist[v];
+            }
+            return new Path(vertices, distances, settled);
+        }
+    }
+}
@@ -0,0 +1,208 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * A Test Harness for the KShortestPaths class.
+ */
+public class KShortestPathsTests {
+    static boolean VERBOSE = true;
+    static int numTests = 0;
+    static int failedTests = 0;
+
+    /**
+     * The main method runs the tests.
+     *
+     * @param args Not used
+     */
+    public static void main(String[] args) {
+        numTests = 0;
+        failedTests = 0;
+
+        exampleTests();
+        bruteForceTests();
+        parallelTests();
+        edgeCaseTests();
+        exceptionTests();
+
+        System.out.println("Total tests: " + numTests);
+        System.out.println("Failed tests: " + failedTests);
+    }
+
+    private static void printTest(Object expected, Object actual, String test) {
+        if (!expected.equals(actual)) {
+            if (VERBOSE) {
+                System.out.println("FAILED! " + test + " test.");
+                System.out.println("\texpected: " + expected.toString());
+                System.out.println("\tactual: " + actual.toString());
+            }
+            failedTests++;
+        }
+        numTests++;
+    }
+
+    /**
+     * Tests on the usual example of Yen's Algorithm, with the vertices
+     * C, D, E, F, G and H numbered 0 to 5
+     */
+    private static void exampleTests() {
+        CsrGraph graph = CsrGraph.fromEdges(6,
+                new int[] { 0, 0, 1, 2, 2, 2, 3, 3, 4 },
+                new int[] { 1, 2, 3, 1, 3, 4, 4, 5, 5 },
+                new int[] { 3, 2, 4, 1, 2, 3, 2, 1, 2 });
+        List<PathResult> paths = ShortestPath.kShortestPaths(graph, 0, 5, 3);
+        printTest(3, paths.size(), "three paths");
+        printTest("[0, 2, 3, 5]", Arrays.toString(paths.get(0).getPath()), "first path");
+        printTest(5.0, paths.get(0).getDistance(), "first distance");
+        printTest("[0, 2, 4, 5]", Arrays.toString(paths.get(1).getPath()), "second path");
+        printTest(7.0, paths.get(1).getDistance(), "second distance");
+        printTest("[0, 1, 3, 5]", Arrays.toString(paths.get(2).getPath()), "third path");
+        printTest(8.0, paths.get(2).getDistance(), "third distance");
+
+        List<PathResult> all = ShortestPath.kShortestPaths(graph, 0, 5, 100);
+        printTest(7, all.size(), "every loopless path");
+        printTest("[5.0, 7.0, 8.0, 8.0, 8.0, 11.0, 11.0]", Arrays.toString(distances(all)), "every distance");
+        printTest(ShortestPath.shortestPath(graph, 0, 5).getDistance(), all.get(0).getDistance(), "first path is the shortest path");
+    }
+
+    /**
+     * Tests against every loopless path of small random graphs
+     */
+    private static void bruteForceTests() {
+        Random rand = new Random(71);
+        int wrongCosts = 0;
+        int wrongPaths = 0;
+        for (int t = 0; t < 40; t++) {
+            CsrGraph graph = ShortestPathTests.randomGraph(rand, 8, 3);
+            int src = rand.nextInt(8);
+            int dst = rand.nextInt(8);
+            ArrayList<Double> expected = new ArrayList<>();
+            enumerate(graph, src, dst, new ArrayList<>(Collections.singletonList(src)), 0.0, expected);
+            Collections.sort(expected);
+            int k = 1 + rand.nextInt(12);
+            List<PathResult> paths = KShortestPaths.find(graph, src, dst, k);
+
+            if (paths.size() != Math.min(k, expected.size())) {
+                wrongCosts++;
+                continue;
+            }
+            HashSet<String> distinct = new HashSet<>();
+            for (int i = 0; i < paths.size(); i++) {
+                int[] path = paths.get(i).getPath();
+                if (paths.get(i).getDistance() != expected.get(i)) {
+                    wrongCosts++;
+                }
+                HashSet<Integer> visited = new HashSet<>();
+                for (int v : path) {
+                    visited.add(v);
+                }
+                if (path[0] != src || path[path.length - 1] != dst || visited.size() != path.length
+                        || ShortestPathTests.pathWeight(graph, path) != paths.get(i).getDistance() || !distinct.add(Arrays.toString(path))) {
+                    wrongPaths++;
+                }
+            }
+        }
+        printTest(0, wrongCosts, "distances match every loopless path");
+        printTest(0, wrongPaths, "paths are distinct, loopless and priced correctly");
+    }
+
+    /**
+     * Tests that parallel spur searches give the same paths as a single
+     * worker
+     */
+    private static void parallelTests() {
+        CsrGraph grid = GraphExperiments.randomGrid(30, 72);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<PathResult> single = KShortestPaths.find(grid, 0, 899, 20, executor, 1);
+        List<PathResult> parallel = KShortestPaths.find(grid, 0, 899, 20, executor, 4);
+        executor.shutdown();
+        printTest(20, parallel.size(), "twenty grid paths");
+        printTest(Arrays.toString(distances(single)), Arrays.toString(distances(parallel)), "parallel distances");
+        boolean samePaths = true;
+        for (int i = 0; i < single.size(); i++) {
+            samePaths &= Arrays.equals(single.get(i).getPath(), parallel.get(i).getPath());
+        }
+        printTest(true, samePaths, "parallel paths");
+        boolean sorted = true;
+        for (int i = 1; i < parallel.size(); i++) {
+            sorted &= parallel.get(i - 1).getDistance() <= parallel.get(i).getDistance();
+        }
+        printTest(true, sorted, "paths in order of distance");
+    }
+
+    /**
+     * Tests for sources equal to targets, unreachable targets and
+     * parallel edges
+     */
+    private static void edgeCaseTests() {
+        CsrGraph graph = CsrGraph.fromEdges(4, new int[] { 0, 0, 1 }, new int[] { 1, 1, 2 }, new int[] { 5, 1, 2 });
+        List<PathResult> same = KShortestPaths.find(graph, 1, 1, 3);
+        printTest(1, same.size(), "source is target");
+        printTest("[1]", Arrays.toString(same.get(0).getPath()), "source is target path");
+        printTest(0.0, same.get(0).getDistance(), "source is target distance");
+        printTest(0, KShortestPaths.find(graph, 0, 3, 3).size(), "unreachable target");
+        List<PathResult> parallel = KShortestPaths.find(graph, 0, 2, 3);
+        printTest(1, parallel.size(), "parallel edges give one path");
+        printTest(3.0, parallel.get(0).getDistance(), "parallel edges use the lightest");
+        printTest(true, parallel.get(0).getSettledCount() > 0, "settled count");
+    }
+
+    /**
+     * Tests for the exceptions of KShortestPaths
+     */
+    private static void exceptionTests() {
+        CsrGraph graph = CsrGraph.fromEdges(2, new int[] { 0 }, new int[] { 1 }, new int[] { 2 });
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        printTest("NullPointerException", thrown(() -> KShortestPaths.find(null, 0, 1, 1)), "null graph");
+        printTest("NullPointerException", thrown(() -> KShortestPaths.find(graph, 0, 1, 1, null, 1)), "null executor");
+        printTest("IllegalArgumentException", thrown(() -> KShortestPaths.find(graph, 2, 1, 1)), "invalid source");
+        printTest("IllegalArgumentException", thrown(() -> KShortestPaths.find(graph, 0, -1, 1)), "invalid target");
+        printTest("IllegalArgumentException", thrown(() -> KShortestPaths.find(graph, 0, 1, 0)), "k is zero");
+        printTest("IllegalArgumentException", thrown(() -> KShortestPaths.find(graph, 0, 1, 1, executor, 0)), "no workers");
+        executor.shutdown();
+    }
+
+    /**
+     * A private helper method to collect the cost of every loopless path
+     * to a target by depth first search.
+     */
+    private static void enumerate(CsrGraph graph, int u, int dst, ArrayList<Integer> path, double cost, ArrayList<Double> costs) {
+        if (u == dst) {
+            costs.add(cost);
+            return;
+        }
+        HashSet<Integer> next = new HashSet<>();
+        for (int e = graph.getOffsets()[u]; e < graph.getOffsets()[u + 1]; e++) {
+            next.add(graph.getTargets()[e]);
+        }
+        for (int v : next) {
+            if (!path.contains(v)) {
+                path.add(v);
+                enumerate(graph, v, dst, path, cost + ShortestPathTests.pathWeight(graph, new int[] { u, v }), costs);
+                path.remove(path.size() - 1);
+            }
+        }
+    }
+
+    private static double[] distances(List<PathResult> paths) {
+        double[] result = new double[paths.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = paths.get(i).getDistance();
+        }
+        return result;
+    }
+
+    private static String thrown(Runnable action) {
+        try {
+            action.run();
+            return "none";
+        } catch (RuntimeException e) {
+            return e.getClass().getSimpleName();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * A dictionary which interns vertex labels as dense int ids, 0 to
+ * size() - 1 in the order the labels were first seen, so that a search
+ * can run on the primitive arrays and only translate labels at its
+ * boundary.
+ *
+ * @param <T> the label type
+ */
+public class LabelIndex<T> {
+    private final HashMap<T, Integer> ids = new HashMap<>();
+    private final ArrayList<T> labels = new ArrayList<>();
+
+    /**
+     * Constructs an empty index.
+     */
+    public LabelIndex() {
+    }
+
+    /**
+     * Returns the id of a label, giving it the next id if it is new.
+     *
+     * @param label the label
+     * @return the id of the label
+     *
+     * @exception NullPointerException if label is null
+     */
+    public int intern(T label) {
+        if (label == null) {
+            throw new NullPointerException("label cannot be null");
+        }
+        Integer id = ids.get(label);
+        if (id == null) {
+            id = labels.size();
+            ids.put(label, id);
+            labels.add(label);
+        }
+        return id;
+    }
+
+    /**
+     * Returns the id of a label.
+     *
+     * @param label the label
+     * @return the id of the label, or -1 if it has not been interned
+     */
+    public int indexOf(T label) {
+        Integer id = ids.get(label);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Returns the label of an id.
+     *
+     * @param id the id
+     * @return the label
+     *
+     * @exception IndexOutOfBoundsException if id is not between 0 and size() - 1
+     */
+    public T getLabel(int id) {
+        return labels.get(id);
+    }
+
+    /**
+     * Returns the number of labels.
+     *
+     * @return the number of labels
+     */
+    public int size() {
+        return labels.size();
+    }
+}
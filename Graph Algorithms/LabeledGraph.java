@@ -0,0 +1,127 @@
+import java.util.Map;
+
+/**
+ * A compressed sparse row graph together with the LabelIndex of its
+ * vertices, built once from an adjacency list so that repeated searches
+ * hash each label only when it crosses the API boundary, rather than on
+ * every edge relaxation.
+ *
+ * The keys of the adjacency list are interned first, in iteration order,
+ * followed by any edge targets which are not keys, which become vertices
+ * without edges. As in toAdjList, an edge of weight 0 is no edge.
+ *
+ * @param <T> the label type
+ */
+public class LabeledGraph<T> {
+    private final LabelIndex<T> index;
+    private final CsrGraph graph;
+
+    /**
+     * Constructs a labeled graph.
+     *
+     * @param index the labels, where id i is vertex i of graph
+     * @param graph the graph
+     */
+    private LabeledGraph(LabelIndex<T> index, CsrGraph graph) {
+        this.index = index;
+        this.graph = graph;
+    }
+
+    /**
+     * Builds a labeled graph with int weights from an adjacency list.
+     *
+     * @param <T> the label type
+     * @param graph the adjacency list
+     * @return the labeled graph
+     *
+     * @exception NullPointerException if graph, a label or a weight is null
+     */
+    public static <T> LabeledGraph<T> fromAdjListInt(Map<T, Map<T, Integer>> graph) {
+        return build(graph, true);
+    }
+
+    /**
+     * Builds a labeled graph with double weights from an adjacency list.
+     *
+     * @param <T> the label type
+     * @param graph the adjacency list
+     * @return the labeled graph
+     *
+     * @exception NullPointerException if graph, a label or a weight is null
+     */
+    public static <T> LabeledGraph<T> fromAdjListDouble(Map<T, Map<T, Double>> graph) {
+        return build(graph, false);
+    }
+
+    /**
+     * Returns the index of the labels.
+     *
+     * @return the index, where id i is vertex i of the graph
+     */
+    public LabelIndex<T> getIndex() {
+        return index;
+    }
+
+    /**
+     * Returns the graph.
+     *
+     * @return the compressed sparse row graph
+     */
+    public CsrGraph getGraph() {
+        return graph;
+    }
+
+    /**
+     * A private helper method to intern the labels of an adjacency list
+     * and copy its non-zero edges into CSR arrays.
+     *
+     * @param <T> the label type
+     * @param <W> the type of the edge weights
+     * @param graph the adjacency list
+     * @param intWeights true to build int weights
+     * @return the labeled graph
+     */
+    private static <T, W extends Number> LabeledGraph<T> build(Map<T, Map<T, W>> graph, boolean intWeights) {
+        if (graph == null) {
+            throw new NullPointerException("graph cannot be null");
+        }
+        LabelIndex<T> index = new LabelIndex<>();
+        for (T label : graph.keySet()) {
+            index.intern(label);
+        }
+        int keys = index.size();
+        int edges = 0;
+        for (Map<T, W> row : graph.values()) {
+            for (Map.Entry<T, W> edge : row.entrySet()) {
+                index.intern(edge.getKey());
+                if (edge.getValue().doubleValue() != 0) {
+                    edges++;
+                }
+            }
+        }
+
+        int[] offsets = new int[index.size() + 1];
+        int[] targets = new int[edges];
+        double[] weights = intWeights ? null : new double[edges];
+        int[] intWeightArray = intWeights ? new int[edges] : null;
+        int e = 0;
+        for (int u = 0; u < keys; u++) {
+            for (Map.Entry<T, W> edge : graph.get(index.getLabel(u)).entrySet()) {
+                if (edge.getValue().doubleValue() != 0) {
+                    targets[e] = index.indexOf(edge.getKey());
+                    if (intWeights) {
+                        intWeightArray[e] = edge.getValue().intValue();
+                    } else {
+                        weights[e] = edge.getValue().doubleValue();
+                    }
+                    e++;
+                }
+            }
+            offsets[u + 1] = e;
+        }
+        for (int u = keys; u < index.size(); u++) {
+            offsets[u + 1] = e;
+        }
+        return new LabeledGraph<>(index, new CsrGraph(offsets, targets, weights, intWeightArray));
+    }
+}
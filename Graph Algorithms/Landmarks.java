@@ -0,0 +1,317 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * The preprocessing of the ALT (A*, Landmarks, Triangle inequality)
+ * algorithm. A few landmark vertices are chosen, and the distances from
+ * every landmark to every vertex and from every vertex to every landmark
+ * are computed once with Dijkstra's Algorithm. By the triangle inequality
+ * these give the lower bounds
+ *
+ *      d(v, t) >= d(L, t) - d(L, v)
+ *      d(v, t) >= d(v, L) - d(t, L)
+ *
+ * which are used as a consistent A* heuristic, so that repeated queries
+ * against the same static graph explore far fewer vertices.
+ *
+ * The landmark tables use 16kV bytes for k landmarks, and can be saved
+ * to disk so that they do not have to be recomputed. Queries reuse one
+ * AStar engine, so an instance is not safe to query from several threads
+ * at once.
+ */
+public class Landmarks implements AStar.IndexHeuristic {
+    private final static int MAGIC = 0x414C5431;
+
+    private final CsrGraph graph;
+    private final int[] landmarks;
+    private final double[][] from;
+    private final double[][] to;
+    private AStar engine;
+
+    /**
+     * Constructs the landmark tables.
+     *
+     * @param graph the graph
+     * @param landmarks the landmark vertices
+     * @param from the distance from each landmark to every vertex
+     * @param to the distance from every vertex to each landmark
+     */
+    private Landmarks(CsrGraph graph, int[] landmarks, double[][] from, double[][] to) {
+        this.graph = graph;
+        this.landmarks = landmarks;
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * Chooses k landmarks by farthest-point selection and computes their
+     * distance tables. The first landmark is the vertex farthest from
+     * vertex 0, and each further landmark is the vertex whose nearest
+     * landmark is farthest away, which spreads the landmarks towards the
+     * edges of the graph where they give the tightest bounds.
+     *
+     * @param graph the graph, with non-negative weights
+     * @param k the number of landmarks
+     * @return the landmark tables
+     *
+     * @exception NullPointerException if graph is null
+     * @exception IllegalArgumentException if k is not between 1 and the number of vertices
+     */
+    public static Landmarks build(CsrGraph graph, int k) {
+        if (graph == null) {
+            throw new NullPointerException("graph cannot be null");
+        } else if (k < 1 || k > graph.vertexCount()) {
+            throw new IllegalArgumentException("number of landmarks must be between 1 and the number of vertices");
+        }
+
+        CsrGraph reverse = graph.reverse();
+        int n = graph.vertexCount();
+        int[] landmarks = new int[k];
+        double[][] from = new double[k][];
+        double[][] to = new double[k][];
+        double[] nearest = new double[n];
+        Arrays.fill(nearest, Double.POSITIVE_INFINITY);
+
+        double[] start = distances(graph, 0);
+        int next = farthest(start, 0);
+        for (int i = 0; i < k; i++) {
+            landmarks[i] = next;
+            from[i] = distances(graph, next);
+            to[i] = distances(reverse, next);
+            next = -1;
+            double best = -1.0;
+            for (int v = 0; v < n; v++) {
+                double d = Math.min(from[i][v], to[i][v]);
+                if (d < nearest[v]) {
+                    nearest[v] = d;
+                }
+                if (nearest[v] != Double.POSITIVE_INFINITY && nearest[v] > best && !isLandmark(landmarks, i, v)) {
+                    best = nearest[v];
+                    next = v;
+                }
+            }
+            if (next == -1) {
+                next = firstNonLandmark(landmarks, i, n);
+            }
+        }
+        return new Landmarks(graph, landmarks, from, to);
+    }
+
+    /**
+     * Computes the distance tables of the given landmarks.
+     *
+     * @param graph the graph, with non-negative weights
+     * @param landmarks the landmark vertices
+     * @return the landmark tables
+     *
+     * @exception NullPointerException if any parameters are null
+     * @exception IllegalArgumentException if a landmark is not a valid vertex
+     */
+    public static Landmarks build(CsrGraph graph, int[] landmarks) {
+        if (graph == null || landmarks == null) {
+            throw new NullPointerException("parameters cannot be null");
+        }
+        CsrGraph reverse = graph.reverse();
+        double[][] from = new double[landmarks.length][];
+        double[][] to = new double[landmarks.length][];
+        for (int i = 0; i < landmarks.length; i++) {
+            if (landmarks[i] < 0 || landmarks[i] >= graph.vertexCount()) {
+                throw new IllegalArgumentException("landmarks must be valid indices");
+            }
+            from[i] = distances(graph, landmarks[i]);
+            to[i] = distances(reverse, landmarks[i]);
+        }
+        return new Landmarks(graph, landmarks.clone(), from, to);
+    }
+
+    /**
+     * Returns the landmark vertices.
+     *
+     * @return a copy of the landmark vertices
+     */
+    public int[] getLandmarks() {
+        return landmarks.clone();
+    }
+
+    /**
+     * Returns the lower bound on the distance from a vertex to the target
+     * given by the landmark tables.
+     *
+     * @param vertex the vertex
+     * @param target the target of the search
+     * @return a lower bound on the distance from vertex to target
+     */
+    public double estimate(int vertex, int target) {
+        double bound = 0.0;
+        for (int i = 0; i < landmarks.length; i++) {
+            double[] f = from[i];
+            if (f[target] != Double.POSITIVE_INFINITY && f[vertex] != Double.POSITIVE_INFINITY) {
+                bound = Math.max(bound, f[target] - f[vertex]);
+            }
+            double[] t = to[i];
+            if (t[vertex] != Double.POSITIVE_INFINITY && t[target] != Double.POSITIVE_INFINITY) {
+                bound = Math.max(bound, t[vertex] - t[target]);
+            }
+        }
+        return bound;
+    }
+
+    /**
+     * Finds the shortest path from src to dst with an A* search guided by
+     * the landmark tables.
+     *
+     * @param src the index of the source vertex
+     * @param dst the index of the target vertex
+     * @return the distance and the path from src to dst
+     *
+     * @exception IllegalArgumentException if src or dst is invalid
+     */
+    public PathResult query(int src, int dst) {
+        if (engine == null) {
+            engine = new AStar(graph);
+        }
+        return engine.query(src, dst, this);
+    }
+
+    /**
+     * Writes the landmark tables to a file.
+     *
+     * @param file the file to write
+     *
+     * @exception IOException if the file cannot be written
+     */
+    public void save(Path file) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(graph.vertexCount());
+            out.writeInt(graph.edgeCount());
+            out.writeInt(landmarks.length);
+            for (int i = 0; i < landmarks.length; i++) {
+                out.writeInt(landmarks[i]);
+            }
+            for (int i = 0; i < landmarks.length; i++) {
+                for (int v = 0; v < from[i].length; v++) {
+                    out.writeDouble(from[i][v]);
+                }
+                for (int v = 0; v < to[i].length; v++) {
+                    out.writeDouble(to[i][v]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads landmark tables which were written by save.
+     *
+     * @param graph the graph which the tables were built for
+     * @param file the file to read
+     * @return the landmark tables
+     *
+     * @exception NullPointerException if any parameters are null
+     * @exception IOException if the file cannot be read, or was not built for a graph of this size
+     */
+    public static Landmarks load(CsrGraph graph, Path file) throws IOException {
+        if (graph == null || file == null) {
+            throw new NullPointerException("parameters cannot be null");
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("file does not contain landmark tables");
+            } else if (in.readInt() != graph.vertexCount() || in.readInt() != graph.edgeCount()) {
+                throw new IOException("landmark tables were built for a different graph");
+            }
+            int k = in.readInt();
+            int[] landmarks = new int[k];
+            for (int i = 0; i < k; i++) {
+                landmarks[i] = in.readInt();
+            }
+            double[][] from = new double[k][graph.vertexCount()];
+            double[][] to = new double[k][graph.vertexCount()];
+            for (int i = 0; i < k; i++) {
+                for (int v = 0; v < from[i].length; v++) {
+                    from[i][v] = in.readDouble();
+                }
+                for (int v = 0; v < to[i].length; v++) {
+                    to[i][v] = in.readDouble();
+                }
+            }
+            return new Landmarks(graph, landmarks, from, to);
+        }
+    }
+
+    /**
+     * A private helper method to compute the distance of every vertex from
+     * a source with the Dijkstra engine.
+     *
+     * @param graph the graph
+     * @param src the source vertex
+     * @return the distances, positive infinity for unreachable vertices
+     */
+    private static double[] distances(CsrGraph graph, int src) {
+        ShortestPathTree tree = ShortestPath.dijkstraDoubleTree(graph, src);
+        double[] dist = new double[tree.size()];
+        for (int v = 0; v < dist.length; v++) {
+            dist[v] = tree.getDistance(v);
+        }
+        return dist;
+    }
+
+    /**
+     * A private helper method to find the reachable vertex with the
+     * greatest distance.
+     *
+     * @param dist the distances
+     * @param fallback the vertex to return if no vertex is reachable
+     * @return the farthest vertex
+     */
+    private static int farthest(double[] dist, int fallback) {
+        int best = fallback;
+        for (int v = 0; v < dist.length; v++) {
+            if (dist[v] != Double.POSITIVE_INFINITY && dist[v] > dist[best]) {
+                best = v;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * A private helper method to check whether a vertex was already chosen.
+     *
+     * @param landmarks the landmarks
+     * @param count the number of landmarks chosen so far, minus one
+     * @param v the vertex
+     * @return true if v is one of the first count + 1 landmarks
+     */
+    private static boolean isLandmark(int[] landmarks, int count, int v) {
+        for (int i = 0; i <= count; i++) {
+            if (landmarks[i] == v) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * A private helper method to find a vertex which is not yet a landmark,
+     * used when the remaining vertices are unreachable from every landmark.
+     *
+     * @param landmarks the landmarks
+     * @param count the number of landmarks chosen so far, minus one
+     * @param n the number of vertices
+     * @return a vertex which is not a landmark, or 0 if there is none
+     */
+    private static int firstNonLandmark(int[] landmarks, int count, int n) {
+        for (int v = 0; v < n; v++) {
+            if (!isLandmark(landmarks, count, v)) {
+                return v;
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,114 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * A Test Harness for the Landmarks class.
+ */
+public class LandmarksTests {
+    static boolean VERBOSE = true;
+    static int numTests = 0;
+    static int failedTests = 0;
+
+    static final int SIDE = 30;
+
+    /**
+     * The main method runs the tests.
+     *
+     * @param args Not used
+     */
+    public static void main(String[] args) throws IOException {
+        numTests = 0;
+        failedTests = 0;
+
+        CsrGraph graph = GraphExperiments.randomGrid(SIDE, 7);
+        Landmarks landmarks = Landmarks.build(graph, 4);
+
+        boundTests(graph, landmarks);
+        queryTests(graph, landmarks);
+        persistenceTests(graph, landmarks);
+
+        System.out.println("Total tests: " + numTests);
+        System.out.println("Failed tests: " + failedTests);
+    }
+
+    private static void printTest(Object expected, Object actual, String test) {
+        if (!expected.equals(actual)) {
+            if (VERBOSE) {
+                System.out.println("FAILED! " + test + " test.");
+                System.out.println("\texpected: " + expected.toString());
+                System.out.println("\tactual: " + actual.toString());
+            }
+            failedTests++;
+        }
+        numTests++;
+    }
+
+    /**
+     * Tests for build(CsrGraph graph, int k) and estimate(int vertex, int target)
+     */
+    private static void boundTests(CsrGraph graph, Landmarks landmarks) {
+        printTest(4, landmarks.getLandmarks().length, "number of landmarks");
+        Random rand = new Random(8);
+        boolean admissible = true;
+        for (int q = 0; q < 10; q++) {
+            int dst = rand.nextInt(graph.vertexCount());
+            ShortestPathTree tree = ShortestPath.dijkstraDoubleTree(graph.reverse(), dst);
+            for (int v = 0; v < graph.vertexCount(); v++) {
+                if (landmarks.estimate(v, dst) > tree.getDistance(v)) {
+                    admissible = false;
+                }
+            }
+        }
+        printTest(true, admissible, "estimate is a lower bound");
+        printTest(0.0, landmarks.estimate(5, 5), "estimate of the target");
+    }
+
+    /**
+     * Tests for query(int src, int dst)
+     */
+    private static void queryTests(CsrGraph graph, Landmarks landmarks) {
+        Random rand = new Random(9);
+        BidirectionalDijkstra bidirectional = new BidirectionalDijkstra(graph);
+        AStar dijkstra = new AStar(graph);
+        long altSettled = 0;
+        long dijkstraSettled = 0;
+        for (int q = 0; q < 50; q++) {
+            int src = rand.nextInt(graph.vertexCount());
+            int dst = rand.nextInt(graph.vertexCount());
+            PathResult expected = bidirectional.query(src, dst);
+            PathResult actual = landmarks.query(src, dst);
+            printTest(expected.getDistance(), actual.getDistance(), "query distance " + src + " -> " + dst);
+            altSettled += actual.getSettledCount();
+            dijkstraSettled += dijkstra.query(src, dst, (v, t) -> 0.0).getSettledCount();
+        }
+        printTest(true, altSettled < dijkstraSettled, "query settles fewer vertices than Dijkstra");
+    }
+
+    /**
+     * Tests for save(Path file) and load(CsrGraph graph, Path file)
+     */
+    private static void persistenceTests(CsrGraph graph, Landmarks landmarks) throws IOException {
+        Path file = Files.createTempFile("landmarks", ".bin");
+        try {
+            landmarks.save(file);
+            Landmarks loaded = Landmarks.load(graph, file);
+            printTest(Arrays.toString(landmarks.getLandmarks()), Arrays.toString(loaded.getLandmarks()),
+                    "load landmarks");
+            printTest(landmarks.estimate(3, 400), loaded.estimate(3, 400), "load estimate");
+            printTest(landmarks.query(10, 800).getDistance(), loaded.query(10, 800).getDistance(), "load query");
+
+            String thrown = "none";
+            try {
+                Landmarks.load(GraphExperiments.randomGrid(SIDE - 1, 7), file);
+            } catch (IOException e) {
+                thrown = "IOException";
+            }
+            printTest("IOException", thrown, "load for a different graph");
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,331 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Computes a many-to-many DistanceTable over a ContractionHierarchy with
+ * the bucket algorithm of Knopp et al., which shares the work of the
+ * searches between all of the sources and targets.
+ *
+ *      1. A backward upward search runs from every target t, and every
+ *         vertex v which it reaches gets the entry (t, d(v, t)) in its
+ *         bucket.
+ *      2. A forward upward search runs from every source s, and at every
+ *         vertex v which it reaches the entries of the bucket of v give
+ *         the candidate distances d(s, v) + d(v, t).
+ *
+ * Every shortest path has a most important vertex which both searches
+ * reach, so the smallest candidate is the distance. The upward searches
+ * settle a few hundred vertices even on graphs with millions, so an
+ * S x T table costs S + T small searches instead of S whole searches
+ * with BatchShortestPath, which remains the choice for graphs without a
+ * hierarchy.
+ *
+ * Both phases run on a bounded executor, with workers claiming targets
+ * and then sources as in BatchShortestPath. The buckets are stored in
+ * CSR arrays, and the table in a single primitive array, so there is no
+ * allocation per entry or per cell.
+ */
+public class ManyToMany {
+    private final ContractionHierarchy hierarchy;
+    private final int[] sources;
+    private final int[] targets;
+    private final double[] table;
+    private final int[] intTable;
+    private final AtomicInteger nextTarget = new AtomicInteger();
+    private final AtomicInteger nextSource = new AtomicInteger();
+
+    // the bucket of v is the entries from bucketOffsets[v] to bucketOffsets[v + 1]
+    private int[] bucketOffsets;
+    private int[] bucketColumns;
+    private double[] bucketDist;
+
+    /**
+     * Constructs the state of a single table.
+     *
+     * @param hierarchy the hierarchy
+     * @param sources the sources
+     * @param targets the targets
+     */
+    private ManyToMany(ContractionHierarchy hierarchy, int[] sources, int[] targets) {
+        this.hierarchy = hierarchy;
+        this.sources = sources;
+        this.targets = targets;
+        int cells = sources.length * targets.length;
+        this.table = hierarchy.isIntWeighted() ? null : new double[cells];
+        this.intTable = hierarchy.isIntWeighted() ? new int[cells] : null;
+    }
+
+    /**
+     * Computes the distances from every source to every target, using one
+     * worker per processor.
+     *
+     * @param hierarchy the contraction hierarchy of the graph
+     * @param sources the source vertices
+     * @param targets the target vertices
+     * @return a table with a row per source and a column per target, int
+     * weighted if the original graph is
+     *
+     * @exception NullPointerException if any parameters are null
+     * @exception IllegalArgumentException if a source or target is invalid
+     */
+    public static DistanceTable run(ContractionHierarchy hierarchy, int[] sources, int[] targets) {
+        int workers = Runtime.getRuntime().availableProcessors();
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+        try {
+            return run(hierarchy, sources, targets, executor, workers);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Computes the distances from every source to every target on the
+     * given executor, with at most the given number of searches running
+     * at once.
+     *
+     * @param hierarchy the contraction hierarchy of the graph
+     * @param sources the source vertices
+     * @param targets the target vertices
+     * @param executor the executor which runs the workers
+     * @param workers the number of workers, each with its own workspace
+     * @return a table with a row per source and a column per target, int
+     * weighted if the original graph is
+     *
+     * @exception NullPointerException if any parameters are null
+     * @exception IllegalArgumentException if a source or target is invalid, or workers is not positive
+     * @exception IllegalStateException if the computation is interrupted
+     */
+    public static DistanceTable run(ContractionHierarchy hierarchy, int[] sources, int[] targets, ExecutorService executor, int workers) {
+        if (hierarchy == null || sources == null || targets == null || executor == null) {
+            throw new NullPointerException("parameters cannot be null");
+        } else if (workers < 1) {
+            throw new IllegalArgumentException("number of workers must be positive");
+        } else if ((long) sources.length * targets.length > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("distance table is too large");
+        }
+        checkVertices(hierarchy, sources, "source nodes must be valid indices");
+        checkVertices(hierarchy, targets, "target nodes must be valid indices");
+
+        ManyToMany m2m = new ManyToMany(hierarchy, sources.clone(), targets.clone());
+        ArrayList<Entries> entries = runWorkers(executor, Math.min(workers, targets.length), m2m::fillBuckets);
+        m2m.sortBuckets(entries);
+        runWorkers(executor, Math.min(workers, sources.length), m2m::scanBuckets);
+
+        if (m2m.intTable != null) {
+            return new DistanceTable(m2m.sources, m2m.targets, m2m.intTable);
+        }
+        return new DistanceTable(m2m.sources, m2m.targets, m2m.table);
+    }
+
+    /**
+     * A private helper method to check that every vertex is a valid index.
+     *
+     * @param hierarchy the hierarchy
+     * @param vertices the vertices
+     * @param message the message of the exception
+     */
+    private static void checkVertices(ContractionHierarchy hierarchy, int[] vertices, String message) {
+        for (int v : vertices) {
+            if (v < 0 || v >= hierarchy.vertexCount()) {
+                throw new IllegalArgumentException(message);
+            }
+        }
+    }
+
+    /**
+     * A private helper method to run workers on the executor and wait for
+     * all of them to finish.
+     *
+     * @param executor the executor
+     * @param workers the number of workers
+     * @param work the work of each worker
+     * @return the result of each worker
+     *
+     * @exception IllegalStateException if the computation is interrupted
+     */
+    private static <T> ArrayList<T> runWorkers(ExecutorService executor, int workers, Callable<T> work) {
+        ArrayList<Future<T>> futures = new ArrayList<>();
+        for (int w = 0; w < workers; w++) {
+            futures.add(executor.submit(work));
+        }
+        ArrayList<T> results = new ArrayList<>();
+        try {
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            for (Future<T> future : futures) {
+                future.cancel(true);
+            }
+            throw new IllegalStateException("computation was interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+        return results;
+    }
+
+    /**
+     * A private helper method run by each worker of the first phase, which
+     * claims targets until there are none left and runs their backward
+     * searches.
+     *
+     * @return the bucket entries which the searches of this worker found
+     */
+    private Entries fillBuckets() {
+        Workspace workspace = new Workspace(hierarchy.vertexCount());
+        Entries entries = new Entries();
+        for (int column = nextTarget.getAndIncrement(); column < targets.length; column = nextTarget.getAndIncrement()) {
+            workspace.search(targets[column], hierarchy.getDownOffsets(), hierarchy.getDownTargets(), hierarchy.getDownWeights());
+            for (int i = 0; i < workspace.touchedCount; i++) {
+                int v = workspace.touched[i];
+                entries.vertices.add(v);
+                entries.columns.add(column);
+                entries.dist.add(workspace.dist[v]);
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * A private helper method to sort the entries of every worker into
+     * the CSR bucket arrays, by counting the entries of each vertex.
+     *
+     * @param entries the entries of each worker
+     */
+    private void sortBuckets(ArrayList<Entries> entries) {
+        int n = hierarchy.vertexCount();
+        bucketOffsets = new int[n + 1];
+        int size = 0;
+        for (Entries e : entries) {
+            for (int i = 0; i < e.vertices.size(); i++) {
+                bucketOffsets[e.vertices.get(i) + 1]++;
+            }
+            size += e.vertices.size();
+        }
+        for (int v = 0; v < n; v++) {
+            bucketOffsets[v + 1] += bucketOffsets[v];
+        }
+        int[] cursor = Arrays.copyOf(bucketOffsets, n);
+        bucketColumns = new int[size];
+        bucketDist = new double[size];
+        for (Entries e : entries) {
+            for (int i = 0; i < e.vertices.size(); i++) {
+                int slot = cursor[e.vertices.get(i)]++;
+                bucketColumns[slot] = e.columns.get(i);
+                bucketDist[slot] = e.dist.get(i);
+            }
+        }
+    }
+
+    /**
+     * A private helper method run by each worker of the second phase,
+     * which claims sources until there are none left, runs their forward
+     * searches and writes their rows of the table.
+     *
+     * @return null
+     */
+    private Void scanBuckets() {
+        Workspace workspace = new Workspace(hierarchy.vertexCount());
+        double[] row = new double[targets.length];
+        for (int r = nextSource.getAndIncrement(); r < sources.length; r = nextSource.getAndIncrement()) {
+            if (targets.length == 0) {
+                continue;
+            }
+            workspace.search(sources[r], hierarchy.getUpOffsets(), hierarchy.getUpTargets(), hierarchy.getUpWeights());
+            Arrays.fill(row, Double.POSITIVE_INFINITY);
+            for (int i = 0; i < workspace.touchedCount; i++) {
+                int v = workspace.touched[i];
+                double d = workspace.dist[v];
+                for (int b = bucketOffsets[v]; b < bucketOffsets[v + 1]; b++) {
+                    int column = bucketColumns[b];
+                    if (d + bucketDist[b] < row[column]) {
+                        row[column] = d + bucketDist[b];
+                    }
+                }
+            }
+            int base = r * targets.length;
+            if (intTable != null) {
+                for (int column = 0; column < targets.length; column++) {
+                    intTable[base + column] = row[column] == Double.POSITIVE_INFINITY ? Integer.MAX_VALUE : (int) row[column];
+                }
+            } else {
+                System.arraycopy(row, 0, table, base, targets.length);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The bucket entries found by the backward searches of one worker, as
+     * parallel lists.
+     */
+    private static class Entries {
+        private final ContractionHierarchy.IntList vertices = new ContractionHierarchy.IntList();
+        private final ContractionHierarchy.IntList columns = new ContractionHierarchy.IntList();
+        private final ContractionHierarchy.DoubleList dist = new ContractionHierarchy.DoubleList();
+    }
+
+    /**
+     * The distance array and heap of one worker, reused between its
+     * searches.
+     */
+    private static class Workspace {
+        private final double[] dist;
+        private final IndexedMinHeap unvisited;
+        private final int[] touched;
+        private int touchedCount = 0;
+
+        Workspace(int n) {
+            this.dist = new double[n];
+            this.unvisited = new IndexedMinHeap(n);
+            this.touched = new int[n];
+            Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        }
+
+        /**
+         * Runs Dijkstra's Algorithm from src over one direction of the
+         * hierarchy until every reachable vertex is settled. The reached
+         * vertices are left in touched.
+         *
+         * @param src the source vertex
+         * @param offsets the offsets of the edges
+         * @param heads the head of each edge
+         * @param weights the weight of each edge
+         */
+        void search(int src, int[] offsets, int[] heads, double[] weights) {
+            for (int i = 0; i < touchedCount; i++) {
+                dist[touched[i]] = Double.POSITIVE_INFINITY;
+            }
+            touchedCount = 0;
+            unvisited.clear();
+
+            dist[src] = 0.0;
+            touched[touchedCount++] = src;
+            unvisited.insert(src, 0.0);
+            while (!unvisited.isEmpty()) {
+                int u = unvisited.poll();
+                for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                    int v = heads[e];
+                    double d = dist[u] + weights[e];
+                    if (d < dist[v]) {
+                        if (dist[v] == Double.POSITIVE_INFINITY) {
+                            touched[touchedCount++] = v;
+                        }
+                        dist[v] = d;
+                        unvisited.insertOrDecrease(v, d);
+                    }
+                }
+            }
+        }
+    }
+}
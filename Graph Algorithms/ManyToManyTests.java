@@ -0,0 +1,168 @@
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * A Test Harness for the ManyToMany class.
+ */
+public class ManyToManyTests {
+    static boolean VERBOSE = true;
+    static int numTests = 0;
+    static int failedTests = 0;
+
+    /**
+     * The main method runs the tests.
+     *
+     * @param args Not used
+     */
+    public static void main(String[] args) {
+        numTests = 0;
+        failedTests = 0;
+
+        tableTests("grid", GraphExperiments.randomGrid(40, 101), new Random(102));
+        tableTests("random", ShortestPathTests.randomGraph(new Random(103), 800, 3), new Random(104));
+        workerTests();
+        smallTests();
+        exceptionTests();
+
+        System.out.println("Total tests: " + numTests);
+        System.out.println("Failed tests: " + failedTests);
+    }
+
+    private static void printTest(Object expected, Object actual, String test) {
+        if (!expected.equals(actual)) {
+            if (VERBOSE) {
+                System.out.println("FAILED! " + test + " test.");
+                System.out.println("\texpected: " + expected.toString());
+                System.out.println("\tactual: " + actual.toString());
+            }
+            failedTests++;
+        }
+        numTests++;
+    }
+
+    /**
+     * Tests for run(ContractionHierarchy hierarchy, int[] sources, int[]
+     * targets) against BatchShortestPath, with a repeated source and a
+     * repeated target
+     */
+    private static void tableTests(String name, CsrGraph graph, Random rand) {
+        int[] sources = randomVertices(rand, graph.vertexCount(), 70);
+        int[] targets = randomVertices(rand, graph.vertexCount(), 90);
+        sources[1] = sources[0];
+        targets[2] = targets[0];
+        targets[3] = sources[4];
+
+        ContractionHierarchy hierarchy = ContractionHierarchy.build(graph);
+        DistanceTable expected = BatchShortestPath.run(graph, sources, targets);
+        DistanceTable table = ManyToMany.run(hierarchy, sources, targets);
+        printTest(sources.length, table.rowCount(), name + " row count");
+        printTest(targets.length, table.columnCount(), name + " column count");
+        printTest(graph.isIntWeighted(), table.isIntWeighted(), name + " weight type");
+        printTest(sources[5], table.getSource(5), name + " source of row");
+        printTest(targets[6], table.getTarget(6), name + " target of column");
+        printTest(0.0, table.getDistance(4, 3), name + " source to itself");
+        int wrong = 0;
+        for (int row = 0; row < sources.length; row++) {
+            for (int column = 0; column < targets.length; column++) {
+                if (table.getDistance(row, column) != expected.getDistance(row, column)) {
+                    wrong++;
+                }
+            }
+        }
+        printTest(0, wrong, name + " distances match BatchShortestPath");
+    }
+
+    /**
+     * Tests that any number of workers computes the same table
+     */
+    private static void workerTests() {
+        CsrGraph graph = GraphExperiments.randomGrid(30, 105);
+        ContractionHierarchy hierarchy = ContractionHierarchy.build(graph);
+        Random rand = new Random(106);
+        int[] sources = randomVertices(rand, graph.vertexCount(), 40);
+        int[] targets = randomVertices(rand, graph.vertexCount(), 40);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        DistanceTable single = ManyToMany.run(hierarchy, sources, targets, executor, 1);
+        DistanceTable parallel = ManyToMany.run(hierarchy, sources, targets, executor, 4);
+        DistanceTable many = ManyToMany.run(hierarchy, sources, targets, executor, 100);
+        executor.shutdown();
+        int wrong = 0;
+        for (int row = 0; row < sources.length; row++) {
+            for (int column = 0; column < targets.length; column++) {
+                int d = single.getIntDistance(row, column);
+                if (parallel.getIntDistance(row, column) != d || many.getIntDistance(row, column) != d) {
+                    wrong++;
+                }
+            }
+        }
+        printTest(0, wrong, "one, four and a hundred workers agree");
+    }
+
+    /**
+     * Tests on a small graph with shortcuts, an unreachable pair and empty
+     * sets of sources and targets
+     */
+    private static void smallTests() {
+        // 0 -> 1 -> 2 -> 3 and a longer direct edge 0 -> 3
+        CsrGraph graph = CsrGraph.fromEdges(4, new int[] { 0, 1, 2, 0 }, new int[] { 1, 2, 3, 3 }, new int[] { 1, 1, 1, 5 });
+        ContractionHierarchy hierarchy = ContractionHierarchy.build(graph);
+        DistanceTable table = ManyToMany.run(hierarchy, new int[] { 0, 3 }, new int[] { 3, 0, 2 });
+        printTest(3, table.getIntDistance(0, 0), "small distance through shortcuts");
+        printTest(0, table.getIntDistance(0, 1), "small distance to source");
+        printTest(2, table.getIntDistance(0, 2), "small distance");
+        printTest(Integer.MAX_VALUE, table.getIntDistance(1, 1), "small unreachable int distance");
+        printTest(false, table.isReachable(1, 2), "small unreachable");
+
+        DistanceTable noTargets = ManyToMany.run(hierarchy, new int[] { 0, 1 }, new int[0]);
+        printTest(2, noTargets.rowCount(), "no targets row count");
+        printTest(0, noTargets.columnCount(), "no targets column count");
+        printTest(0, ManyToMany.run(hierarchy, new int[0], new int[] { 1 }).rowCount(), "no sources row count");
+
+        double[][] doubles = { { 0, 0.5, 0 }, { 0, 0, 0.25 }, { 2, 0, 0 } };
+        DistanceTable doubleTable = ManyToMany.run(ContractionHierarchy.build(CsrGraph.fromMatrix(doubles)), new int[] { 0, 2 }, new int[] { 2, 1 });
+        printTest(false, doubleTable.isIntWeighted(), "double graph gives double table");
+        printTest(0.75, doubleTable.getDistance(0, 0), "double distance");
+        printTest(2.5, doubleTable.getDistance(1, 1), "double distance around cycle");
+    }
+
+    /**
+     * Tests for the exceptions of ManyToMany
+     */
+    private static void exceptionTests() {
+        CsrGraph graph = CsrGraph.fromEdges(2, new int[] { 0 }, new int[] { 1 }, new int[] { 1 });
+        ContractionHierarchy hierarchy = ContractionHierarchy.build(graph);
+        int[] valid = { 0, 1 };
+        printTest("NullPointerException", thrown(() -> ManyToMany.run(null, valid, valid)), "null hierarchy");
+        printTest("NullPointerException", thrown(() -> ManyToMany.run(hierarchy, null, valid)), "null sources");
+        printTest("NullPointerException", thrown(() -> ManyToMany.run(hierarchy, valid, null)), "null targets");
+        printTest("NullPointerException", thrown(() -> ManyToMany.run(hierarchy, valid, valid, null, 1)), "null executor");
+        printTest("IllegalArgumentException", thrown(() -> ManyToMany.run(hierarchy, new int[] { 2 }, valid)), "invalid source");
+        printTest("IllegalArgumentException", thrown(() -> ManyToMany.run(hierarchy, valid, new int[] { -1 })), "invalid target");
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        printTest("IllegalArgumentException", thrown(() -> ManyToMany.run(hierarchy, valid, valid, executor, 0)), "no workers");
+        executor.shutdown();
+        DistanceTable table = ManyToMany.run(ContractionHierarchy.build(CsrGraph.fromMatrix(new double[][] { { 0, 1 }, { 0, 0 } })), valid, valid);
+        printTest("IllegalStateException", thrown(() -> table.getIntDistance(0, 1)), "int distance of double table");
+    }
+
+    /**
+     * A private helper method to pick random vertices, with repeats.
+     */
+    private static int[] randomVertices(Random rand, int n, int count) {
+        int[] vertices = new int[count];
+        for (int i = 0; i < count; i++) {
+            vertices[i] = rand.nextInt(n);
+        }
+        return vertices;
+    }
+
+    private static String thrown(Runnable action) {
+        try {
+            action.run();
+            return "none";
+        } catch (RuntimeException e) {
+            return e.getClass().getSimpleName();
+        }
+    }
+}
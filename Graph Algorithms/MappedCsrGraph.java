@@ -0,0 +1,392 @@
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A compressed sparse row graph stored in a binary file and read through
+ * memory mapped buffers, so that opening even a very large graph only
+ * maps the file, and every JVM which opens the same file shares its pages
+ * through the operating system's page cache.
+ *
+ * The file is big-endian and every section starts on an 8 byte boundary:
+ *
+ *      header      magic, version, flags, 0 (4 ints), V, E (2 longs)
+ *      offsets     V + 1 longs, the first edge of each vertex
+ *      targets     E ints
+ *      weights     E ints or E doubles, as given by flag bit 0
+ *      labels      if flag bit 1 is set, V + 1 longs giving the start of
+ *                  each label, then the UTF-8 bytes of the labels
+ *
+ * The file is mapped in chunks of at most 1GB, as a single mapping is
+ * limited to 2GB, and edge indices are longs so that graphs with more
+ * than 2^31 edges can be searched. Vertices are ints, as elsewhere.
+ */
+public class MappedCsrGraph implements Closeable {
+    private final static int MAGIC = 0x43535231;
+    private final static int VERSION = 1;
+    private final static int INT_WEIGHTS = 1;
+    private final static int HAS_LABELS = 2;
+    private final static int HEADER_BYTES = 32;
+    private final static int CHUNK_BITS = 30;
+
+    private final FileChannel channel;
+    private final ByteBuffer[] chunks;
+    private final int chunkBits;
+    private final long chunkMask;
+    private final int vertexCount;
+    private final long edgeCount;
+    private final boolean intWeighted;
+    private final boolean hasLabels;
+    private final long offsetsStart;
+    private final long targetsStart;
+    private final long weightsStart;
+    private final long labelsStart;
+
+    /**
+     * Maps an open file.
+     *
+     * @param channel the file
+     * @param chunkBits the base 2 logarithm of the chunk size
+     *
+     * @exception IOException if the file is not a graph file
+     */
+    private MappedCsrGraph(FileChannel channel, int chunkBits) throws IOException {
+        this.channel = channel;
+        this.chunkBits = chunkBits;
+        this.chunkMask = (1L << chunkBits) - 1;
+        long size = channel.size();
+        this.chunks = new ByteBuffer[(int) ((size + chunkMask) >>> chunkBits)];
+        for (int i = 0; i < chunks.length; i++) {
+            long start = (long) i << chunkBits;
+            chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(size - start, 1L << chunkBits));
+        }
+
+        if (size < HEADER_BYTES || getInt(0) != MAGIC) {
+            throw new IOException("file does not contain a graph");
+        } else if (getInt(4) != VERSION) {
+            throw new IOException("unsupported graph file version");
+        }
+        int flags = getInt(8);
+        long n = getLong(16);
+        this.edgeCount = getLong(24);
+        if (n < 0 || n >= Integer.MAX_VALUE || edgeCount < 0) {
+            throw new IOException("graph file header is corrupt");
+        }
+        this.vertexCount = (int) n;
+        this.intWeighted = (flags & INT_WEIGHTS) != 0;
+        this.hasLabels = (flags & HAS_LABELS) != 0;
+        this.offsetsStart = HEADER_BYTES;
+        this.targetsStart = offsetsStart + 8L * (vertexCount + 1);
+        this.weightsStart = align(targetsStart + 4L * edgeCount);
+        this.labelsStart = align(weightsStart + (intWeighted ? 4L : 8L) * edgeCount);
+        if (size < (hasLabels ? labelsStart + 8L * (vertexCount + 1) : labelsStart)) {
+            throw new IOException("graph file is truncated");
+        }
+    }
+
+    /**
+     * Opens a graph file for reading.
+     *
+     * @param file the file written by write
+     * @return the mapped graph, which should be closed when it is no longer needed
+     *
+     * @exception NullPointerException if file is null
+     * @exception IOException if the file cannot be read or is not a graph file
+     */
+    public static MappedCsrGraph open(Path file) throws IOException {
+        return open(file, CHUNK_BITS);
+    }
+
+    /**
+     * Opens a graph file with a smaller chunk size, so that the chunk
+     * boundaries can be tested on small files.
+     *
+     * @param file the file written by write
+     * @param chunkBits the base 2 logarithm of the chunk size, between 3 and 30
+     * @return the mapped graph
+     *
+     * @exception IOException if the file cannot be read or is not a graph file
+     */
+    static MappedCsrGraph open(Path file, int chunkBits) throws IOException {
+        if (file == null) {
+            throw new NullPointerException("file cannot be null");
+        }
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            return new MappedCsrGraph(channel, chunkBits);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Writes a graph to a file without labels.
+     *
+     * @param graph the graph
+     * @param file the file to write
+     *
+     * @exception NullPointerException if any parameters are null
+     * @exception IOException if the file cannot be written
+     */
+    public static void write(CsrGraph graph, Path file) throws IOException {
+        write(graph, null, file);
+    }
+
+    /**
+     * Writes a graph to a file, with a label for every vertex.
+     *
+     * @param graph the graph
+     * @param labels the label of each vertex, in vertex order, or null for none
+     * @param file the file to write
+     *
+     * @exception NullPointerException if graph or file is null
+     * @exception IllegalArgumentException if there is not one label per vertex
+     * @exception IOException if the file cannot be written
+     */
+    public static void write(CsrGraph graph, String[] labels, Path file) throws IOException {
+        if (graph == null || file == null) {
+            throw new NullPointerException("parameters cannot be null");
+        } else if (labels != null && labels.length != graph.vertexCount()) {
+            throw new IllegalArgumentException("there must be one label per vertex");
+        }
+        int n = graph.vertexCount();
+        int m = graph.edgeCount();
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt((graph.isIntWeighted() ? INT_WEIGHTS : 0) | (labels != null ? HAS_LABELS : 0));
+            out.writeInt(0);
+            out.writeLong(n);
+            out.writeLong(m);
+            for (int offset : graph.getOffsets()) {
+                out.writeLong(offset);
+            }
+            for (int target : graph.getTargets()) {
+                out.writeInt(target);
+            }
+            pad(out, 4L * m);
+            if (graph.isIntWeighted()) {
+                for (int w : graph.getIntWeights()) {
+                    out.writeInt(w);
+                }
+                pad(out, 4L * m);
+            } else {
+                for (double w : graph.getWeights()) {
+                    out.writeDouble(w);
+                }
+            }
+            if (labels != null) {
+                byte[][] bytes = new byte[n][];
+                long position = 0;
+                for (int v = 0; v < n; v++) {
+                    bytes[v] = labels[v].getBytes(StandardCharsets.UTF_8);
+                    out.writeLong(position);
+                    position += bytes[v].length;
+                }
+                out.writeLong(position);
+                for (byte[] label : bytes) {
+                    out.write(label);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the number of vertices.
+     *
+     * @return the number of vertices
+     */
+    public int vertexCount() {
+        return vertexCount;
+    }
+
+    /**
+     * Returns the number of edges.
+     *
+     * @return the number of edges
+     */
+    public long edgeCount() {
+        return edgeCount;
+    }
+
+    /**
+     * Returns true if the weights are stored as ints.
+     *
+     * @return true if the graph has int weights
+     */
+    public boolean isIntWeighted() {
+        return intWeighted;
+    }
+
+    /**
+     * Returns true if the file has a label for every vertex.
+     *
+     * @return true if there are labels
+     */
+    public boolean hasLabels() {
+        return hasLabels;
+    }
+
+    /**
+     * Returns the index of the first edge leaving a vertex. The edges of
+     * v are firstEdge(v) to firstEdge(v + 1) - 1.
+     *
+     * @param v the vertex, between 0 and vertexCount() inclusive
+     * @return the index of its first edge
+     */
+    public long firstEdge(int v) {
+        return getLong(offsetsStart + 8L * v);
+    }
+
+    /**
+     * Returns the number of edges leaving a vertex.
+     *
+     * @param v the vertex
+     * @return the out-degree of v
+     */
+    public int outDegree(int v) {
+        return (int) (firstEdge(v + 1) - firstEdge(v));
+    }
+
+    /**
+     * Returns the target of an edge.
+     *
+     * @param e the edge index
+     * @return the vertex which the edge leads to
+     */
+    public int getTarget(long e) {
+        return getInt(targetsStart + 4L * e);
+    }
+
+    /**
+     * Returns the weight of an edge, widening int weights.
+     *
+     * @param e the edge index
+     * @return the weight
+     */
+    public double getWeight(long e) {
+        return intWeighted ? getInt(weightsStart + 4L * e) : getDouble(weightsStart + 8L * e);
+    }
+
+    /**
+     * Returns the weight of an edge of an int weighted graph.
+     *
+     * @param e the edge index
+     * @return the weight
+     *
+     * @exception IllegalStateException if the graph is not int weighted
+     */
+    public int getIntWeight(long e) {
+        if (!intWeighted) {
+            throw new IllegalStateException("graph is not int weighted");
+        }
+        return getInt(weightsStart + 4L * e);
+    }
+
+    /**
+     * Returns the label of a vertex.
+     *
+     * @param v the vertex
+     * @return the label
+     *
+     * @exception IllegalStateException if the file has no labels
+     */
+    public String getLabel(int v) {
+        if (!hasLabels) {
+            throw new IllegalStateException("graph has no labels");
+        }
+        long bytesStart = labelsStart + 8L * (vertexCount + 1);
+        long start = getLong(labelsStart + 8L * v);
+        int length = (int) (getLong(labelsStart + 8L * (v + 1)) - start);
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            long position = bytesStart + start + i;
+            bytes[i] = chunks[(int) (position >>> chunkBits)].get((int) (position & chunkMask));
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Copies the graph into the heap.
+     *
+     * @return the graph as a CsrGraph
+     *
+     * @exception IllegalStateException if the graph has more than Integer.MAX_VALUE edges
+     */
+    public CsrGraph toCsrGraph() {
+        if (edgeCount > Integer.MAX_VALUE - 8) {
+            throw new IllegalStateException("graph is too large for a CsrGraph");
+        }
+        int m = (int) edgeCount;
+        int[] offsets = new int[vertexCount + 1];
+        for (int v = 0; v <= vertexCount; v++) {
+            offsets[v] = (int) firstEdge(v);
+        }
+        int[] targets = new int[m];
+        double[] weights = intWeighted ? null : new double[m];
+        int[] intWeights = intWeighted ? new int[m] : null;
+        for (int e = 0; e < m; e++) {
+            targets[e] = getTarget(e);
+            if (intWeighted) {
+                intWeights[e] = getIntWeight(e);
+            } else {
+                weights[e] = getWeight(e);
+            }
+        }
+        return new CsrGraph(offsets, targets, weights, intWeights);
+    }
+
+    /**
+     * Closes the file. The mapped buffers stay valid until they are
+     * garbage collected, but the graph should not be used afterwards.
+     *
+     * @exception IOException if the file cannot be closed
+     */
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private int getInt(long position) {
+        return chunks[(int) (position >>> chunkBits)].getInt((int) (position & chunkMask));
+    }
+
+    private long getLong(long position) {
+        return chunks[(int) (position >>> chunkBits)].getLong((int) (position & chunkMask));
+    }
+
+    private double getDouble(long position) {
+        return chunks[(int) (position >>> chunkBits)].getDouble((int) (position & chunkMask));
+    }
+
+    /**
+     * A private helper method to round a position up to a multiple of 8.
+     *
+     * @param position the position
+     * @return the aligned position
+     */
+    private static long align(long position) {
+        return (position + 7) & ~7L;
+    }
+
+    /**
+     * A private helper method to pad a section to a multiple of 8 bytes.
+     *
+     * @param out the stream
+     * @param length the length of the section
+     *
+     * @exception IOException if the stream cannot be written
+     */
+    private static void pad(DataOutputStream out, long length) throws IOException {
+        for (long i = length; i < align(length); i++) {
+            out.writeByte(0);
+        }
+    }
+}
@@ -0,0 +1,199 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * A Test Harness for the MappedCsrGraph class.
+ */
+public class MappedCsrGraphTests {
+    static boolean VERBOSE = true;
+    static int numTests = 0;
+    static int failedTests = 0;
+
+    /**
+     * The main method runs the tests.
+     *
+     * @param args Not used
+     */
+    public static void main(String[] args) throws IOException {
+        numTests = 0;
+        failedTests = 0;
+
+        Path dir = Files.createTempDirectory("mapped");
+        graphTests("grid", GraphExperiments.randomGrid(60, 31), dir, 30);
+        graphTests("grid small chunks", GraphExperiments.randomGrid(60, 32), dir, 6);
+        graphTests("random", ShortestPathTests.randomGraph(new Random(33), 3000, 4), dir, 30);
+        graphTests("random small chunks", ShortestPathTests.randomGraph(new Random(34), 3000, 4), dir, 3);
+        labelTests(dir);
+        searchOptionsTests(dir);
+        exceptionTests(dir);
+        Files.delete(dir);
+
+        System.out.println("Total tests: " + numTests);
+        System.out.println("Failed tests: " + failedTests);
+    }
+
+    private static void printTest(Object expected, Object actual, String test) {
+        if (!expected.equals(actual)) {
+            if (VERBOSE) {
+                System.out.println("FAILED! " + test + " test.");
+                System.out.println("\texpected: " + expected.toString());
+                System.out.println("\tactual: " + actual.toString());
+            }
+            failedTests++;
+        }
+        numTests++;
+    }
+
+    /**
+     * Tests that a written graph reads back unchanged and that searches
+     * over the mapped buffers match dijkstraDoubleTree
+     */
+    private static void graphTests(String name, CsrGraph graph, Path dir, int chunkBits) throws IOException {
+        Path file = dir.resolve("graph.csr");
+        MappedCsrGraph.write(graph, file);
+        try (MappedCsrGraph mapped = MappedCsrGraph.open(file, chunkBits)) {
+            printTest(graph.vertexCount(), mapped.vertexCount(), name + " vertex count");
+            printTest((long) graph.edgeCount(), mapped.edgeCount(), name + " edge count");
+            printTest(graph.isIntWeighted(), mapped.isIntWeighted(), name + " int weighted");
+            printTest(false, mapped.hasLabels(), name + " no labels");
+
+            int wrongEdges = 0;
+            for (int v = 0; v < graph.vertexCount(); v++) {
+                if (graph.outDegree(v) != mapped.outDegree(v) || graph.getOffsets()[v] != mapped.firstEdge(v)) {
+                    wrongEdges++;
+                }
+            }
+            for (int e = 0; e < graph.edgeCount(); e++) {
+                if (graph.getTargets()[e] != mapped.getTarget(e) || graph.getWeight(e) != mapped.getWeight(e)) {
+                    wrongEdges++;
+                }
+            }
+            printTest(0, wrongEdges, name + " edges");
+
+            CsrGraph copy = mapped.toCsrGraph();
+            printTest(graph.isIntWeighted(), copy.isIntWeighted(), name + " copy int weighted");
+            int wrongCopy = 0;
+            for (int e = 0; e < graph.edgeCount(); e++) {
+                if (graph.getTargets()[e] != copy.getTargets()[e] || graph.getWeight(e) != copy.getWeight(e)) {
+                    wrongCopy++;
+                }
+            }
+            printTest(0, wrongCopy, name + " copy edges");
+
+            Random rand = new Random(35);
+            for (int q = 0; q < 5; q++) {
+                int src = rand.nextInt(graph.vertexCount());
+                ShortestPathTree expected = ShortestPath.dijkstraDoubleTree(graph, src);
+                ShortestPathTree actual = ShortestPath.dijkstraTree(mapped, src);
+                printTest(graph.isIntWeighted(), actual.isIntWeighted(), name + " tree int weighted from " + src);
+                int wrong = 0;
+                for (int v = 0; v < graph.vertexCount(); v++) {
+                    if (expected.getDistance(v) != actual.getDistance(v) || expected.getPrevious(v) != actual.getPrevious(v)) {
+                        wrong++;
+                    }
+                }
+                printTest(0, wrong, name + " tree from " + src);
+            }
+        }
+        Files.delete(file);
+    }
+
+    /**
+     * Tests for the label table
+     */
+    private static void labelTests(Path dir) throws IOException {
+        CsrGraph graph = CsrGraph.fromEdges(4, new int[] { 0, 1, 2 }, new int[] { 1, 2, 3 }, new double[] { 1.5, 2.0, 0.25 });
+        String[] labels = { "Aberdeen", "", "Z\u00fcrich", "\u6771\u4eac" };
+        Path file = dir.resolve("labels.csr");
+        MappedCsrGraph.write(graph, labels, file);
+        for (int chunkBits : new int[] { 3, 30 }) {
+            try (MappedCsrGraph mapped = MappedCsrGraph.open(file, chunkBits)) {
+                printTest(true, mapped.hasLabels(), "has labels, chunk bits " + chunkBits);
+                for (int v = 0; v < labels.length; v++) {
+                    printTest(labels[v], mapped.getLabel(v), "label " + v + ", chunk bits " + chunkBits);
+                }
+                printTest(3.75, ShortestPath.dijkstraTree(mapped, 0).getDistance(3), "distance with labels");
+            }
+        }
+        Files.delete(file);
+    }
+
+    /**
+     * Tests for dijkstraTree(MappedCsrGraph graph, int src, SearchOptions options)
+     */
+    private static void searchOptionsTests(Path dir) throws IOException {
+        CsrGraph graph = GraphExperiments.randomGrid(40, 36);
+        Path file = dir.resolve("options.csr");
+        MappedCsrGraph.write(graph, file);
+        try (MappedCsrGraph mapped = MappedCsrGraph.open(file)) {
+            SearchOptions[] options = {
+                new SearchOptions().withMaxRadius(300),
+                new SearchOptions().withTargets(1599, 40),
+                new SearchOptions().withTargets()
+            };
+            for (int i = 0; i < options.length; i++) {
+                ShortestPathTree expected = ShortestPath.dijkstraTree(graph, 0, options[i]);
+                ShortestPathTree actual = ShortestPath.dijkstraTree(mapped, 0, options[i]);
+                int wrong = 0;
+                for (int v = 0; v < graph.vertexCount(); v++) {
+                    if (expected.getDistance(v) != actual.getDistance(v) || expected.getPrevious(v) != actual.getPrevious(v)) {
+                        wrong++;
+                    }
+                }
+                printTest(0, wrong, "search options " + i);
+            }
+        }
+        Files.delete(file);
+    }
+
+    /**
+     * Tests for the exceptions of write, open and the accessors
+     */
+    private static void exceptionTests(Path dir) throws IOException {
+        CsrGraph graph = CsrGraph.fromEdges(2, new int[] { 0 }, new int[] { 1 }, new int[] { 2 });
+        Path file = dir.resolve("small.csr");
+        printTest("NullPointerException", thrown(() -> MappedCsrGraph.write(null, file)), "write null graph");
+        printTest("NullPointerException", thrown(() -> MappedCsrGraph.write(graph, null)), "write null file");
+        printTest("IllegalArgumentException", thrown(() -> MappedCsrGraph.write(graph, new String[] { "a" }, file)), "write wrong label count");
+        printTest("NullPointerException", thrown(() -> MappedCsrGraph.open(null)), "open null file");
+
+        MappedCsrGraph.write(graph, file);
+        try (MappedCsrGraph mapped = MappedCsrGraph.open(file)) {
+            printTest(2, mapped.getIntWeight(0), "int weight");
+            printTest("IllegalStateException", thrown(() -> mapped.getLabel(0)), "label without labels");
+            printTest("NullPointerException", thrown(() -> ShortestPath.dijkstraTree((MappedCsrGraph) null, 0)), "search null graph");
+            printTest("NullPointerException", thrown(() -> ShortestPath.dijkstraTree(mapped, 0, null)), "search null options");
+            printTest("IllegalArgumentException", thrown(() -> ShortestPath.dijkstraTree(mapped, 2)), "search invalid source");
+            printTest("IllegalArgumentException", thrown(() -> ShortestPath.dijkstraTree(mapped, 0, new SearchOptions().withTargets(5))), "search invalid target");
+            printTest(Integer.MAX_VALUE, ShortestPath.dijkstraTree(mapped, 1).getIntDistance(0), "search unreachable");
+        }
+
+        Path doubles = dir.resolve("doubles.csr");
+        MappedCsrGraph.write(CsrGraph.fromEdges(2, new int[] { 0 }, new int[] { 1 }, new double[] { 2.5 }), doubles);
+        try (MappedCsrGraph mapped = MappedCsrGraph.open(doubles)) {
+            printTest("IllegalStateException", thrown(() -> mapped.getIntWeight(0)), "int weight of double graph");
+        }
+
+        Files.write(file, new byte[] { 1, 2, 3, 4, 5, 6, 7, 8 });
+        printTest("IOException", thrown(() -> MappedCsrGraph.open(file)), "open short file");
+        Files.write(file, new byte[64]);
+        printTest("IOException", thrown(() -> MappedCsrGraph.open(file)), "open bad magic");
+        Files.delete(file);
+        Files.delete(doubles);
+    }
+
+    private interface Action {
+        void run() throws IOException;
+    }
+
+    private static String thrown(Action action) {
+        try {
+            action.run();
+            return "none";
+        } catch (IOException | RuntimeException e) {
+            return e.getClass().getSimpleName();
+        }
+    }
+}
@@ -0,0 +1,372 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Decides whether an adjacency matrix, in which 0 is no edge, is sparse
+ * enough that a search should run on a CsrGraph instead, and converts it.
+ *
+ * A search on the matrix scans a whole row for every vertex it settles,
+ * O(V^2) cells however few edges there are, while a search on the CSR
+ * graph only follows the edges. The analysis estimates the density from
+ * an evenly spaced sample of rows, which costs O(V) cells per sampled
+ * row. If the estimate is at most the maximum density, the matrix is
+ * converted in a single pass over its cells, with blocks of rows
+ * scanned in parallel on the common pool.
+ *
+ * The result records the decision and the time taken by each step, so
+ * that the threshold can be tuned. A sparse result holds the converted
+ * graph, which can be searched any number of times.
+ */
+public class MatrixAnalysis {
+    /** The largest density, edges over V^2, which is converted by default. */
+    public final static double DEFAULT_MAX_DENSITY = 0.01;
+    private final static int SAMPLE_ROWS = 64;
+    /** Blocks of rows with fewer cells than this are converted on one thread. */
+    private final static int BLOCK_CELLS = 1 << 16;
+
+    private final int vertexCount;
+    private final double density;
+    private final double maxDensity;
+    private final CsrGraph graph;
+    private final long analysisNanos;
+    private final long conversionNanos;
+
+    /**
+     * Constructs the result of an analysis.
+     *
+     * @param vertexCount the number of vertices
+     * @param density the sampled density, or the exact density if the matrix was converted
+     * @param maxDensity the largest density which is converted
+     * @param graph the converted graph, or null if the matrix is dense
+     * @param analysisNanos the time taken to sample the density
+     * @param conversionNanos the time taken to convert the matrix
+     */
+    private MatrixAnalysis(int vertexCount, double density, double maxDensity, CsrGraph graph, long analysisNanos, long conversionNanos) {
+        this.vertexCount = vertexCount;
+        this.density = density;
+        this.maxDensity = maxDensity;
+        this.graph = graph;
+        this.analysisNanos = analysisNanos;
+        this.conversionNanos = conversionNanos;
+    }
+
+    /**
+     * Analyses an adjacency matrix with int weights with the default
+     * maximum density.
+     *
+     * @param graph the adjacency matrix, where 0 is no edge
+     * @return the analysis
+     *
+     * @exception NullPointerException if graph is null
+     */
+    public static MatrixAnalysis analyze(int[][] graph) {
+        return analyze(graph, DEFAULT_MAX_DENSITY);
+    }
+
+    /**
+     * Analyses an adjacency matrix with int weights, and converts it if
+     * its sampled density is at most maxDensity.
+     *
+     * @param graph the adjacency matrix, where 0 is no edge
+     * @param maxDensity the largest density to convert, 0 to never convert a matrix with edges and 1 to always convert
+     * @return the analysis
+     *
+     * @exception NullPointerException if graph is null
+     * @exception IllegalArgumentException if maxDensity is not between 0 and 1
+     */
+    public static MatrixAnalysis analyze(int[][] graph, double maxDensity) {
+        if (graph == null) {
+            throw new NullPointerException("graph cannot be null");
+        }
+        return analyze(graph, null, graph.length, maxDensity);
+    }
+
+    /**
+     * Analyses an adjacency matrix with double weights with the default
+     * maximum density.
+     *
+     * @param graph the adjacency matrix, where 0 is no edge
+     * @return the analysis
+     *
+     * @exception NullPointerException if graph is null
+     */
+    public static MatrixAnalysis analyze(double[][] graph) {
+        return analyze(graph, DEFAULT_MAX_DENSITY);
+    }
+
+    /**
+     * Analyses an adjacency matrix with double weights, and converts it
+     * if its sampled density is at most maxDensity.
+     *
+     * @param graph the adjacency matrix, where 0 is no edge
+     * @param maxDensity the largest density to convert, 0 to never convert a matrix with edges and 1 to always convert
+     * @return the analysis
+     *
+     * @exception NullPointerException if graph is null
+     * @exception IllegalArgumentException if maxDensity is not between 0 and 1
+     */
+    public static MatrixAnalysis analyze(double[][] graph, double maxDensity) {
+        if (graph == null) {
+            throw new NullPointerException("graph cannot be null");
+        }
+        return analyze(null, graph, graph.length, maxDensity);
+    }
+
+    /**
+     * Returns the number of vertices.
+     *
+     * @return the number of vertices
+     */
+    public int vertexCount() {
+        return vertexCount;
+    }
+
+    /**
+     * Returns the density of the matrix, the number of edges over V^2.
+     * The density of a converted matrix is exact, and that of a dense
+     * matrix is estimated from the sampled rows.
+     *
+     * @return the density
+     */
+    public double getDensity() {
+        return density;
+    }
+
+    /**
+     * Returns the largest density which is converted.
+     *
+     * @return the maximum density
+     */
+    public double getMaxDensity() {
+        return maxDensity;
+    }
+
+    /**
+     * Returns true if the matrix was sparse enough to be converted.
+     *
+     * @return true if the matrix was converted
+     */
+    public boolean isSparse() {
+        return graph != null;
+    }
+
+    /**
+     * Returns the converted graph.
+     *
+     * @return the graph, with int weights if the matrix has int weights,
+     * or null if the matrix is dense
+     */
+    public CsrGraph getGraph() {
+        return graph;
+    }
+
+    /**
+     * Returns the time taken to sample the density of the matrix.
+     *
+     * @return the time in nanoseconds
+     */
+    public long getAnalysisNanos() {
+        return analysisNanos;
+    }
+
+    /**
+     * Returns the time taken to convert the matrix.
+     *
+     * @return the time in nanoseconds, or 0 if the matrix is dense
+     */
+    public long getConversionNanos() {
+        return conversionNanos;
+    }
+
+    /**
+     * A private helper method to sample and convert either kind of
+     * matrix, exactly one of which is not null.
+     *
+     * @param ints the matrix with int weights
+     * @param doubles the matrix with double weights
+     * @param n the number of vertices
+     * @param maxDensity the largest density to convert
+     * @return the analysis
+     */
+    private static MatrixAnalysis analyze(int[][] ints, double[][] doubles, int n, double maxDensity) {
+        if (!(maxDensity >= 0 && maxDensity <= 1)) {
+            throw new IllegalArgumentException("maximum density must be between 0 and 1");
+        }
+
+        long start = System.nanoTime();
+        int step = Math.max(1, n / SAMPLE_ROWS);
+        long sampled = 0;
+        long edges = 0;
+        for (int u = 0; u < n; u += step) {
+            edges += ints != null ? nonZeros(ints[u], n) : nonZeros(doubles[u], n);
+            sampled += n;
+        }
+        double density = sampled == 0 ? 0.0 : (double) edges / sampled;
+        long analysisNanos = System.nanoTime() - start;
+        if (density > maxDensity) {
+            return new MatrixAnalysis(n, density, maxDensity, null, analysisNanos, 0);
+        }
+
+        start = System.nanoTime();
+        CsrGraph graph = new Conversion(ints, doubles, n).convert();
+        long conversionNanos = System.nanoTime() - start;
+        double exact = n == 0 ? 0.0 : (double) graph.edgeCount() / ((long) n * n);
+        return new MatrixAnalysis(n, exact, maxDensity, graph, analysisNanos, conversionNanos);
+    }
+
+    /**
+     * A private helper method to count the edges in the first n cells of
+     * a row.
+     *
+     * @param row the row
+     * @param n the number of vertices
+     * @return the number of non-zero cells
+     */
+    private static int nonZeros(int[] row, int n) {
+        int count = 0;
+        for (int v = 0; v < n; v++) {
+            if (row[v] != 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static int nonZeros(double[] row, int n) {
+        int count = 0;
+        for (int v = 0; v < n; v++) {
+            if (row[v] != 0.0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * The state of a single conversion. The rows are split into blocks,
+     * each of which collects the edges of its rows into its own lists
+     * while counting the degree of every row, so the matrix is read only
+     * once. The lists are then copied into the CSR arrays in row order.
+     */
+    private static class Conversion {
+        private final int[][] ints;
+        private final double[][] doubles;
+        private final int n;
+        private final int blockRows;
+        private final int[] degree;
+        private final ContractionHierarchy.IntList[] blockTargets;
+        private final ContractionHierarchy.IntList[] blockIntWeights;
+        private final ContractionHierarchy.DoubleList[] blockWeights;
+
+        Conversion(int[][] ints, double[][] doubles, int n) {
+            this.ints = ints;
+            this.doubles = doubles;
+            this.n = n;
+            this.blockRows = Math.max(1, BLOCK_CELLS / Math.max(1, n));
+            int blocks = (n + blockRows - 1) / blockRows;
+            this.degree = new int[n];
+            this.blockTargets = new ContractionHierarchy.IntList[blocks];
+            this.blockIntWeights = new ContractionHierarchy.IntList[blocks];
+            this.blockWeights = new ContractionHierarchy.DoubleList[blocks];
+        }
+
+        /**
+         * Converts the matrix.
+         *
+         * @return the graph
+         */
+        CsrGraph convert() {
+            if (blockTargets.length == 1) {
+                scanBlock(0);
+            } else if (blockTargets.length > 1) {
+                ForkJoinPool.commonPool().invoke(new ScanTask(0, blockTargets.length));
+            }
+
+            int[] offsets = new int[n + 1];
+            for (int u = 0; u < n; u++) {
+                offsets[u + 1] = offsets[u] + degree[u];
+            }
+            int[] targets = new int[offsets[n]];
+            int[] intWeights = ints != null ? new int[targets.length] : null;
+            double[] weights = ints != null ? null : new double[targets.length];
+            for (int b = 0; b < blockTargets.length; b++) {
+                int slot = offsets[b * blockRows];
+                for (int i = 0; i < blockTargets[b].size(); i++, slot++) {
+                    targets[slot] = blockTargets[b].get(i);
+                    if (ints != null) {
+                        intWeights[slot] = blockIntWeights[b].get(i);
+                    } else {
+                        weights[slot] = blockWeights[b].get(i);
+                    }
+                }
+            }
+            return new CsrGraph(offsets, targets, weights, intWeights);
+        }
+
+        /**
+         * Collects the edges of the rows of one block.
+         *
+         * @param b the block
+         */
+        private void scanBlock(int b) {
+            ContractionHierarchy.IntList targets = new ContractionHierarchy.IntList();
+            blockTargets[b] = targets;
+            int end = Math.min(n, (b + 1) * blockRows);
+            if (ints != null) {
+                ContractionHierarchy.IntList weights = new ContractionHierarchy.IntList();
+                blockIntWeights[b] = weights;
+                for (int u = b * blockRows; u < end; u++) {
+                    int[] row = ints[u];
+                    int start = targets.size();
+                    for (int v = 0; v < n; v++) {
+                        if (row[v] != 0) {
+                            targets.add(v);
+                            weights.add(row[v]);
+                        }
+                    }
+                    degree[u] = targets.size() - start;
+                }
+            } else {
+                ContractionHierarchy.DoubleList weights = new ContractionHierarchy.DoubleList();
+                blockWeights[b] = weights;
+                for (int u = b * blockRows; u < end; u++) {
+                    double[] row = doubles[u];
+                    int start = targets.size();
+                    for (int v = 0; v < n; v++) {
+                        if (row[v] != 0.0) {
+                            targets.add(v);
+                            weights.add(row[v]);
+                        }
+                    }
+                    degree[u] = targets.size() - start;
+                }
+            }
+        }
+
+        /**
+         * Scans a range of blocks, splitting it in half until a single
+         * block is left.
+         */
+        private class ScanTask extends RecursiveAction {
+            private static final long serialVersionUID = 1L;
+
+            private final int from;
+            private final int to;
+
+            ScanTask(int from, int to) {
+                this.from = from;
+                this.to = to;
+            }
+
+            @Override
+            protected void compute() {
+                if (to - from == 1) {
+                    scanBlock(from);
+                } else {
+                    int mid = (from + to) >>> 1;
+                    invokeAll(new ScanTask(from, mid), new ScanTask(mid, to));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,169 @@
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * A Test Harness for the MatrixAnalysis class.
+ */
+public class MatrixAnalysisTests {
+    static boolean VERBOSE = true;
+    static int numTests = 0;
+    static int failedTests = 0;
+
+    /**
+     * The main method runs the tests.
+     *
+     * @param args Not used
+     */
+    public static void main(String[] args) {
+        numTests = 0;
+        failedTests = 0;
+
+        decisionTests();
+        conversionTests(new Random(111), 9);
+        conversionTests(new Random(112), 700);
+        searchTests();
+        exceptionTests();
+
+        System.out.println("Total tests: " + numTests);
+        System.out.println("Failed tests: " + failedTests);
+    }
+
+    private static void printTest(Object expected, Object actual, String test) {
+        if (!expected.equals(actual)) {
+            if (VERBOSE) {
+                System.out.println("FAILED! " + test + " test.");
+                System.out.println("\texpected: " + expected.toString());
+                System.out.println("\tactual: " + actual.toString());
+            }
+            failedTests++;
+        }
+        numTests++;
+    }
+
+    /**
+     * Tests that sparse matrices are converted and dense ones are not,
+     * and that the thresholds of 0 and 1 are respected
+     */
+    private static void decisionTests() {
+        int[][] sparse = randomMatrix(new Random(113), 500, 0.002);
+        MatrixAnalysis analysis = MatrixAnalysis.analyze(sparse);
+        printTest(true, analysis.isSparse(), "sparse matrix is converted");
+        printTest(500, analysis.vertexCount(), "vertex count");
+        printTest(MatrixAnalysis.DEFAULT_MAX_DENSITY, analysis.getMaxDensity(), "default maximum density");
+        printTest((double) analysis.getGraph().edgeCount() / (500 * 500), analysis.getDensity(), "converted density is exact");
+        printTest(true, analysis.getAnalysisNanos() > 0 && analysis.getConversionNanos() > 0, "sparse times are measured");
+
+        int[][] dense = randomMatrix(new Random(114), 500, 0.3);
+        MatrixAnalysis denseAnalysis = MatrixAnalysis.analyze(dense);
+        printTest(false, denseAnalysis.isSparse(), "dense matrix is not converted");
+        printTest(true, denseAnalysis.getGraph() == null, "dense matrix has no graph");
+        printTest(0L, denseAnalysis.getConversionNanos(), "dense conversion time");
+        printTest(true, Math.abs(denseAnalysis.getDensity() - 0.3) < 0.03, "sampled density is close");
+
+        printTest(true, MatrixAnalysis.analyze(dense, 1.0).isSparse(), "maximum density 1 always converts");
+        printTest(false, MatrixAnalysis.analyze(sparse, 0.0).isSparse(), "maximum density 0 never converts edges");
+        printTest(true, MatrixAnalysis.analyze(new double[4][4], 0.0).isSparse(), "matrix without edges is converted");
+        printTest(0, MatrixAnalysis.analyze(new int[0][0]).vertexCount(), "empty matrix");
+    }
+
+    /**
+     * Tests that the converted graph is the graph of CsrGraph.fromMatrix,
+     * for both kinds of weights, with many blocks for larger matrices
+     */
+    private static void conversionTests(Random rand, int n) {
+        int[][] ints = randomMatrix(rand, n, 0.05);
+        ints[0][n - 1] = -3;
+        double[][] doubles = new double[n][n];
+        for (int u = 0; u < n; u++) {
+            for (int v = 0; v < n; v++) {
+                doubles[u][v] = ints[u][v] * 0.5;
+            }
+        }
+
+        CsrGraph expected = CsrGraph.fromMatrix(ints);
+        CsrGraph graph = MatrixAnalysis.analyze(ints, 1.0).getGraph();
+        printTest(true, graph.isIntWeighted(), n + " int conversion is int weighted");
+        printTest(Arrays.toString(expected.getOffsets()), Arrays.toString(graph.getOffsets()), n + " int offsets");
+        printTest(Arrays.toString(expected.getTargets()), Arrays.toString(graph.getTargets()), n + " int targets");
+        printTest(Arrays.toString(expected.getIntWeights()), Arrays.toString(graph.getIntWeights()), n + " int weights");
+
+        CsrGraph expectedDoubles = CsrGraph.fromMatrix(doubles);
+        CsrGraph doubleGraph = MatrixAnalysis.analyze(doubles, 1.0).getGraph();
+        printTest(false, doubleGraph.isIntWeighted(), n + " double conversion is double weighted");
+        printTest(Arrays.toString(expectedDoubles.getOffsets()), Arrays.toString(doubleGraph.getOffsets()), n + " double offsets");
+        printTest(Arrays.toString(expectedDoubles.getTargets()), Arrays.toString(doubleGraph.getTargets()), n + " double targets");
+        printTest(Arrays.toString(expectedDoubles.getWeights()), Arrays.toString(doubleGraph.getWeights()), n + " double weights");
+    }
+
+    /**
+     * Tests that dijkstraIntTree and dijkstraDoubleTree give the same trees
+     * whether or not they convert the matrix
+     */
+    private static void searchTests() {
+        int[][] ints = randomMatrix(new Random(115), 600, 0.004);
+        double[][] doubles = new double[600][600];
+        for (int u = 0; u < 600; u++) {
+            for (int v = 0; v < 600; v++) {
+                doubles[u][v] = ints[u][v] * 0.25;
+            }
+        }
+        printTest(true, MatrixAnalysis.analyze(ints).isSparse(), "search matrix is sparse");
+
+        int wrong = 0;
+        int wrongDoubles = 0;
+        for (int src = 0; src < 600; src += 97) {
+            ShortestPathTree converted = ShortestPath.dijkstraIntTree(ints, src);
+            ShortestPathTree scanned = ShortestPath.dijkstraIntTree(ints, src, 0.0);
+            ShortestPathTree convertedDoubles = ShortestPath.dijkstraDoubleTree(doubles, src);
+            ShortestPathTree scannedDoubles = ShortestPath.dijkstraDoubleTree(doubles, src, 0.0);
+            for (int v = 0; v < 600; v++) {
+                if (converted.getIntDistance(v) != scanned.getIntDistance(v) || converted.getPrevious(v) != scanned.getPrevious(v)) {
+                    wrong++;
+                }
+                if (convertedDoubles.getDistance(v) != scannedDoubles.getDistance(v) || convertedDoubles.getPrevious(v) != scannedDoubles.getPrevious(v)) {
+                    wrongDoubles++;
+                }
+            }
+        }
+        printTest(0, wrong, "int trees match the matrix search");
+        printTest(0, wrongDoubles, "double trees match the matrix search");
+        printTest(true, ShortestPath.dijkstraIntTree(ints, 0).isIntWeighted(), "converted int search gives an int tree");
+    }
+
+    /**
+     * Tests for the exceptions of MatrixAnalysis
+     */
+    private static void exceptionTests() {
+        printTest("NullPointerException", thrown(() -> MatrixAnalysis.analyze((int[][]) null)), "null int matrix");
+        printTest("NullPointerException", thrown(() -> MatrixAnalysis.analyze((double[][]) null, 0.5)), "null double matrix");
+        printTest("IllegalArgumentException", thrown(() -> MatrixAnalysis.analyze(new int[2][2], -0.1)), "negative maximum density");
+        printTest("IllegalArgumentException", thrown(() -> MatrixAnalysis.analyze(new double[2][2], 1.5)), "maximum density above 1");
+        printTest("IllegalArgumentException", thrown(() -> MatrixAnalysis.analyze(new double[2][2], Double.NaN)), "NaN maximum density");
+        printTest("IllegalArgumentException", thrown(() -> ShortestPath.dijkstraIntTree(new int[3][3], 3)), "invalid source of sparse matrix");
+    }
+
+    /**
+     * A private helper method to build a random int matrix with the given
+     * fraction of edges and a ring through every vertex.
+     */
+    private static int[][] randomMatrix(Random rand, int n, double density) {
+        int[][] graph = new int[n][n];
+        for (int u = 0; u < n; u++) {
+            for (int v = 0; v < n; v++) {
+                if (v == (u + 1) % n || rand.nextDouble() < density) {
+                    graph[u][v] = 1 + rand.nextInt(20);
+                }
+            }
+        }
+        return graph;
+    }
+
+    private static String thrown(Runnable action) {
+        try {
+            action.run();
+            return "none";
+        } catch (RuntimeException e) {
+            return e.getClass().getSimpleName();
+        }
+    }
+}
@@ -0,0 +1,254 @@
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * All-pairs shortest distances of a dense adjacency matrix by repeated
+ * min-plus squaring. After s squarings of the weight matrix D, where
+ *
+ *      (D x D)[i][j] = min over k of D[i][k] + D[k][j],
+ *
+ * each entry is the shortest distance over paths of at most 2^s edges,
+ * so at most ceil(log2 V) squarings are needed, and fewer on graphs with
+ * few edges on their shortest paths: the squaring stops as soon as a
+ * product changes nothing. Each product costs O(V^3), like a whole run of
+ * FloydWarshall, but its inner loop has no dependency between the cells
+ * of a row and can be vectorized.
+ *
+ * The product is cache-blocked: a tile of BLOCK rows and COLUMN_BLOCK
+ * columns of the result is lowered through BLOCK vertices k at a time,
+ * whose rows of the same columns stay in the L2 cache, and the row
+ * blocks of the result are spread across a ForkJoinPool. The inner loop
+ * runs on a kernel which uses the jdk.incubator.vector API when the
+ * VectorMinPlusKernel class in the vector directory has been compiled
+ * and the module is added with --add-modules jdk.incubator.vector, and a
+ * scalar loop otherwise.
+ *
+ * Negative weights are allowed, but not negative cycles. Only distances
+ * are computed; use FloydWarshall for the paths.
+ */
+public class MinPlus {
+    /** The number of rows of a tile, and of the vertices k which it is lowered through at a time. */
+    final static int BLOCK = 64;
+    /** The number of columns of a tile, wide enough to amortise each call of the kernel. */
+    private final static int COLUMN_BLOCK = 4 * BLOCK;
+    private final static Kernel KERNEL = loadKernel();
+
+    private final int n;
+    private final Kernel kernel;
+    private double[] dist;
+    private double[] product;
+
+    /**
+     * Initialises the distance matrix from the edges.
+     *
+     * @param graph the adjacency matrix
+     * @param kernel the kernel which computes the products
+     *
+     * @exception IllegalArgumentException if the matrix would not fit in an array
+     */
+    private MinPlus(double[][] graph, Kernel kernel) {
+        int n = graph.length;
+        if ((long) n * n > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("graph is too large for an all-pairs matrix");
+        }
+        this.n = n;
+        this.kernel = kernel;
+        this.dist = new double[n * n];
+        this.product = new double[n * n];
+        for (int i = 0; i < n; i++) {
+            double[] row = graph[i];
+            if (row == null) {
+                throw new NullPointerException("graph cannot be null");
+            } else if (row.length != n) {
+                throw new IllegalArgumentException("graph must be a square matrix");
+            }
+            for (int j = 0; j < n; j++) {
+                dist[i * n + j] = i == j ? 0.0 : row[j] != 0.0 ? row[j] : Double.POSITIVE_INFINITY;
+            }
+        }
+    }
+
+    /**
+     * Computes the distances between every pair of vertices of an
+     * adjacency matrix with double weights on the common pool.
+     *
+     * @param graph a square adjacency matrix, where 0 is no edge
+     * @return a double weighted table with a row and a column per vertex
+     *
+     * @exception NullPointerException if graph is null
+     * @exception IllegalArgumentException if graph is not square or has a negative cycle
+     */
+    public static DistanceTable compute(double[][] graph) {
+        return compute(graph, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Computes the distances between every pair of vertices of an
+     * adjacency matrix with double weights.
+     *
+     * @param graph a square adjacency matrix, where 0 is no edge
+     * @param pool the pool which computes the row blocks of each product
+     * @return a double weighted table with a row and a column per vertex
+     *
+     * @exception NullPointerException if any parameters are null
+     * @exception IllegalArgumentException if graph is not square or has a negative cycle
+     */
+    public static DistanceTable compute(double[][] graph, ForkJoinPool pool) {
+        return compute(graph, pool, KERNEL);
+    }
+
+    /**
+     * Computes the distances with the given kernel, so that the kernels
+     * can be compared.
+     *
+     * @param graph a square adjacency matrix, where 0 is no edge
+     * @param pool the pool which computes the row blocks of each product
+     * @param kernel the kernel
+     * @return a double weighted table with a row and a column per vertex
+     */
+    static DistanceTable compute(double[][] graph, ForkJoinPool pool, Kernel kernel) {
+        if (graph == null || pool == null) {
+            throw new NullPointerException("parameters cannot be null");
+        }
+        MinPlus minPlus = new MinPlus(graph, kernel);
+        minPlus.run(pool);
+        int[] vertices = new int[minPlus.n];
+        for (int v = 0; v < vertices.length; v++) {
+            vertices[v] = v;
+        }
+        return new DistanceTable(vertices, vertices.clone(), minPlus.dist);
+    }
+
+    /**
+     * Returns true if the products run on the vectorized kernel.
+     *
+     * @return true if the jdk.incubator.vector kernel was loaded
+     */
+    public static boolean isVectorized() {
+        return !(KERNEL instanceof ScalarKernel);
+    }
+
+    /**
+     * Returns the kernel which is used by default.
+     *
+     * @return the vectorized kernel if it can be loaded, or the scalar kernel
+     */
+    static Kernel defaultKernel() {
+        return KERNEL;
+    }
+
+    /**
+     * A private helper method to load the vectorized kernel, which is only
+     * on the class path when it has been compiled with the incubator
+     * module.
+     *
+     * @return the vectorized kernel, or the scalar kernel if it cannot be loaded
+     */
+    private static Kernel loadKernel() {
+        try {
+            return (Kernel) Class.forName("VectorMinPlusKernel").getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return new ScalarKernel();
+        }
+    }
+
+    /**
+     * A private helper method to square the distance matrix until it
+     * stops changing or covers paths of V edges, and to check the
+     * diagonal for negative cycles.
+     *
+     * @param pool the pool
+     */
+    private void run(ForkJoinPool pool) {
+        int blocks = (n + BLOCK - 1) / BLOCK;
+        boolean[] changed = new boolean[blocks];
+        for (long edges = 1; edges < n; edges *= 2) {
+            Arrays.fill(changed, false);
+            if (blocks <= 1) {
+                multiplyRows(0, changed);
+            } else {
+                pool.submit(() -> IntStream.range(0, blocks).parallel().forEach(ib -> multiplyRows(ib, changed))).join();
+            }
+            double[] swap = dist;
+            dist = product;
+            product = swap;
+
+            boolean any = false;
+            for (boolean c : changed) {
+                any |= c;
+            }
+            if (!any) {
+                break;
+            }
+        }
+
+        for (int i = 0; i < n; i++) {
+            if (dist[i * n + i] < 0) {
+                throw new IllegalArgumentException("graph contains a negative cycle");
+            }
+        }
+    }
+
+    /**
+     * A private helper method to compute one row block of the product,
+     * tile by tile, and to record whether it differs from the distances.
+     *
+     * @param ib the row block
+     * @param changed the flag of each row block
+     */
+    private void multiplyRows(int ib, boolean[] changed) {
+        int iStart = ib * BLOCK;
+        int iEnd = Math.min(n, iStart + BLOCK);
+        System.arraycopy(dist, iStart * n, product, iStart * n, (iEnd - iStart) * n);
+        for (int jStart = 0; jStart < n; jStart += COLUMN_BLOCK) {
+            int jEnd = Math.min(n, jStart + COLUMN_BLOCK);
+            for (int kStart = 0; kStart < n; kStart += BLOCK) {
+                int kEnd = Math.min(n, kStart + BLOCK);
+                for (int i = iStart; i < iEnd; i++) {
+                    for (int k = kStart; k < kEnd; k++) {
+                        double dik = dist[i * n + k];
+                        if (dik != Double.POSITIVE_INFINITY) {
+                            kernel.relax(product, i * n + jStart, dist, k * n + jStart, dik, jEnd - jStart);
+                        }
+                    }
+                }
+            }
+        }
+        changed[ib] = !Arrays.equals(dist, iStart * n, iEnd * n, product, iStart * n, iEnd * n);
+    }
+
+    /**
+     * The inner loop of the product, which lowers a run of cells of one
+     * row of the result through a single vertex k.
+     */
+    interface Kernel {
+        /**
+         * Sets c[cFrom + j] to the minimum of itself and dik + b[bFrom + j]
+         * for every j below length.
+         *
+         * @param c the result
+         * @param cFrom the first cell of the result
+         * @param b the distances from k
+         * @param bFrom the first cell of the distances
+         * @param dik the distance to k
+         * @param length the number of cells
+         */
+        void relax(double[] c, int cFrom, double[] b, int bFrom, double dik, int length);
+    }
+
+    /**
+     * The kernel which is used when the vector API is not available.
+     */
+    static class ScalarKernel implements Kernel {
+        @Override
+        public void relax(double[] c, int cFrom, double[] b, int bFrom, double dik, int length) {
+            for (int j = 0; j < length; j++) {
+                double d = dik + b[bFrom + j];
+                if (d < c[cFrom + j]) {
+                    c[cFrom + j] = d;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,181 @@
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * A Test Harness for the MinPlus class. Run with --add-modules
+ * jdk.incubator.vector and the compiled vector kernel on the class path
+ * to test the vectorized kernel as well as the scalar one.
+ */
+public class MinPlusTests {
+    static boolean VERBOSE = true;
+    static int numTests = 0;
+    static int failedTests = 0;
+
+    /**
+     * The main method runs the tests.
+     *
+     * @param args Not used
+     */
+    public static void main(String[] args) {
+        numTests = 0;
+        failedTests = 0;
+
+        System.out.println("Vectorized kernel: " + MinPlus.isVectorized());
+        for (MinPlus.Kernel kernel : new MinPlus.Kernel[] { new MinPlus.ScalarKernel(), MinPlus.defaultKernel() }) {
+            String name = kernel.getClass().getSimpleName();
+            denseTests(kernel, name);
+            sparseTests(kernel, name);
+            negativeTests(kernel, name);
+        }
+        smallTests();
+        exceptionTests();
+
+        System.out.println("Total tests: " + numTests);
+        System.out.println("Failed tests: " + failedTests);
+    }
+
+    private static void printTest(Object expected, Object actual, String test) {
+        if (!expected.equals(actual)) {
+            if (VERBOSE) {
+                System.out.println("FAILED! " + test + " test.");
+                System.out.println("\texpected: " + expected.toString());
+                System.out.println("\tactual: " + actual.toString());
+            }
+            failedTests++;
+        }
+        numTests++;
+    }
+
+    /**
+     * Tests against FloydWarshall on a dense matrix whose size is not a
+     * multiple of the tile size
+     */
+    private static void denseTests(MinPlus.Kernel kernel, String name) {
+        int n = 2 * MinPlus.BLOCK + 37;
+        double[][] graph = randomMatrix(new Random(121), n, 0.5, 0);
+        DistanceTable table = MinPlus.compute(graph, ForkJoinPool.commonPool(), kernel);
+        printTest(n, table.rowCount(), name + " row count");
+        printTest(n, table.columnCount(), name + " column count");
+        printTest(false, table.isIntWeighted(), name + " table is double weighted");
+        printTest(0, wrongCells(table, FloydWarshall.compute(graph)), name + " dense distances match FloydWarshall");
+    }
+
+    /**
+     * Tests against FloydWarshall on a sparse matrix with long shortest
+     * paths, which needs every squaring, and a vertex without outgoing
+     * edges
+     */
+    private static void sparseTests(MinPlus.Kernel kernel, String name) {
+        int n = 150;
+        double[][] graph = randomMatrix(new Random(122), n, 0.004, 0);
+        for (int i = 0; i < n - 10; i++) {
+            graph[i][i + 1] = 0.5;
+        }
+        graph[n - 1] = new double[n];
+        DistanceTable table = MinPlus.compute(graph, ForkJoinPool.commonPool(), kernel);
+        FloydWarshall expected = FloydWarshall.compute(graph);
+        printTest(0, wrongCells(table, expected), name + " sparse distances match FloydWarshall");
+        printTest(expected.getDistance(0, n - 10), table.getDistance(0, n - 10), name + " long path distance");
+        printTest(false, table.isReachable(n - 1, 0), name + " unreachable vertex");
+    }
+
+    /**
+     * Tests against FloydWarshall on weights shifted by random vertex
+     * potentials, which makes many of them negative without creating
+     * negative cycles
+     */
+    private static void negativeTests(MinPlus.Kernel kernel, String name) {
+        double[][] graph = randomMatrix(new Random(123), 90, 0.3, 10);
+        DistanceTable table = MinPlus.compute(graph, ForkJoinPool.commonPool(), kernel);
+        int negative = 0;
+        for (int i = 0; i < 90; i++) {
+            for (int j = 0; j < 90; j++) {
+                negative += table.getDistance(i, j) < 0 ? 1 : 0;
+            }
+        }
+        printTest(0, wrongCells(table, FloydWarshall.compute(graph)), name + " negative distances match FloydWarshall");
+        printTest(true, negative > 0, name + " has negative distances");
+
+        double[][] cycle = { { 0, 1, 0 }, { 0, 0, 2 }, { 0, -4, 0 } };
+        printTest("IllegalArgumentException", thrown(() -> MinPlus.compute(cycle, ForkJoinPool.commonPool(), kernel)), name + " negative cycle");
+    }
+
+    /**
+     * Tests on tiny matrices
+     */
+    private static void smallTests() {
+        DistanceTable single = MinPlus.compute(new double[][] { { 5 } });
+        printTest(0.0, single.getDistance(0, 0), "self loop is ignored");
+        printTest(0, MinPlus.compute(new double[0][0]).rowCount(), "empty matrix");
+
+        double[][] graph = {
+            { 0, 4, 1, 0 },
+            { 0, 0, 0, 1 },
+            { 0, 2, 0, 6 },
+            { 0, 0, 0, 0 }
+        };
+        DistanceTable table = MinPlus.compute(graph);
+        printTest(3.0, table.getDistance(0, 1), "small distance through 2");
+        printTest(4.0, table.getDistance(0, 3), "small distance of three edges");
+        printTest(Double.POSITIVE_INFINITY, table.getDistance(3, 0), "small unreachable");
+        printTest(2, table.getSource(2), "source of row");
+    }
+
+    /**
+     * Tests for the exceptions of MinPlus
+     */
+    private static void exceptionTests() {
+        printTest("NullPointerException", thrown(() -> MinPlus.compute(null)), "null graph");
+        printTest("NullPointerException", thrown(() -> MinPlus.compute(new double[1][1], null)), "null pool");
+        printTest("NullPointerException", thrown(() -> MinPlus.compute(new double[][] { { 0, 1 }, null })), "null row");
+        printTest("IllegalArgumentException", thrown(() -> MinPlus.compute(new double[][] { { 0, 1 }, { 0 } })), "not square");
+    }
+
+    /**
+     * A private helper method to count the cells which differ from
+     * FloydWarshall by more than rounding.
+     */
+    private static int wrongCells(DistanceTable table, FloydWarshall expected) {
+        int wrong = 0;
+        for (int i = 0; i < expected.size(); i++) {
+            for (int j = 0; j < expected.size(); j++) {
+                double d = expected.getDistance(i, j);
+                if (d == Double.POSITIVE_INFINITY ? table.isReachable(i, j) : Math.abs(table.getDistance(i, j) - d) > 1e-9) {
+                    wrong++;
+                }
+            }
+        }
+        return wrong;
+    }
+
+    /**
+     * A private helper method to build a random double matrix with the
+     * given fraction of edges, shifted by random potentials of at most
+     * maxPotential.
+     */
+    private static double[][] randomMatrix(Random rand, int n, double density, int maxPotential) {
+        int[] potential = new int[n];
+        for (int v = 0; v < n; v++) {
+            potential[v] = maxPotential == 0 ? 0 : rand.nextInt(maxPotential);
+        }
+        double[][] graph = new double[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                if (i != j && rand.nextDouble() < density) {
+                    double w = 0.25 + rand.nextInt(40) * 0.5 + potential[i] - potential[j];
+                    graph[i][j] = w == 0.0 ? 0.125 : w;
+                }
+            }
+        }
+        return graph;
+    }
+
+    private static String thrown(Runnable action) {
+        try {
+            action.run();
+            return "none";
+        } catch (RuntimeException e) {
+            return e.getClass().getSimpleName();
+        }
+    }
+}
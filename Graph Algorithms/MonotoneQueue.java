@@ -0,0 +1,31 @@
+/**
+ * A priority queue of vertex ids keyed by non-negative int priorities,
+ * where the priorities which are inserted are never smaller than the
+ * last priority polled. Dijkstra's Algorithm on a graph with
+ * non-negative int weights only ever uses a queue this way, which lets
+ * the implementations replace comparisons with bucketing.
+ */
+interface MonotoneQueue {
+    /**
+     * Returns true if the queue contains no ids.
+     *
+     * @return true if the queue is empty
+     */
+    boolean isEmpty();
+
+    /**
+     * Inserts the id if it is absent, or lowers its priority if it is
+     * present with a greater priority. Otherwise the queue is unchanged.
+     *
+     * @param id the id to insert or update
+     * @param key the priority of the id, not smaller than the last priority polled
+     */
+    void insertOrDecrease(int id, int key);
+
+    /**
+     * Removes and returns an id with the smallest priority.
+     *
+     * @return the id with the smallest priority
+     */
+    int poll();
+}
@@ -0,0 +1,119 @@
+/**
+ * The result of a single-source, single-target shortest path query: the
+ * distance from the source to the target and the vertices of the path.
+ */
+public class PathResult {
+    private final int source;
+    private final int target;
+    private final double distance;
+    private final int[] path;
+    private final int settled;
+
+    /**
+     * Constructs a result.
+     *
+     * @param source the source vertex
+     * @param target the target vertex
+     * @param distance the distance, positive infinity if the target is unreachable
+     * @param path the vertices from source to target, empty if the target is unreachable
+     * @param settled the number of vertices the search settled
+     */
+    PathResult(int source, int target, double distance, int[] path, int settled) {
+        this.source = source;
+        this.target = target;
+        this.distance = distance;
+        this.path = path;
+        this.settled = settled;
+    }
+
+    /**
+     * Constructs the result of a query whose target is unreachable.
+     *
+     * @param source the source vertex
+     * @param target the target vertex
+     * @param settled the number of vertices the search settled
+     * @return the result
+     */
+    static PathResult unreachable(int source, int target, int settled) {
+        return new PathResult(source, target, Double.POSITIVE_INFINITY, new int[0], settled);
+    }
+
+    /**
+     * Returns the source vertex of the query.
+     *
+     * @return the source vertex
+     */
+    public int getSource() {
+        return source;
+    }
+
+    /**
+     * Returns the target vertex of the query.
+     *
+     * @return the target vertex
+     */
+    public int getTarget() {
+        return target;
+    }
+
+    /**
+     * Returns true if there is a path from the source to the target.
+     *
+     * @return true if the target is reachable
+     */
+    public boolean isReachable() {
+        return distance != Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Returns the shortest distance from the source to the target.
+     *
+     * @return the distance, or positive infinity if the target is unreachable
+     */
+    public double getDistance() {
+        return distance;
+    }
+
+    /**
+     * Returns the vertices of the shortest path, starting with the source
+     * and ending with the target.
+     *
+     * @return a copy of the path, empty if the target is unreachable
+     */
+    public int[] getPath() {
+        return path.clone();
+    }
+
+    /**
+     * Returns the number of vertices on the path.
+     *
+     * @return the number of vertices on the path
+     */
+    public int getPathLength() {
+        return path.length;
+    }
+
+    /**
+     * Returns the number of vertices which the search settled before it
+     * could stop, as a measure of the work which the query took.
+     *
+     * @return the number of settled vertices
+     */
+    public int getSettledCount() {
+        return settled;
+    }
+
+    public String toString() {
+        StringBuilder result = new StringBuilder();
+        result.append("Label: " + target);
+        result.append(" Distance: " + distance);
+        result.append(" Path: ");
+        for (int i = path.length - 1; i >= 0; i--) {
+            result.append(path[i]);
+            if (i > 0) {
+                result.append(" <- ");
+            }
+        }
+        return result.toString();
+    }
+}
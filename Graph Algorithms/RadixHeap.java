@@ -0,0 +1,198 @@
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * A monotone radix heap of vertex ids keyed by non-negative int
+ * priorities. Bucket 0 holds the ids whose key equals the last key
+ * polled, and bucket b holds the ids whose key first differs from it in
+ * bit b - 1. When bucket 0 is empty the lowest non-empty bucket is
+ * emptied into lower buckets around its minimum key, and every id can
+ * only move down, at most 32 times. Each bucket is an intrusive doubly
+ * linked list, so an id can be moved in O(1) time.
+ *
+ * Unlike BucketQueue the running time does not depend on the largest
+ * weight, only on the number of bits in a key.
+ *
+ * - Insert:                       O(1)
+ * - Decrease Key:                 O(1)
+ * - Poll:                         O(log C) amortised, for keys below C
+ */
+public class RadixHeap implements MonotoneQueue {
+    private final static int NOT_PRESENT = -1;
+    private final static int BUCKETS = 33;
+
+    private final int[] head = new int[BUCKETS];
+    private final int[] next;
+    private final int[] previous;
+    private final int[] keys;
+    private final int[] bucket;
+    private int size;
+    private int last;
+
+    /**
+     * Constructs an empty radix heap for ids in the range [0, capacity).
+     *
+     * @param capacity the number of distinct ids
+     *
+     * @exception IllegalArgumentException if capacity is negative
+     */
+    public RadixHeap(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("capacity cannot be negative");
+        }
+        this.next = new int[capacity];
+        this.previous = new int[capacity];
+        this.keys = new int[capacity];
+        this.bucket = new int[capacity];
+        Arrays.fill(head, NOT_PRESENT);
+        Arrays.fill(bucket, NOT_PRESENT);
+        this.size = 0;
+        this.last = 0;
+    }
+
+    /**
+     * Returns the number of ids in the heap.
+     *
+     * @return the size of the heap
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns true if the heap contains no ids.
+     *
+     * @return true if the heap is empty
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns true if the id is currently in the heap.
+     *
+     * @param id the id to search for
+     * @return true if the id is in the heap
+     */
+    public boolean contains(int id) {
+        return bucket[id] != NOT_PRESENT;
+    }
+
+    /**
+     * Returns the priority of an id which is in the heap.
+     *
+     * @param id the id
+     * @return the priority of the id
+     *
+     * @exception NoSuchElementException if the id is not in the heap
+     */
+    public int getKey(int id) {
+        if (!contains(id)) {
+            throw new NoSuchElementException("id is not in the heap");
+        }
+        return keys[id];
+    }
+
+    /**
+     * Inserts the id if it is absent, or lowers its priority if it is
+     * present with a greater priority. Otherwise the heap is unchanged.
+     *
+     * @param id the id to insert or update
+     * @param key the priority of the id
+     *
+     * @exception IllegalArgumentException if the key is smaller than the last key polled
+     */
+    public void insertOrDecrease(int id, int key) {
+        if (key < last) {
+            throw new IllegalArgumentException("key cannot be smaller than the last key polled");
+        }
+        if (contains(id)) {
+            if (key >= keys[id]) {
+                return;
+            }
+            unlink(id);
+        } else {
+            size++;
+        }
+        keys[id] = key;
+        link(id, bucketOf(key));
+    }
+
+    /**
+     * Removes and returns an id with the smallest priority.
+     *
+     * @return the id with the smallest priority
+     *
+     * @exception NoSuchElementException if the heap is empty
+     */
+    public int poll() {
+        if (size == 0) {
+            throw new NoSuchElementException("heap is empty");
+        }
+        if (head[0] == NOT_PRESENT) {
+            int b = 1;
+            while (head[b] == NOT_PRESENT) {
+                b++;
+            }
+            int min = Integer.MAX_VALUE;
+            for (int id = head[b]; id != NOT_PRESENT; id = next[id]) {
+                min = Math.min(min, keys[id]);
+            }
+            last = min;
+            int id = head[b];
+            head[b] = NOT_PRESENT;
+            while (id != NOT_PRESENT) {
+                int following = next[id];
+                link(id, bucketOf(keys[id]));
+                id = following;
+            }
+        }
+        int id = head[0];
+        unlink(id);
+        bucket[id] = NOT_PRESENT;
+        size--;
+        return id;
+    }
+
+    /**
+     * Returns the bucket of a key relative to the last key polled.
+     *
+     * @param key the key
+     * @return the bucket index
+     */
+    private int bucketOf(int key) {
+        return key == last ? 0 : 32 - Integer.numberOfLeadingZeros(key ^ last);
+    }
+
+    /**
+     * Pushes an id onto the front of a bucket.
+     *
+     * @param id the id
+     * @param b the bucket
+     */
+    private void link(int id, int b) {
+        bucket[id] = b;
+        previous[id] = NOT_PRESENT;
+        next[id] = head[b];
+        if (head[b] != NOT_PRESENT) {
+            previous[head[b]] = id;
+        }
+        head[b] = id;
+    }
+
+    /**
+     * Removes an id from its bucket.
+     *
+     * @param id the id
+     */
+    private void unlink(int id) {
+        if (previous[id] != NOT_PRESENT) {
+            next[previous[id]] = next[id];
+        } else {
+            head[bucket[id]] = next[id];
+        }
+        if (next[id] != NOT_PRESENT) {
+            previous[next[id]] = previous[id];
+        }
+    }
+}
@@ -0,0 +1,90 @@
+/**
+ * Options which let a single-source search stop before the whole graph
+ * is explored. A search stops once every target is settled, or once the
+ * next vertex would lie beyond the maximum radius, whichever comes
+ * first. Vertices which were not settled when the search stopped are
+ * reported as unreachable.
+ *
+ * Options are immutable; the with methods return a modified copy.
+ */
+public class SearchOptions {
+    private final int[] targets;
+    private final double maxRadius;
+
+    /**
+     * Constructs options which explore the whole graph.
+     */
+    public SearchOptions() {
+        this(null, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Constructs options with the given targets and radius.
+     *
+     * @param targets the targets, or null for no targets
+     * @param maxRadius the maximum radius
+     */
+    private SearchOptions(int[] targets, double maxRadius) {
+        this.targets = targets;
+        this.maxRadius = maxRadius;
+    }
+
+    /**
+     * Returns a copy of these options which stops once every target is
+     * settled.
+     *
+     * @param targets the target vertices
+     * @return the new options
+     *
+     * @exception NullPointerException if targets is null
+     */
+    public SearchOptions withTargets(int... targets) {
+        if (targets == null) {
+            throw new NullPointerException("targets cannot be null");
+        }
+        return new SearchOptions(targets.clone(), maxRadius);
+    }
+
+    /**
+     * Returns a copy of these options which only settles vertices whose
+     * distance is at most maxRadius.
+     *
+     * @param maxRadius the maximum radius
+     * @return the new options
+     *
+     * @exception IllegalArgumentException if maxRadius is negative or NaN
+     */
+    public SearchOptions withMaxRadius(double maxRadius) {
+        if (!(maxRadius >= 0)) {
+            throw new IllegalArgumentException("maximum radius cannot be negative");
+        }
+        return new SearchOptions(targets, maxRadius);
+    }
+
+    /**
+     * Returns true if the search stops once a set of targets is settled.
+     *
+     * @return true if there are targets
+     */
+    public boolean hasTargets() {
+        return targets != null;
+    }
+
+    /**
+     * Returns the target vertices.
+     *
+     * @return a copy of the targets, or null if there are none
+     */
+    public int[] getTargets() {
+        return targets == null ? null : targets.clone();
+    }
+
+    /**
+     * Returns the maximum radius.
+     *
+     * @return the maximum radius, positive infinity if there is none
+     */
+    public double getMaxRadius() {
+        return maxRadius;
+    }
+}
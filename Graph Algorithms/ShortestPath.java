@@ -1,16 +1,21 @@
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
-import java.util.PriorityQueue;
+import java.util.NoSuchElementException;
+import java.util.function.IntFunction;
 
 /**
  * A class to calculate the shortest path between nodes of a positively 
- * weighted graph, represented by an adjacency matrix or adjacency list, 
- * as specified by the Dijkstra algorithm.
+ * weighted graph, represented by an adjacency matrix, adjacency list or 
+ * compressed sparse row graph, as specified by the Dijkstra algorithm.
  */
 public class ShortestPath {
 	private final static double DOUBLE_DEFAULT = 0.0;
 	private final static int INTEGER_DEFAULT = 0;
+	private final static int BUCKET_QUEUE_MAX_WEIGHT = 1 << 12;
 	
     /***
      * Performs Dijkstra's Algorithm on an adjacency matrix with 
@@ -50,7 +55,51 @@ public class ShortestPath {
      * @exception IllegalArgumentException is src is invalid
      */
     public static ArrayList<Vertex<Integer, Double>> dijkstraDouble(double[][] graph, int src) {
-        return ShortestPath.dijkstraDouble(toDouble(graph), src);
+        return ShortestPath.dijkstraDoubleTree(graph, src).toDoubleVertices();
+    }
+
+    /***
+     * Performs Dijkstra's Algorithm on an adjacency matrix with 
+     * non-Integer weights, without building any vertex objects. A
+     * matrix which MatrixAnalysis finds sparse is converted to a
+     * CsrGraph and searched as one.
+     * 
+     * @param graph the adjacency matrix
+     * @param src the index of the source vertex
+     * @return the shortest distances and predecessors of every vertex
+     * 
+     * @exception NullPointerException if graph is null
+     * @exception IllegalArgumentException is src is invalid
+     */
+    public static ShortestPathTree dijkstraDoubleTree(double[][] graph, int src) {
+        return ShortestPath.dijkstraDoubleTree(graph, src, MatrixAnalysis.DEFAULT_MAX_DENSITY);
+    }
+
+    /***
+     * Performs Dijkstra's Algorithm on an adjacency matrix with 
+     * non-Integer weights, converting it to a CsrGraph if its density is
+     * at most maxDensity. Used to tune the threshold.
+     * 
+     * @param graph the adjacency matrix
+     * @param src the index of the source vertex
+     * @param maxDensity the largest density to convert
+     * @return the shortest distances and predecessors of every vertex
+     */
+    static ShortestPathTree dijkstraDoubleTree(double[][] graph, int src, double maxDensity) {
+        if (graph == null) {
+            throw new NullPointerException("graph cannot be null");
+        } else if (src < 0 || src >= graph.length) {
+            throw new IllegalArgumentException("source node must be a valid index");
+        }
+
+        MatrixAnalysis analysis = MatrixAnalysis.analyze(graph, maxDensity);
+        if (analysis.isSparse()) {
+            return ShortestPath.dijkstraDoubleTree(analysis.getGraph(), src);
+        }
+        double[] dist = new double[graph.length];
+        int[] prev = new int[graph.length];
+        ShortestPath.dijkstra(graph, src, dist, prev);
+        return new ShortestPathTree(src, dist, prev);
     }
     
     /***
@@ -72,11 +121,35 @@ public class ShortestPath {
         } else if (!graph.containsKey(src)) {
             throw new IllegalArgumentException("source node must be a valid node");
         }
+        return ShortestPath.dijkstraDouble(LabeledGraph.fromAdjListDouble(graph), src);
+    }
 
-        SumFunction sum = (p1, p2) -> {
-            return Double.sum(p1.doubleValue(), p2.doubleValue());
-        };
-        return ShortestPath.<T, Double>dijkstra(graph, src, Double.MAX_VALUE, DOUBLE_DEFAULT, sum);
+    /***
+     * Performs Dijkstra's Algorithm on a labeled graph with non-Integer
+     * weights. The search runs on the primitive arrays, and labels are
+     * only looked up for the source and the returned vertices, so
+     * building the LabeledGraph once and reusing it avoids hashing labels
+     * during the search.
+     * 
+     * @param <T> the label type
+     * @param graph the labeled graph
+     * @param src the label of the source vertex
+     * @return a Map that maps labels to vertex objects which contain
+     * the shortest distance and the path to the source node  
+     * 
+     * @exception NullPointerException if graph is null
+     * @exception IllegalArgumentException is src is invalid
+     */
+    public static <T> Map<T, Vertex<T, Double>> dijkstraDouble(LabeledGraph<T> graph, T src) {
+        if (graph == null) {
+            throw new NullPointerException("graph cannot be null");
+        }
+        int id = graph.getIndex().indexOf(src);
+        if (id < 0) {
+            throw new IllegalArgumentException("source node must be a valid node");
+        }
+        ShortestPathTree tree = ShortestPath.dijkstraDoubleTree(graph.getGraph(), id);
+        return ShortestPath.toVertexMap(graph.getIndex(), tree, v -> tree.isReachable(v) ? tree.getDistance(v) : Double.MAX_VALUE);
     }
     
     /***
@@ -117,7 +190,61 @@ public class ShortestPath {
      * @exception IllegalArgumentException is src is invalid
      */
     public static ArrayList<Vertex<Integer, Integer>> dijkstraInt(int[][] graph, int src) {
-        return ShortestPath.dijkstraInt(toInteger(graph), src);
+        return ShortestPath.dijkstraIntTree(graph, src).toIntVertices();
+    }
+
+    /***
+     * Performs Dijkstra's Algorithm on an adjacency matrix with 
+     * Integer weights, without building any vertex objects. A matrix
+     * which MatrixAnalysis finds sparse is converted to a CsrGraph and
+     * searched as one.
+     * 
+     * @param graph the adjacency matrix
+     * @param src the index of the source vertex
+     * @return the shortest distances and predecessors of every vertex
+     * 
+     * @exception NullPointerException if graph is null
+     * @exception IllegalArgumentException is src is invalid
+     */
+    public static ShortestPathTree dijkstraIntTree(int[][] graph, int src) {
+        return ShortestPath.dijkstraIntTree(graph, src, MatrixAnalysis.DEFAULT_MAX_DENSITY);
+    }
+
+    /***
+     * Performs Dijkstra's Algorithm on an adjacency matrix with 
+     * Integer weights, converting it to a CsrGraph if its density is at
+     * most maxDensity. Used to tune the threshold.
+     * 
+     * @param graph the adjacency matrix
+     * @param src the index of the source vertex
+     * @param maxDensity the largest density to convert
+     * @return the shortest distances and predecessors of every vertex
+     */
+    static ShortestPathTree dijkstraIntTree(int[][] graph, int src, double maxDensity) {
+        if (graph == null) {
+            throw new NullPointerException("graph cannot be null");
+        } else if (src < 0 || src >= graph.length) {
+            throw new IllegalArgumentException("source node must be a valid index");
+        }
+
+        MatrixAnalysis analysis = MatrixAnalysis.analyze(graph, maxDensity);
+        if (analysis.isSparse()) {
+            return ShortestPath.dijkstraIntTree(analysis.getGraph(), src);
+        }
+        int[] dist = new int[graph.length];
+        int[] prev = new int[graph.length];
+        int maxWeight = maxWeight(graph);
+        if (maxWeight == 1) {
+            ShortestPath.bfs(graph, src, dist, prev);
+            return new ShortestPathTree(src, dist, prev);
+        }
+        MonotoneQueue queue = ShortestPath.monotoneQueue(graph.length, maxWeight);
+        if (queue == null) {
+            ShortestPath.dijkstra(graph, src, dist, prev);
+        } else {
+            ShortestPath.dijkstra(graph, src, dist, prev, queue);
+        }
+        return new ShortestPathTree(src, dist, prev);
     }
 
     /***
@@ -139,11 +266,294 @@ public class ShortestPath {
         } else if (!graph.containsKey(src)) {
             throw new IllegalArgumentException("source node must be a valid node");
         }
+        return ShortestPath.dijkstraInt(LabeledGraph.fromAdjListInt(graph), src);
+    }
 
-        SumFunction sum = (p1, p2) -> {
-            return Integer.sum(p1.intValue(), p2.intValue());
-        };
-        return ShortestPath.<T, Integer>dijkstra(graph, src, Integer.MAX_VALUE, INTEGER_DEFAULT, sum);
+    /***
+     * Performs Dijkstra's Algorithm on a labeled graph with Integer
+     * weights. The search runs on the primitive arrays, and labels are
+     * only looked up for the source and the returned vertices, so
+     * building the LabeledGraph once and reusing it avoids hashing labels
+     * during the search.
+     * 
+     * @param <T> the label type
+     * @param graph the labeled graph
+     * @param src the label of the source vertex
+     * @return a Map that maps labels to vertex objects which contain
+     * the shortest distance and the path to the source node  
+     * 
+     * @exception NullPointerException if graph is null
+     * @exception IllegalArgumentException is src is invalid or graph has non-Integer weights
+     */
+    public static <T> Map<T, Vertex<T, Integer>> dijkstraInt(LabeledGraph<T> graph, T src) {
+        if (graph == null) {
+            throw new NullPointerException("graph cannot be null");
+        }
+        int id = graph.getIndex().indexOf(src);
+        if (id < 0) {
+            throw new IllegalArgumentException("source node must be a valid node");
+        }
+        ShortestPathTree tree = ShortestPath.dijkstraIntTree(graph.getGraph(), id);
+        return ShortestPath.toVertexMap(graph.getIndex(), tree, v -> tree.getIntDistance(v));
+    }
+
+    /***
+     * Performs Dijkstra's Algorithm on a compressed sparse row graph,
+     * visiting only the edges which are present. Int weights are
+     * widened to doubles.
+     * 
+     * @param graph the compressed sparse row graph
+     * @param src the index of the source vertex
+     * @return an ArrayList containing vertex objects which contain
+     * the shortest distance and the path to the source node  
+     * 
+     * @exception NullPointerException if graph is null
+     * @exception IllegalArgumentException is src is invalid
+     */
+    public static ArrayList<Vertex<Integer, Double>> dijkstraDouble(CsrGraph graph, int src) {
+        return ShortestPath.dijkstraDoubleTree(graph, src).toDoubleVertices();
+    }
+
+    /***
+     * Performs Dijkstra's Algorithm on a compressed sparse row graph,
+     * without building any vertex objects. Int weights are widened to 
+     * doubles.
+     * 
+     * @param graph the compressed sparse row graph
+     * @param src the index of the source vertex
+     * @return the shortest distances and predecessors of every vertex
+     * 
+     * @exception NullPointerException if graph is null
+     * @exception IllegalArgumentException is src is invalid
+     */
+    public static ShortestPathTree dijkstraDoubleTree(CsrGraph graph, int src) {
+        if (graph == null) {
+            throw new NullPointerException("graph cannot be null");
+        } else if (src < 0 || src >= graph.vertexCount()) {
+            throw new IllegalArgumentException("source node must be a valid index");
+        }
+
+        double[] dist = new double[graph.vertexCount()];
+        int[] prev = new int[graph.vertexCount()];
+        ShortestPath.dijkstra(graph, src, dist, prev);
+        return new ShortestPathTree(src, dist, prev);
+    }
+
+    /***
+     * Performs Dijkstra's Algorithm on a compressed sparse row graph,
+     * stopping early as the options allow. Vertices which were not
+     * settled when the search stopped are reported as unreachable, so
+     * a query which only explores a small region does not pay for the
+     * rest of the graph.
+     * 
+     * @param graph the compressed sparse row graph
+     * @param src the index of the source vertex
+     * @param options the targets and maximum radius of the search
+     * @return the shortest distances and predecessors of the settled
+     * vertices, int weighted if the graph is
+     * 
+     * @exception NullPointerException if graph or options is null
+     * @exception IllegalArgumentException is src or a target is invalid
+     */
+    public static ShortestPathTree dijkstraTree(CsrGraph graph, int src, SearchOptions options) {
+        if (graph == null || options == null) {
+            throw new NullPointerException("parameters cannot be null");
+        } else if (src < 0 || src >= graph.vertexCount()) {
+            throw new IllegalArgumentException("source node must be a valid index");
+        }
+        boolean[] isTarget = options.hasTargets() ? new boolean[graph.vertexCount()] : null;
+        int remaining = ShortestPath.markTargets(options, isTarget);
+
+        double[] dist = new double[graph.vertexCount()];
+        int[] prev = new int[graph.vertexCount()];
+        ShortestPath.dijkstra(graph, src, dist, prev, isTarget, remaining, options.getMaxRadius());
+        return ShortestPath.toTree(src, dist, prev, graph.isIntWeighted());
+    }
+
+    /***
+     * Performs Dijkstra's Algorithm directly over the buffers of a memory
+     * mapped graph file, so that no part of the graph is copied into the
+     * heap. Only the distance and predecessor arrays are allocated.
+     * 
+     * @param graph the memory mapped graph
+     * @param src the index of the source vertex
+     * @return the shortest distances and predecessors of every vertex,
+     * int weighted if the graph is
+     * 
+     * @exception NullPointerException if graph is null
+     * @exception IllegalArgumentException is src is invalid
+     */
+    public static ShortestPathTree dijkstraTree(MappedCsrGraph graph, int src) {
+        return ShortestPath.dijkstraTree(graph, src, new SearchOptions());
+    }
+
+    /***
+     * Performs Dijkstra's Algorithm directly over the buffers of a memory
+     * mapped graph file, stopping early as the options allow. Vertices
+     * which were not settled when the search stopped are reported as
+     * unreachable, and only the pages of the file which the search
+     * reaches are ever read.
+     * 
+     * @param graph the memory mapped graph
+     * @param src the index of the source vertex
+     * @param options the targets and maximum radius of the search
+     * @return the shortest distances and predecessors of the settled
+     * vertices, int weighted if the graph is
+     * 
+     * @exception NullPointerException if graph or options is null
+     * @exception IllegalArgumentException is src or a target is invalid
+     */
+    public static ShortestPathTree dijkstraTree(MappedCsrGraph graph, int src, SearchOptions options) {
+        if (graph == null || options == null) {
+            throw new NullPointerException("parameters cannot be null");
+        } else if (src < 0 || src >= graph.vertexCount()) {
+            throw new IllegalArgumentException("source node must be a valid index");
+        }
+        boolean[] isTarget = options.hasTargets() ? new boolean[graph.vertexCount()] : null;
+        int remaining = ShortestPath.markTargets(options, isTarget);
+
+        double[] dist = new double[graph.vertexCount()];
+        int[] prev = new int[graph.vertexCount()];
+        ShortestPath.dijkstra(graph, src, dist, prev, isTarget, remaining, options.getMaxRadius());
+        return ShortestPath.toTree(src, dist, prev, graph.isIntWeighted());
+    }
+
+    /***
+     * Performs Dijkstra's Algorithm on a compressed sparse row graph
+     * with Integer weights, visiting only the edges which are present.
+     * 
+     * @param graph the compressed sparse row graph
+     * @param src the index of the source vertex
+     * @return an ArrayList containing vertex objects which contain
+     * the shortest distance and the path to the source node  
+     * 
+     * @exception NullPointerException if graph is null
+     * @exception IllegalArgumentException is src is invalid or graph has non-Integer weights
+     */
+    public static ArrayList<Vertex<Integer, Integer>> dijkstraInt(CsrGraph graph, int src) {
+        return ShortestPath.dijkstraIntTree(graph, src).toIntVertices();
+    }
+
+    /***
+     * Performs Dijkstra's Algorithm on a compressed sparse row graph
+     * with Integer weights, without building any vertex objects.
+     * 
+     * @param graph the compressed sparse row graph
+     * @param src the index of the source vertex
+     * @return the shortest distances and predecessors of every vertex
+     * 
+     * @exception NullPointerException if graph is null
+     * @exception IllegalArgumentException is src is invalid or graph has non-Integer weights
+     */
+    public static ShortestPathTree dijkstraIntTree(CsrGraph graph, int src) {
+        if (graph == null) {
+            throw new NullPointerException("graph cannot be null");
+        } else if (src < 0 || src >= graph.vertexCount()) {
+            throw new IllegalArgumentException("source node must be a valid index");
+        } else if (!graph.isIntWeighted()) {
+            throw new IllegalArgumentException("graph must have Integer weights");
+        }
+
+        int maxWeight = maxWeight(graph);
+        if (maxWeight == 0 || maxWeight == 1) {
+            int[] dist = new int[graph.vertexCount()];
+            int[] prev = new int[graph.vertexCount()];
+            if (hasZeroWeight(graph)) {
+                ShortestPath.zeroOneBfs(graph, src, dist, prev);
+            } else {
+                ShortestPath.bfs(graph, src, dist, prev);
+            }
+            return new ShortestPathTree(src, dist, prev);
+        }
+        return ShortestPath.dijkstraIntTree(graph, src, ShortestPath.monotoneQueue(graph.vertexCount(), maxWeight));
+    }
+
+    /***
+     * Performs Dijkstra's Algorithm on a compressed sparse row graph
+     * with Integer weights using the given monotone queue, or an
+     * IndexedMinHeap if it is null. Used to compare the queues.
+     * 
+     * @param graph the compressed sparse row graph, with Integer weights
+     * @param src the index of the source vertex
+     * @param queue an empty queue with capacity for every vertex, or null
+     * @return the shortest distances and predecessors of every vertex
+     */
+    static ShortestPathTree dijkstraIntTree(CsrGraph graph, int src, MonotoneQueue queue) {
+        int[] dist = new int[graph.vertexCount()];
+        int[] prev = new int[graph.vertexCount()];
+        if (queue == null) {
+            ShortestPath.dijkstra(graph, src, dist, prev);
+        } else {
+            ShortestPath.dijkstra(graph, src, dist, prev, queue);
+        }
+        return new ShortestPathTree(src, dist, prev);
+    }
+
+    /***
+     * Finds the shortest path between two vertices of a compressed sparse
+     * row graph with a bidirectional Dijkstra search. For repeated queries
+     * against the same graph, reuse a BidirectionalDijkstra instead.
+     * 
+     * @param graph the compressed sparse row graph
+     * @param src the index of the source vertex
+     * @param dst the index of the target vertex
+     * @return the distance and the path from src to dst
+     * 
+     * @exception NullPointerException if graph is null
+     * @exception IllegalArgumentException is src or dst is invalid
+     */
+    public static PathResult shortestPath(CsrGraph graph, int src, int dst) {
+        return new BidirectionalDijkstra(graph).query(src, dst);
+    }
+
+    /***
+     * Finds the shortest path between two vertices of an adjacency matrix
+     * with Integer weights with a bidirectional Dijkstra search.
+     * 
+     * @param graph the adjacency matrix
+     * @param src the index of the source vertex
+     * @param dst the index of the target vertex
+     * @return the distance and the path from src to dst
+     * 
+     * @exception NullPointerException if graph is null
+     * @exception IllegalArgumentException is src or dst is invalid
+     */
+    public static PathResult shortestPath(int[][] graph, int src, int dst) {
+        return ShortestPath.shortestPath(CsrGraph.fromMatrix(graph), src, dst);
+    }
+
+    /***
+     * Finds the shortest path between two vertices of an adjacency matrix
+     * with non-Integer weights with a bidirectional Dijkstra search.
+     * 
+     * @param graph the adjacency matrix
+     * @param src the index of the source vertex
+     * @param dst the index of the target vertex
+     * @return the distance and the path from src to dst
+     * 
+     * @exception NullPointerException if graph is null
+     * @exception IllegalArgumentException is src or dst is invalid
+     */
+    public static PathResult shortestPath(double[][] graph, int src, int dst) {
+        return ShortestPath.shortestPath(CsrGraph.fromMatrix(graph), src, dst);
+    }
+
+    /***
+     * Finds the k shortest loopless paths between two vertices of a
+     * compressed sparse row graph with Yen's Algorithm, running the spur
+     * searches in parallel.
+     * 
+     * @param graph the compressed sparse row graph
+     * @param src the index of the source vertex
+     * @param dst the index of the target vertex
+     * @param k the number of paths
+     * @return up to k paths in order of increasing distance
+     * 
+     * @exception NullPointerException if graph is null
+     * @exception IllegalArgumentException is src or dst is invalid, or k is not positive
+     */
+    public static List<PathResult> kShortestPaths(CsrGraph graph, int src, int dst, int k) {
+        return KShortestPaths.find(graph, src, dst, k);
     }
 
     /**
@@ -220,31 +630,28 @@ public class ShortestPath {
      */
     private static <W extends Number & Comparable<W>> ArrayList<Vertex<Integer, W>> dijkstra(W[][] graph, int src, W maxVal, W defaultVal, SumFunction func) {
         ArrayList<Vertex<Integer, W>> vertices = new ArrayList<>();
-        PriorityQueue<Vertex<Integer, W>> unvisited = new PriorityQueue<>();
         for (int key = 0; key < graph.length; key++) {
             Vertex<Integer, W> v = new Vertex<>(key);
             v.setDistance(maxVal);
-            if (key == src) {
-                v.setDistance(defaultVal);
-            }
             vertices.add(v);
-            unvisited.add(v);
         }
+        vertices.get(src).setDistance(defaultVal);
 
+        IndexedMinHeap unvisited = new IndexedMinHeap(graph.length);
+        unvisited.insert(src, defaultVal.doubleValue());
         while (!unvisited.isEmpty()) {
-            Vertex<Integer, W> u = unvisited.poll();
+            int name = unvisited.poll();
+            Vertex<Integer, W> u = vertices.get(name);
 
-            int name = u.getLabel();
             for (int key = 0; key < graph.length; key++) {
                 if (!graph[name][key].equals(defaultVal)) {
                     Vertex<Integer, W> v = vertices.get(key);
                     @SuppressWarnings("unchecked")
                     W dist = (W) func.sum(u.getDistance(), graph[name][key]);
                     if (dist.compareTo(v.getDistance()) < 0) {
-                        unvisited.remove(v);
                         v.setDistance(dist);
-                        unvisited.add(v);
                         v.setPrevious(u);
+                        unvisited.insertOrDecrease(key, dist.doubleValue());
                     }
                 }
             }
@@ -254,54 +661,585 @@ public class ShortestPath {
     }
 
     /***
-     * Performs Dijkstra's Algorithm on an adjacency list.
+     * Performs Dijkstra's Algorithm on an adjacency matrix with 
+     * non-Integer weights, using primitive distances.
      * 
-     * @param <T> the label type
-     * @param <W> the type of the edge weights 
      * @param graph the adjacency matrix
-     * @param src the label of the source vertex
-     * @param maxVal the value to initialize distances with
-     * @param defaultVal the value that represents a non-edge
-     * @param func the sum function
-     * @return a Map that maps labels to vertex objects which contain
-     * the shortest distance and the path to the source node  
+     * @param src the index of the source vertex
+     * @param dist the array to store the shortest distances in, with
+     * unreachable vertices left at positive infinity
+     * @param prev the array to store the previous vertex of each
+     * shortest path in, with NO_VERTEX for the source and unreachable vertices
      */
-    private static <T, W extends Number & Comparable<W>> Map<T, Vertex<T, W>> dijkstra(Map<T, Map<T, W>> graph, T src, W maxVal, W defaultVal,
-            SumFunction func) {
-        HashMap<T, Vertex<T, W>> vertices = new HashMap<>();
-        PriorityQueue<Vertex<T, W>> unvisited = new PriorityQueue<>();
-        for (T key : graph.keySet()) {
-            Vertex<T, W> v = new Vertex<>(key);
+    private static void dijkstra(double[][] graph, int src, double[] dist, int[] prev) {
+        Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        Arrays.fill(prev, ShortestPathTree.NO_VERTEX);
+        dist[src] = DOUBLE_DEFAULT;
 
-            v.setDistance(maxVal);
-            if (key.equals(src)) {
-                v.setDistance(defaultVal);
+        IndexedMinHeap unvisited = new IndexedMinHeap(graph.length);
+        unvisited.insert(src, DOUBLE_DEFAULT);
+        while (!unvisited.isEmpty()) {
+            int u = unvisited.poll();
+            double[] row = graph[u];
+            for (int v = 0; v < graph.length; v++) {
+                if (row[v] != DOUBLE_DEFAULT) {
+                    double d = dist[u] + row[v];
+                    if (d < dist[v]) {
+                        dist[v] = d;
+                        prev[v] = u;
+                        unvisited.insertOrDecrease(v, d);
+                    }
+                }
+            }
+        }
+    }
+
+    /***
+     * Performs Dijkstra's Algorithm on an adjacency matrix with 
+     * Integer weights, using primitive distances.
+     * 
+     * @param graph the adjacency matrix
+     * @param src the index of the source vertex
+     * @param dist the array to store the shortest distances in, with
+     * unreachable vertices left at Integer.MAX_VALUE
+     * @param prev the array to store the previous vertex of each
+     * shortest path in, with NO_VERTEX for the source and unreachable vertices
+     */
+    private static void dijkstra(int[][] graph, int src, int[] dist, int[] prev) {
+        Arrays.fill(dist, Integer.MAX_VALUE);
+        Arrays.fill(prev, ShortestPathTree.NO_VERTEX);
+        dist[src] = INTEGER_DEFAULT;
+
+        IndexedMinHeap unvisited = new IndexedMinHeap(graph.length);
+        unvisited.insert(src, INTEGER_DEFAULT);
+        while (!unvisited.isEmpty()) {
+            int u = unvisited.poll();
+            int[] row = graph[u];
+            for (int v = 0; v < graph.length; v++) {
+                if (row[v] != INTEGER_DEFAULT) {
+                    int d = dist[u] + row[v];
+                    if (d < dist[v]) {
+                        dist[v] = d;
+                        prev[v] = u;
+                        unvisited.insertOrDecrease(v, d);
+                    }
+                }
             }
-            vertices.put(key, v);
-            unvisited.add(v);
         }
+    }
+
+    /***
+     * Performs Dijkstra's Algorithm on a compressed sparse row graph,
+     * using primitive distances.
+     * 
+     * @param graph the compressed sparse row graph
+     * @param src the index of the source vertex
+     * @param dist the array to store the shortest distances in, with
+     * unreachable vertices left at positive infinity
+     * @param prev the array to store the previous vertex of each
+     * shortest path in, with NO_VERTEX for the source and unreachable vertices
+     */
+    private static void dijkstra(CsrGraph graph, int src, double[] dist, int[] prev) {
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        Arrays.fill(prev, ShortestPathTree.NO_VERTEX);
+        dist[src] = DOUBLE_DEFAULT;
 
+        IndexedMinHeap unvisited = new IndexedMinHeap(graph.vertexCount());
+        unvisited.insert(src, DOUBLE_DEFAULT);
         while (!unvisited.isEmpty()) {
-            Vertex<T, W> u = unvisited.poll();
+            int u = unvisited.poll();
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                int v = targets[e];
+                double d = dist[u] + graph.getWeight(e);
+                if (d < dist[v]) {
+                    dist[v] = d;
+                    prev[v] = u;
+                    unvisited.insertOrDecrease(v, d);
+                }
+            }
+        }
+    }
 
-            T name = u.getLabel();
-            for (T key : graph.get(name).keySet()) {
-                if (!graph.get(name).getOrDefault(key, defaultVal).equals(defaultVal)) {
-                    Vertex<T, W> v = vertices.get(key);
-                    @SuppressWarnings("unchecked")
-                    W dist = (W) func.sum(u.getDistance(), graph.get(name).get(key));
-                    if (dist.compareTo(v.getDistance()) < 0) {
-                        unvisited.remove(v);
-                        v.setDistance(dist);
-                        unvisited.add(v);
-                        v.setPrevious(u);
+    /***
+     * Performs Dijkstra's Algorithm on a compressed sparse row graph,
+     * stopping once every target is settled or the next vertex lies
+     * beyond the radius. The vertices left in the queue are reset to
+     * unreachable, as their distances are not final.
+     * 
+     * @param graph the compressed sparse row graph
+     * @param src the index of the source vertex
+     * @param dist the array to store the shortest distances in, with
+     * unsettled vertices left at positive infinity
+     * @param prev the array to store the previous vertex of each
+     * shortest path in, with NO_VERTEX for the source and unsettled vertices
+     * @param isTarget which vertices are targets, or null if there are none
+     * @param remaining the number of distinct targets
+     * @param maxRadius the largest distance to settle
+     */
+    private static void dijkstra(CsrGraph graph, int src, double[] dist, int[] prev, boolean[] isTarget, int remaining, double maxRadius) {
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        Arrays.fill(prev, ShortestPathTree.NO_VERTEX);
+        dist[src] = DOUBLE_DEFAULT;
+
+        IndexedMinHeap unvisited = new IndexedMinHeap(graph.vertexCount());
+        unvisited.insert(src, DOUBLE_DEFAULT);
+        while (!unvisited.isEmpty() && unvisited.peekKey() <= maxRadius) {
+            int u = unvisited.poll();
+            if (isTarget != null && (isTarget[u] ? --remaining : remaining) == 0) {
+                break;
+            }
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                int v = targets[e];
+                double d = dist[u] + graph.getWeight(e);
+                if (d < dist[v]) {
+                    dist[v] = d;
+                    prev[v] = u;
+                    unvisited.insertOrDecrease(v, d);
+                }
+            }
+        }
+        while (!unvisited.isEmpty()) {
+            int v = unvisited.poll();
+            dist[v] = Double.POSITIVE_INFINITY;
+            prev[v] = ShortestPathTree.NO_VERTEX;
+        }
+    }
+
+    /***
+     * Performs Dijkstra's Algorithm over a memory mapped graph, stopping
+     * once every target is settled or the next vertex lies beyond the
+     * radius, in the same way as the CsrGraph version.
+     * 
+     * @param graph the memory mapped graph
+     * @param src the index of the source vertex
+     * @param dist the array to store the shortest distances in, with
+     * unsettled vertices left at positive infinity
+     * @param prev the array to store the previous vertex of each
+     * shortest path in, with NO_VERTEX for the source and unsettled vertices
+     * @param isTarget which vertices are targets, or null if there are none
+     * @param remaining the number of distinct targets
+     * @param maxRadius the largest distance to settle
+     */
+    private static void dijkstra(MappedCsrGraph graph, int src, double[] dist, int[] prev, boolean[] isTarget, int remaining, double maxRadius) {
+        Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        Arrays.fill(prev, ShortestPathTree.NO_VERTEX);
+        dist[src] = DOUBLE_DEFAULT;
+
+        IndexedMinHeap unvisited = new IndexedMinHeap(graph.vertexCount());
+        unvisited.insert(src, DOUBLE_DEFAULT);
+        while (!unvisited.isEmpty() && unvisited.peekKey() <= maxRadius) {
+            int u = unvisited.poll();
+            if (isTarget != null && (isTarget[u] ? --remaining : remaining) == 0) {
+                break;
+            }
+            long end = graph.firstEdge(u + 1);
+            for (long e = graph.firstEdge(u); e < end; e++) {
+                int v = graph.getTarget(e);
+                double d = dist[u] + graph.getWeight(e);
+                if (d < dist[v]) {
+                    dist[v] = d;
+                    prev[v] = u;
+                    unvisited.insertOrDecrease(v, d);
+                }
+            }
+        }
+        while (!unvisited.isEmpty()) {
+            int v = unvisited.poll();
+            dist[v] = Double.POSITIVE_INFINITY;
+            prev[v] = ShortestPathTree.NO_VERTEX;
+        }
+    }
+
+    /***
+     * Performs Dijkstra's Algorithm on a compressed sparse row graph
+     * with Integer weights, using primitive distances.
+     * 
+     * @param graph the compressed sparse row graph
+     * @param src the index of the source vertex
+     * @param dist the array to store the shortest distances in, with
+     * unreachable vertices left at Integer.MAX_VALUE
+     * @param prev the array to store the previous vertex of each
+     * shortest path in, with NO_VERTEX for the source and unreachable vertices
+     */
+    private static void dijkstra(CsrGraph graph, int src, int[] dist, int[] prev) {
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        int[] weights = graph.getIntWeights();
+        Arrays.fill(dist, Integer.MAX_VALUE);
+        Arrays.fill(prev, ShortestPathTree.NO_VERTEX);
+        dist[src] = INTEGER_DEFAULT;
+
+        IndexedMinHeap unvisited = new IndexedMinHeap(graph.vertexCount());
+        unvisited.insert(src, INTEGER_DEFAULT);
+        while (!unvisited.isEmpty()) {
+            int u = unvisited.poll();
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                int v = targets[e];
+                int d = dist[u] + weights[e];
+                if (d < dist[v]) {
+                    dist[v] = d;
+                    prev[v] = u;
+                    unvisited.insertOrDecrease(v, d);
+                }
+            }
+        }
+    }
+
+    /***
+     * Performs Dijkstra's Algorithm on an adjacency matrix with 
+     * non-negative Integer weights, using a monotone queue in place of
+     * the heap.
+     * 
+     * @param graph the adjacency matrix
+     * @param src the index of the source vertex
+     * @param dist the array to store the shortest distances in, with
+     * unreachable vertices left at Integer.MAX_VALUE
+     * @param prev the array to store the previous vertex of each
+     * shortest path in, with NO_VERTEX for the source and unreachable vertices
+     * @param unvisited an empty queue with capacity for every vertex
+     */
+    private static void dijkstra(int[][] graph, int src, int[] dist, int[] prev, MonotoneQueue unvisited) {
+        Arrays.fill(dist, Integer.MAX_VALUE);
+        Arrays.fill(prev, ShortestPathTree.NO_VERTEX);
+        dist[src] = INTEGER_DEFAULT;
+
+        unvisited.insertOrDecrease(src, INTEGER_DEFAULT);
+        while (!unvisited.isEmpty()) {
+            int u = unvisited.poll();
+            int[] row = graph[u];
+            for (int v = 0; v < graph.length; v++) {
+                if (row[v] != INTEGER_DEFAULT) {
+                    int d = dist[u] + row[v];
+                    if (d < dist[v]) {
+                        dist[v] = d;
+                        prev[v] = u;
+                        unvisited.insertOrDecrease(v, d);
                     }
                 }
             }
         }
+    }
+
+    /***
+     * Performs Dijkstra's Algorithm on a compressed sparse row graph with
+     * non-negative Integer weights, using a monotone queue in place of
+     * the heap.
+     * 
+     * @param graph the compressed sparse row graph
+     * @param src the index of the source vertex
+     * @param dist the array to store the shortest distances in, with
+     * unreachable vertices left at Integer.MAX_VALUE
+     * @param prev the array to store the previous vertex of each
+     * shortest path in, with NO_VERTEX for the source and unreachable vertices
+     * @param unvisited an empty queue with capacity for every vertex
+     */
+    private static void dijkstra(CsrGraph graph, int src, int[] dist, int[] prev, MonotoneQueue unvisited) {
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        int[] weights = graph.getIntWeights();
+        Arrays.fill(dist, Integer.MAX_VALUE);
+        Arrays.fill(prev, ShortestPathTree.NO_VERTEX);
+        dist[src] = INTEGER_DEFAULT;
+
+        unvisited.insertOrDecrease(src, INTEGER_DEFAULT);
+        while (!unvisited.isEmpty()) {
+            int u = unvisited.poll();
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                int v = targets[e];
+                int d = dist[u] + weights[e];
+                if (d < dist[v]) {
+                    dist[v] = d;
+                    prev[v] = u;
+                    unvisited.insertOrDecrease(v, d);
+                }
+            }
+        }
+    }
+
+    /***
+     * Performs a breadth first search on an adjacency matrix whose edges
+     * all have weight 1, which settles the vertices in order of distance
+     * without a priority queue.
+     * 
+     * @param graph the adjacency matrix
+     * @param src the index of the source vertex
+     * @param dist the array to store the shortest distances in, with
+     * unreachable vertices left at Integer.MAX_VALUE
+     * @param prev the array to store the previous vertex of each
+     * shortest path in, with NO_VERTEX for the source and unreachable vertices
+     */
+    private static void bfs(int[][] graph, int src, int[] dist, int[] prev) {
+        Arrays.fill(dist, Integer.MAX_VALUE);
+        Arrays.fill(prev, ShortestPathTree.NO_VERTEX);
+        dist[src] = INTEGER_DEFAULT;
+
+        int[] queue = new int[graph.length];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = src;
+        while (head < tail) {
+            int u = queue[head++];
+            int[] row = graph[u];
+            for (int v = 0; v < graph.length; v++) {
+                if (row[v] != INTEGER_DEFAULT && dist[v] == Integer.MAX_VALUE) {
+                    dist[v] = dist[u] + 1;
+                    prev[v] = u;
+                    queue[tail++] = v;
+                }
+            }
+        }
+    }
+
+    /***
+     * Performs a breadth first search on a compressed sparse row graph
+     * whose edges all have weight 1.
+     * 
+     * @param graph the compressed sparse row graph
+     * @param src the index of the source vertex
+     * @param dist the array to store the shortest distances in, with
+     * unreachable vertices left at Integer.MAX_VALUE
+     * @param prev the array to store the previous vertex of each
+     * shortest path in, with NO_VERTEX for the source and unreachable vertices
+     */
+    private static void bfs(CsrGraph graph, int src, int[] dist, int[] prev) {
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        Arrays.fill(dist, Integer.MAX_VALUE);
+        Arrays.fill(prev, ShortestPathTree.NO_VERTEX);
+        dist[src] = INTEGER_DEFAULT;
+
+        int[] queue = new int[graph.vertexCount()];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = src;
+        while (head < tail) {
+            int u = queue[head++];
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                int v = targets[e];
+                if (dist[v] == Integer.MAX_VALUE) {
+                    dist[v] = dist[u] + 1;
+                    prev[v] = u;
+                    queue[tail++] = v;
+                }
+            }
+        }
+    }
+
+    /***
+     * Performs a 0-1 breadth first search on a compressed sparse row graph
+     * whose edges all have weight 0 or 1. Vertices reached over a 0 edge
+     * are pushed to the front of a deque and vertices reached over a 1
+     * edge to the back, so the deque stays sorted by distance and every
+     * vertex is settled in O(1) time.
+     * 
+     * @param graph the compressed sparse row graph
+     * @param src the index of the source vertex
+     * @param dist the array to store the shortest distances in, with
+     * unreachable vertices left at Integer.MAX_VALUE
+     * @param prev the array to store the previous vertex of each
+     * shortest path in, with NO_VERTEX for the source and unreachable vertices
+     */
+    private static void zeroOneBfs(CsrGraph graph, int src, int[] dist, int[] prev) {
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        int[] weights = graph.getIntWeights();
+        Arrays.fill(dist, Integer.MAX_VALUE);
+        Arrays.fill(prev, ShortestPathTree.NO_VERTEX);
+        dist[src] = INTEGER_DEFAULT;
+
+        boolean[] settled = new boolean[graph.vertexCount()];
+        int[] deque = new int[Integer.highestOneBit(Math.max(1, graph.vertexCount())) * 2];
+        int head = 0;
+        int size = 0;
+        deque[0] = src;
+        size++;
+        while (size > 0) {
+            int u = deque[head];
+            head = (head + 1) & (deque.length - 1);
+            size--;
+            if (settled[u]) {
+                continue;
+            }
+            settled[u] = true;
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                int v = targets[e];
+                int d = dist[u] + weights[e];
+                if (d < dist[v]) {
+                    dist[v] = d;
+                    prev[v] = u;
+                    if (size == deque.length) {
+                        int[] grown = new int[deque.length * 2];
+                        for (int i = 0; i < size; i++) {
+                            grown[i] = deque[(head + i) & (deque.length - 1)];
+                        }
+                        deque = grown;
+                        head = 0;
+                    }
+                    if (weights[e] == 0) {
+                        head = (head - 1) & (deque.length - 1);
+                        deque[head] = v;
+                    } else {
+                        deque[(head + size) & (deque.length - 1)] = v;
+                    }
+                    size++;
+                }
+            }
+        }
+    }
+
+    /***
+     * A private helper method to choose the queue of an Integer weighted
+     * search from its largest weight: a BucketQueue when the weights are
+     * small enough for its buckets to be scanned cheaply, a RadixHeap for
+     * any other non-negative weights, and null, for the IndexedMinHeap,
+     * if a weight is negative.
+     * 
+     * @param n the number of vertices
+     * @param maxWeight the largest weight, or a negative value if any weight is negative
+     * @return the queue, or null to use an IndexedMinHeap
+     */
+    private static MonotoneQueue monotoneQueue(int n, int maxWeight) {
+        if (maxWeight < 0) {
+            return null;
+        } else if (maxWeight <= BUCKET_QUEUE_MAX_WEIGHT) {
+            return new BucketQueue(n, maxWeight);
+        }
+        return new RadixHeap(n);
+    }
+
+    /***
+     * A helper method to build the vertex objects of a labeled
+     * search from its tree, linking each vertex to its predecessor.
+     * 
+     * @param <T> the label type
+     * @param <W> the type of the distances
+     * @param index the labels of the vertices
+     * @param tree the shortest path tree
+     * @param distance the distance to store in the vertex of each id
+     * @return a Map that maps labels to vertex objects
+     */
+    static <T, W extends Comparable<W>> Map<T, Vertex<T, W>> toVertexMap(LabelIndex<T> index, ShortestPathTree tree, IntFunction<W> distance) {
+        HashMap<T, Vertex<T, W>> vertices = new HashMap<>();
+        ArrayList<Vertex<T, W>> byId = new ArrayList<>(index.size());
+        for (int v = 0; v < index.size(); v++) {
+            Vertex<T, W> vertex = new Vertex<>(index.getLabel(v));
+            vertex.setDistance(distance.apply(v));
+            vertices.put(vertex.getLabel(), vertex);
+            byId.add(vertex);
+        }
+        for (int v = 0; v < index.size(); v++) {
+            int u = tree.getPrevious(v);
+            if (u != ShortestPathTree.NO_VERTEX) {
+                byId.get(v).setPrevious(byId.get(u));
+            }
+        }
         return vertices;
     }
 
+    /***
+     * A private helper method to mark the targets of a search.
+     * 
+     * @param options the options of the search
+     * @param isTarget the array to mark the targets in, or null if there are none
+     * @return the number of distinct targets, or -1 if there are none
+     * 
+     * @exception IllegalArgumentException if a target is invalid
+     */
+    private static int markTargets(SearchOptions options, boolean[] isTarget) {
+        if (isTarget == null) {
+            return -1;
+        }
+        int count = 0;
+        for (int t : options.getTargets()) {
+            if (t < 0 || t >= isTarget.length) {
+                throw new IllegalArgumentException("target nodes must be valid indices");
+            } else if (!isTarget[t]) {
+                isTarget[t] = true;
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /***
+     * A helper method to build a tree from double distances,
+     * converting them to ints if the graph is int weighted.
+     * 
+     * @param src the index of the source vertex
+     * @param dist the shortest distances, positive infinity if unreachable
+     * @param prev the previous vertex of each shortest path
+     * @param intWeighted true if the graph is int weighted
+     * @return the tree
+     */
+    static ShortestPathTree toTree(int src, double[] dist, int[] prev, boolean intWeighted) {
+        if (!intWeighted) {
+            return new ShortestPathTree(src, dist, prev);
+        }
+        int[] intDist = new int[dist.length];
+        for (int v = 0; v < dist.length; v++) {
+            intDist[v] = dist[v] == Double.POSITIVE_INFINITY ? Integer.MAX_VALUE : (int) dist[v];
+        }
+        return new ShortestPathTree(src, intDist, prev);
+    }
+
+    /***
+     * A private helper method to find the largest weight of an adjacency
+     * matrix.
+     * 
+     * @param graph the adjacency matrix
+     * @return the largest weight, or -1 if any weight is negative
+     */
+    private static int maxWeight(int[][] graph) {
+        int max = 0;
+        for (int[] row : graph) {
+            for (int w : row) {
+                if (w < 0) {
+                    return -1;
+                }
+                max = Math.max(max, w);
+            }
+        }
+        return max;
+    }
+
+    /***
+     * A private helper method to find the largest weight of a compressed
+     * sparse row graph with Integer weights.
+     * 
+     * @param graph the compressed sparse row graph
+     * @return the largest weight, or -1 if any weight is negative
+     */
+    private static int maxWeight(CsrGraph graph) {
+        int max = 0;
+        for (int w : graph.getIntWeights()) {
+            if (w < 0) {
+                return -1;
+            }
+            max = Math.max(max, w);
+        }
+        return max;
+    }
+
+    /***
+     * A private helper method to check whether a compressed sparse row
+     * graph with Integer weights has an edge of weight 0.
+     * 
+     * @param graph the compressed sparse row graph
+     * @return true if any weight is 0
+     */
+    private static boolean hasZeroWeight(CsrGraph graph) {
+        for (int w : graph.getIntWeights()) {
+            if (w == INTEGER_DEFAULT) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Converts an adjacency matrix to an adjacency list.
      * 
@@ -401,23 +1339,67 @@ public class ShortestPath {
             return label;
         }
 
+        /**
+         * Formats the path from this vertex back to the source, such as
+         * "C <- B <- A". Runs in time linear in the length of the path.
+         *
+         * @return the labels of the path separated by " <- "
+         */
         public String getPath() {
-            String ret = label.toString();
-            if (this.getPrevious() != null) {
-                ret += " <- " + previous.getPath();
+            StringBuilder result = new StringBuilder();
+            appendPath(result);
+            return result.toString();
+        }
+
+        /**
+         * Returns the number of vertices on the path from this vertex back
+         * to the source, including both ends.
+         *
+         * @return the length of the path
+         */
+        public int getPathLength() {
+            int length = 0;
+            for (Vertex<T, W> v = this; v != null; v = v.previous) {
+                length++;
             }
-            return ret;
+            return length;
+        }
+
+        /**
+         * Returns the labels of the path from this vertex back to the
+         * source. The labels are read from the predecessor chain as they
+         * are iterated, so nothing is copied.
+         *
+         * @return the labels, starting with this vertex
+         */
+        public Iterable<T> getPathLabels() {
+            return () -> new Iterator<T>() {
+                private Vertex<T, W> next = Vertex.this;
+
+                public boolean hasNext() {
+                    return next != null;
+                }
+
+                public T next() {
+                    if (next == null) {
+                        throw new NoSuchElementException();
+                    }
+                    T result = next.label;
+                    next = next.previous;
+                    return result;
+                }
+            };
         }
 
         public Vertex<T, W> getPrevious() {
             return previous;
         }
 
-        private void setDistance(W distance) {
+        void setDistance(W distance) {
             this.distance = distance;
         }
 
-        private void setPrevious(Vertex<T, W> previous) {
+        void setPrevious(Vertex<T, W> previous) {
             this.previous = previous;
         }
 
@@ -429,8 +1411,21 @@ public class ShortestPath {
             StringBuilder result = new StringBuilder();
             result.append("Label: " + label);
             result.append(" Distance: " + distance);
-            result.append(" Path: " + getPath());
+            result.append(" Path: ");
+            appendPath(result);
             return result.toString();
         }
+
+        /**
+         * Appends the path from this vertex back to the source.
+         *
+         * @param result the builder to append to
+         */
+        private void appendPath(StringBuilder result) {
+            result.append(label);
+            for (Vertex<T, W> v = previous; v != null; v = v.previous) {
+                result.append(" <- ").append(v.label);
+            }
+        }
     }
 }
\ No newline at end of file
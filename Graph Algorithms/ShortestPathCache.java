@@ -0,0 +1,236 @@
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A cache of shortest path trees keyed by source, for services which
+ * query the same few sources over and over. Trees are kept as their
+ * primitive distance and predecessor arrays, and the least recently used
+ * trees are evicted once the cached trees would take more than a given
+ * number of bytes.
+ *
+ * Every tree is tagged with the version of the graph it was computed on.
+ * Replacing the graph with setGraph increments the version and drops
+ * every cached tree, and a search which finishes after the graph was
+ * replaced is returned to its caller but never cached.
+ *
+ * The cache is safe to share between threads. Searches run outside the
+ * lock, so two threads which miss on the same source at once may both
+ * compute its tree.
+ */
+public class ShortestPathCache {
+    private final long maxBytes;
+    private final LinkedHashMap<Integer, ShortestPathTree> trees = new LinkedHashMap<>(16, 0.75f, true);
+    private CsrGraph graph;
+    private long version = 0;
+    private long bytes = 0;
+    private long hits = 0;
+    private long misses = 0;
+    private long evictions = 0;
+
+    /**
+     * Constructs an empty cache.
+     *
+     * @param graph the compressed sparse row graph, with non-negative weights
+     * @param maxBytes the most memory the cached trees may take
+     *
+     * @exception NullPointerException if graph is null
+     * @exception IllegalArgumentException if maxBytes is negative
+     */
+    public ShortestPathCache(CsrGraph graph, long maxBytes) {
+        if (graph == null) {
+            throw new NullPointerException("graph cannot be null");
+        } else if (maxBytes < 0) {
+            throw new IllegalArgumentException("maximum size cannot be negative");
+        }
+        this.graph = graph;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Returns the shortest path tree of a source, computing it if it is
+     * not cached. Trees of int weighted graphs are int weighted.
+     *
+     * @param src the index of the source vertex
+     * @return the shortest distances and predecessors of every vertex
+     *
+     * @exception IllegalArgumentException if src is invalid
+     */
+    public ShortestPathTree getTree(int src) {
+        CsrGraph searched;
+        long searchedVersion;
+        synchronized (this) {
+            if (src < 0 || src >= graph.vertexCount()) {
+                throw new IllegalArgumentException("source node must be a valid index");
+            }
+            ShortestPathTree tree = trees.get(src);
+            if (tree != null) {
+                hits++;
+                return tree;
+            }
+            misses++;
+            searched = graph;
+            searchedVersion = version;
+        }
+
+        ShortestPathTree tree = searched.isIntWeighted() ? ShortestPath.dijkstraIntTree(searched, src) : ShortestPath.dijkstraDoubleTree(searched, src);
+        synchronized (this) {
+            if (searchedVersion == version && tree.sizeInBytes() <= maxBytes) {
+                ShortestPathTree old = trees.put(src, tree);
+                bytes += tree.sizeInBytes() - (old == null ? 0 : old.sizeInBytes());
+                evict();
+            }
+        }
+        return tree;
+    }
+
+    /**
+     * Returns the shortest distance between two vertices, through the
+     * cached tree of the source.
+     *
+     * @param src the index of the source vertex
+     * @param dst the index of the target vertex
+     * @return the distance, or positive infinity if dst is unreachable
+     *
+     * @exception IllegalArgumentException if src is invalid
+     */
+    public double getDistance(int src, int dst) {
+        return getTree(src).getDistance(dst);
+    }
+
+    /**
+     * Returns the shortest path between two vertices, through the cached
+     * tree of the source.
+     *
+     * @param src the index of the source vertex
+     * @param dst the index of the target vertex
+     * @return the vertices of the path from src to dst, or an empty array if dst is unreachable
+     *
+     * @exception IllegalArgumentException if src is invalid
+     */
+    public int[] getPath(int src, int dst) {
+        return getTree(src).getPath(dst);
+    }
+
+    /**
+     * Replaces the graph, incrementing the version and dropping every
+     * cached tree. The hit and miss counts are kept.
+     *
+     * @param graph the new graph
+     *
+     * @exception NullPointerException if graph is null
+     */
+    public synchronized void setGraph(CsrGraph graph) {
+        if (graph == null) {
+            throw new NullPointerException("graph cannot be null");
+        }
+        this.graph = graph;
+        version++;
+        clear();
+    }
+
+    /**
+     * Returns the graph which trees are computed on.
+     *
+     * @return the graph
+     */
+    public synchronized CsrGraph getGraph() {
+        return graph;
+    }
+
+    /**
+     * Returns the version of the graph, which starts at 0 and is
+     * incremented by every call to setGraph.
+     *
+     * @return the version
+     */
+    public synchronized long getVersion() {
+        return version;
+    }
+
+    /**
+     * Drops every cached tree.
+     */
+    public synchronized void clear() {
+        trees.clear();
+        bytes = 0;
+    }
+
+    /**
+     * Returns the number of cached trees.
+     *
+     * @return the number of trees
+     */
+    public synchronized int size() {
+        return trees.size();
+    }
+
+    /**
+     * Returns the approximate memory taken by the cached trees.
+     *
+     * @return the size in bytes
+     */
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * Returns the most memory the cached trees may take.
+     *
+     * @return the size in bytes
+     */
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * Returns the number of calls which found their tree in the cache.
+     *
+     * @return the number of hits
+     */
+    public synchronized long getHitCount() {
+        return hits;
+    }
+
+    /**
+     * Returns the number of calls which had to compute their tree.
+     *
+     * @return the number of misses
+     */
+    public synchronized long getMissCount() {
+        return misses;
+    }
+
+    /**
+     * Returns the number of trees which were evicted to stay within the
+     * memory bound. Trees dropped by setGraph or clear are not counted.
+     *
+     * @return the number of evictions
+     */
+    public synchronized long getEvictionCount() {
+        return evictions;
+    }
+
+    /**
+     * Returns the fraction of calls which found their tree in the cache.
+     *
+     * @return the hit rate, or 0 if there have been no calls
+     */
+    public synchronized double getHitRate() {
+        long calls = hits + misses;
+        return calls == 0 ? 0.0 : (double) hits / calls;
+    }
+
+    /**
+     * A private helper method to evict the least recently used trees until
+     * the cache is within its memory bound.
+     */
+    private void evict() {
+        Iterator<Map.Entry<Integer, ShortestPathTree>> it = trees.entrySet().iterator();
+        while (bytes > maxBytes && it.hasNext()) {
+            bytes -= it.next().getValue().sizeInBytes();
+            it.remove();
+            evictions++;
+        }
+    }
+}
@@ -0,0 +1,186 @@
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * A Test Harness for the ShortestPathCache class.
+ */
+public class ShortestPathCacheTests {
+    static boolean VERBOSE = true;
+    static int numTests = 0;
+    static int failedTests = 0;
+
+    /**
+     * The main method runs the tests.
+     *
+     * @param args Not used
+     */
+    public static void main(String[] args) throws Exception {
+        numTests = 0;
+        failedTests = 0;
+
+        resultTests();
+        evictionTests();
+        versionTests();
+        concurrencyTests();
+        exceptionTests();
+
+        System.out.println("Total tests: " + numTests);
+        System.out.println("Failed tests: " + failedTests);
+    }
+
+    private static void printTest(Object expected, Object actual, String test) {
+        if (!expected.equals(actual)) {
+            if (VERBOSE) {
+                System.out.println("FAILED! " + test + " test.");
+                System.out.println("\texpected: " + expected.toString());
+                System.out.println("\tactual: " + actual.toString());
+            }
+            failedTests++;
+        }
+        numTests++;
+    }
+
+    /**
+     * Tests that cached trees match fresh searches and count as hits
+     */
+    private static void resultTests() {
+        CsrGraph grid = GraphExperiments.randomGrid(40, 51);
+        ShortestPathCache cache = new ShortestPathCache(grid, Long.MAX_VALUE);
+        ShortestPathTree first = cache.getTree(17);
+        ShortestPathTree second = cache.getTree(17);
+        printTest(true, first == second, "second call returns the cached tree");
+        printTest(1L, cache.getHitCount(), "one hit");
+        printTest(1L, cache.getMissCount(), "one miss");
+        printTest(0.5, cache.getHitRate(), "hit rate");
+        printTest(true, first.isIntWeighted(), "int graph gives an int tree");
+
+        ShortestPathTree expected = ShortestPath.dijkstraIntTree(grid, 17);
+        int wrong = 0;
+        for (int v = 0; v < grid.vertexCount(); v++) {
+            if (expected.getIntDistance(v) != first.getIntDistance(v) || expected.getPrevious(v) != first.getPrevious(v)) {
+                wrong++;
+            }
+        }
+        printTest(0, wrong, "cached tree matches dijkstraIntTree");
+        printTest(expected.getDistance(1000), cache.getDistance(17, 1000), "getDistance");
+        printTest(Arrays.toString(expected.getPath(1000)), Arrays.toString(cache.getPath(17, 1000)), "getPath");
+        printTest(3L, cache.getHitCount(), "getDistance and getPath hit");
+
+        CsrGraph doubles = ShortestPathTests.randomGraph(new Random(52), 500, 3);
+        ShortestPathCache doubleCache = new ShortestPathCache(doubles, Long.MAX_VALUE);
+        printTest(false, doubleCache.getTree(3).isIntWeighted(), "double graph gives a double tree");
+        printTest(ShortestPath.dijkstraDoubleTree(doubles, 3).getDistance(400), doubleCache.getDistance(3, 400), "double distance");
+    }
+
+    /**
+     * Tests for the memory bound and least recently used eviction
+     */
+    private static void evictionTests() {
+        CsrGraph grid = GraphExperiments.randomGrid(20, 53);
+        long treeBytes = ShortestPath.dijkstraIntTree(grid, 0).sizeInBytes();
+        ShortestPathCache cache = new ShortestPathCache(grid, 3 * treeBytes);
+        cache.getTree(0);
+        cache.getTree(1);
+        cache.getTree(2);
+        printTest(3, cache.size(), "three trees fit");
+        printTest(3 * treeBytes, cache.getBytes(), "bytes of three trees");
+
+        cache.getTree(0);
+        cache.getTree(3);
+        printTest(3, cache.size(), "fourth tree evicts one");
+        printTest(1L, cache.getEvictionCount(), "one eviction");
+        long misses = cache.getMissCount();
+        cache.getTree(0);
+        printTest(misses, cache.getMissCount(), "recently used tree was kept");
+        cache.getTree(1);
+        printTest(misses + 1, cache.getMissCount(), "least recently used tree was evicted");
+
+        ShortestPathCache tiny = new ShortestPathCache(grid, treeBytes - 1);
+        tiny.getTree(0);
+        tiny.getTree(0);
+        printTest(0, tiny.size(), "tree larger than the bound is not cached");
+        printTest(2L, tiny.getMissCount(), "tree larger than the bound always misses");
+
+        cache.clear();
+        printTest(0, cache.size(), "clear empties the cache");
+        printTest(0L, cache.getBytes(), "clear resets the bytes");
+    }
+
+    /**
+     * Tests that replacing the graph invalidates the cached trees
+     */
+    private static void versionTests() {
+        CsrGraph before = CsrGraph.fromEdges(3, new int[] { 0, 1 }, new int[] { 1, 2 }, new int[] { 5, 5 });
+        CsrGraph after = CsrGraph.fromEdges(3, new int[] { 0, 1, 0 }, new int[] { 1, 2, 2 }, new int[] { 5, 5, 1 });
+        ShortestPathCache cache = new ShortestPathCache(before, Long.MAX_VALUE);
+        printTest(10.0, cache.getDistance(0, 2), "distance before update");
+        printTest(0L, cache.getVersion(), "initial version");
+
+        cache.setGraph(after);
+        printTest(1L, cache.getVersion(), "version after update");
+        printTest(0, cache.size(), "update drops the trees");
+        printTest(true, cache.getGraph() == after, "update replaces the graph");
+        printTest(1.0, cache.getDistance(0, 2), "distance after update");
+        printTest(2L, cache.getMissCount(), "tree is recomputed after update");
+    }
+
+    /**
+     * Tests that concurrent queries return correct trees and count every call
+     */
+    private static void concurrencyTests() throws Exception {
+        CsrGraph grid = GraphExperiments.randomGrid(30, 54);
+        ShortestPathCache cache = new ShortestPathCache(grid, 4 * ShortestPath.dijkstraIntTree(grid, 0).sizeInBytes());
+        int[] expected = new int[10];
+        for (int src = 0; src < expected.length; src++) {
+            expected[src] = ShortestPath.dijkstraIntTree(grid, src).getIntDistance(899);
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        Future<?>[] futures = new Future<?>[4];
+        int[] wrong = new int[futures.length];
+        for (int t = 0; t < futures.length; t++) {
+            int thread = t;
+            futures[t] = executor.submit(() -> {
+                Random rand = new Random(thread);
+                for (int q = 0; q < 200; q++) {
+                    int src = rand.nextInt(expected.length);
+                    if (cache.getTree(src).getIntDistance(899) != expected[src]) {
+                        wrong[thread]++;
+                    }
+                }
+            });
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        printTest(0, Arrays.stream(wrong).sum(), "concurrent distances");
+        printTest(800L, cache.getHitCount() + cache.getMissCount(), "concurrent calls counted");
+        printTest(true, cache.size() <= 4, "concurrent cache within bound");
+    }
+
+    /**
+     * Tests for the exceptions of the cache
+     */
+    private static void exceptionTests() {
+        CsrGraph graph = CsrGraph.fromEdges(2, new int[] { 0 }, new int[] { 1 }, new int[] { 2 });
+        ShortestPathCache cache = new ShortestPathCache(graph, 1000);
+        printTest("NullPointerException", thrown(() -> new ShortestPathCache(null, 1000)), "null graph");
+        printTest("IllegalArgumentException", thrown(() -> new ShortestPathCache(graph, -1)), "negative bound");
+        printTest("IllegalArgumentException", thrown(() -> cache.getTree(2)), "invalid source");
+        printTest("IllegalArgumentException", thrown(() -> cache.getTree(-1)), "negative source");
+        printTest("NullPointerException", thrown(() -> cache.setGraph(null)), "set null graph");
+        printTest(0L, cache.getMissCount(), "invalid sources are not misses");
+    }
+
+    private static String thrown(Runnable action) {
+        try {
+            action.run();
+            return "none";
+        } catch (RuntimeException e) {
+            return e.getClass().getSimpleName();
+        }
+    }
+}
@@ -1,10 +1,24 @@
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.Random;
 
 /**
  * A Test Harness for the ShortestPath class.
  */
 public class ShortestPathTests {
+    static boolean VERBOSE = true;
+    static int numTests = 0;
+    static int failedTests = 0;
+
+    static final int[][] I_MATRIX = {
+            /* 0 */ { 0, 0, 3, 2, 0 },
+            /* 1 */ { 0, 0, 0, 6, 1 },
+            /* 2 */ { 3, 0, 0, 2, 5 },
+            /* 3 */ { 2, 6, 2, 0, 0 },
+            /* 4 */ { 0, 1, 5, 0, 0 } };
+
     public static void main(String[] args) {
         int[][] iMatrix = {
                 /* 0 */ { 0, 0, 3, 2, 0 },
@@ -30,6 +44,511 @@ public class ShortestPathTests {
         for (String key : retLis.keySet()) {
         	System.out.println(retLis.get(key));
         }
+
+        System.out.println();
+
+        numTests = 0;
+        failedTests = 0;
+
+        csrTests();
+        treeTests();
+        pointToPointTests();
+        monotoneQueueTests();
+        bfsTests();
+        searchOptionsTests();
+        pathTests();
+        labelTests();
+
+        System.out.println("Total tests: " + numTests);
+        System.out.println("Failed tests: " + failedTests);
+    }
+
+    private static void printTest(Object expected, Object actual, String test) {
+        if (!expected.equals(actual)) {
+            if (VERBOSE) {
+                System.out.println("FAILED! " + test + " test.");
+                System.out.println("\texpected: " + expected.toString());
+                System.out.println("\tactual: " + actual.toString());
+            }
+            failedTests++;
+        }
+        numTests++;
+    }
+
+    /**
+     * Tests for CsrGraph and the CsrGraph overloads of dijkstraInt and dijkstraDouble
+     */
+    private static void csrTests() {
+        ArrayList<ShortestPath.Vertex<Integer, Integer>> expected = ShortestPath.dijkstraInt(I_MATRIX, 0);
+
+        CsrGraph fromMatrix = CsrGraph.fromMatrix(I_MATRIX);
+        printTest(5, fromMatrix.vertexCount(), "CsrGraph vertexCount");
+        printTest(12, fromMatrix.edgeCount(), "CsrGraph edgeCount");
+        printTest(3, fromMatrix.outDegree(2), "CsrGraph outDegree");
+        printTest(expected.toString(), ShortestPath.dijkstraInt(fromMatrix, 0).toString(), "dijkstraInt(CsrGraph) from matrix");
+
+        String[] labels = new String[I_MATRIX.length];
+        for (int i = 0; i < labels.length; i++) {
+            labels[i] = getLabel(i);
+        }
+        CsrGraph fromList = CsrGraph.fromAdjListInt(ShortestPath.toAdjList(I_MATRIX, labels), labels);
+        for (int i = 0; i < labels.length; i++) {
+            printTest(expected.get(i).getDistance(), ShortestPath.dijkstraInt(fromList, 0).get(i).getDistance(),
+                    "dijkstraInt(CsrGraph) from adjacency list, vertex " + i);
+        }
+
+        CsrGraph fromEdges = CsrGraph.fromEdges(4, new int[] { 0, 0, 1, 2 }, new int[] { 1, 2, 3, 3 },
+                new double[] { 1.5, 0.5, 1.0, 2.5 });
+        ArrayList<ShortestPath.Vertex<Integer, Double>> ret = ShortestPath.dijkstraDouble(fromEdges, 0);
+        printTest(2.5, ret.get(3).getDistance(), "dijkstraDouble(CsrGraph) distance");
+        printTest("3 <- 1 <- 0", ret.get(3).getPath(), "dijkstraDouble(CsrGraph) path");
+        printTest(Double.MAX_VALUE, ShortestPath.dijkstraDouble(fromEdges, 3).get(0).getDistance(),
+                "dijkstraDouble(CsrGraph) unreachable");
+
+        CsrGraph reversed = fromEdges.reverse();
+        printTest(2, reversed.outDegree(3), "CsrGraph reverse outDegree");
+        printTest(2.5, ShortestPath.dijkstraDouble(reversed, 3).get(0).getDistance(), "dijkstraDouble(CsrGraph) reversed");
+
+        String thrown = "none";
+        try {
+            ShortestPath.dijkstraInt(fromEdges, 0);
+        } catch (IllegalArgumentException e) {
+            thrown = "IllegalArgumentException";
+        }
+        printTest("IllegalArgumentException", thrown, "dijkstraInt(CsrGraph) with double weights");
+    }
+
+    /**
+     * Tests for dijkstraIntTree, dijkstraDoubleTree and ShortestPathTree
+     */
+    private static void treeTests() {
+        Integer[][] boxed = new Integer[I_MATRIX.length][I_MATRIX.length];
+        double[][] dMatrix = new double[I_MATRIX.length][I_MATRIX.length];
+        for (int i = 0; i < I_MATRIX.length; i++) {
+            for (int j = 0; j < I_MATRIX.length; j++) {
+                boxed[i][j] = I_MATRIX[i][j];
+                dMatrix[i][j] = I_MATRIX[i][j] / 2.0;
+            }
+        }
+        ArrayList<ShortestPath.Vertex<Integer, Integer>> expected = ShortestPath.dijkstraInt(boxed, 0);
+
+        ShortestPathTree tree = ShortestPath.dijkstraIntTree(I_MATRIX, 0);
+        printTest(true, tree.isIntWeighted(), "isIntWeighted");
+        printTest(expected.toString(), tree.toIntVertices().toString(), "toIntVertices");
+        for (int v = 0; v < I_MATRIX.length; v++) {
+            printTest(expected.get(v).getDistance(), tree.getIntDistance(v), "getIntDistance " + v);
+            printTest(expected.get(v).getPath(), tree.getIntVertex(v).getPath(), "getIntVertex " + v);
+        }
+        printTest(ShortestPathTree.NO_VERTEX, tree.getPrevious(0), "getPrevious of source");
+        printTest(3, tree.getPrevious(1), "getPrevious");
+
+        ShortestPathTree dTree = ShortestPath.dijkstraDoubleTree(dMatrix, 0);
+        for (int v = 0; v < I_MATRIX.length; v++) {
+            printTest(expected.get(v).getDistance() / 2.0, dTree.getDistance(v), "getDistance " + v);
+        }
+        printTest(expected.get(4).getPath(), dTree.getDoubleVertex(4).getPath(), "getDoubleVertex");
+
+        int[][] disconnected = { { 0, 1, 0 }, { 0, 0, 0 }, { 0, 0, 0 } };
+        ShortestPathTree partial = ShortestPath.dijkstraIntTree(disconnected, 0);
+        printTest(false, partial.isReachable(2), "isReachable");
+        printTest(Double.POSITIVE_INFINITY, partial.getDistance(2), "getDistance unreachable");
+        printTest(Integer.MAX_VALUE, ShortestPath.dijkstraInt(disconnected, 0).get(2).getDistance(), "dijkstraInt unreachable");
+    }
+
+    /**
+     * Tests for shortestPath and BidirectionalDijkstra
+     */
+    private static void pointToPointTests() {
+        PathResult ret = ShortestPath.shortestPath(I_MATRIX, 0, 1);
+        printTest(8.0, ret.getDistance(), "shortestPath distance");
+        printTest("[0, 3, 1]", Arrays.toString(ret.getPath()), "shortestPath path");
+        printTest("[2]", Arrays.toString(ShortestPath.shortestPath(I_MATRIX, 2, 2).getPath()), "shortestPath source is target");
+
+        int[][] disconnected = { { 0, 1, 0 }, { 0, 0, 0 }, { 0, 0, 0 } };
+        printTest(false, ShortestPath.shortestPath(disconnected, 0, 2).isReachable(), "shortestPath unreachable");
+
+        Random rand = new Random(4);
+        for (int trial = 0; trial < 5; trial++) {
+            CsrGraph graph = randomGraph(rand, 300, 3);
+            BidirectionalDijkstra engine = new BidirectionalDijkstra(graph);
+            for (int q = 0; q < 20; q++) {
+                int src = rand.nextInt(300);
+                int dst = rand.nextInt(300);
+                ShortestPathTree tree = ShortestPath.dijkstraDoubleTree(graph, src);
+                PathResult path = engine.query(src, dst);
+                printTest(tree.getDistance(dst), path.getDistance(), "BidirectionalDijkstra distance " + src + " -> " + dst);
+                printTest(tree.getDistance(dst), pathWeight(graph, path.getPath()), "BidirectionalDijkstra path weight " + src + " -> " + dst);
+            }
+        }
+    }
+
+    /**
+     * Tests for the BucketQueue and RadixHeap engines which dijkstraIntTree
+     * chooses for non-negative Integer weights, against the IndexedMinHeap
+     */
+    private static void monotoneQueueTests() {
+        CsrGraph grid = GraphExperiments.randomGrid(60, 7);
+        Random rand = new Random(8);
+        int n = 3000;
+        int[] sources = new int[3 * n];
+        int[] targets = new int[3 * n];
+        int[] weights = new int[3 * n];
+        for (int e = 0; e < sources.length; e++) {
+            sources[e] = e / 3;
+            targets[e] = rand.nextInt(n);
+            weights[e] = rand.nextInt(1000000);
+        }
+        CsrGraph heavy = CsrGraph.fromEdges(n, sources, targets, weights);
+
+        CsrGraph[] graphs = { grid, grid, heavy, heavy };
+        MonotoneQueue[] queues = { new BucketQueue(grid.vertexCount(), 100), new RadixHeap(grid.vertexCount()), new RadixHeap(n), null };
+        String[] names = { "bucket queue", "radix heap", "radix heap (large weights)", "automatic (large weights)" };
+        for (int i = 0; i < graphs.length; i++) {
+            int src = rand.nextInt(graphs[i].vertexCount());
+            ShortestPathTree expected = ShortestPath.dijkstraIntTree(graphs[i], src, null);
+            ShortestPathTree actual = queues[i] == null ? ShortestPath.dijkstraIntTree(graphs[i], src) : ShortestPath.dijkstraIntTree(graphs[i], src, queues[i]);
+            int wrong = 0;
+            for (int v = 0; v < graphs[i].vertexCount(); v++) {
+                if (expected.getIntDistance(v) != actual.getIntDistance(v)) {
+                    wrong++;
+                }
+            }
+            printTest(0, wrong, names[i] + " distances");
+        }
+
+        int[][] zeroes = {
+            { 0, 4, 1 },
+            { 0, 0, 0 },
+            { 0, 2, 0 } };
+        printTest("[Label: 0 Distance: 0 Path: 0, Label: 1 Distance: 3 Path: 1 <- 2 <- 0, Label: 2 Distance: 1 Path: 2 <- 0]",
+                ShortestPath.dijkstraInt(zeroes, 0).toString(), "dijkstraInt matrix with bucket queue");
+        int[][] negative = {
+            { 0, 4, 1 },
+            { 0, 0, 0 },
+            { 0, -2, 0 } };
+        printTest(-1, ShortestPath.dijkstraIntTree(negative, 0).getIntDistance(1), "dijkstraIntTree negative weight uses heap");
+    }
+
+    /**
+     * Tests for the BFS and 0-1 BFS engines which dijkstraIntTree chooses
+     * for unit and 0/1 weights, against the IndexedMinHeap
+     */
+    private static void bfsTests() {
+        Random rand = new Random(9);
+        int n = 2000;
+        int[] sources = new int[3 * n];
+        int[] targets = new int[3 * n];
+        int[] units = new int[3 * n];
+        int[] binary = new int[3 * n];
+        for (int e = 0; e < sources.length; e++) {
+            sources[e] = e / 3;
+            targets[e] = rand.nextInt(n);
+            units[e] = 1;
+            binary[e] = rand.nextInt(2);
+        }
+        CsrGraph[] graphs = { CsrGraph.fromEdges(n, sources, targets, units), CsrGraph.fromEdges(n, sources, targets, binary) };
+        String[] names = { "bfs", "0-1 bfs" };
+        for (int i = 0; i < graphs.length; i++) {
+            for (int src = 0; src < n; src += 499) {
+                ShortestPathTree expected = ShortestPath.dijkstraIntTree(graphs[i], src, null);
+                ShortestPathTree actual = ShortestPath.dijkstraIntTree(graphs[i], src);
+                int wrong = 0;
+                for (int v = 0; v < n; v++) {
+                    if (expected.getIntDistance(v) != actual.getIntDistance(v)) {
+                        wrong++;
+                    } else if (v != src && actual.isReachable(v)) {
+                        int step = actual.getIntDistance(v) - actual.getIntDistance(actual.getPrevious(v));
+                        if (step != 1 && (i == 0 || step != 0)) {
+                            wrong++;
+                        }
+                    }
+                }
+                printTest(0, wrong, names[i] + " distances and predecessors from " + src);
+            }
+        }
+
+        int[][] unit = new int[I_MATRIX.length][I_MATRIX.length];
+        Integer[][] boxed = new Integer[I_MATRIX.length][I_MATRIX.length];
+        for (int i = 0; i < unit.length; i++) {
+            for (int j = 0; j < unit.length; j++) {
+                unit[i][j] = I_MATRIX[i][j] == 0 ? 0 : 1;
+                boxed[i][j] = unit[i][j];
+            }
+        }
+        ArrayList<ShortestPath.Vertex<Integer, Integer>> expected = ShortestPath.dijkstraInt(boxed, 0);
+        ArrayList<ShortestPath.Vertex<Integer, Integer>> actual = ShortestPath.dijkstraInt(unit, 0);
+        for (int v = 0; v < unit.length; v++) {
+            printTest(expected.get(v).getDistance(), actual.get(v).getDistance(), "matrix bfs distance of " + v);
+        }
+        printTest("Label: 4 Distance: 2 Path: 4 <- 2 <- 0", actual.get(4).toString(), "matrix bfs vertex");
+
+        CsrGraph zeroes = CsrGraph.fromEdges(3, new int[] { 0, 1 }, new int[] { 1, 2 }, new int[] { 0, 0 });
+        printTest(0, ShortestPath.dijkstraIntTree(zeroes, 0).getIntDistance(2), "0-1 bfs zero weights");
+        printTest(false, ShortestPath.dijkstraIntTree(zeroes, 2).isReachable(0), "0-1 bfs unreachable");
+    }
+
+    /**
+     * Tests for dijkstraTree(CsrGraph graph, int src, SearchOptions options)
+     */
+    private static void searchOptionsTests() {
+        CsrGraph graph = GraphExperiments.randomGrid(50, 10);
+        ShortestPathTree full = ShortestPath.dijkstraIntTree(graph, 1234);
+
+        ShortestPathTree all = ShortestPath.dijkstraTree(graph, 1234, new SearchOptions());
+        int wrong = 0;
+        for (int v = 0; v < graph.vertexCount(); v++) {
+            if (full.getIntDistance(v) != all.getIntDistance(v)) {
+                wrong++;
+            }
+        }
+        printTest(0, wrong, "no options explores everything");
+
+        int[] targets = { 1240, 1300, 1234 };
+        ShortestPathTree early = ShortestPath.dijkstraTree(graph, 1234, new SearchOptions().withTargets(targets));
+        for (int t : targets) {
+            printTest(full.getIntDistance(t), early.getIntDistance(t), "target " + t + " distance");
+        }
+        int reachable = 0;
+        wrong = 0;
+        for (int v = 0; v < graph.vertexCount(); v++) {
+            if (early.isReachable(v)) {
+                reachable++;
+                if (early.getIntDistance(v) != full.getIntDistance(v)) {
+                    wrong++;
+                }
+            }
+        }
+        printTest(0, wrong, "settled vertices have final distances");
+        printTest(true, reachable < graph.vertexCount(), "targets stop the search early");
+        printTest(1240, early.getIntVertex(1240).getLabel(), "target vertex is reachable");
+
+        double radius = 300;
+        ShortestPathTree bounded = ShortestPath.dijkstraTree(graph, 1234, new SearchOptions().withMaxRadius(radius));
+        wrong = 0;
+        for (int v = 0; v < graph.vertexCount(); v++) {
+            boolean inside = full.getDistance(v) <= radius;
+            if (inside != bounded.isReachable(v) || (inside && bounded.getIntDistance(v) != full.getIntDistance(v))) {
+                wrong++;
+            }
+        }
+        printTest(0, wrong, "radius settles exactly the vertices within it");
+
+        ShortestPathTree both = ShortestPath.dijkstraTree(graph, 1234, new SearchOptions().withTargets(0).withMaxRadius(radius));
+        printTest(full.getDistance(0) <= radius, both.isReachable(0), "far target beyond radius");
+
+        ShortestPathTree none = ShortestPath.dijkstraTree(graph, 7, new SearchOptions().withTargets());
+        printTest(0, none.getIntDistance(7), "empty targets settles the source");
+        printTest(false, none.isReachable(8), "empty targets settles nothing else");
+
+        CsrGraph doubles = randomGraph(new Random(11), 200, 3);
+        ShortestPathTree tree = ShortestPath.dijkstraTree(doubles, 0, new SearchOptions().withTargets(5));
+        printTest(false, tree.isIntWeighted(), "double graph gives a double tree");
+        printTest(ShortestPath.dijkstraDoubleTree(doubles, 0).getDistance(5), tree.getDistance(5), "double graph target distance");
+
+        String thrown = "none";
+        try {
+            new SearchOptions().withMaxRadius(-1);
+        } catch (IllegalArgumentException e) {
+            thrown = "IllegalArgumentException";
+        }
+        printTest("IllegalArgumentException", thrown, "negative radius");
+
+        thrown = "none";
+        try {
+            ShortestPath.dijkstraTree(graph, 0, new SearchOptions().withTargets(graph.vertexCount()));
+        } catch (IllegalArgumentException e) {
+            thrown = "IllegalArgumentException";
+        }
+        printTest("IllegalArgumentException", thrown, "invalid target");
+    }
+
+    /**
+     * Tests for LabelIndex, LabeledGraph and the adjacency list overloads
+     * of dijkstraInt and dijkstraDouble which run on them
+     */
+    private static void labelTests() {
+        LabelIndex<String> index = new LabelIndex<>();
+        printTest(0, index.intern("x"), "intern first label");
+        printTest(1, index.intern("y"), "intern second label");
+        printTest(0, index.intern("x"), "intern existing label");
+        printTest(2, index.size(), "index size");
+        printTest("y", index.getLabel(1), "label of id");
+        printTest(-1, index.indexOf("z"), "missing label");
+
+        Random rand = new Random(12);
+        for (int trial = 0; trial < 3; trial++) {
+            int[][] matrix = GraphExperiments.randomSparseMatrix(200, trial);
+            String[] labels = new String[matrix.length];
+            double[][] doubles = new double[matrix.length][matrix.length];
+            Map<String, Integer> position = new HashMap<>();
+            for (int i = 0; i < labels.length; i++) {
+                labels[i] = getLabel(i);
+                position.put(labels[i], i);
+                for (int j = 0; j < matrix.length; j++) {
+                    doubles[i][j] = matrix[i][j] / 4.0;
+                }
+            }
+            LabeledGraph<String> intGraph = LabeledGraph.fromAdjListInt(ShortestPath.toAdjList(matrix, labels));
+            LabeledGraph<String> doubleGraph = LabeledGraph.fromAdjListDouble(ShortestPath.toAdjList(doubles, labels));
+            for (int q = 0; q < 3; q++) {
+                int src = rand.nextInt(matrix.length);
+                ArrayList<ShortestPath.Vertex<Integer, Integer>> expected = ShortestPath.dijkstraInt(matrix, src);
+                Map<String, ShortestPath.Vertex<String, Integer>> actual = ShortestPath.dijkstraInt(intGraph, labels[src]);
+                ArrayList<ShortestPath.Vertex<Integer, Double>> expectedDouble = ShortestPath.dijkstraDouble(doubles, src);
+                Map<String, ShortestPath.Vertex<String, Double>> actualDouble = ShortestPath.dijkstraDouble(doubleGraph, labels[src]);
+                int wrong = 0;
+                for (int v = 0; v < matrix.length; v++) {
+                    ShortestPath.Vertex<String, Integer> vertex = actual.get(labels[v]);
+                    int weight = 0;
+                    for (ShortestPath.Vertex<String, Integer> u = vertex; u.getPrevious() != null; u = u.getPrevious()) {
+                        weight += matrix[position.get(u.getPrevious().getLabel())][position.get(u.getLabel())];
+                    }
+                    if (!expected.get(v).getDistance().equals(vertex.getDistance())
+                            || (vertex.getPrevious() != null && weight != vertex.getDistance())
+                            || !expectedDouble.get(v).getDistance().equals(actualDouble.get(labels[v]).getDistance())) {
+                        wrong++;
+                    }
+                }
+                printTest(0, wrong, "labeled graph distances from " + labels[src]);
+            }
+        }
+
+        Map<String, Map<String, Integer>> list = new HashMap<>();
+        list.put("a", new HashMap<>());
+        list.get("a").put("b", 4);
+        list.get("a").put("sink", 1);
+        list.get("a").put("skipped", 0);
+        list.put("b", new HashMap<>());
+        list.get("b").put("a", 2);
+        LabeledGraph<String> graph = LabeledGraph.fromAdjListInt(list);
+        printTest(4, graph.getIndex().size(), "targets which are not keys are interned");
+        printTest(3, graph.getGraph().edgeCount(), "zero weights are not edges");
+        Map<String, ShortestPath.Vertex<String, Integer>> result = ShortestPath.dijkstraInt(list, "b");
+        printTest("sink <- a <- b", result.get("sink").getPath(), "path to a target which is not a key");
+        printTest(3, result.get("sink").getDistance(), "distance to a target which is not a key");
+        printTest(Integer.MAX_VALUE, result.get("skipped").getDistance(), "zero weight edge is not followed");
+        printTest(true, result.get("skipped").getPrevious() == null, "unreachable vertex has no previous");
+
+        String thrown = "none";
+        try {
+            ShortestPath.dijkstraInt(graph, "missing");
+        } catch (IllegalArgumentException e) {
+            thrown = "IllegalArgumentException";
+        }
+        printTest("IllegalArgumentException", thrown, "labeled graph missing source");
+
+        thrown = "none";
+        try {
+            ShortestPath.dijkstraInt(LabeledGraph.fromAdjListDouble(ShortestPath.toAdjList(new double[][] { { 0, 1.5 }, { 0, 0 } }, new String[] { "a", "b" })), "a");
+        } catch (IllegalArgumentException e) {
+            thrown = "IllegalArgumentException";
+        }
+        printTest("IllegalArgumentException", thrown, "dijkstraInt on double labeled graph");
+
+        thrown = "none";
+        try {
+            LabeledGraph.fromAdjListInt(null);
+        } catch (NullPointerException e) {
+            thrown = "NullPointerException";
+        }
+        printTest("NullPointerException", thrown, "labeled graph null list");
+    }
+
+    /**
+     * Tests for getPath, getPathLength and getPathLabels of Vertex and
+     * getPath of ShortestPathTree, including a path of 100000 hops
+     */
+    private static void pathTests() {
+        ArrayList<ShortestPath.Vertex<Integer, Integer>> vertices = ShortestPath.dijkstraInt(I_MATRIX, 0);
+        ShortestPath.Vertex<Integer, Integer> four = vertices.get(4);
+        printTest("4 <- 2 <- 0", four.getPath(), "getPath");
+        printTest(3, four.getPathLength(), "getPathLength");
+        StringBuilder labels = new StringBuilder();
+        for (Integer label : four.getPathLabels()) {
+            labels.append(label);
+        }
+        printTest("420", labels.toString(), "getPathLabels");
+        printTest(1, vertices.get(0).getPathLength(), "getPathLength of source");
+        printTest("[0, 2, 4]", Arrays.toString(ShortestPath.dijkstraIntTree(I_MATRIX, 0).getPath(4)), "tree getPath");
+
+        int n = 100000;
+        int[] sources = new int[n - 1];
+        int[] targets = new int[n - 1];
+        int[] weights = new int[n - 1];
+        for (int e = 0; e < n - 1; e++) {
+            sources[e] = e;
+            targets[e] = e + 1;
+            weights[e] = 2;
+        }
+        CsrGraph chain = CsrGraph.fromEdges(n, sources, targets, weights);
+        ShortestPathTree tree = ShortestPath.dijkstraIntTree(chain, 0);
+        int[] path = tree.getPath(n - 1);
+        printTest(n, path.length, "long tree path length");
+        printTest(n - 1, path[n - 1], "long tree path end");
+        printTest(0, tree.getPath(n - 1)[0], "long tree path start");
+
+        ShortestPath.Vertex<Integer, Integer> last = tree.toIntVertices().get(n - 1);
+        String formatted = last.getPath();
+        printTest(true, formatted.startsWith((n - 1) + " <- " + (n - 2)), "long getPath start");
+        printTest(true, formatted.endsWith("1 <- 0"), "long getPath end");
+        printTest(n, last.getPathLength(), "long getPathLength");
+        printTest(true, last.toString().endsWith(formatted), "long toString");
+        int count = 0;
+        for (Integer label : last.getPathLabels()) {
+            if (label != n - 1 - count) {
+                break;
+            }
+            count++;
+        }
+        printTest(n, count, "long getPathLabels");
+
+        CsrGraph split = CsrGraph.fromEdges(2, new int[] { 0 }, new int[] { 1 }, new int[] { 1 });
+        printTest(0, ShortestPath.dijkstraIntTree(split, 1).getPath(0).length, "tree getPath unreachable");
+    }
+
+    /**
+     * Builds a random graph with double weights.
+     *
+     * @param rand the random number generator
+     * @param n the number of vertices
+     * @param degree the number of outgoing edges of each vertex
+     * @return the graph
+     */
+    static CsrGraph randomGraph(Random rand, int n, int degree) {
+        int[] sources = new int[n * degree];
+        int[] targets = new int[n * degree];
+        double[] weights = new double[n * degree];
+        for (int e = 0; e < sources.length; e++) {
+            sources[e] = e / degree;
+            targets[e] = rand.nextInt(n);
+            weights[e] = 1 + rand.nextInt(20);
+        }
+        return CsrGraph.fromEdges(n, sources, targets, weights);
+    }
+
+    /**
+     * Returns the weight of a path, using the lightest edge between each
+     * pair of vertices, or positive infinity for an empty path.
+     *
+     * @param graph the graph
+     * @param path the vertices of the path
+     * @return the weight of the path
+     */
+    static double pathWeight(CsrGraph graph, int[] path) {
+        if (path.length == 0) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double total = 0.0;
+        for (int i = 0; i + 1 < path.length; i++) {
+            double best = Double.POSITIVE_INFINITY;
+            for (int e = graph.getOffsets()[path[i]]; e < graph.getOffsets()[path[i] + 1]; e++) {
+                if (graph.getTargets()[e] == path[i + 1]) {
+                    best = Math.min(best, graph.getWeight(e));
+                }
+            }
+            total += best;
+        }
+        return total;
     }
 
     private static String getLabel(int i) {
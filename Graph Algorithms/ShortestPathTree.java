@@ -0,0 +1,308 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * The result of a single-source shortest path search over vertices
+ * numbered 0 to V - 1, stored as primitive distance and predecessor
+ * arrays. ShortestPath.Vertex objects are only built when they are
+ * requested, so a search which is only interested in a few distances
+ * does not pay for V vertex objects.
+ *
+ * A tree is either int weighted, in which case its distances are stored
+ * as ints, or double weighted.
+ */
+public class ShortestPathTree {
+    /** The predecessor of the source and of unreachable vertices. */
+    public final static int NO_VERTEX = -1;
+
+    private final int source;
+    private final double[] dist;
+    private final int[] intDist;
+    private final int[] prev;
+
+    /**
+     * Constructs a double weighted tree.
+     *
+     * @param source the source vertex
+     * @param dist the distance of each vertex, positive infinity if unreachable
+     * @param prev the predecessor of each vertex, NO_VERTEX if there is none
+     */
+    ShortestPathTree(int source, double[] dist, int[] prev) {
+        this.source = source;
+        this.dist = dist;
+        this.intDist = null;
+        this.prev = prev;
+    }
+
+    /**
+     * Constructs an int weighted tree.
+     *
+     * @param source the source vertex
+     * @param intDist the distance of each vertex, Integer.MAX_VALUE if unreachable
+     * @param prev the predecessor of each vertex, NO_VERTEX if there is none
+     */
+    ShortestPathTree(int source, int[] intDist, int[] prev) {
+        this.source = source;
+        this.dist = null;
+        this.intDist = intDist;
+        this.prev = prev;
+    }
+
+    /**
+     * Builds the tree of a search which only computed distances, by
+     * following tight edges (edges u -> v with dist[u] + w = dist[v]) out
+     * of the source breadth first. Every vertex reached this way gets a
+     * predecessor whose path has exactly its distance, even if the graph
+     * has zero-weight cycles.
+     *
+     * @param graph the graph which was searched
+     * @param src the source vertex
+     * @param dist the final distance of each vertex, positive infinity if unreachable
+     * @return the tree, int weighted if the graph is
+     */
+    static ShortestPathTree fromDistances(CsrGraph graph, int src, double[] dist) {
+        int n = graph.vertexCount();
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        int[] prev = new int[n];
+        Arrays.fill(prev, NO_VERTEX);
+        boolean[] reached = new boolean[n];
+        int[] queue = new int[n];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = src;
+        reached[src] = true;
+        while (head < tail) {
+            int u = queue[head++];
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                int v = targets[e];
+                if (!reached[v] && dist[u] + graph.getWeight(e) == dist[v]) {
+                    reached[v] = true;
+                    prev[v] = u;
+                    queue[tail++] = v;
+                }
+            }
+        }
+
+        if (!graph.isIntWeighted()) {
+            return new ShortestPathTree(src, dist, prev);
+        }
+        int[] intDist = new int[n];
+        for (int v = 0; v < n; v++) {
+            intDist[v] = dist[v] == Double.POSITIVE_INFINITY ? Integer.MAX_VALUE : (int) dist[v];
+        }
+        return new ShortestPathTree(src, intDist, prev);
+    }
+
+    /**
+     * Returns the source vertex of the search.
+     *
+     * @return the source vertex
+     */
+    public int getSource() {
+        return source;
+    }
+
+    /**
+     * Returns the number of vertices in the graph which was searched.
+     *
+     * @return the number of vertices
+     */
+    public int size() {
+        return prev.length;
+    }
+
+    /**
+     * Estimates the memory held by the tree: its arrays plus the headers
+     * of the object and the arrays.
+     *
+     * @return the approximate size in bytes
+     */
+    long sizeInBytes() {
+        return 64 + (intDist != null ? 8L : 12L) * prev.length;
+    }
+
+    /**
+     * Returns true if the distances are stored as ints.
+     *
+     * @return true if the tree is int weighted
+     */
+    public boolean isIntWeighted() {
+        return intDist != null;
+    }
+
+    /**
+     * Returns true if there is a path from the source to a vertex.
+     *
+     * @param v the vertex
+     * @return true if v is reachable
+     */
+    public boolean isReachable(int v) {
+        return intDist != null ? intDist[v] != Integer.MAX_VALUE : dist[v] != Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Returns the shortest distance from the source to a vertex.
+     *
+     * @param v the vertex
+     * @return the distance, or positive infinity if v is unreachable
+     */
+    public double getDistance(int v) {
+        if (intDist != null) {
+            return intDist[v] == Integer.MAX_VALUE ? Double.POSITIVE_INFINITY : intDist[v];
+        }
+        return dist[v];
+    }
+
+    /**
+     * Returns the shortest distance from the source to a vertex of an int
+     * weighted tree.
+     *
+     * @param v the vertex
+     * @return the distance, or Integer.MAX_VALUE if v is unreachable
+     *
+     * @exception IllegalStateException if the tree is not int weighted
+     */
+    public int getIntDistance(int v) {
+        if (intDist == null) {
+            throw new IllegalStateException("tree is not int weighted");
+        }
+        return intDist[v];
+    }
+
+    /**
+     * Returns the vertex before v on the shortest path from the source.
+     *
+     * @param v the vertex
+     * @return the predecessor, or NO_VERTEX for the source and unreachable vertices
+     */
+    public int getPrevious(int v) {
+        return prev[v];
+    }
+
+    /**
+     * Returns the shortest path from the source to a vertex, following
+     * the predecessors without building any vertex objects.
+     *
+     * @param v the vertex
+     * @return the vertices of the path from the source to v, or an empty array if v is unreachable
+     */
+    public int[] getPath(int v) {
+        if (!isReachable(v)) {
+            return new int[0];
+        }
+        int length = 0;
+        for (int u = v; u != NO_VERTEX; u = prev[u]) {
+            length++;
+        }
+        int[] path = new int[length];
+        for (int u = v; u != NO_VERTEX; u = prev[u]) {
+            path[--length] = u;
+        }
+        return path;
+    }
+
+    /**
+     * Builds the vertex object of a single vertex, along with the vertex
+     * objects of its path back to the source.
+     *
+     * @param v the vertex
+     * @return the vertex object
+     */
+    public ShortestPath.Vertex<Integer, Double> getDoubleVertex(int v) {
+        ShortestPath.Vertex<Integer, Double> head = newDoubleVertex(v);
+        ShortestPath.Vertex<Integer, Double> tail = head;
+        for (int u = prev[v]; u != NO_VERTEX; u = prev[u]) {
+            ShortestPath.Vertex<Integer, Double> next = newDoubleVertex(u);
+            tail.setPrevious(next);
+            tail = next;
+        }
+        return head;
+    }
+
+    /**
+     * Builds the vertex object of a single vertex of an int weighted tree,
+     * along with the vertex objects of its path back to the source.
+     *
+     * @param v the vertex
+     * @return the vertex object
+     *
+     * @exception IllegalStateException if the tree is not int weighted
+     */
+    public ShortestPath.Vertex<Integer, Integer> getIntVertex(int v) {
+        ShortestPath.Vertex<Integer, Integer> head = newIntVertex(v);
+        ShortestPath.Vertex<Integer, Integer> tail = head;
+        for (int u = prev[v]; u != NO_VERTEX; u = prev[u]) {
+            ShortestPath.Vertex<Integer, Integer> next = newIntVertex(u);
+            tail.setPrevious(next);
+            tail = next;
+        }
+        return head;
+    }
+
+    /**
+     * Builds the vertex objects of every vertex, in vertex order.
+     *
+     * @return an ArrayList containing vertex objects which contain
+     * the shortest distance and the path to the source node
+     */
+    public ArrayList<ShortestPath.Vertex<Integer, Double>> toDoubleVertices() {
+        ArrayList<ShortestPath.Vertex<Integer, Double>> vertices = new ArrayList<>(prev.length);
+        for (int v = 0; v < prev.length; v++) {
+            vertices.add(newDoubleVertex(v));
+        }
+        for (int v = 0; v < prev.length; v++) {
+            if (prev[v] != NO_VERTEX) {
+                vertices.get(v).setPrevious(vertices.get(prev[v]));
+            }
+        }
+        return vertices;
+    }
+
+    /**
+     * Builds the vertex objects of every vertex of an int weighted tree,
+     * in vertex order.
+     *
+     * @return an ArrayList containing vertex objects which contain
+     * the shortest distance and the path to the source node
+     *
+     * @exception IllegalStateException if the tree is not int weighted
+     */
+    public ArrayList<ShortestPath.Vertex<Integer, Integer>> toIntVertices() {
+        ArrayList<ShortestPath.Vertex<Integer, Integer>> vertices = new ArrayList<>(prev.length);
+        for (int v = 0; v < prev.length; v++) {
+            vertices.add(newIntVertex(v));
+        }
+        for (int v = 0; v < prev.length; v++) {
+            if (prev[v] != NO_VERTEX) {
+                vertices.get(v).setPrevious(vertices.get(prev[v]));
+            }
+        }
+        return vertices;
+    }
+
+    /**
+     * A private helper method to build an unlinked vertex object, using
+     * Double.MAX_VALUE as the distance of unreachable vertices.
+     *
+     * @param v the vertex
+     * @return the vertex object
+     */
+    private ShortestPath.Vertex<Integer, Double> newDoubleVertex(int v) {
+        ShortestPath.Vertex<Integer, Double> vertex = new ShortestPath.Vertex<>(v);
+        vertex.setDistance(isReachable(v) ? getDistance(v) : Double.MAX_VALUE);
+        return vertex;
+    }
+
+    /**
+     * A private helper method to build an unlinked vertex object.
+     *
+     * @param v the vertex
+     * @return the vertex object
+     */
+    private ShortestPath.Vertex<Integer, Integer> newIntVertex(int v) {
+        ShortestPath.Vertex<Integer, Integer> vertex = new ShortestPath.Vertex<>(v);
+        vertex.setDistance(getIntDistance(v));
+        return vertex;
+    }
+}
@@ -0,0 +1,37 @@
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * The MinPlus kernel on the jdk.incubator.vector API, which lowers as many
+ * cells at once as the widest vector of the processor holds.
+ *
+ * The incubator module is not resolved by default, so this class is kept
+ * out of the main source directory and compiled and run separately:
+ *
+ *      javac --add-modules jdk.incubator.vector -cp out -d out vector/VectorMinPlusKernel.java
+ *      java --add-modules jdk.incubator.vector -cp out ...
+ *
+ * MinPlus loads it by name and falls back to its scalar kernel if either
+ * step was skipped.
+ */
+public class VectorMinPlusKernel implements MinPlus.Kernel {
+    private final static VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    @Override
+    public void relax(double[] c, int cFrom, double[] b, int bFrom, double dik, int length) {
+        DoubleVector vik = DoubleVector.broadcast(SPECIES, dik);
+        int bound = SPECIES.loopBound(length);
+        int j = 0;
+        for (; j < bound; j += SPECIES.length()) {
+            DoubleVector d = vik.add(DoubleVector.fromArray(SPECIES, b, bFrom + j));
+            DoubleVector.fromArray(SPECIES, c, cFrom + j).lanewise(VectorOperators.MIN, d).intoArray(c, cFrom + j);
+        }
+        for (; j < length; j++) {
+            double d = dik + b[bFrom + j];
+            if (d < c[cFrom + j]) {
+                c[cFrom + j] = d;
+            }
+        }
+    }
+}